@@ -27,22 +27,28 @@ import baritone.api.utils.SettingsUtil;
  */
 public final class BaritoneAPI {
 
-    private static final IBaritoneProvider provider;
-    private static final Settings settings;
-
-    static {
-        settings = new Settings();
-        SettingsUtil.readAndApply(settings, SettingsUtil.SETTINGS_DEFAULT_NAME);
-
-        try {
-            provider = (IBaritoneProvider) Class.forName("baritone.BaritoneProvider").newInstance();
-        } catch (ReflectiveOperationException ex) {
-            throw new RuntimeException(ex);
+    private static final Settings settings = new Settings();
+
+    /**
+     * Created on first use, which is when the game starts Baritone. The settings file is in the game's directory, so
+     * it's read then too, right before anything that Baritone creates gets to use the settings.
+     */
+    private static final class ProviderHolder {
+
+        private static final IBaritoneProvider provider;
+
+        static {
+            SettingsUtil.readAndApply(settings, SettingsUtil.SETTINGS_DEFAULT_NAME);
+            try {
+                provider = (IBaritoneProvider) Class.forName("baritone.BaritoneProvider").newInstance();
+            } catch (ReflectiveOperationException ex) {
+                throw new RuntimeException(ex);
+            }
         }
     }
 
     public static IBaritoneProvider getProvider() {
-        return BaritoneAPI.provider;
+        return ProviderHolder.provider;
     }
 
     public static Settings getSettings() {
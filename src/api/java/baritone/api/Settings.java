@@ -505,6 +505,25 @@ public final class Settings {
      */
     public final Setting<Integer> costVerificationLookahead = new Setting<>(5);
 
+    /**
+     * When a movement further along the current path becomes impossible, search for a way around just that movement,
+     * back onto the path shortly after it, instead of cancelling and calculating a whole new path
+     * <p>
+     * If no way around is found in time, the path is cancelled like before once the movement is within
+     * {@link #costVerificationLookahead}
+     */
+    public final Setting<Boolean> pathRepair = new Setting<>(false);
+
+    /**
+     * How many positions past the start of the impossible movement a way around it may get back onto the path at
+     */
+    public final Setting<Integer> pathRepairRejoinPositions = new Setting<>(16);
+
+    /**
+     * How long to search for a way around an impossible movement before giving up on it
+     */
+    public final Setting<Long> pathRepairTimeoutMS = new Setting<>(500L);
+
     /**
      * Static cutoff factor. 0.9 means cut off the last 10% of all paths, regardless of chunk load state
      */
@@ -532,6 +551,57 @@ public final class Settings {
      */
     public final Setting<Float> pathingMapLoadFactor = new Setting<>(0.75f);
 
+    /**
+     * Store path nodes in parallel primitive arrays instead of one object per node.
+     * <p>
+     * Allocates far less on long searches (fewer GC pauses on the pathing thread), the resulting paths are the same
+     */
+    public final Setting<Boolean> pathingPrimitiveNodeStore = new Setting<>(false);
+
+    /**
+     * Keep the node store and open set of each pathing thread around between path calculations instead of allocating
+     * new ones every segment. Only applies when {@link #pathingPrimitiveNodeStore} is on.
+     */
+    public final Setting<Boolean> pathingReuseSearchArenas = new Setting<>(true);
+
+    /**
+     * After a calculation, shrink a reused search arena back down if it grew bigger than this many nodes, so that one
+     * huge search doesn't keep hundreds of megabytes allocated forever
+     */
+    public final Setting<Integer> pathingArenaMaxRetainedNodes = new Setting<>(500000);
+
+    /**
+     * How many threads a single path calculation may use. 1 is the normal single threaded A*.
+     * <p>
+     * With more, the best nodes of the open set are taken in batches and their movements are calculated in parallel,
+     * which mostly helps on long trips that would otherwise run out of time. Paths can be very slightly worse, since
+     * a batch can expand nodes that a single thread wouldn't have gotten to yet. Doesn't apply when
+     * {@link #pathingPrimitiveNodeStore} is on, or to processes with their own movement costs (e.g. builder).
+     */
+    public final Setting<Integer> pathingParallelism = new Setting<>(1);
+
+    /**
+     * Remember whether each position a path calculation looks at can be walked on, walked through or passed through
+     * freely, so that neighbouring nodes looking at the same blocks don't each get the block state and work it out
+     * again. Forgotten whenever a block changes or a chunk is loaded or unloaded.
+     */
+    public final Setting<Boolean> pathingPositionFlags = new Setting<>(false);
+
+    /**
+     * Remember how far from the goal the positions a search went through turned out to be, and use that instead of the
+     * heuristic when searching to the same goal again, so that following, farming and mining, which path to the same
+     * goal over and over, don't explore the same area every time.
+     * <p>
+     * What it remembers includes the extra cost of avoiding mobs and of straying from the previous path, so searches
+     * with this on aren't guaranteed to find the cheapest path anymore.
+     */
+    public final Setting<Boolean> pathingHeuristicCache = new Setting<>(false);
+
+    /**
+     * How many positions {@link #pathingHeuristicCache} remembers at most per goal, the ones from the latest search first
+     */
+    public final Setting<Integer> pathingHeuristicCacheSize = new Setting<>(200000);
+
     /**
      * How far are you allowed to fall onto solid ground (without a water bucket)?
      * 3 won't deal any damage. But if you just want to get down the mountain quickly and you have
@@ -563,6 +633,30 @@ public final class Settings {
      */
     public final Setting<Boolean> simplifyUnloadedYCoord = new Setting<>(true);
 
+    /**
+     * For goals far away, first plan a rough route over whole chunks using the chunk cache, then have each path
+     * segment follow it through a corridor of chunks, instead of searching block by block towards the goal directly.
+     * <p>
+     * Chunks that aren't cached are assumed to be passable, so this helps the most when the way there is cached. The
+     * route is planned in the background, segments calculated before it's ready head for the goal directly.
+     */
+    public final Setting<Boolean> pathingChunkRoutes = new Setting<>(false);
+
+    /**
+     * Only plan a chunk route when the goal is at least this many blocks away horizontally
+     */
+    public final Setting<Integer> pathingChunkRouteMinDistance = new Setting<>(1024);
+
+    /**
+     * How many blocks along the chunk route each path segment aims for
+     */
+    public final Setting<Integer> pathingChunkRouteWaypointDistance = new Setting<>(256);
+
+    /**
+     * How many chunks either side of the chunk route a path segment may go through before being penalized
+     */
+    public final Setting<Integer> pathingChunkRouteCorridorRadius = new Setting<>(2);
+
     /**
      * Whenever a block changes, repack the whole chunk that it's in
      */
@@ -628,6 +722,18 @@ public final class Settings {
      */
     public final Setting<Boolean> chunkCaching = new Setting<>(true);
 
+    /**
+     * Blocks whose positions are saved in the cache along with the blocks it always keeps track of, like chests and
+     * portals, so that mining or finding them also finds them in chunks that aren't loaded anymore.
+     * <p>
+     * Only chunks that are cached after a block is added know where it is, so mining still scans the loaded chunks for
+     * it too. Ores are common enough that this makes the cache bigger, so it's best to only add the ones you are actually
+     * after, like {@code diamond_ore}.
+     */
+    public final Setting<List<Block>> cacheIndexedBlocks = new Setting<>(new ArrayList<>(
+            // Leave Empty by Default
+    ));
+
     /**
      * On save, delete from RAM any cached regions that are more than 1024 blocks away from the player
      * <p>
@@ -640,12 +746,19 @@ public final class Settings {
     public final Setting<Boolean> pruneRegionsFromRAM = new Setting<>(true);
 
     /**
-     * The chunk packer queue can never grow to larger than this, if it does, the oldest chunks are discarded
+     * The chunk packer queue can never grow to larger than this, if it does, the chunks farthest from you are discarded
      * <p>
-     * The newest chunks are kept, so that if you're moving in a straight line quickly then stop, your immediate render distance is still included
+     * The closest chunks are kept, so that if you're moving in a straight line quickly then stop, your immediate render distance is still included
      */
     public final Setting<Integer> chunkPackerQueueMaxSize = new Setting<>(2000);
 
+    /**
+     * How many threads pack chunks into the cache. Chunks closest to you, or to your goal, are packed first.
+     * <p>
+     * Only takes effect for worlds loaded after it's changed. {@code #repack stats} shows whether chunks are being dropped.
+     */
+    public final Setting<Integer> chunkPackerThreads = new Setting<>(2);
+
     /**
      * Fill in blocks behind you
      */
@@ -919,6 +1032,12 @@ public final class Settings {
      */
     public final Setting<Integer> mineMaxOreLocationsCount = new Setting<>(64);
 
+    /**
+     * Group known ore locations into veins and mine them one vein at a time, in a planned order, instead of always
+     * heading for whichever single block is closest at the moment.
+     */
+    public final Setting<Boolean> mineVeinTour = new Setting<>(false);
+
     /**
      * Sets the minimum y level whilst mining - set to 0 to turn off.
      * if world has negative y values, subtract the min world height to get the value to put here
@@ -988,6 +1107,12 @@ public final class Settings {
      */
     public final Setting<Boolean> extendCacheOnThreshold = new Setting<>(false);
 
+    /**
+     * Keep the positions of what mine, get to block and farm are looking for in the loaded chunks up to date as chunks
+     * load and blocks change, instead of scanning every loaded chunk again each time they look.
+     */
+    public final Setting<Boolean> incrementalWorldScan = new Setting<>(false);
+
     /**
      * Don't consider the next layer in builder until the current one is done
      */
@@ -1426,6 +1551,19 @@ public final class Settings {
      */
     public final Setting<Integer> elytraPitchRange = new Setting<>(25);
 
+    /**
+     * Simulate all the pitches in {@link #elytraPitchRange} together, a tick at a time, instead of one after another.
+     * Gives the same pitch, but allocates a lot less and only looks at each block once per solve.
+     */
+    public final Setting<Boolean> elytraBatchedSimulation = new Setting<>(true);
+
+    /**
+     * Solve the places along the path that the elytra could fly to on all but one of the cores at once, instead of one
+     * after another. Picks the same one, it's just done sooner when a lot of them have to be tried. How long solving
+     * takes is logged with {@link #elytraChatSpam} whenever it's longer than a tick.
+     */
+    public final Setting<Boolean> elytraParallelSolver = new Setting<>(false);
+
     /**
      * The minimum speed that the player can drop to (in blocks/tick) before a firework is automatically deployed.
      */
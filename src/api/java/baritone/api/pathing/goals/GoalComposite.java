@@ -33,12 +33,30 @@ public class GoalComposite implements Goal {
      */
     private final Goal[] goals;
 
+    /**
+     * The goals bucketed by where they are, only made once this is pathed to, and only if there are enough goals
+     */
+    private volatile GoalCompositeIndex index;
+
     public GoalComposite(Goal... goals) {
         this.goals = goals;
     }
 
+    private GoalCompositeIndex index() {
+        GoalCompositeIndex index = this.index;
+        if (index == null) {
+            // no harm if two threads both make it
+            index = new GoalCompositeIndex(goals);
+            this.index = index;
+        }
+        return index;
+    }
+
     @Override
     public boolean isInGoal(int x, int y, int z) {
+        if (goals.length >= GoalCompositeIndex.MIN_GOALS) {
+            return index().isInGoal(x, y, z);
+        }
         for (Goal goal : goals) {
             if (goal.isInGoal(x, y, z)) {
                 return true;
@@ -49,6 +67,9 @@ public class GoalComposite implements Goal {
 
     @Override
     public double heuristic(int x, int y, int z) {
+        if (goals.length >= GoalCompositeIndex.MIN_GOALS) {
+            return index().heuristic(x, y, z);
+        }
         double min = Double.MAX_VALUE;
         for (Goal g : goals) {
             // TODO technically this isn't admissible...?
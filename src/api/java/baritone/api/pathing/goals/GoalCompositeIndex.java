@@ -0,0 +1,279 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.goals;
+
+import baritone.api.BaritoneAPI;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The goals of a large {@link GoalComposite} bucketed by their x and z, so that it doesn't have to ask every one of them
+ * for every node A* looks at.
+ * <p>
+ * Only {@link GoalBlock}, {@link GoalGetToBlock}, {@link GoalTwoBlocks} and {@link GoalXZ} are bucketed, including
+ * subclasses as long as they don't override the method in question. Those are never in goal more than a block away
+ * from their x and z, and their heuristic is never less than {@link GoalXZ#calculate} to their x and z, which is what
+ * lets whole cells be skipped. Any other goal is asked every time, like before. Either way the answers are exactly the
+ * same as asking every goal.
+ */
+final class GoalCompositeIndex {
+
+    /**
+     * Below this many goals, asking every one of them is about as fast
+     */
+    static final int MIN_GOALS = 32;
+
+    private static final ClassValue<Boolean> KNOWN_IS_IN_GOAL = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return declaredByKnownGoal(type, "isInGoal");
+        }
+    };
+
+    private static final ClassValue<Boolean> KNOWN_HEURISTIC = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return declaredByKnownGoal(type, "heuristic");
+        }
+    };
+
+    private final Grid isInGoalGrid;
+    private final Goal[] isInGoalRest;
+    private final Grid heuristicGrid;
+    private final Goal[] heuristicRest;
+
+    GoalCompositeIndex(Goal[] goals) {
+        List<Goal> isInGoalKnown = new ArrayList<>();
+        List<Goal> isInGoalRest = new ArrayList<>();
+        List<Goal> heuristicKnown = new ArrayList<>();
+        List<Goal> heuristicRest = new ArrayList<>();
+        for (Goal goal : goals) {
+            boolean located = goal instanceof GoalBlock || goal instanceof GoalGetToBlock || goal instanceof GoalTwoBlocks || goal instanceof GoalXZ;
+            (located && KNOWN_IS_IN_GOAL.get(goal.getClass()) ? isInGoalKnown : isInGoalRest).add(goal);
+            (located && KNOWN_HEURISTIC.get(goal.getClass()) ? heuristicKnown : heuristicRest).add(goal);
+        }
+        this.isInGoalGrid = isInGoalKnown.isEmpty() ? null : new Grid(isInGoalKnown);
+        this.isInGoalRest = isInGoalRest.toArray(new Goal[0]);
+        this.heuristicGrid = heuristicKnown.isEmpty() ? null : new Grid(heuristicKnown);
+        this.heuristicRest = heuristicRest.toArray(new Goal[0]);
+    }
+
+    boolean isInGoal(int x, int y, int z) {
+        for (Goal goal : isInGoalRest) {
+            if (goal.isInGoal(x, y, z)) {
+                return true;
+            }
+        }
+        return isInGoalGrid != null && isInGoalGrid.isInGoal(x, y, z);
+    }
+
+    double heuristic(int x, int y, int z) {
+        double min = Double.MAX_VALUE;
+        for (Goal goal : heuristicRest) {
+            min = Math.min(min, goal.heuristic(x, y, z));
+        }
+        return heuristicGrid == null ? min : heuristicGrid.heuristic(x, y, z, min);
+    }
+
+    private static boolean declaredByKnownGoal(Class<?> type, String method) {
+        try {
+            Class<?> declaring = type.getMethod(method, int.class, int.class, int.class).getDeclaringClass();
+            return declaring == GoalBlock.class || declaring == GoalGetToBlock.class || declaring == GoalTwoBlocks.class || declaring == GoalXZ.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static int goalX(Goal goal) {
+        if (goal instanceof GoalBlock) {
+            return ((GoalBlock) goal).x;
+        }
+        if (goal instanceof GoalGetToBlock) {
+            return ((GoalGetToBlock) goal).x;
+        }
+        if (goal instanceof GoalTwoBlocks) {
+            return ((GoalTwoBlocks) goal).x;
+        }
+        return ((GoalXZ) goal).getX();
+    }
+
+    private static int goalZ(Goal goal) {
+        if (goal instanceof GoalBlock) {
+            return ((GoalBlock) goal).z;
+        }
+        if (goal instanceof GoalGetToBlock) {
+            return ((GoalGetToBlock) goal).z;
+        }
+        if (goal instanceof GoalTwoBlocks) {
+            return ((GoalTwoBlocks) goal).z;
+        }
+        return ((GoalXZ) goal).getZ();
+    }
+
+    /**
+     * Goals sorted by square cells of their x and z, over the area they cover
+     */
+    private static final class Grid {
+
+        private static final int MIN_CELL_SHIFT = 2;
+        private static final int MAX_CELL_SHIFT = 26;
+
+        private final int shift;
+        private final int minCellX;
+        private final int minCellZ;
+        private final int cellsX;
+        private final int cellsZ;
+
+        /**
+         * Where each cell's goals start in {@link #goals}, x first, with the end of the last cell at the end
+         */
+        private final int[] cellStart;
+        private final Goal[] goals;
+
+        Grid(List<Goal> goals) {
+            int n = goals.size();
+            int[] xs = new int[n];
+            int[] zs = new int[n];
+            int minX = Integer.MAX_VALUE;
+            int minZ = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE;
+            int maxZ = Integer.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                xs[i] = goalX(goals.get(i));
+                zs[i] = goalZ(goals.get(i));
+                minX = Math.min(minX, xs[i]);
+                minZ = Math.min(minZ, zs[i]);
+                maxX = Math.max(maxX, xs[i]);
+                maxZ = Math.max(maxZ, zs[i]);
+            }
+            // a few goals per cell at most, however spread out they are
+            int shift = MIN_CELL_SHIFT;
+            while (shift < MAX_CELL_SHIFT && (long) ((maxX >> shift) - (minX >> shift) + 1) * ((maxZ >> shift) - (minZ >> shift) + 1) > 4L * n) {
+                shift++;
+            }
+            this.shift = shift;
+            this.minCellX = minX >> shift;
+            this.minCellZ = minZ >> shift;
+            this.cellsX = (maxX >> shift) - minCellX + 1;
+            this.cellsZ = (maxZ >> shift) - minCellZ + 1;
+            this.cellStart = new int[cellsX * cellsZ + 1];
+            int[] cells = new int[n];
+            for (int i = 0; i < n; i++) {
+                cells[i] = cell((xs[i] >> shift) - minCellX, (zs[i] >> shift) - minCellZ);
+                cellStart[cells[i] + 1]++;
+            }
+            for (int i = 0; i < cellsX * cellsZ; i++) {
+                cellStart[i + 1] += cellStart[i];
+            }
+            int[] next = cellStart.clone();
+            this.goals = new Goal[n];
+            for (int i = 0; i < n; i++) {
+                this.goals[next[cells[i]]++] = goals.get(i);
+            }
+        }
+
+        private int cell(int cellX, int cellZ) {
+            return cellZ * cellsX + cellX;
+        }
+
+        boolean isInGoal(int x, int y, int z) {
+            // none of these are in goal more than a block away from their x and z
+            int fromX = Math.max(((x - 1) >> shift) - minCellX, 0);
+            int toX = Math.min(((x + 1) >> shift) - minCellX, cellsX - 1);
+            int fromZ = Math.max(((z - 1) >> shift) - minCellZ, 0);
+            int toZ = Math.min(((z + 1) >> shift) - minCellZ, cellsZ - 1);
+            for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+                for (int cellX = fromX; cellX <= toX; cellX++) {
+                    int cell = cell(cellX, cellZ);
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        if (goals[i].isInGoal(x, y, z)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param min The lowest heuristic so far
+         * @return The lower of that and the lowest heuristic of any of the goals
+         */
+        double heuristic(int x, int y, int z, double min) {
+            double costHeuristic = BaritoneAPI.getSettings().costHeuristic.value;
+            if (!(costHeuristic >= 0)) {
+                // GoalXZ.calculate isn't a lower bound anymore
+                for (Goal goal : goals) {
+                    min = Math.min(min, goal.heuristic(x, y, z));
+                }
+                return min;
+            }
+            int cellX = (x >> shift) - minCellX;
+            int cellZ = (z >> shift) - minCellZ;
+            int outsideX = cellX < 0 ? -cellX : Math.max(cellX - cellsX + 1, 0);
+            int outsideZ = cellZ < 0 ? -cellZ : Math.max(cellZ - cellsZ + 1, 0);
+            int maxRadius = Math.max(Math.max(cellX, cellsX - 1 - cellX), Math.max(cellZ, cellsZ - 1 - cellZ));
+            for (int r = Math.max(outsideX, outsideZ); r <= maxRadius; r++) {
+                if (r > 0) {
+                    // every goal in a cell r away is more than (r - 1) cells of blocks away along x or z, and
+                    // GoalXZ.calculate is at least costHeuristic per block along the longer of the two
+                    double lowerBound = costHeuristic * (((long) (r - 1) << shift) + 1);
+                    if (min <= lowerBound) {
+                        break;
+                    }
+                }
+                int fromX = Math.max(cellX - r, 0);
+                int toX = Math.min(cellX + r, cellsX - 1);
+                if (cellZ - r >= 0 && cellZ - r < cellsZ) {
+                    min = row(fromX, toX, cellZ - r, x, y, z, min);
+                }
+                if (r > 0 && cellZ + r >= 0 && cellZ + r < cellsZ) {
+                    min = row(fromX, toX, cellZ + r, x, y, z, min);
+                }
+                int fromZ = Math.max(cellZ - r + 1, 0);
+                int toZ = Math.min(cellZ + r - 1, cellsZ - 1);
+                if (r > 0 && cellX - r >= 0 && cellX - r < cellsX) {
+                    min = column(cellX - r, fromZ, toZ, x, y, z, min);
+                }
+                if (r > 0 && cellX + r >= 0 && cellX + r < cellsX) {
+                    min = column(cellX + r, fromZ, toZ, x, y, z, min);
+                }
+            }
+            return min;
+        }
+
+        private double row(int fromX, int toX, int cellZ, int x, int y, int z, double min) {
+            // cells in a row are next to each other
+            for (int i = cellStart[cell(fromX, cellZ)]; i < cellStart[cell(toX, cellZ) + 1]; i++) {
+                min = Math.min(min, goals[i].heuristic(x, y, z));
+            }
+            return min;
+        }
+
+        private double column(int cellX, int fromZ, int toZ, int x, int y, int z, double min) {
+            for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+                int cell = cell(cellX, cellZ);
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    min = Math.min(min, goals[i].heuristic(x, y, z));
+                }
+            }
+            return min;
+        }
+    }
+}
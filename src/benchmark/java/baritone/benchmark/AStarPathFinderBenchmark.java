@@ -0,0 +1,116 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.benchmark;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.PathCalculationResult;
+import baritone.pathing.calc.AStarPathFinder;
+import baritone.pathing.movement.CalculationContext;
+import baritone.testing.HeadlessBootstrap;
+import baritone.testing.SyntheticCalculationContext;
+import baritone.testing.SyntheticTerrain;
+import baritone.testing.SyntheticWorld;
+import baritone.utils.pathing.Favoring;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link AStarPathFinder} across each {@link SyntheticTerrain}, from one corner of the world to the other.
+ * <p>
+ * Reports nodes per second as the {@code nodes} counter, and the allocation rate through the gc profiler that
+ * {@code ./gradlew jmh} enables. The cost of the path found is printed after each trial, it should only ever change
+ * when the costs of movements are changed on purpose.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AStarPathFinderBenchmark {
+
+    private static final int SIZE = 160;
+    private static final int HEIGHT = 128;
+
+    /**
+     * Long enough that every search runs to completion, so the result doesn't depend on how fast the machine is
+     */
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+    @Param({"FLAT", "CAVES", "NETHER", "OCEAN", "MOUNTAINS"})
+    public SyntheticTerrain terrain;
+
+    @Param({"false", "true"})
+    public boolean primitiveNodeStore;
+
+    @Param({"false", "true"})
+    public boolean positionFlags;
+
+    private CalculationContext context;
+    private BetterBlockPos start;
+    private GoalXZ goal;
+    private double pathCost;
+    private int pathLength;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        /**
+         * Nodes expanded, reported per second
+         */
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessBootstrap.init();
+        Baritone.settings().pathingPrimitiveNodeStore.value = primitiveNodeStore;
+        Baritone.settings().pathingPositionFlags.value = positionFlags;
+        SyntheticWorld world = terrain.create(SIZE, HEIGHT, SIZE);
+        context = new SyntheticCalculationContext(world);
+        start = terrain.start(world);
+        goal = new GoalXZ(SIZE - 8, SIZE - 8);
+    }
+
+    @Benchmark
+    public IPath calculate(Counters counters) {
+        AStarPathFinder finder = new AStarPathFinder(start, start.x, start.y, start.z, goal, new Favoring(null, context), context);
+        PathCalculationResult result = finder.calculate(TIMEOUT, TIMEOUT);
+        IPath path = result.getPath().orElseThrow(() -> new IllegalStateException(terrain + ": " + result.getType()));
+        counters.nodes += path.getNumNodesConsidered();
+        pathCost = path.ticksRemainingFrom(0);
+        pathLength = path.length();
+        return path;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println();
+        System.out.println(terrain + " path cost " + pathCost + " ticks over " + pathLength + " positions");
+    }
+}
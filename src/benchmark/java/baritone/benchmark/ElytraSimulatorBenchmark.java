@@ -0,0 +1,225 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.benchmark;
+
+import baritone.api.behavior.look.ITickableAimProcessor;
+import baritone.api.utils.Rotation;
+import baritone.api.utils.RotationUtils;
+import baritone.process.elytra.ElytraSimulator;
+import baritone.testing.HeadlessBootstrap;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates the pitches that the elytra solver tries for 20 flight targets ahead of the player, which is what it goes
+ * through in one pass over the path before it relaxes its constraints, through a cavern full of pillars. Once with the
+ * normal pitch range and number of ticks, and once more with every pitch over a few ticks like it does when it's
+ * desperate.
+ * <p>
+ * The solver has to fit in a 50ms tick, and usually runs more than one pass, so this has to stay well below that with
+ * {@code boosted}, which is flying at full firework speed and covers the most blocks. The pitch chosen for each target
+ * is printed after each trial, it has to be the same with and without {@code batched}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ElytraSimulatorBenchmark {
+
+    private static final int SIZE_X = 256;
+    private static final int HEIGHT = 128;
+    private static final int SIZE_Z = 128;
+
+    private static final int TARGETS = 20;
+    private static final int PITCH_RANGE = 25;
+    private static final int TICKS = 20;
+    private static final int DESPERATE_TICKS = 3;
+
+    @Param({"false", "true"})
+    public boolean batched;
+
+    @Param({"false", "true"})
+    public boolean boosted;
+
+    private boolean[] solid;
+    private Vec3 start;
+    private Vec3 motion;
+    private AABB boundingBox;
+    private Vec3[] targets;
+    private float[] chosen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessBootstrap.init();
+        solid = new boolean[SIZE_X * HEIGHT * SIZE_Z];
+        Random rand = new Random(19);
+        for (int x = 0; x < SIZE_X; x++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int y = 0; y < 16; y++) {
+                    solid[index(x, y, z)] = true;
+                    solid[index(x, HEIGHT - 1 - y, z)] = true;
+                }
+            }
+        }
+        for (int i = 0; i < 150; i++) {
+            int px = 40 + rand.nextInt(SIZE_X - 40);
+            int pz = rand.nextInt(SIZE_Z);
+            int radius = 1 + rand.nextInt(3);
+            for (int x = px - radius; x <= px + radius; x++) {
+                for (int z = pz - radius; z <= pz + radius; z++) {
+                    if (x >= 0 && x < SIZE_X && z >= 0 && z < SIZE_Z) {
+                        for (int y = 0; y < HEIGHT; y++) {
+                            solid[index(x, y, z)] = true;
+                        }
+                    }
+                }
+            }
+        }
+        start = new Vec3(20.5, 64, SIZE_Z / 2D + 0.5);
+        motion = boosted ? new Vec3(1.65, 0.05, 0.2) : new Vec3(0.9, -0.1, 0.1);
+        boundingBox = new AABB(start.x - 0.3, start.y, start.z - 0.3, start.x + 0.3, start.y + 0.6, start.z + 0.3);
+        targets = new Vec3[TARGETS];
+        for (int i = 0; i < TARGETS; i++) {
+            targets[i] = new Vec3(start.x + 60 - i * 2.5, start.y + rand.nextInt(21) - 10, start.z + rand.nextInt(41) - 20);
+        }
+        chosen = new float[TARGETS];
+    }
+
+    private static int index(int x, int y, int z) {
+        return (x * SIZE_Z + z) * HEIGHT + y;
+    }
+
+    private boolean passable(int x, int y, int z) {
+        if (x < 0 || x >= SIZE_X || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE_Z) {
+            return true;
+        }
+        return !solid[index(x, y, z)];
+    }
+
+    @Benchmark
+    public float[] solve() {
+        ElytraSimulator simulator = new ElytraSimulator(this::passable);
+        ITickableAimProcessor aim = new DirectAimProcessor();
+        Rotation current = new Rotation(-90, 0);
+        for (int i = 0; i < TARGETS; i++) {
+            Vec3 goalDelta = targets[i].subtract(start);
+            float goodPitch = RotationUtils.calcRotationFromVec3d(start, targets[i], current).getPitch();
+            float pitch = best(simulator, aim, goalDelta, current, pitches(goodPitch, -89, 89, PITCH_RANGE), TICKS, boosted ? TICKS : 0);
+            if (Float.isNaN(pitch)) {
+                pitch = best(simulator, aim, goalDelta, current, pitches(goodPitch, -90, 90, 180), DESPERATE_TICKS, boosted ? DESPERATE_TICKS : 0);
+            }
+            chosen[i] = pitch;
+        }
+        return chosen;
+    }
+
+    /**
+     * @return The pitch that gets closest to the direction of the goal without hitting anything, like the solver picks
+     */
+    private float best(ElytraSimulator simulator, ITickableAimProcessor aim, Vec3 goalDelta, Rotation current,
+                       FloatArrayList pitches, int ticks, int ticksBoosted) {
+        Vec3 goalDirection = goalDelta.normalize();
+        float best = Float.NaN;
+        double bestGoodness = Double.NEGATIVE_INFINITY;
+        if (batched) {
+            simulator.simulateAll(aim, motion, boundingBox, goalDelta, current, pitches, ticks, ticksBoosted, 0);
+            for (int i = 0; i < pitches.size(); i++) {
+                if (simulator.hitSomething(i)) {
+                    continue;
+                }
+                double goodness = goalDirection.dot(simulator.last(i).normalize());
+                if (goodness > bestGoodness) {
+                    bestGoodness = goodness;
+                    best = pitches.getFloat(i);
+                }
+            }
+        } else {
+            for (int i = 0; i < pitches.size(); i++) {
+                List<Vec3> displacement = ElytraSimulator.simulate(this::passable, aim, motion, boundingBox, goalDelta,
+                        current, pitches.getFloat(i), ticks, ticksBoosted, 0);
+                if (displacement == null) {
+                    continue;
+                }
+                double goodness = goalDirection.dot(displacement.get(displacement.size() - 1).normalize());
+                if (goodness > bestGoodness) {
+                    bestGoodness = goodness;
+                    best = pitches.getFloat(i);
+                }
+            }
+        }
+        return best;
+    }
+
+    private static FloatArrayList pitches(float goodPitch, float min, float max, int range) {
+        float minPitch = Math.max(goodPitch - range, min);
+        float maxPitch = Math.min(goodPitch + range, max);
+        FloatArrayList pitches = new FloatArrayList();
+        for (float pitch = goodPitch; pitch <= maxPitch; pitch++) {
+            pitches.add(pitch);
+        }
+        for (float pitch = goodPitch - 1; pitch >= minPitch; pitch--) {
+            pitches.add(pitch);
+        }
+        return pitches;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        StringBuilder sb = new StringBuilder();
+        for (float pitch : chosen) {
+            sb.append(' ').append(pitch);
+        }
+        System.out.println();
+        System.out.println((boosted ? "boosted" : "gliding") + " chosen pitches:" + sb);
+    }
+
+    /**
+     * Looks exactly where it's told to, like the real one does without smoothing or random looking
+     */
+    private static final class DirectAimProcessor implements ITickableAimProcessor {
+
+        @Override
+        public Rotation peekRotation(Rotation desired) {
+            return desired;
+        }
+
+        @Override
+        public ITickableAimProcessor fork() {
+            return this;
+        }
+
+        @Override
+        public void tick() {}
+
+        @Override
+        public void advance(int ticks) {}
+
+        @Override
+        public Rotation nextRotation(Rotation rotation) {
+            return rotation;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.benchmark;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.PathCalculationResult;
+import baritone.pathing.calc.AStarPathFinder;
+import baritone.pathing.movement.CalculationContext;
+import baritone.testing.HeadlessBootstrap;
+import baritone.testing.SyntheticCalculationContext;
+import baritone.testing.SyntheticTerrain;
+import baritone.testing.SyntheticWorld;
+import baritone.utils.pathing.Favoring;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to find a path across a much larger {@link SyntheticWorld} than {@link AStarPathFinderBenchmark} uses, for each
+ * value of {@link baritone.api.Settings#pathingParallelism}. Parallelism 1 is the plain sequential search, so the
+ * speedup is the ratio between that and the others.
+ * <p>
+ * A parallel search can expand nodes in a slightly different order, so the cost of the path found is printed after each
+ * trial too, to check that it stays about the same.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ParallelAStarPathFinderBenchmark {
+
+    private static final int SIZE = 512;
+    private static final int HEIGHT = 128;
+
+    /**
+     * Long enough that every search runs to completion, so the result doesn't depend on how fast the machine is
+     */
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    @Param({"FLAT", "MOUNTAINS", "CAVES"})
+    public SyntheticTerrain terrain;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private CalculationContext context;
+    private BetterBlockPos start;
+    private GoalXZ goal;
+    private double pathCost;
+    private int nodesConsidered;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessBootstrap.init();
+        Baritone.settings().pathingPrimitiveNodeStore.value = false;
+        Baritone.settings().pathingParallelism.value = parallelism;
+        SyntheticWorld world = terrain.create(SIZE, HEIGHT, SIZE);
+        context = new SyntheticCalculationContext(world);
+        start = terrain.start(world);
+        goal = new GoalXZ(SIZE - 8, SIZE - 8);
+    }
+
+    @Benchmark
+    public IPath calculate() {
+        AStarPathFinder finder = new AStarPathFinder(start, start.x, start.y, start.z, goal, new Favoring(null, context), context);
+        PathCalculationResult result = finder.calculate(TIMEOUT, TIMEOUT);
+        IPath path = result.getPath().orElseThrow(() -> new IllegalStateException(terrain + ": " + result.getType()));
+        pathCost = path.ticksRemainingFrom(0);
+        nodesConsidered = path.getNumNodesConsidered();
+        return path;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        Baritone.settings().pathingParallelism.value = 1;
+        System.out.println();
+        System.out.println(terrain + " on " + parallelism + " threads: path cost " + pathCost + " ticks, " + nodesConsidered + " nodes considered");
+    }
+}
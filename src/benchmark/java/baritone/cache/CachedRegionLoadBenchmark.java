@@ -0,0 +1,174 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.utils.BlockUtils;
+import baritone.testing.HeadlessBootstrap;
+import baritone.utils.pathing.PathingBlockType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.util.valueproviders.UniformInt;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.dimension.DimensionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a cache directory of {@link #REGIONS} regions, in the old gzipped format and in the indexed one, and reads one
+ * block out of each region, which is what happens when a path runs into a region that isn't in RAM yet.
+ * <p>
+ * In the {@code baritone.cache} package so that it can make {@link CachedChunk}s without packing real chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CachedRegionLoadBenchmark {
+
+    private static final int REGIONS = 1000;
+
+    /**
+     * Regions are laid out in rows of this many, like a long trip would leave them
+     */
+    private static final int ROW = 40;
+
+    public enum Format {
+        LEGACY,
+        MAPPED
+    }
+
+    @Param({"LEGACY", "MAPPED"})
+    public Format format;
+
+    /**
+     * How many chunks of each region are cached
+     */
+    @Param({"16", "64"})
+    public int chunksPerRegion;
+
+    private DimensionType dimension;
+    private Path directory;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        HeadlessBootstrap.init();
+        dimension = new DimensionType(OptionalLong.empty(), true, false, false, true, 1, true, false, -64, 384, 384,
+                BlockTags.INFINIBURN_OVERWORLD, new ResourceLocation("overworld"), 0,
+                new DimensionType.MonsterSettings(false, true, UniformInt.of(0, 7), 0));
+        directory = Files.createTempDirectory("baritone-cache-benchmark");
+        BitSet data = terrain(dimension.height());
+        BlockState[] overview = new BlockState[256];
+        Arrays.fill(overview, Blocks.GRASS_BLOCK.defaultBlockState());
+        overview[0] = Blocks.WATER.defaultBlockState();
+        Map<String, List<BlockPos>> special = new HashMap<>();
+        special.put(BlockUtils.blockToString(Blocks.CHEST), Collections.singletonList(new BlockPos(3, 40, 5)));
+        for (int r = 0; r < REGIONS; r++) {
+            int regionX = r % ROW;
+            int regionZ = r / ROW;
+            CachedRegion region = new CachedRegion(regionX, regionZ, dimension);
+            for (int c = 0; c < chunksPerRegion; c++) {
+                int chunkX = c & 31;
+                int chunkZ = c >> 5;
+                region.updateCachedChunk(chunkX, chunkZ, new CachedChunk(regionX * 32 + chunkX, regionZ * 32 + chunkZ, dimension.height(), data, overview, special, System.currentTimeMillis()));
+            }
+            if (format == Format.MAPPED) {
+                silently(() -> region.save(directory.toString()));
+            } else {
+                LegacyRegionWriter.write(directory, region, dimension);
+            }
+        }
+    }
+
+    /**
+     * Stone below sea level, air above
+     */
+    private static BitSet terrain(int height) {
+        BitSet data = new BitSet(CachedChunk.size(height));
+        boolean[] bits = PathingBlockType.SOLID.getBits();
+        for (int y = 0; y < 128; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    int index = CachedChunk.getPositionIndex(x, y, z);
+                    data.set(index, bits[0]);
+                    data.set(index + 1, bits[1]);
+                }
+            }
+        }
+        return data;
+    }
+
+    @Setup(Level.Iteration)
+    public void silence() {
+        // every load prints a couple of lines, a thousand of them per invocation would drown out the results
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void unsilence() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public int loadAll() {
+        int found = 0;
+        for (int r = 0; r < REGIONS; r++) {
+            CachedRegion region = new CachedRegion(r % ROW, r / ROW, dimension);
+            region.load(directory.toString());
+            if (region.getBlock(8, 0, 8) != null) {
+                found++;
+            }
+        }
+        if (found != REGIONS) {
+            throw new IllegalStateException("Only found " + found + " of " + REGIONS + " regions");
+        }
+        return found;
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static void silently(Runnable action) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(out);
+        }
+    }
+}
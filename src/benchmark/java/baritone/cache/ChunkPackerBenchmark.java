@@ -0,0 +1,206 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.utils.BlockUtils;
+import baritone.testing.HeadlessBootstrap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs overworld chunks made of sections like the ones a real world has: deepslate and stone with ores and caves,
+ * the surface, and air or water above. Compares {@link ChunkPacker} with packing block by block, the way it did before
+ * it looked at sections as a whole. Whether packing sections as a whole is faster hasn't been measured yet, run
+ * {@code ./gradlew jmh -PjmhArgs="ChunkPackerBenchmark"} to compare the two.
+ * <p>
+ * In the {@code baritone.cache} package so that it can pack sections without a {@link net.minecraft.world.level.Level}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChunkPackerBenchmark {
+
+    private static final int MIN_Y = -64;
+    private static final int HEIGHT = 384;
+    private static final int SEA_LEVEL = 63;
+
+    /**
+     * Different chunks, so that it isn't the same few states every time
+     */
+    private static final int CHUNKS = 16;
+
+    public enum Terrain {
+        PLAINS,
+        OCEAN
+    }
+
+    public enum Packer {
+        PER_BLOCK,
+        SECTIONS
+    }
+
+    @Param({"PLAINS", "OCEAN"})
+    public Terrain terrain;
+
+    @Param({"PER_BLOCK", "SECTIONS"})
+    public Packer packer;
+
+    private LevelChunkSection[][] chunks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessBootstrap.init();
+        Random rand = new Random(4);
+        chunks = new LevelChunkSection[CHUNKS][];
+        for (int i = 0; i < CHUNKS; i++) {
+            chunks[i] = chunk(rand);
+            ChunkPos pos = new ChunkPos(i, 0);
+            if (!Arrays.equals(ChunkPacker.pack(EmptyBlockGetter.INSTANCE, pos, MIN_Y, HEIGHT, chunks[i]).toByteArray(), packPerBlock(pos, chunks[i]).toByteArray())) {
+                throw new IllegalStateException("Packing by section and by block disagree on chunk " + i);
+            }
+        }
+    }
+
+    private LevelChunkSection[] chunk(Random rand) {
+        LevelChunkSection[] sections = new LevelChunkSection[HEIGHT / 16];
+        for (int y0 = 0; y0 < sections.length; y0++) {
+            PalettedContainer<BlockState> states = new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, Blocks.AIR.defaultBlockState(), PalettedContainer.Strategy.SECTION_STATES);
+            for (int y1 = 0; y1 < 16; y1++) {
+                int y = (y0 << 4 | y1) + MIN_Y;
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = block(rand, y, surface(x, z));
+                        if (!state.isAir()) {
+                            states.set(x, y1, z, state);
+                        }
+                    }
+                }
+            }
+            // the biomes aren't looked at when packing
+            sections[y0] = new LevelChunkSection(y0 + (MIN_Y >> 4), states, null);
+        }
+        return sections;
+    }
+
+    private int surface(int x, int z) {
+        return terrain == Terrain.OCEAN ? 40 + (x + z) / 8 : 68 + (x * z) % 3;
+    }
+
+    private BlockState block(Random rand, int y, int surface) {
+        if (y == MIN_Y) {
+            return Blocks.BEDROCK.defaultBlockState();
+        }
+        if (y < 0) {
+            // deep enough that most sections are only deepslate
+            return y < -32 || rand.nextInt(200) != 0 ? Blocks.DEEPSLATE.defaultBlockState() : Blocks.DEEPSLATE_IRON_ORE.defaultBlockState();
+        }
+        if (y < surface - 4) {
+            if (y > 16 && y < 32 && rand.nextInt(4) != 0) {
+                return Blocks.CAVE_AIR.defaultBlockState();
+            }
+            int r = rand.nextInt(100);
+            return r == 0 ? Blocks.COAL_ORE.defaultBlockState() : r == 1 ? Blocks.GRAVEL.defaultBlockState() : Blocks.STONE.defaultBlockState();
+        }
+        if (terrain == Terrain.OCEAN) {
+            return y <= surface ? Blocks.SAND.defaultBlockState() : y <= SEA_LEVEL ? Blocks.WATER.defaultBlockState() : Blocks.AIR.defaultBlockState();
+        }
+        if (y < surface) {
+            return Blocks.DIRT.defaultBlockState();
+        }
+        if (y == surface) {
+            return Blocks.GRASS_BLOCK.defaultBlockState();
+        }
+        if (y == surface + 1 && rand.nextInt(8) == 0) {
+            return rand.nextBoolean() ? Blocks.GRASS.defaultBlockState() : Blocks.DANDELION.defaultBlockState();
+        }
+        return Blocks.AIR.defaultBlockState();
+    }
+
+    @Benchmark
+    public int pack() {
+        int sum = 0;
+        for (int i = 0; i < CHUNKS; i++) {
+            ChunkPos pos = new ChunkPos(i, 0);
+            CachedChunk chunk = packer == Packer.SECTIONS
+                    ? ChunkPacker.pack(EmptyBlockGetter.INSTANCE, pos, MIN_Y, HEIGHT, chunks[i])
+                    : packPerBlock(pos, chunks[i]);
+            sum += chunk.getWalkableColumns();
+        }
+        return sum;
+    }
+
+    /**
+     * How {@link ChunkPacker} used to pack, working out the type of every block on its own
+     */
+    private static CachedChunk packPerBlock(ChunkPos pos, LevelChunkSection[] sections) {
+        Map<String, List<BlockPos>> specialBlocks = new HashMap<>();
+        BitSet bitSet = new BitSet(CachedChunk.size(HEIGHT));
+        for (int y0 = 0; y0 < HEIGHT / 16; y0++) {
+            LevelChunkSection section = sections[y0];
+            if (section == null) {
+                continue;
+            }
+            PalettedContainer<BlockState> bsc = section.getStates();
+            int yReal = y0 << 4;
+            for (int y1 = 0; y1 < 16; y1++) {
+                int y = y1 | yReal;
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        int index = CachedChunk.getPositionIndex(x, y, z);
+                        BlockState state = bsc.get(x, y1, z);
+                        boolean[] bits = ChunkPacker.getPathingBlockType(state, bsc, EmptyBlockGetter.INSTANCE, pos, MIN_Y, x, y, z).getBits();
+                        bitSet.set(index, bits[0]);
+                        bitSet.set(index + 1, bits[1]);
+                        Block block = state.getBlock();
+                        if (CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(block)) {
+                            String name = BlockUtils.blockToString(block);
+                            specialBlocks.computeIfAbsent(name, b -> new ArrayList<>()).add(new BlockPos(x, y + MIN_Y, z));
+                        }
+                    }
+                }
+            }
+        }
+        BlockState[] blocks = new BlockState[256];
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                blocks[z << 4 | x] = Blocks.AIR.defaultBlockState();
+                for (int y = HEIGHT - 1; y >= 0; y--) {
+                    int index = CachedChunk.getPositionIndex(x, y, z);
+                    if (bitSet.get(index) || bitSet.get(index + 1)) {
+                        blocks[z << 4 | x] = sections[y >> 4].getBlockState(x, y & 15, z);
+                        break;
+                    }
+                }
+            }
+        }
+        return new CachedChunk(pos.x, pos.z, HEIGHT, bitSet, blocks, specialBlocks, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.utils.BlockOptionalMetaLookup;
+import baritone.testing.HeadlessBootstrap;
+import baritone.testing.SyntheticPalettedContainer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans a square of loaded chunks for the 64 closest blocks like mining does, for a common block (stone, tens of
+ * thousands in every chunk) and a rare one (diamond ore, a few per chunk). Compares {@link FasterWorldScanner} with
+ * how it used to scan, which was every chunk in parallel into a list of {@link BlockPos} and then keeping the first
+ * 64.
+ * <p>
+ * In the {@code baritone.cache} package so that it can scan sections without a world. The sections are made of
+ * {@link SyntheticPalettedContainer}s, so that their palettes are read the same way as in the game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FasterWorldScannerBenchmark {
+
+    private static final int MIN_Y = -64;
+    private static final int HEIGHT = 384;
+    private static final int MAX = 64;
+
+    /**
+     * Different chunks, repeated over the whole square
+     */
+    private static final int CHUNKS = 16;
+
+    /**
+     * The section at y = -10, where diamonds are
+     */
+    private static final int PLAYER_SECTION = (-10 - MIN_Y) >> 4;
+
+    public enum Target {
+        STONE,
+        DIAMOND_ORE
+    }
+
+    public enum Engine {
+        PER_CHUNK,
+        RINGS
+    }
+
+    @Param({"8", "24"})
+    public int radius;
+
+    @Param({"STONE", "DIAMOND_ORE"})
+    public Target target;
+
+    @Param({"PER_CHUNK", "RINGS"})
+    public Engine engine;
+
+    private LevelChunkSection[][] chunks;
+    private BlockOptionalMetaLookup lookup;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessBootstrap.init();
+        Random rand = new Random(23);
+        chunks = new LevelChunkSection[CHUNKS][];
+        for (int i = 0; i < CHUNKS; i++) {
+            chunks[i] = chunk(rand);
+        }
+        lookup = new BlockOptionalMetaLookup(target == Target.STONE ? Blocks.STONE : Blocks.DIAMOND_ORE);
+        if (!Arrays.equals(rings(), perChunk().stream().mapToLong(BlockPos::asLong).toArray())) {
+            throw new IllegalStateException("Scanning in rings and per chunk found different blocks");
+        }
+    }
+
+    private static LevelChunkSection[] chunk(Random rand) {
+        LevelChunkSection[] sections = new LevelChunkSection[HEIGHT / 16];
+        for (int y0 = 0; y0 < sections.length; y0++) {
+            SyntheticPalettedContainer states = new SyntheticPalettedContainer();
+            for (int y1 = 0; y1 < 16; y1++) {
+                int y = (y0 << 4 | y1) + MIN_Y;
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = block(rand, y);
+                        if (!state.isAir()) {
+                            states.set(x, y1, z, state);
+                        }
+                    }
+                }
+            }
+            sections[y0] = new LevelChunkSection(y0 + (MIN_Y >> 4), states.freeze(), null);
+        }
+        return sections;
+    }
+
+    private static BlockState block(Random rand, int y) {
+        if (y == MIN_Y) {
+            return Blocks.BEDROCK.defaultBlockState();
+        }
+        if (y < 0) {
+            return Blocks.DEEPSLATE.defaultBlockState();
+        }
+        if (y < 64) {
+            return y < 16 && rand.nextInt(2000) == 0 ? Blocks.DIAMOND_ORE.defaultBlockState() : Blocks.STONE.defaultBlockState();
+        }
+        return Blocks.AIR.defaultBlockState();
+    }
+
+    private LevelChunkSection[] sections(ChunkPos pos) {
+        return chunks[Math.floorMod(pos.x * 31 + pos.z, CHUNKS)];
+    }
+
+    @Benchmark
+    public int scan() {
+        return engine == Engine.RINGS ? rings().length : perChunk().size();
+    }
+
+    private long[] rings() {
+        return FasterWorldScanner.scanRings(this::sections, lookup, 0, 0, radius, PLAYER_SECTION, MAX);
+    }
+
+    /**
+     * How {@link FasterWorldScanner} used to scan, everything in every chunk, limited afterwards
+     */
+    private List<BlockPos> perChunk() {
+        Function<ChunkPos, Stream<BlockPos>> scanChunk = pos -> Arrays.stream(FasterWorldScanner.scanChunk(sections(pos), lookup, pos, PLAYER_SECTION, Integer.MAX_VALUE))
+                .mapToObj(BlockPos::of)
+                .collect(Collectors.toList())
+                .stream();
+        return FasterWorldScanner.getChunkRange(0, 0, radius).parallelStream()
+                .flatMap(scanChunk)
+                .limit(MAX)
+                .collect(Collectors.toList());
+    }
+}
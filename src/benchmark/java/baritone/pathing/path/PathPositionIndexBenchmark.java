@@ -0,0 +1,130 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.VecUtils;
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Tuple;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link PathExecutor} does every tick to find out where the player is on a long path: the closest position on
+ * it, and which movement the player's feet are in, looking back and ahead of the current one. By going through every
+ * movement like it used to, and with {@link PathPositionIndex}.
+ * <p>
+ * The path wanders like a long walk over hills would, with the two valid positions of a traverse for every movement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PathPositionIndexBenchmark {
+
+    public enum Lookup {
+        LINEAR,
+        INDEXED
+    }
+
+    @Param({"5000"})
+    public int movements;
+
+    @Param({"LINEAR", "INDEXED"})
+    public Lookup lookup;
+
+    private List<BetterBlockPos> positions;
+    private List<Set<BetterBlockPos>> validPositions;
+    private PathPositionIndex index;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random rand = new Random(5);
+        positions = new ArrayList<>(movements + 1);
+        validPositions = new ArrayList<>(movements);
+        BetterBlockPos pos = new BetterBlockPos(0, 64, 0);
+        positions.add(pos);
+        for (int i = 0; i < movements; i++) {
+            int r = rand.nextInt(10);
+            BetterBlockPos next = r < 6 ? pos.east() : r < 8 ? pos.south() : r == 8 ? pos.north() : pos.east().above(rand.nextBoolean() ? 1 : -1);
+            validPositions.add(ImmutableSet.of(pos, next));
+            positions.add(next);
+            pos = next;
+        }
+        index = new PathPositionIndex(positions, validPositions);
+    }
+
+    /**
+     * One tick somewhere along the path, with the player a bit off center and a few movements ahead of where the
+     * executor thinks they are, so that both the closest position and the skip ahead are needed
+     */
+    @Benchmark
+    public int tick() {
+        int pathPosition = tick++ % (movements - 10);
+        BetterBlockPos feet = positions.get(pathPosition + 5);
+        double x = feet.x + 0.3;
+        double y = feet.y;
+        double z = feet.z + 0.7;
+        if (lookup == Lookup.INDEXED) {
+            Tuple<Double, BlockPos> closest = index.closest(x, y, z);
+            int back = index.firstMovementValidAt(feet, 0, pathPosition);
+            int ahead = index.firstMovementValidAt(feet, pathPosition + 3, positions.size() - 1);
+            return closest.getB().getX() + back + ahead;
+        }
+        Tuple<Double, BlockPos> closest = closestLinear(x, y, z);
+        int back = -1;
+        for (int i = 0; i < pathPosition; i++) {
+            if (validPositions.get(i).contains(feet)) {
+                back = i;
+                break;
+            }
+        }
+        int ahead = -1;
+        for (int i = pathPosition + 3; i < positions.size() - 1; i++) {
+            if (validPositions.get(i).contains(feet)) {
+                ahead = i;
+                break;
+            }
+        }
+        return closest.getB().getX() + back + ahead;
+    }
+
+    private Tuple<Double, BlockPos> closestLinear(double x, double y, double z) {
+        double best = -1;
+        BlockPos bestPos = null;
+        for (Set<BetterBlockPos> valid : validPositions) {
+            for (BlockPos pos : valid) {
+                double dist = VecUtils.distanceToCenter(pos, x, y, z);
+                if (dist < best || best == -1) {
+                    best = dist;
+                    bestPos = pos;
+                }
+            }
+        }
+        return new Tuple<>(best, bestPos);
+    }
+}
@@ -22,11 +22,17 @@ import baritone.utils.accessor.IClientChunkProvider;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
 import net.minecraft.client.multiplayer.ClientChunkCache;
 import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
 
 @Mixin(ClientChunkCache.class)
 public class MixinClientChunkProvider implements IClientChunkProvider {
@@ -35,6 +41,56 @@ public class MixinClientChunkProvider implements IClientChunkProvider {
     @Shadow
     ClientLevel level;
 
+    /**
+     * The copy handed out by {@link #threadSafeSnapshot()}, null once anything it copied changed. Only touched on the
+     * game thread, which is the one the chunk packets are handled on too.
+     */
+    @Unique
+    private ClientChunkCache snapshot;
+
+    @Override
+    public ClientChunkCache threadSafeSnapshot() {
+        ClientChunkCache snapshot = this.snapshot;
+        if (snapshot == null) {
+            snapshot = createThreadSafeCopy();
+            this.snapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    @Inject(
+            method = "drop",
+            at = @At("HEAD")
+    )
+    private void onDrop(int x, int z, CallbackInfo ci) {
+        snapshot = null;
+    }
+
+    @Inject(
+            method = "replaceWithPacketData",
+            at = @At("HEAD")
+    )
+    private void onReplaceWithPacketData(CallbackInfoReturnable<LevelChunk> cir) {
+        snapshot = null;
+    }
+
+    @Inject(
+            method = "updateViewCenter",
+            at = @At("HEAD")
+    )
+    private void onUpdateViewCenter(int x, int z, CallbackInfo ci) {
+        // chunks that end up out of range are dropped without going through drop
+        snapshot = null;
+    }
+
+    @Inject(
+            method = "updateViewRadius",
+            at = @At("HEAD")
+    )
+    private void onUpdateViewRadius(int radius, CallbackInfo ci) {
+        snapshot = null;
+    }
+
     @Override
     public ClientChunkCache createThreadSafeCopy() {
         IChunkArray arr = extractReferenceArray();
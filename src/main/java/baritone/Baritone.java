@@ -70,6 +70,7 @@ public class Baritone implements IBaritone {
     private final LookBehavior lookBehavior;
     private final InventoryBehavior inventoryBehavior;
     private final InputOverrideHandler inputOverrideHandler;
+    private final WorldScanBehavior worldScanBehavior;
 
     private final FollowProcess followProcess;
     private final MineProcess mineProcess;
@@ -110,6 +111,7 @@ public class Baritone implements IBaritone {
             this.inventoryBehavior    = this.registerBehavior(InventoryBehavior::new);
             this.inputOverrideHandler = this.registerBehavior(InputOverrideHandler::new);
             this.registerBehavior(WaypointBehavior::new);
+            this.worldScanBehavior    = this.registerBehavior(WorldScanBehavior::new);
         }
 
         this.pathingControlManager = new PathingControlManager(this);
@@ -186,6 +188,10 @@ public class Baritone implements IBaritone {
         return this.inventoryBehavior;
     }
 
+    public WorldScanBehavior getWorldScanBehavior() {
+        return this.worldScanBehavior;
+    }
+
     @Override
     public LookBehavior getLookBehavior() {
         return this.lookBehavior;
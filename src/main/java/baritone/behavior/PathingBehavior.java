@@ -20,6 +20,7 @@ package baritone.behavior;
 import baritone.Baritone;
 import baritone.api.behavior.IPathingBehavior;
 import baritone.api.event.events.*;
+import baritone.api.event.events.type.EventState;
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.goals.GoalXZ;
@@ -30,9 +31,13 @@ import baritone.api.utils.PathCalculationResult;
 import baritone.api.utils.interfaces.IGoalRenderPos;
 import baritone.pathing.calc.AStarPathFinder;
 import baritone.pathing.calc.AbstractNodeCostSearch;
+import baritone.pathing.calc.ChunkRoute;
+import baritone.pathing.calc.ChunkRoutePlanner;
+import baritone.pathing.calc.HeuristicCache;
 import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.MovementHelper;
 import baritone.pathing.path.PathExecutor;
+import baritone.pathing.precompute.PositionFlags;
 import baritone.process.ElytraProcess;
 import baritone.utils.PathRenderer;
 import baritone.utils.PathingCommandContext;
@@ -64,6 +69,12 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
     private boolean calcFailedLastTick;
 
     private volatile AbstractNodeCostSearch inProgress;
+
+    /**
+     * The search for a way around a movement of {@link #current} that has become impossible, if any. Separate from
+     * {@link #inProgress} so that planning ahead doesn't have to wait for it. Guarded by {@link #pathCalcLock}.
+     */
+    private AbstractNodeCostSearch repairInProgress;
     private final Object pathCalcLock = new Object();
 
     private final Object pathPlanLock = new Object();
@@ -72,6 +83,19 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
 
     private BetterBlockPos expectedSegmentStart;
 
+    /**
+     * The chunk route towards {@link #chunkRouteGoal}, see {@link baritone.api.Settings#pathingChunkRoutes}. Null with a
+     * non-null goal if no route could be found to it. Guarded by {@link #pathCalcLock}, like everything else about route
+     * planning.
+     */
+    private ChunkRoute chunkRoute;
+    private Goal chunkRouteGoal;
+
+    /**
+     * The goal a chunk route is being planned to in the background right now, if any
+     */
+    private Goal chunkRoutePlanningGoal;
+
     private final LinkedBlockingQueue<PathEvent> toDispatch = new LinkedBlockingQueue<>();
 
     public PathingBehavior(Baritone baritone) {
@@ -107,6 +131,39 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         dispatchEvents();
     }
 
+    @Override
+    public void onBlockChange(BlockChangeEvent event) {
+        PositionFlags.invalidateAll();
+        synchronized (pathPlanLock) {
+            if (current != null) {
+                current.onBlockChange(event);
+            }
+            if (next != null) {
+                next.onBlockChange(event);
+            }
+        }
+    }
+
+    @Override
+    public void onChunkEvent(ChunkEvent event) {
+        PositionFlags.invalidateAll();
+        synchronized (pathPlanLock) {
+            if (current != null) {
+                current.onChunkEvent(event);
+            }
+            if (next != null) {
+                next.onChunkEvent(event);
+            }
+        }
+    }
+
+    @Override
+    public void onWorldEvent(WorldEvent event) {
+        if (event.getState() == EventState.POST) {
+            HeuristicCache.clear();
+        }
+    }
+
     @Override
     public void onPlayerSprintState(SprintStateEvent event) {
         if (isPathing()) {
@@ -210,6 +267,13 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                 next = null;
             }
             synchronized (pathCalcLock) {
+                if (repairInProgress == null) {
+                    int toRepair = current.getMovementToRepair();
+                    if (toRepair != -1) {
+                        // something got in the way of current further along, see if we can just go around it
+                        repairInNewThread(current, toRepair, context);
+                    }
+                }
                 if (inProgress != null) {
                     // if we aren't calculating right now
                     return;
@@ -344,6 +408,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
     public void softCancelIfSafe() {
         synchronized (pathPlanLock) {
             getInProgress().ifPresent(AbstractNodeCostSearch::cancel); // only cancel ours
+            cancelRepair();
             if (!isSafeToCancel()) {
                 return;
             }
@@ -359,6 +424,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         queuePathEvent(PathEvent.CANCELED);
         synchronized (pathPlanLock) {
             getInProgress().ifPresent(AbstractNodeCostSearch::cancel);
+            cancelRepair();
             if (current != null) {
                 current = null;
                 next = null;
@@ -374,6 +440,15 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         secretInternalSegmentCancel();
         synchronized (pathCalcLock) {
             inProgress = null;
+            repairInProgress = null;
+        }
+    }
+
+    private void cancelRepair() {
+        synchronized (pathCalcLock) {
+            if (repairInProgress != null) {
+                repairInProgress.cancel();
+            }
         }
     }
 
@@ -495,7 +570,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         }
         AbstractNodeCostSearch pathfinder = createPathfinder(start, goal, current == null ? null : current.getPath(), context);
         if (!Objects.equals(pathfinder.getGoal(), goal)) { // will return the exact same object if simplification didn't happen
-            logDebug("Simplifying " + goal.getClass() + " to GoalXZ due to distance");
+            logDebug("Simplifying " + goal.getClass() + " to " + pathfinder.getGoal().getClass().getSimpleName() + " due to distance");
         }
         inProgress = pathfinder;
         Baritone.getExecutor().execute(() -> {
@@ -553,6 +628,59 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         });
     }
 
+    /**
+     * In a new thread, search for a way from the start of a movement of the current path that has become impossible
+     * back onto the path shortly after it, and put it into the current path if one is found in time. This can run at
+     * the same time as planning ahead, so it searches with its own copy of the context.
+     *
+     * @param executor The current path
+     * @param movement The movement that has become impossible
+     */
+    private void repairInNewThread(PathExecutor executor, int movement, CalculationContext context) {
+        if (!Thread.holdsLock(pathCalcLock)) {
+            throw new IllegalStateException("Must be called with synchronization on pathCalcLock");
+        }
+        if (repairInProgress != null) {
+            throw new IllegalStateException("Already doing it");
+        }
+        if (!context.safeForThreadedUse) {
+            throw new IllegalStateException("Improper context thread safety level");
+        }
+        BetterBlockPos start = executor.getPath().positions().get(movement);
+        CalculationContext repairContext = context.copyForThread();
+        if (repairContext == null) {
+            // can't be searched alongside planning ahead, so it's cancelled like before once it's close
+            executor.repairFailed(start);
+            return;
+        }
+        long timeout = Baritone.settings().pathRepairTimeoutMS.value;
+        // the rest of the path is still good, so only the part around the movement is searched again
+        AbstractNodeCostSearch pathfinder = new AStarPathFinder(start, start.x, start.y, start.z, executor.getRepairGoal(movement), new Favoring(ctx, executor.getPath(), repairContext), repairContext);
+        repairInProgress = pathfinder;
+        Baritone.getExecutor().execute(() -> {
+            long before = System.currentTimeMillis();
+            PathCalculationResult calcResult = pathfinder.calculate(timeout, timeout);
+            synchronized (pathPlanLock) {
+                Optional<PathExecutor> repaired = Optional.empty();
+                if (current != null && calcResult.getType() == PathCalculationResult.Type.SUCCESS_TO_GOAL) {
+                    repaired = current.tryRepair(calcResult.getPath().get());
+                }
+                if (repaired.isPresent()) {
+                    logDebug("Found a way around the movement from " + start + " that became impossible in " + (System.currentTimeMillis() - before) + "ms, " + calcResult.getPath().get().getNumNodesConsidered() + " nodes considered");
+                    current = repaired.get();
+                } else if (current != null) {
+                    logDebug("No way around the movement from " + start + " that became impossible");
+                    current.repairFailed(start);
+                }
+                synchronized (pathCalcLock) {
+                    if (repairInProgress == pathfinder) {
+                        repairInProgress = null;
+                    }
+                }
+            }
+        });
+    }
+
     private AbstractNodeCostSearch createPathfinder(BlockPos start, Goal goal, IPath previous, CalculationContext context) {
         Goal transformed = goal;
         if (Baritone.settings().simplifyUnloadedYCoord.value && goal instanceof IGoalRenderPos) {
@@ -561,6 +689,12 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                 transformed = new GoalXZ(pos.getX(), pos.getZ());
             }
         }
+        if (Baritone.settings().pathingChunkRoutes.value) {
+            Goal routed = followChunkRoute(start, goal, transformed, context);
+            if (routed != null) {
+                transformed = routed;
+            }
+        }
         Favoring favoring = new Favoring(context.getBaritone().getPlayerContext(), previous, context);
         BetterBlockPos feet = ctx.playerFeet();
         var realStart = new BetterBlockPos(start);
@@ -572,6 +706,71 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
 
     }
 
+    /**
+     * The goal of the next segment along the chunk route to the specified goal. If there's no route to this goal yet, or
+     * the segment starts too far off of it, a new route is planned in the background, and until it is ready the segment
+     * is pathed without one, so that planning a long trip never holds up the game.
+     *
+     * @return The goal of the segment, or {@code null} if the goal is close enough or there's no usable route right now
+     */
+    private Goal followChunkRoute(BlockPos start, Goal goal, Goal transformed, CalculationContext context) {
+        int goalX;
+        int goalZ;
+        if (transformed instanceof GoalXZ) {
+            goalX = ((GoalXZ) transformed).getX();
+            goalZ = ((GoalXZ) transformed).getZ();
+        } else if (transformed instanceof IGoalRenderPos) {
+            BlockPos pos = ((IGoalRenderPos) transformed).getGoalPos();
+            goalX = pos.getX();
+            goalZ = pos.getZ();
+        } else {
+            return null;
+        }
+        int minDistance = Baritone.settings().pathingChunkRouteMinDistance.value;
+        long xDiff = goalX - start.getX();
+        long zDiff = goalZ - start.getZ();
+        if (xDiff * xDiff + zDiff * zDiff < (long) minDistance * minDistance || context.worldData == null) {
+            return null;
+        }
+        int waypointChunks = Math.max(1, Baritone.settings().pathingChunkRouteWaypointDistance.value >> 4);
+        int corridorRadius = Baritone.settings().pathingChunkRouteCorridorRadius.value;
+        if (goal.equals(chunkRouteGoal)) {
+            if (chunkRoute == null) {
+                return null; // already failed to find one, trying again every segment would just keep a thread busy
+            }
+            Goal segmentGoal = chunkRoute.segmentGoal(start.getX(), start.getZ(), transformed, waypointChunks, corridorRadius);
+            if (segmentGoal != null) {
+                return segmentGoal;
+            }
+        }
+        if (chunkRoutePlanningGoal == null) {
+            planChunkRouteInNewThread(start, goal, goalX, goalZ, context);
+        }
+        return null;
+    }
+
+    private void planChunkRouteInNewThread(BlockPos start, Goal goal, int goalX, int goalZ, CalculationContext context) {
+        chunkRoutePlanningGoal = goal;
+        Baritone.getExecutor().execute(() -> {
+            long before = System.currentTimeMillis();
+            ChunkRoute route = null;
+            try {
+                route = ChunkRoutePlanner.plan(context.worldData.cache, start.getX(), start.getZ(), goalX, goalZ);
+            } finally {
+                synchronized (pathCalcLock) {
+                    chunkRoutePlanningGoal = null;
+                    chunkRoute = route;
+                    chunkRouteGoal = goal;
+                }
+            }
+            if (route == null) {
+                logDebug("No chunk route found to " + goal);
+            } else {
+                logDebug("Planned a chunk route of " + route.length() + " chunks in " + (System.currentTimeMillis() - before) + "ms, " + route.getNumChunksConsidered() + " chunks considered");
+            }
+        });
+    }
+
     @Override
     public void onRenderPass(RenderEvent event) {
         PathRenderer.render(event, this);
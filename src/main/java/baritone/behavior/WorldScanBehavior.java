@@ -0,0 +1,427 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.behavior;
+
+import baritone.Baritone;
+import baritone.api.BaritoneAPI;
+import baritone.api.cache.IWorldScanner;
+import baritone.api.event.events.BlockChangeEvent;
+import baritone.api.event.events.ChunkEvent;
+import baritone.api.event.events.TickEvent;
+import baritone.api.event.events.WorldEvent;
+import baritone.api.event.events.type.EventState;
+import baritone.api.utils.BlockOptionalMetaLookup;
+import baritone.api.utils.Pair;
+import baritone.cache.FasterWorldScanner;
+import baritone.utils.accessor.IClientChunkProvider;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the positions of the blocks that something keeps scanning the loaded chunks for, and updates them when a chunk
+ * is loaded or unloaded or a block changes, so that scanning again only has to go through what was found.
+ *
+ * @see #subscribe(BlockOptionalMetaLookup)
+ */
+public final class WorldScanBehavior extends Behavior {
+
+    /**
+     * A subscription that isn't looked at for this many ticks is dropped, there's no need to unsubscribe
+     */
+    private static final int UNUSED_TICKS = 600;
+
+    /**
+     * A subscription that finds more than this many blocks gives up, scanning is better than holding on to that many
+     */
+    private static final int MAX_POSITIONS = 1 << 18;
+
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * Scans the chunks that load, one at a time and in the order they load in
+     */
+    private final ExecutorService scanner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Baritone world scan");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile int ticks;
+
+    public WorldScanBehavior(Baritone baritone) {
+        super(baritone);
+    }
+
+    /**
+     * @param filter The blocks to keep track of
+     * @return The subscription to the blocks, the same one for every filter with the same blocks, or {@code null} if
+     * {@link baritone.api.Settings#incrementalWorldScan} is off
+     */
+    public Subscription subscribe(BlockOptionalMetaLookup filter) {
+        if (!Baritone.settings().incrementalWorldScan.value) {
+            return null;
+        }
+        Subscription subscription = subscriptions.computeIfAbsent(filter.toString(), key -> new Subscription(filter));
+        subscription.lastUsed = ticks;
+        return subscription;
+    }
+
+    /**
+     * {@link IWorldScanner#scanChunkRadius} for the loaded chunks, answered from a subscription if there is one. A
+     * subscription covers every loaded chunk, but only the blocks in the chunks within the radius are returned, the
+     * same chunks that {@link FasterWorldScanner#getChunkRange} would scan.
+     */
+    public List<BlockPos> scanLoadedChunks(BlockOptionalMetaLookup filter, int max, int maxSearchRadius) {
+        Subscription subscription = subscribe(filter);
+        if (subscription != null) {
+            List<BlockPos> nearest = subscription.nearest(ctx.playerFeet(), max, maxSearchRadius);
+            if (nearest != null) {
+                return nearest;
+            }
+        }
+        return BaritoneAPI.getProvider().getWorldScanner().scanChunkRadius(ctx, filter, max, 10, maxSearchRadius);
+    }
+
+    @Override
+    public void onTick(TickEvent event) {
+        if (event.getType() == TickEvent.Type.OUT) {
+            return;
+        }
+        int now = ++ticks;
+        subscriptions.values().removeIf(subscription -> now - subscription.lastUsed > UNUSED_TICKS);
+    }
+
+    @Override
+    public void onWorldEvent(WorldEvent event) {
+        if (event.getState() == EventState.POST) {
+            subscriptions.clear();
+        }
+    }
+
+    /**
+     * The same as {@link BlockPos#distSqr}, for a {@link BlockPos#asLong()}
+     */
+    private static long distSq(long pos, int x, int y, int z) {
+        long dx = BlockPos.getX(pos) - x;
+        long dy = BlockPos.getY(pos) - y;
+        long dz = BlockPos.getZ(pos) - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public void onChunkEvent(ChunkEvent event) {
+        if (subscriptions.isEmpty() || event.getState() != EventState.POST) {
+            return;
+        }
+        ChunkPos pos = new ChunkPos(event.getX(), event.getZ());
+        for (Subscription subscription : subscriptions.values()) {
+            if (event.getType() == ChunkEvent.Type.UNLOAD) {
+                subscription.drop(pos);
+            } else if (event.getType().isPopulate()) {
+                subscription.queueScan(pos);
+            }
+        }
+    }
+
+    @Override
+    public void onBlockChange(BlockChangeEvent event) {
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.update(event);
+        }
+    }
+
+    /**
+     * The positions of the blocks in a filter in the loaded chunks, which are found on the first call to
+     * {@link #nearest(BlockPos, int, int)} and kept up to date from then on. Chunks that load later are scanned on a worker
+     * thread, never on the game thread, and nothing holds the lock on a subscription while it scans.
+     */
+    public final class Subscription {
+
+        private final BlockOptionalMetaLookup filter;
+
+        /**
+         * {@link BlockPos#asLong()} of every block in the filter, by {@link ChunkPos#toLong()} of the chunk it's in
+         */
+        private final Long2ObjectOpenHashMap<LongOpenHashSet> positions = new Long2ObjectOpenHashMap<>();
+
+        /**
+         * Bumped for a chunk whenever a scan of it starts or it's unloaded, so that a scan that finishes after either
+         * knows that what it found is outdated
+         */
+        private final Long2IntOpenHashMap versions = new Long2IntOpenHashMap();
+
+        /**
+         * The chunks that are being scanned right now, whose block changes can't just be applied to what was found
+         */
+        private final LongOpenHashSet scanning = new LongOpenHashSet();
+
+        private int size;
+        private boolean scanStarted;
+        private boolean scanned;
+        private boolean overflowed;
+        private volatile int lastUsed;
+
+        private Subscription(BlockOptionalMetaLookup filter) {
+            this.filter = filter;
+        }
+
+        /**
+         * @param origin      Where to look from
+         * @param max         How many positions to return at most, or negative for all of them
+         * @param chunkRadius Only chunks less than this many chunks away from the origin's chunk on either axis are
+         *                    looked at, like {@link FasterWorldScanner#getChunkRange}
+         * @return The closest positions of the blocks to the origin, or {@code null} if there are too many of them to
+         * keep track of, in which case the world has to be scanned instead
+         */
+        public List<BlockPos> nearest(BlockPos origin, int max, int chunkRadius) {
+            lastUsed = ticks;
+            if (awaitScanned()) {
+                scanLoaded();
+            }
+            synchronized (this) {
+                if (overflowed) {
+                    return null;
+                }
+                int originX = origin.getX() >> 4;
+                int originZ = origin.getZ() >> 4;
+                LongArrayList chunks = new LongArrayList();
+                int found = 0;
+                for (Long2ObjectMap.Entry<LongOpenHashSet> entry : positions.long2ObjectEntrySet()) {
+                    long chunk = entry.getLongKey();
+                    if (Math.abs(ChunkPos.getX(chunk) - originX) < chunkRadius && Math.abs(ChunkPos.getZ(chunk) - originZ) < chunkRadius) {
+                        chunks.add(chunk);
+                        found += entry.getValue().size();
+                    }
+                }
+                if (max < 0 || found <= max) {
+                    List<BlockPos> result = new ArrayList<>(found);
+                    for (int i = 0; i < chunks.size(); i++) {
+                        LongIterator it = positions.get(chunks.getLong(i)).iterator();
+                        while (it.hasNext()) {
+                            result.add(BlockPos.of(it.nextLong()));
+                        }
+                    }
+                    return result;
+                }
+                return nearest0(origin, max, chunks.toLongArray());
+            }
+        }
+
+        /**
+         * Goes through the chunks closest first, keeping the closest positions so far, and stops at the first chunk
+         * that is entirely further away than all of them
+         */
+        private List<BlockPos> nearest0(BlockPos origin, int max, long[] chunks) {
+            int x = origin.getX();
+            int y = origin.getY();
+            int z = origin.getZ();
+            if (max == 0) {
+                return new ArrayList<>();
+            }
+            long[] bounds = new long[chunks.length];
+            int[] order = new int[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                int dx = Math.max(0, Math.max(ChunkPos.getX(chunks[i]) * 16 - x, x - (ChunkPos.getX(chunks[i]) * 16 + 15)));
+                int dz = Math.max(0, Math.max(ChunkPos.getZ(chunks[i]) * 16 - z, z - (ChunkPos.getZ(chunks[i]) * 16 + 15)));
+                bounds[i] = (long) dx * dx + (long) dz * dz;
+                order[i] = i;
+            }
+            IntArrays.quickSort(order, (a, b) -> Long.compare(bounds[a], bounds[b]));
+            LongComparator furthestFirst = (a, b) -> Long.compare(distSq(b, x, y, z), distSq(a, x, y, z));
+            LongHeapPriorityQueue closest = new LongHeapPriorityQueue(max, furthestFirst);
+            for (int i : order) {
+                if (closest.size() == max && bounds[i] > distSq(closest.firstLong(), x, y, z)) {
+                    break;
+                }
+                LongIterator it = positions.get(chunks[i]).iterator();
+                while (it.hasNext()) {
+                    long pos = it.nextLong();
+                    if (closest.size() < max) {
+                        closest.enqueue(pos);
+                    } else if (distSq(pos, x, y, z) < distSq(closest.firstLong(), x, y, z)) {
+                        closest.dequeueLong();
+                        closest.enqueue(pos);
+                    }
+                }
+            }
+            BlockPos[] result = new BlockPos[closest.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = BlockPos.of(closest.dequeueLong());
+            }
+            return new ArrayList<>(Arrays.asList(result));
+        }
+
+        /**
+         * Waits for another thread that is scanning the loaded chunks for the first time to finish
+         *
+         * @return Whether this thread has to do that first scan instead
+         */
+        private synchronized boolean awaitScanned() {
+            if (!scanStarted) {
+                scanStarted = true;
+                return true;
+            }
+            boolean interrupted = false;
+            while (!scanned) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        private void scanLoaded() {
+            try {
+                if (ctx.world() == null) {
+                    return;
+                }
+                AtomicReferenceArray<LevelChunk> chunks = ((IClientChunkProvider) ctx.world().getChunkSource()).extractReferenceArray().getChunks();
+                for (int i = 0; i < chunks.length(); i++) {
+                    LevelChunk chunk = chunks.get(i);
+                    if (chunk != null && !scan(chunk.getPos())) {
+                        break;
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    scanned = true;
+                    notifyAll();
+                }
+            }
+        }
+
+        private void queueScan(ChunkPos pos) {
+            synchronized (this) {
+                if (!scanStarted || overflowed) {
+                    // the first scan picks it up when it happens
+                    return;
+                }
+            }
+            scanner.execute(() -> scan(pos));
+        }
+
+        /**
+         * Scans the chunk without holding the lock, and keeps what it found unless the chunk changed in the meantime
+         *
+         * @return Whether there's any point in scanning further chunks, which there isn't once there are too many blocks
+         */
+        private boolean scan(ChunkPos pos) {
+            long key = pos.toLong();
+            int version;
+            synchronized (this) {
+                if (overflowed) {
+                    return false;
+                }
+                version = versions.addTo(key, 1) + 1;
+                scanning.add(key);
+            }
+            List<BlockPos> found = FasterWorldScanner.INSTANCE.scanChunk(ctx, filter, pos, -1, -1);
+            synchronized (this) {
+                if (versions.get(key) != version) {
+                    // unloaded or scanned again since, whatever did that took care of it
+                    return !overflowed;
+                }
+                scanning.remove(key);
+                versions.remove(key);
+                if (overflowed) {
+                    return false;
+                }
+                drop0(key);
+                if (!found.isEmpty()) {
+                    LongOpenHashSet chunk = new LongOpenHashSet(found.size());
+                    for (BlockPos block : found) {
+                        chunk.add(block.asLong());
+                    }
+                    positions.put(key, chunk);
+                    size += chunk.size();
+                    checkSize();
+                }
+                return !overflowed;
+            }
+        }
+
+        private synchronized void drop(ChunkPos pos) {
+            if (scanStarted && !overflowed) {
+                long key = pos.toLong();
+                if (scanning.remove(key)) {
+                    versions.addTo(key, 1);
+                }
+                drop0(key);
+            }
+        }
+
+        private void drop0(long key) {
+            LongOpenHashSet chunk = positions.remove(key);
+            if (chunk != null) {
+                size -= chunk.size();
+            }
+        }
+
+        private synchronized void update(BlockChangeEvent event) {
+            if (!scanStarted || overflowed) {
+                return;
+            }
+            long chunkKey = event.getChunkPos().toLong();
+            if (scanning.contains(chunkKey)) {
+                // the scan may or may not have seen the change, so it has to be done again
+                queueScan(event.getChunkPos());
+                return;
+            }
+            for (Pair<BlockPos, BlockState> change : event.getBlocks()) {
+                long pos = change.first().asLong();
+                LongOpenHashSet chunk = positions.get(chunkKey);
+                if (filter.has(change.second())) {
+                    if (chunk == null) {
+                        chunk = new LongOpenHashSet();
+                        positions.put(chunkKey, chunk);
+                    }
+                    if (chunk.add(pos)) {
+                        size++;
+                    }
+                } else if (chunk != null && chunk.remove(pos)) {
+                    size--;
+                }
+            }
+            checkSize();
+        }
+
+        private void checkSize() {
+            if (size > MAX_POSITIONS) {
+                overflowed = true;
+                positions.clear();
+                versions.clear();
+                scanning.clear();
+                size = 0;
+            }
+        }
+    }
+}
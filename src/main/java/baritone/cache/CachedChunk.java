@@ -17,10 +17,12 @@
 
 package baritone.cache;
 
+import baritone.Baritone;
 import baritone.api.utils.BlockUtils;
 import baritone.utils.pathing.PathingBlockType;
 import com.google.common.collect.ImmutableSet;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
@@ -110,6 +112,32 @@ public final class CachedChunk {
             Blocks.VINE
     );
 
+    /**
+     * @return Whether the cache keeps track of where the block is, because it always does or because it's in
+     * {@link baritone.api.Settings#cacheIndexedBlocks}
+     */
+    public static boolean isTracked(Block block) {
+        return BLOCKS_TO_KEEP_TRACK_OF.contains(block) || Baritone.settings().cacheIndexedBlocks.value.contains(block);
+    }
+
+    /**
+     * Sides of a chunk, for {@link #getBorderLevels(int)}
+     */
+    public static final int NORTH = 0;
+    public static final int SOUTH = 1;
+    public static final int WEST = 2;
+    public static final int EAST = 3;
+
+    /**
+     * The first of the two bits of every position in a word of the packed data
+     */
+    private static final long FIRST_BITS = 0x5555555555555555L;
+
+    private static final long NORTH_COLUMNS = 0x0000000055555555L; // z = 0, first word of a layer
+    private static final long SOUTH_COLUMNS = 0x5555555500000000L; // z = 15, last word of a layer
+    private static final long WEST_COLUMNS = 0x0000000100000001L; // x = 0, every word of a layer
+    private static final long EAST_COLUMNS = 0x4000000040000000L; // x = 15, every word of a layer
+
     public final int height;
 
     /**
@@ -141,20 +169,55 @@ public final class CachedChunk {
      */
     private final BitSet data;
 
-    private final Int2ObjectOpenHashMap<String> special;
+    /**
+     * The distinct surface and special blocks of this chunk. Chunks loaded from the same region file share one
+     */
+    private final BlockState[] palette;
+
+    /**
+     * The index into {@link #palette} of the special block at each position index
+     */
+    private final Int2IntOpenHashMap special;
 
     /**
-     * The block names of each surface level block for generating an overview
+     * The index into {@link #palette} of each surface level block for generating an overview
      */
-    private final BlockState[] overview;
+    private final short[] overview;
 
     private final int[] heightMap;
 
+    /**
+     * For each side, a bit per level (see {@link #levelShift(int)}) that has somewhere to stand or swim on that side
+     */
+    private final long[] borderLevels = new long[4];
+
+    /**
+     * How many columns have somewhere to stand
+     */
+    private int walkableColumns;
+
+    /**
+     * How many columns have nowhere to stand, but somewhere to swim
+     */
+    private int waterColumns;
+
     private final Map<String, List<BlockPos>> specialBlockLocations;
 
     public final long cacheTimestamp;
 
     CachedChunk(int x, int z, int height, BitSet data, BlockState[] overview, Map<String, List<BlockPos>> specialBlockLocations, long cacheTimestamp) {
+        this(x, z, height, data, paletteOf(overview, specialBlockLocations), overview, specialBlockLocations, cacheTimestamp);
+    }
+
+    private CachedChunk(int x, int z, int height, BitSet data, BlockState[] palette, BlockState[] overview, Map<String, List<BlockPos>> specialBlockLocations, long cacheTimestamp) {
+        this(x, z, height, data, palette, indicesOf(palette, overview), specialBlockLocations, cacheTimestamp);
+    }
+
+    /**
+     * @param palette  Has to contain every block in the overview, and the default state of every special block
+     * @param overview The index into the palette of the surface block of each column
+     */
+    CachedChunk(int x, int z, int height, BitSet data, BlockState[] palette, short[] overview, Map<String, List<BlockPos>> specialBlockLocations, long cacheTimestamp) {
         this.size = size(height);
         this.sizeInBytes = sizeInBytes(size);
         validateSize(data);
@@ -163,6 +226,7 @@ public final class CachedChunk {
         this.z = z;
         this.height = height;
         this.data = data;
+        this.palette = palette;
         this.overview = overview;
         this.heightMap = new int[256];
         this.specialBlockLocations = specialBlockLocations;
@@ -170,10 +234,12 @@ public final class CachedChunk {
         if (specialBlockLocations.isEmpty()) {
             this.special = null;
         } else {
-            this.special = new Int2ObjectOpenHashMap<>();
+            this.special = new Int2IntOpenHashMap();
+            this.special.defaultReturnValue(-1);
             setSpecial();
         }
         calculateHeightMap();
+        calculateConnectivity();
     }
 
     public static int size(int dimension_height) {
@@ -186,12 +252,43 @@ public final class CachedChunk {
 
     private final void setSpecial() {
         for (Map.Entry<String, List<BlockPos>> entry : specialBlockLocations.entrySet()) {
+            int paletteIndex = paletteIndex(palette, BlockUtils.stringToBlockRequired(entry.getKey()).defaultBlockState());
             for (BlockPos pos : entry.getValue()) {
-                special.put(getPositionIndex(pos.getX(), pos.getY(), pos.getZ()), entry.getKey());
+                special.put(getPositionIndex(pos.getX(), pos.getY(), pos.getZ()), paletteIndex);
             }
         }
     }
 
+    private static BlockState[] paletteOf(BlockState[] overview, Map<String, List<BlockPos>> specialBlockLocations) {
+        Reference2IntOpenHashMap<BlockState> seen = new Reference2IntOpenHashMap<>();
+        for (BlockState state : overview) {
+            seen.putIfAbsent(state, seen.size());
+        }
+        for (String name : specialBlockLocations.keySet()) {
+            seen.putIfAbsent(BlockUtils.stringToBlockRequired(name).defaultBlockState(), seen.size());
+        }
+        BlockState[] palette = new BlockState[seen.size()];
+        seen.reference2IntEntrySet().forEach(entry -> palette[entry.getIntValue()] = entry.getKey());
+        return palette;
+    }
+
+    private static short[] indicesOf(BlockState[] palette, BlockState[] overview) {
+        short[] indices = new short[overview.length];
+        for (int i = 0; i < overview.length; i++) {
+            indices[i] = (short) paletteIndex(palette, overview[i]);
+        }
+        return indices;
+    }
+
+    private static int paletteIndex(BlockState[] palette, BlockState state) {
+        for (int i = 0; i < palette.length; i++) {
+            if (palette[i] == state) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(state + " isn't in the palette");
+    }
+
     public final BlockState getBlock(int x, int y, int z, DimensionType dimension) {
         int index = getPositionIndex(x, y, z);
         PathingBlockType type = getType(index);
@@ -204,12 +301,12 @@ public final class CachedChunk {
             if (!Minecraft.getInstance().world.getBlockState(new BlockPos(x + this.x * 16, y, z + this.z * 16)).getBlock().equals(state.getBlock())) {
                 throw new IllegalStateException("failed " + Minecraft.getInstance().world.getBlockState(new BlockPos(x + this.x * 16, y, z + this.z * 16)).getBlock() + " " + state.getBlock() + " " + (x + this.x * 16) + " " + y + " " + (z + this.z * 16));
             }*/
-            return overview[internalPos];
+            return palette[overview[internalPos]];
         }
         if (special != null) {
-            String str = special.get(index);
-            if (str != null) {
-                return BlockUtils.stringToBlockRequired(str).defaultBlockState();
+            int paletteIndex = special.get(index);
+            if (paletteIndex != -1) {
+                return palette[paletteIndex];
             }
         }
 
@@ -248,7 +345,109 @@ public final class CachedChunk {
         }
     }
 
+    /**
+     * Summarizes where in this chunk a player could be standing or swimming, for coarse planning over chunks instead of
+     * blocks. Reads the packed data a 64 bit word at a time, which is 32 columns of one y level.
+     */
+    private void calculateConnectivity() {
+        long[] words = data.toLongArray();
+        int shift = levelShift(height);
+        long[] walkable = new long[8];
+        long[] swimmable = new long[8];
+        for (int y = 0; y < height; y++) {
+            long level = 1L << (y >> shift);
+            for (int w = 0; w < 8; w++) {
+                long floor = word(words, y, w);
+                long feet = word(words, y + 1, w);
+                long head = word(words, y + 2, w);
+                long feetAir = ~(feet | (feet >>> 1)) & FIRST_BITS;
+                long headAir = ~(head | (head >>> 1)) & FIRST_BITS;
+                long stand = floor & (floor >>> 1) & feetAir & headAir & FIRST_BITS; // solid with two air above
+                long swim = ~floor & (floor >>> 1) & feetAir & FIRST_BITS; // water with air above
+                long any = stand | swim;
+                if (any == 0) {
+                    continue;
+                }
+                walkable[w] |= stand;
+                swimmable[w] |= swim;
+                if (w == 0 && (any & NORTH_COLUMNS) != 0) {
+                    borderLevels[NORTH] |= level;
+                }
+                if (w == 7 && (any & SOUTH_COLUMNS) != 0) {
+                    borderLevels[SOUTH] |= level;
+                }
+                if ((any & WEST_COLUMNS) != 0) {
+                    borderLevels[WEST] |= level;
+                }
+                if ((any & EAST_COLUMNS) != 0) {
+                    borderLevels[EAST] |= level;
+                }
+            }
+        }
+        for (int w = 0; w < 8; w++) {
+            walkableColumns += Long.bitCount(walkable[w]);
+            waterColumns += Long.bitCount(swimmable[w] & ~walkable[w]);
+        }
+    }
+
+    private static long word(long[] words, int y, int w) {
+        int i = y << 3 | w;
+        return i < words.length ? words[i] : 0; // toLongArray leaves off trailing words that are all air
+    }
+
+    /**
+     * How many bits to shift a y index right by to get its level in {@link #getBorderLevels(int)}, so that every
+     * level of a dimension fits in one long
+     *
+     * @param height The height of the dimension
+     * @return The shift
+     */
+    public static int levelShift(int height) {
+        int shift = 0;
+        while ((height - 1) >> shift >= 64) {
+            shift++;
+        }
+        return shift;
+    }
+
+    /**
+     * @param side One of {@link #NORTH}, {@link #SOUTH}, {@link #WEST} or {@link #EAST}
+     * @return A bit for every level that has somewhere to stand or swim in the outermost columns on that side
+     */
+    public final long getBorderLevels(int side) {
+        return borderLevels[side];
+    }
+
+    public final int getWalkableColumns() {
+        return walkableColumns;
+    }
+
+    public final int getWaterColumns() {
+        return waterColumns;
+    }
+
+    /**
+     * @return The surface level block of each column, z << 4 | x
+     */
     public final BlockState[] getOverview() {
+        BlockState[] states = new BlockState[overview.length];
+        for (int i = 0; i < overview.length; i++) {
+            states[i] = palette[overview[i]];
+        }
+        return states;
+    }
+
+    /**
+     * @return The blocks that {@link #getOverviewIndices()} index into
+     */
+    public final BlockState[] getPalette() {
+        return palette;
+    }
+
+    /**
+     * @return The index into {@link #getPalette()} of the surface level block of each column, z << 4 | x
+     */
+    public final short[] getOverviewIndices() {
         return overview;
     }
 
@@ -20,17 +20,21 @@ package baritone.cache;
 import baritone.Baritone;
 import baritone.api.cache.ICachedRegion;
 import baritone.api.utils.BlockUtils;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.dimension.DimensionType;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * @author Brady
@@ -46,11 +50,46 @@ public final class CachedRegion implements ICachedRegion {
      */
     private static final int CACHED_REGION_MAGIC = 456022911;
 
+    /**
+     * Magic value of the indexed format, see {@link #save(String)}. Unlike the old one it isn't gzipped, so it's the very
+     * first thing in the file
+     */
+    private static final int INDEXED_REGION_MAGIC = 456022913;
+
+    /**
+     * The first two bytes of every gzip stream, which is how files in the old format start
+     */
+    private static final int GZIP_MAGIC = 0x1f8b;
+
+    /**
+     * Magic value, height, offset and length of the palette, then offset, length and timestamp of each chunk
+     */
+    private static final int HEADER_SIZE = 16 + 1024 * 16;
+
     /**
      * All of the chunks in this region: A 32x32 array of them.
      */
     private final CachedChunk[][] chunks = new CachedChunk[32][32];
 
+    /**
+     * The region file, if it was loaded or saved in the indexed format, with the chunks that haven't been decoded yet.
+     * Nothing keeps it open in between reads, so that it can always be replaced.
+     */
+    private volatile Path file;
+
+    /**
+     * Where in {@link #file} each chunk is, indexed by x << 5 | z. An offset of 0 means the chunk isn't in the file
+     */
+    private int[] offsets = new int[1024];
+    private int[] lengths = new int[1024];
+    private long[] timestamps = new long[1024];
+
+    /**
+     * The block names that the chunks in {@link #file} refer to by index, and the blocks they stand for
+     */
+    private String[] paletteNames = new String[0];
+    private BlockState[] palette = new BlockState[0];
+
     /**
      * The region x coordinate
      */
@@ -78,26 +117,40 @@ public final class CachedRegion implements ICachedRegion {
     @Override
     public final BlockState getBlock(int x, int y, int z) {
         int adjY = y - dimension.minY();
-        CachedChunk chunk = chunks[x >> 4][z >> 4];
+        CachedChunk chunk = getChunk(x >> 4, z >> 4);
         if (chunk != null) {
             return chunk.getBlock(x & 15, adjY, z & 15, dimension);
         }
         return null;
     }
 
+    /**
+     * @param chunkX The chunk x coordinate, relative to this region
+     * @param chunkZ The chunk z coordinate, relative to this region
+     * @return The cached chunk, or {@code null} if it isn't cached
+     */
+    public final CachedChunk getChunk(int chunkX, int chunkZ) {
+        CachedChunk chunk = chunks[chunkX][chunkZ];
+        if (chunk == null && file != null && offsets[chunkX << 5 | chunkZ] != 0) {
+            return decode(chunkX, chunkZ);
+        }
+        return chunk;
+    }
+
     @Override
     public final boolean isCached(int x, int z) {
-        return chunks[x >> 4][z >> 4] != null;
+        return chunks[x >> 4][z >> 4] != null || (file != null && offsets[(x >> 4) << 5 | z >> 4] != 0);
     }
 
     public final ArrayList<BlockPos> getLocationsOf(String block) {
         ArrayList<BlockPos> res = new ArrayList<>();
         for (int chunkX = 0; chunkX < 32; chunkX++) {
             for (int chunkZ = 0; chunkZ < 32; chunkZ++) {
-                if (chunks[chunkX][chunkZ] == null) {
+                CachedChunk chunk = getChunk(chunkX, chunkZ);
+                if (chunk == null) {
                     continue;
                 }
-                ArrayList<BlockPos> locs = chunks[chunkX][chunkZ].getAbsoluteBlocks(block);
+                ArrayList<BlockPos> locs = chunk.getAbsoluteBlocks(block);
                 if (locs != null) {
                     res.addAll(locs);
                 }
@@ -108,10 +161,23 @@ public final class CachedRegion implements ICachedRegion {
 
     public final synchronized void updateCachedChunk(int chunkX, int chunkZ, CachedChunk chunk) {
         this.chunks[chunkX][chunkZ] = chunk;
+        this.offsets[chunkX << 5 | chunkZ] = 0;
         hasUnsavedChanges = true;
     }
 
 
+    /**
+     * Saves this region in the indexed format: a header with where the palette is and the offset, length and timestamp
+     * of every chunk, then the palette, then the chunks one after another, uncompressed, so that {@link #load(String)}
+     * only has to read the header, and each chunk is read and decoded the first time it is actually used. Chunks that
+     * were never decoded since the last load are copied over as they are.
+     * <p>
+     * The palette is every block name used by the overviews and special blocks of this region, which the chunks refer
+     * to by index instead of writing the names out again every time.
+     * <p>
+     * The file is written next to the old one and then moved over it. Only once that worked do the chunks that haven't
+     * been decoded switch over to the new file, if it fails they are still read from the old one until the next save.
+     */
     public synchronized final void save(String directory) {
         if (!hasUnsavedChanges) {
             return;
@@ -125,62 +191,82 @@ public final class CachedRegion implements ICachedRegion {
             }
             System.out.println("Saving region " + x + "," + z + " to disk " + path);
             Path regionFile = getRegionFile(path, this.x, this.z);
-            if (!Files.exists(regionFile)) {
-                Files.createFile(regionFile);
-            }
-            try (
-                    FileOutputStream fileOut = new FileOutputStream(regionFile.toFile());
-                    GZIPOutputStream gzipOut = new GZIPOutputStream(fileOut, 16384);
-                    DataOutputStream out = new DataOutputStream(gzipOut)
-            ) {
-                out.writeInt(CACHED_REGION_MAGIC);
+            // names that are already in the file keep their index, so that the chunks copied over as they are still mean the same blocks
+            List<String> names = new ArrayList<>();
+            Object2IntOpenHashMap<String> nameIndices = new Object2IntOpenHashMap<>();
+            Path previous = file;
+            if (previous != null) {
+                for (String name : paletteNames) {
+                    nameIndices.put(name, names.size());
+                    names.add(name);
+                }
+            }
+            byte[][] records = new byte[1024][];
+            long[] timestamps = new long[1024];
+            try (FileChannel channel = previous == null ? null : FileChannel.open(previous, StandardOpenOption.READ)) {
                 for (int x = 0; x < 32; x++) {
                     for (int z = 0; z < 32; z++) {
+                        int i = x << 5 | z;
                         CachedChunk chunk = this.chunks[x][z];
-                        if (chunk == null) {
-                            out.write(CHUNK_NOT_PRESENT);
-                        } else {
-                            out.write(CHUNK_PRESENT);
-                            byte[] chunkBytes = chunk.toByteArray();
-                            out.write(chunkBytes);
-                            // Messy, but fills the empty 0s that should be trailing to fill up the space.
-                            out.write(new byte[chunk.sizeInBytes - chunkBytes.length]);
+                        if (chunk != null) {
+                            records[i] = writeChunk(chunk, names, nameIndices);
+                            timestamps[i] = chunk.cacheTimestamp;
+                        } else if (channel != null && offsets[i] != 0) {
+                            records[i] = read(channel, offsets[i], lengths[i]).array();
+                            timestamps[i] = this.timestamps[i];
                         }
                     }
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (chunks[x][z] != null) {
-                            for (int i = 0; i < 256; i++) {
-                                out.writeUTF(BlockUtils.blockToString(chunks[x][z].getOverview()[i].getBlock()));
-                            }
-                        }
-                    }
+            }
+            if (names.size() > Short.MAX_VALUE) {
+                throw new IOException("Too many different blocks in one region: " + names.size());
+            }
+            ByteArrayOutputStream paletteBytes = new ByteArrayOutputStream();
+            DataOutputStream paletteOut = new DataOutputStream(paletteBytes);
+            writeVarInt(paletteOut, names.size());
+            for (String name : names) {
+                paletteOut.writeUTF(name);
+            }
+            paletteOut.flush();
+            int[] newOffsets = new int[1024];
+            int[] newLengths = new int[1024];
+            int size = HEADER_SIZE + paletteBytes.size();
+            for (int i = 0; i < 1024; i++) {
+                if (records[i] != null) {
+                    newOffsets[i] = size;
+                    newLengths[i] = records[i].length;
+                    size += records[i].length;
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (chunks[x][z] != null) {
-                            Map<String, List<BlockPos>> locs = chunks[x][z].getRelativeBlocks();
-                            out.writeShort(locs.entrySet().size());
-                            for (Map.Entry<String, List<BlockPos>> entry : locs.entrySet()) {
-                                out.writeUTF(entry.getKey());
-                                out.writeShort(entry.getValue().size());
-                                for (BlockPos pos : entry.getValue()) {
-                                    out.writeByte((byte) (pos.getZ() << 4 | pos.getX()));
-                                    out.writeInt(pos.getY()-dimension.minY());
-                                }
-                            }
-                        }
-                    }
+            }
+            ByteBuffer image = ByteBuffer.allocate(size);
+            image.putInt(INDEXED_REGION_MAGIC);
+            image.putInt(dimension.height());
+            image.putInt(HEADER_SIZE);
+            image.putInt(paletteBytes.size());
+            for (int i = 0; i < 1024; i++) {
+                image.putInt(newOffsets[i]);
+                image.putInt(newLengths[i]);
+                image.putLong(timestamps[i]);
+            }
+            image.put(paletteBytes.toByteArray());
+            for (byte[] record : records) {
+                if (record != null) {
+                    image.put(record);
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (chunks[x][z] != null) {
-                            out.writeLong(chunks[x][z].cacheTimestamp);
-                        }
-                    }
+            }
+            image.flip();
+            Path tempFile = regionFile.resolveSibling(regionFile.getFileName() + ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    writeFully(channel, image.duplicate());
                 }
+                Files.move(tempFile, regionFile, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                Files.deleteIfExists(tempFile);
+                throw ex;
             }
+            String[] newNames = names.toArray(new String[0]);
+            use(regionFile, newOffsets, newLengths, timestamps, newNames, resolve(newNames));
             hasUnsavedChanges = false;
             System.out.println("Saved region successfully");
         } catch (Exception ex) {
@@ -188,6 +274,13 @@ public final class CachedRegion implements ICachedRegion {
         }
     }
 
+    /**
+     * Loads this region from disk. Of files in the indexed format only the header is read, and their chunks are read
+     * and decoded on first use, see {@link #getChunk(int, int)}. Files in the old gzipped format are decoded entirely,
+     * and saved in the indexed format the next time this region is saved.
+     *
+     * @param directory The directory of the region files
+     */
     public synchronized void load(String directory) {
         try {
             Path path = Paths.get(directory);
@@ -203,107 +296,336 @@ public final class CachedRegion implements ICachedRegion {
             System.out.println("Loading region " + x + "," + z + " from disk " + path);
             long start = System.nanoTime() / 1000000L;
 
-            try (
-                    FileInputStream fileIn = new FileInputStream(regionFile.toFile());
-                    GZIPInputStream gzipIn = new GZIPInputStream(fileIn, 32768);
-                    DataInputStream in = new DataInputStream(gzipIn)
-            ) {
-                int magic = in.readInt();
-                if (magic != CACHED_REGION_MAGIC) {
-                    // in the future, if we change the format on disk
-                    // we can keep converters for the old format
-                    // by switching on the magic value, and either loading it normally, or loading through a converter.
-                    throw new IOException("Bad magic value " + magic);
+            int magic;
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(regionFile))) {
+                magic = in.readInt();
+            }
+            if (magic == INDEXED_REGION_MAGIC) {
+                loadIndexed(regionFile);
+                hasUnsavedChanges = false;
+            } else if (magic >>> 16 == GZIP_MAGIC) {
+                loadLegacy(regionFile);
+                // convert it
+                hasUnsavedChanges = true;
+            } else {
+                throw new IOException("Bad magic value " + magic);
+            }
+            removeExpired();
+            long end = System.nanoTime() / 1000000L;
+            System.out.println("Loaded region successfully in " + (end - start) + "ms");
+        } catch (Exception ex) { // corrupted files can cause NullPointerExceptions as well as IOExceptions
+            ex.printStackTrace();
+        }
+    }
+
+    private void loadIndexed(Path regionFile) throws IOException {
+        int[] offsets = new int[1024];
+        int[] lengths = new int[1024];
+        long[] timestamps = new long[1024];
+        String[] names;
+        try (FileChannel channel = FileChannel.open(regionFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Truncated header");
+            }
+            ByteBuffer header = read(channel, 0, HEADER_SIZE);
+            int height = header.getInt(4);
+            if (height != dimension.height()) {
+                throw new IOException("Region saved for height " + height + " instead of " + dimension.height());
+            }
+            int paletteOffset = header.getInt(8);
+            int paletteLength = header.getInt(12);
+            if (paletteOffset < HEADER_SIZE || paletteLength < 0 || (long) paletteOffset + paletteLength > size) {
+                throw new IOException("Malformed palette position");
+            }
+            for (int i = 0; i < 1024; i++) {
+                int entry = 16 + i * 16;
+                offsets[i] = header.getInt(entry);
+                lengths[i] = header.getInt(entry + 4);
+                timestamps[i] = header.getLong(entry + 8);
+                if (offsets[i] != 0 && (offsets[i] < HEADER_SIZE || lengths[i] < 0 || (long) offsets[i] + lengths[i] > size)) {
+                    throw new IOException("Malformed offset table");
                 }
-                boolean[][] present = new boolean[32][32];
-                BitSet[][] bitSets = new BitSet[32][32];
-                Map<String, List<BlockPos>>[][] location = new Map[32][32];
-                BlockState[][][] overview = new BlockState[32][32][];
-                long[][] cacheTimestamp = new long[32][32];
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        int isChunkPresent = in.read();
-                        switch (isChunkPresent) {
-                            case CHUNK_PRESENT:
-                                byte[] bytes = new byte[CachedChunk.sizeInBytes(CachedChunk.size(dimension.height()))];
-                                in.readFully(bytes);
-                                bitSets[x][z] = BitSet.valueOf(bytes);
-                                location[x][z] = new HashMap<>();
-                                //this is top block in columns
-                                overview[x][z] = new BlockState[256];
-                                present[x][z] = true;
-                                break;
-                            case CHUNK_NOT_PRESENT:
-                                break;
-                            default:
-                                throw new IOException("Malformed stream");
-                        }
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(read(channel, paletteOffset, paletteLength).array()));
+            names = new String[readVarInt(in)];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = in.readUTF();
+            }
+        }
+        BlockState[] palette = resolve(names);
+        // only if the entire header was uncorrupted do we actually replace the chunks
+        for (int i = 0; i < 1024; i++) {
+            if (offsets[i] != 0) {
+                this.chunks[i >> 5][i & 31] = null;
+            }
+        }
+        use(regionFile, offsets, lengths, timestamps, names, palette);
+    }
+
+    /**
+     * Switches the chunks that haven't been decoded yet over to the specified region file
+     */
+    private void use(Path file, int[] offsets, int[] lengths, long[] timestamps, String[] names, BlockState[] palette) {
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.timestamps = timestamps;
+        this.paletteNames = names;
+        this.palette = palette;
+        this.file = file;
+    }
+
+    /**
+     * Reads the specified part of a file, without moving the channel's position
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Truncated region file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Looks up every block in the palette once, instead of once for every column like the old format did
+     */
+    private static BlockState[] resolve(String[] names) {
+        BlockState[] palette = new BlockState[names.length];
+        for (int i = 0; i < names.length; i++) {
+            palette[i] = BlockUtils.stringToBlockRequired(names[i]).defaultBlockState();
+        }
+        return palette;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads and decodes a chunk of the region file the first time it's needed.
+     */
+    private synchronized CachedChunk decode(int chunkX, int chunkZ) {
+        CachedChunk chunk = this.chunks[chunkX][chunkZ];
+        int i = chunkX << 5 | chunkZ;
+        if (chunk != null || file == null || offsets[i] == 0) {
+            return chunk;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            chunk = readChunk(read(channel, offsets[i], lengths[i]).array(), chunkX + 32 * this.x, chunkZ + 32 * this.z, timestamps[i]);
+        } catch (Exception ex) { // a corrupted chunk shouldn't take the rest of the region with it
+            ex.printStackTrace();
+            offsets[i] = 0;
+            return null;
+        }
+        this.chunks[chunkX][chunkZ] = chunk;
+        return chunk;
+    }
+
+    private byte[] writeChunk(CachedChunk chunk, List<String> names, Object2IntOpenHashMap<String> nameIndices) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(chunk.sizeInBytes + 512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte[] chunkBytes = chunk.toByteArray();
+        out.write(chunkBytes);
+        // Messy, but fills the empty 0s that should be trailing to fill up the space.
+        out.write(new byte[chunk.sizeInBytes - chunkBytes.length]);
+        BlockState[] chunkPalette = chunk.getPalette();
+        int[] regionIndices = new int[chunkPalette.length];
+        Arrays.fill(regionIndices, -1);
+        for (short index : chunk.getOverviewIndices()) {
+            if (regionIndices[index] == -1) {
+                regionIndices[index] = nameIndex(BlockUtils.blockToString(chunkPalette[index].getBlock()), names, nameIndices);
+            }
+            writeVarInt(out, regionIndices[index]);
+        }
+        Map<String, List<BlockPos>> locs = chunk.getRelativeBlocks();
+        writeVarInt(out, locs.size());
+        for (Map.Entry<String, List<BlockPos>> entry : locs.entrySet()) {
+            writeVarInt(out, nameIndex(entry.getKey(), names, nameIndices));
+            writeVarInt(out, entry.getValue().size());
+            for (BlockPos pos : entry.getValue()) {
+                out.writeByte((byte) (pos.getZ() << 4 | pos.getX()));
+                writeVarInt(out, pos.getY() - dimension.minY());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static int nameIndex(String name, List<String> names, Object2IntOpenHashMap<String> nameIndices) {
+        int index = nameIndices.getOrDefault(name, -1);
+        if (index == -1) {
+            index = names.size();
+            names.add(name);
+            nameIndices.put(name, index);
+        }
+        return index;
+    }
+
+    private CachedChunk readChunk(byte[] record, int chunkX, int chunkZ, long cacheTimestamp) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte[] bytes = new byte[CachedChunk.sizeInBytes(CachedChunk.size(dimension.height()))];
+        in.readFully(bytes);
+        BlockState[] palette = this.palette;
+        short[] overview = new short[256];
+        for (int i = 0; i < 256; i++) {
+            overview[i] = (short) paletteIndex(in, palette);
+        }
+        Map<String, List<BlockPos>> location = new HashMap<>();
+        int numSpecialBlockTypes = readVarInt(in);
+        for (int i = 0; i < numSpecialBlockTypes; i++) {
+            List<BlockPos> locs = new ArrayList<>();
+            location.put(paletteNames[paletteIndex(in, palette)], locs);
+            int numLocations = readVarInt(in);
+            for (int j = 0; j < numLocations; j++) {
+                byte xz = in.readByte();
+                int X = xz & 0x0f;
+                int Z = (xz >>> 4) & 0x0f;
+                int Y = readVarInt(in);
+                locs.add(new BlockPos(X, Y + dimension.minY(), Z));
+            }
+        }
+        // every chunk of this region shares the palette
+        return new CachedChunk(chunkX, chunkZ, dimension.height(), BitSet.valueOf(bytes), palette, overview, location, cacheTimestamp);
+    }
+
+    private static int paletteIndex(DataInput in, BlockState[] palette) throws IOException {
+        int index = readVarInt(in);
+        if (index < 0 || index >= palette.length) {
+            throw new IOException("Palette index " + index + " out of bounds");
+        }
+        return index;
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too big");
+    }
+
+    private void readSpecialBlocks(DataInputStream in, Map<String, List<BlockPos>> location) throws IOException {
+        // 16 * 16 * 256 = 65536 so a short is enough
+        // ^ haha jokes on leijurv, java doesn't have unsigned types so that isn't correct
+        //   also why would you have more than 32767 special blocks in a chunk
+        // haha double jokes on you now it works for 65535 not just 32767
+        int numSpecialBlockTypes = in.readShort() & 0xffff;
+        for (int i = 0; i < numSpecialBlockTypes; i++) {
+            String blockName = in.readUTF();
+            BlockUtils.stringToBlockRequired(blockName);
+            List<BlockPos> locs = new ArrayList<>();
+            location.put(blockName, locs);
+            int numLocations = in.readShort() & 0xffff;
+            if (numLocations == 0) {
+                // an entire chunk full of air can happen in the end
+                numLocations = 65536;
+            }
+            for (int j = 0; j < numLocations; j++) {
+                byte xz = in.readByte();
+                int X = xz & 0x0f;
+                int Z = (xz >>> 4) & 0x0f;
+                int Y = in.readInt();
+                locs.add(new BlockPos(X, Y + dimension.minY(), Z));
+            }
+        }
+    }
+
+    /**
+     * Loads a file in the format from before {@link #INDEXED_REGION_MAGIC}, where everything is gzipped together.
+     */
+    private void loadLegacy(Path regionFile) throws IOException {
+        try (
+                FileInputStream fileIn = new FileInputStream(regionFile.toFile());
+                GZIPInputStream gzipIn = new GZIPInputStream(fileIn, 32768);
+                DataInputStream in = new DataInputStream(gzipIn)
+        ) {
+            int magic = in.readInt();
+            if (magic != CACHED_REGION_MAGIC) {
+                throw new IOException("Bad magic value " + magic);
+            }
+            boolean[][] present = new boolean[32][32];
+            BitSet[][] bitSets = new BitSet[32][32];
+            Map<String, List<BlockPos>>[][] location = new Map[32][32];
+            BlockState[][][] overview = new BlockState[32][32][];
+            long[][] cacheTimestamp = new long[32][32];
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    int isChunkPresent = in.read();
+                    switch (isChunkPresent) {
+                        case CHUNK_PRESENT:
+                            byte[] bytes = new byte[CachedChunk.sizeInBytes(CachedChunk.size(dimension.height()))];
+                            in.readFully(bytes);
+                            bitSets[x][z] = BitSet.valueOf(bytes);
+                            location[x][z] = new HashMap<>();
+                            //this is top block in columns
+                            overview[x][z] = new BlockState[256];
+                            present[x][z] = true;
+                            break;
+                        case CHUNK_NOT_PRESENT:
+                            break;
+                        default:
+                            throw new IOException("Malformed stream");
                     }
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (present[x][z]) {
-                            for (int i = 0; i < 256; i++) {
-                                overview[x][z][i] = BlockUtils.stringToBlockRequired(in.readUTF()).defaultBlockState();
-                            }
+            }
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    if (present[x][z]) {
+                        for (int i = 0; i < 256; i++) {
+                            overview[x][z][i] = BlockUtils.stringToBlockRequired(in.readUTF()).defaultBlockState();
                         }
                     }
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (present[x][z]) {
-                            // 16 * 16 * 256 = 65536 so a short is enough
-                            // ^ haha jokes on leijurv, java doesn't have unsigned types so that isn't correct
-                            //   also why would you have more than 32767 special blocks in a chunk
-                            // haha double jokes on you now it works for 65535 not just 32767
-                            int numSpecialBlockTypes = in.readShort() & 0xffff;
-                            for (int i = 0; i < numSpecialBlockTypes; i++) {
-                                String blockName = in.readUTF();
-                                BlockUtils.stringToBlockRequired(blockName);
-                                List<BlockPos> locs = new ArrayList<>();
-                                location[x][z].put(blockName, locs);
-                                int numLocations = in.readShort() & 0xffff;
-                                if (numLocations == 0) {
-                                    // an entire chunk full of air can happen in the end
-                                    numLocations = 65536;
-                                }
-                                for (int j = 0; j < numLocations; j++) {
-                                    byte xz = in.readByte();
-                                    int X = xz & 0x0f;
-                                    int Z = (xz >>> 4) & 0x0f;
-                                    int Y = in.readInt();
-                                    locs.add(new BlockPos(X, Y+dimension.minY(), Z));
-                                }
-                            }
-                        }
+            }
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    if (present[x][z]) {
+                        readSpecialBlocks(in, location[x][z]);
                     }
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (present[x][z]) {
-                            cacheTimestamp[x][z] = in.readLong();
-                        }
+            }
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    if (present[x][z]) {
+                        cacheTimestamp[x][z] = in.readLong();
                     }
                 }
-                // only if the entire file was uncorrupted do we actually set the chunks
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (present[x][z]) {
-                            int regionX = this.x;
-                            int regionZ = this.z;
-                            int chunkX = x + 32 * regionX;
-                            int chunkZ = z + 32 * regionZ;
-                            this.chunks[x][z] = new CachedChunk(chunkX, chunkZ, dimension.height(), bitSets[x][z], overview[x][z], location[x][z], cacheTimestamp[x][z]);
-                        }
+            }
+            // only if the entire file was uncorrupted do we actually set the chunks
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    if (present[x][z]) {
+                        int regionX = this.x;
+                        int regionZ = this.z;
+                        int chunkX = x + 32 * regionX;
+                        int chunkZ = z + 32 * regionZ;
+                        this.chunks[x][z] = new CachedChunk(chunkX, chunkZ, dimension.height(), bitSets[x][z], overview[x][z], location[x][z], cacheTimestamp[x][z]);
                     }
                 }
             }
-            removeExpired();
-            hasUnsavedChanges = false;
-            long end = System.nanoTime() / 1000000L;
-            System.out.println("Loaded region successfully in " + (end - start) + "ms");
-        } catch (Exception ex) { // corrupted files can cause NullPointerExceptions as well as IOExceptions
-            ex.printStackTrace();
+        }
+        // the chunks that were just read replace whatever would have been decoded from an earlier indexed load
+        for (int i = 0; i < 1024; i++) {
+            if (this.chunks[i >> 5][i & 31] != null) {
+                offsets[i] = 0;
+            }
         }
     }
 
@@ -320,23 +642,37 @@ public final class CachedRegion implements ICachedRegion {
                     System.out.println("Removing chunk " + (x + 32 * this.x) + "," + (z + 32 * this.z) + " because it was cached " + (now - this.chunks[x][z].cacheTimestamp) / 1000L + " seconds ago, and max age is " + expiry);
                     this.chunks[x][z] = null;
                 }
+                int i = x << 5 | z;
+                if (this.chunks[x][z] == null && offsets[i] != 0 && timestamps[i] < oldestAcceptableAge) {
+                    // never decoded, no need to
+                    offsets[i] = 0;
+                    hasUnsavedChanges = true;
+                }
             }
         }
     }
 
     public synchronized final CachedChunk mostRecentlyModified() {
-        CachedChunk recent = null;
+        int recent = -1;
+        long recentTimestamp = 0;
         for (int x = 0; x < 32; x++) {
             for (int z = 0; z < 32; z++) {
-                if (this.chunks[x][z] == null) {
+                int i = x << 5 | z;
+                long timestamp;
+                if (this.chunks[x][z] != null) {
+                    timestamp = this.chunks[x][z].cacheTimestamp;
+                } else if (offsets[i] != 0) {
+                    timestamp = timestamps[i]; // compare without decoding, only the most recent one is decoded
+                } else {
                     continue;
                 }
-                if (recent == null || this.chunks[x][z].cacheTimestamp > recent.cacheTimestamp) {
-                    recent = this.chunks[x][z];
+                if (recent == -1 || timestamp > recentTimestamp) {
+                    recent = i;
+                    recentTimestamp = timestamp;
                 }
             }
         }
-        return recent;
+        return recent == -1 ? null : getChunk(recent >> 5, recent & 31);
     }
 
     /**
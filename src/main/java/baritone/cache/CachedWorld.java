@@ -22,10 +22,14 @@ import baritone.api.BaritoneAPI;
 import baritone.api.IBaritone;
 import baritone.api.cache.ICachedWorld;
 import baritone.api.cache.IWorldData;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalXZ;
 import baritone.api.utils.Helper;
+import baritone.api.utils.interfaces.IGoalRenderPos;
 import com.google.common.cache.CacheBuilder;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.chunk.LevelChunk;
@@ -35,9 +39,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author Brady
@@ -51,9 +58,30 @@ public final class CachedWorld implements ICachedWorld, Helper {
     private static final int REGION_MAX = 30_000_000 / 512 + 1;
 
     /**
-     * A map of all of the cached regions.
+     * How many chunks a packer thread takes from the queue at once, so that the focus is only looked up once for all of
+     * them
      */
-    private Long2ObjectMap<CachedRegion> cachedRegions = new Long2ObjectOpenHashMap<>();
+    private static final int PACK_BATCH_SIZE = 16;
+
+    /**
+     * A map of all of the cached regions. It's never modified once it's been assigned, adding or removing a region
+     * replaces it with a modified copy instead, so that {@link #getRegion(int, int)} doesn't need a lock. Regions are
+     * added and removed rarely enough that copying is much cheaper than every block lookup of a path calculation
+     * contending on one lock.
+     */
+    private volatile Long2ObjectOpenHashMap<CachedRegion> cachedRegions = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * IDs of the regions waiting to be loaded from disk by the {@link RegionLoaderThread}, including the one it's
+     * loading right now. Also the monitor the loader thread waits on for more regions.
+     */
+    private final LongLinkedOpenHashSet toLoad = new LongLinkedOpenHashSet();
+
+    /**
+     * The same regions as {@link #toLoad}, but safe to look at without a lock, so that asking for a region that is
+     * already queued doesn't contend with everything else asking for it
+     */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
 
     /**
      * The directory that the cached region files are saved to
@@ -62,9 +90,10 @@ public final class CachedWorld implements ICachedWorld, Helper {
 
     /**
      * Queue of positions to pack. Refers to the toPackMap, in that every element of this queue will be a
-     * key in that map.
+     * key in that map. Sorted by distance to the {@link #loadFocus()}, the packer threads take the closest first.
+     * Also the monitor the packer threads wait on for more chunks.
      */
-    private final LinkedBlockingQueue<ChunkPos> toPackQueue = new LinkedBlockingQueue<>();
+    private final ChunkPackQueue toPackQueue = new ChunkPackQueue();
 
     /**
      * All chunk positions pending packing. This map will be updated in-place if a new update to the chunk occurs
@@ -72,8 +101,19 @@ public final class CachedWorld implements ICachedWorld, Helper {
      */
     private final Map<ChunkPos, LevelChunk> toPackMap = CacheBuilder.newBuilder().softValues().<ChunkPos, LevelChunk>build().asMap();
 
+    /**
+     * Positions that a packer thread has taken from the queue and not finished packing yet. If one of these is queued
+     * again in the meantime, it waits in the queue until the current pack is done. Guarded by {@link #toPackQueue}.
+     */
+    private final Set<ChunkPos> packing = new HashSet<>();
+
     private final DimensionType dimension;
 
+    private final LongAdder chunksQueued = new LongAdder();
+    private final LongAdder chunksPacked = new LongAdder();
+    private final LongAdder chunksDropped = new LongAdder();
+    private final LongAdder packNanos = new LongAdder();
+
     CachedWorld(Path directory, DimensionType dimension) {
         if (!Files.exists(directory)) {
             try {
@@ -84,7 +124,10 @@ public final class CachedWorld implements ICachedWorld, Helper {
         this.directory = directory.toString();
         this.dimension = dimension;
         System.out.println("Cached world directory: " + directory);
-        Baritone.getExecutor().execute(new PackerThread());
+        for (int i = 0; i < Math.max(1, Baritone.settings().chunkPackerThreads.value); i++) {
+            Baritone.getExecutor().execute(new PackerThread());
+        }
+        Baritone.getExecutor().execute(new RegionLoaderThread());
         Baritone.getExecutor().execute(() -> {
             try {
                 Thread.sleep(30000);
@@ -104,10 +147,50 @@ public final class CachedWorld implements ICachedWorld, Helper {
     @Override
     public final void queueForPacking(LevelChunk chunk) {
         if (toPackMap.put(chunk.getPos(), chunk) == null) {
-            toPackQueue.add(chunk.getPos());
+            chunksQueued.increment();
+            synchronized (toPackQueue) {
+                toPackQueue.add(chunk.getPos());
+                toPackQueue.notify();
+            }
         }
     }
 
+    /**
+     * @return How many chunks have been queued for packing, not counting updates to chunks that were already queued
+     */
+    public final long getChunksQueued() {
+        return chunksQueued.sum();
+    }
+
+    public final long getChunksPacked() {
+        return chunksPacked.sum();
+    }
+
+    /**
+     * @return How many queued chunks were never packed, because the queue grew past
+     * {@link baritone.api.Settings#chunkPackerQueueMaxSize} or the chunk was unloaded and garbage collected first
+     */
+    public final long getChunksDropped() {
+        return chunksDropped.sum();
+    }
+
+    /**
+     * @return How many chunks are waiting to be packed right now
+     */
+    public final int getPackerQueueSize() {
+        synchronized (toPackQueue) {
+            return toPackQueue.size();
+        }
+    }
+
+    /**
+     * @return The average time it took to pack a chunk, in milliseconds
+     */
+    public final double getAveragePackTime() {
+        long packed = chunksPacked.sum();
+        return packed == 0 ? 0 : packNanos.sum() / 1000000D / packed;
+    }
+
     @Override
     public final boolean isCached(int blockX, int blockZ) {
         CachedRegion region = getRegion(blockX >> 9, blockZ >> 9);
@@ -121,6 +204,50 @@ public final class CachedWorld implements ICachedWorld, Helper {
         return getRegion(blockX >> 9, blockZ >> 9) != null;
     }
 
+    /**
+     * @param regionX The region X coordinate
+     * @param regionZ The region Z coordinate
+     * @return Whether the region is loaded, waiting to be loaded after {@link #requestRegion(int, int)}, or neither
+     */
+    public final RegionStatus getRegionStatus(int regionX, int regionZ) {
+        long id = getRegionID(regionX, regionZ);
+        if (cachedRegions.containsKey(id)) {
+            return RegionStatus.LOADED;
+        }
+        if (pending.contains(id)) {
+            return RegionStatus.PENDING;
+        }
+        // the loader thread adds the region before it stops being pending
+        return cachedRegions.containsKey(id) ? RegionStatus.LOADED : RegionStatus.UNLOADED;
+    }
+
+    /**
+     * Queues the region to be loaded from disk in the background, unless it's already loaded or queued. Queued regions
+     * closest to the player, or to the goal they're pathing to, are loaded first. Until it's loaded,
+     * {@link #getRegion(int, int)} keeps returning {@code null} for it, which pathing treats the same as a region that
+     * isn't cached at all.
+     * <p>
+     * A region with nothing on disk is still added, empty, so that it isn't looked for again. That's about 24kb for
+     * each region that anything asks for, which stays in RAM until {@link #prune()} after the next save drops it, if
+     * it's far enough from the player.
+     *
+     * @param regionX The region X coordinate
+     * @param regionZ The region Z coordinate
+     */
+    public final void requestRegion(int regionX, int regionZ) {
+        if (!isRegionInWorld(regionX, regionZ)) {
+            return;
+        }
+        long id = getRegionID(regionX, regionZ);
+        if (cachedRegions.containsKey(id) || !pending.add(id)) {
+            return;
+        }
+        synchronized (toLoad) {
+            toLoad.add(id);
+            toLoad.notify();
+        }
+    }
+
     @Override
     public final ArrayList<BlockPos> getLocationsOf(String block, int maximum, int centerX, int centerZ, int maxRegionDistanceSq) {
         ArrayList<BlockPos> res = new ArrayList<>();
@@ -177,6 +304,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
         });
         long now = System.nanoTime() / 1000000L;
         System.out.println("World save took " + (now - start) + "ms");
+        System.out.println(String.format("Chunk packer: %d queued, %d packed, %d dropped, %.2fms per chunk", getChunksQueued(), getChunksPacked(), getChunksDropped(), getAveragePackTime()));
         prune();
     }
 
@@ -188,6 +316,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
             return;
         }
         BlockPos pruneCenter = guessPosition();
+        Long2ObjectOpenHashMap<CachedRegion> pruned = null;
         for (CachedRegion region : allRegions()) {
             if (region == null) {
                 continue;
@@ -197,9 +326,15 @@ public final class CachedWorld implements ICachedWorld, Helper {
             double dist = Math.sqrt(distX * distX + distZ * distZ);
             if (dist > 1024) {
                 logDebug("Deleting cached region from ram");
-                cachedRegions.remove(getRegionID(region.getX(), region.getZ()));
+                if (pruned == null) {
+                    pruned = new Long2ObjectOpenHashMap<>(cachedRegions);
+                }
+                pruned.remove(getRegionID(region.getX(), region.getZ()));
             }
         }
+        if (pruned != null) {
+            cachedRegions = pruned;
+        }
     }
 
     /**
@@ -231,7 +366,29 @@ public final class CachedWorld implements ICachedWorld, Helper {
         return new BlockPos((mostRecentlyModified.x << 4) + 8, 0, (mostRecentlyModified.z << 4) + 8);
     }
 
-    private synchronized List<CachedRegion> allRegions() {
+    /**
+     * The positions that regions and chunks closer to are loaded and packed first: where the player is, and where
+     * they're pathing to if the goal has a position
+     */
+    private List<BlockPos> loadFocus() {
+        List<BlockPos> focus = new ArrayList<>();
+        for (IBaritone ibaritone : BaritoneAPI.getProvider().getAllBaritones()) {
+            IWorldData data = ibaritone.getWorldProvider().getCurrentWorld();
+            if (data == null || data.getCachedWorld() != this || ibaritone.getPlayerContext().player() == null) {
+                continue;
+            }
+            focus.add(ibaritone.getPlayerContext().playerFeet());
+            Goal goal = ibaritone.getPathingBehavior().getGoal();
+            if (goal instanceof IGoalRenderPos) {
+                focus.add(((IGoalRenderPos) goal).getGoalPos());
+            } else if (goal instanceof GoalXZ) {
+                focus.add(new BlockPos(((GoalXZ) goal).getX(), 0, ((GoalXZ) goal).getZ()));
+            }
+        }
+        return focus;
+    }
+
+    private List<CachedRegion> allRegions() {
         return new ArrayList<>(this.cachedRegions.values());
     }
 
@@ -247,25 +404,53 @@ public final class CachedWorld implements ICachedWorld, Helper {
         System.out.println("World load took " + (now - start) + "ms");
     }
 
+    /**
+     * Returns the region at the specified region coordinates, without loading it from disk if it isn't loaded yet. Use
+     * {@link #requestRegion(int, int)} for that.
+     *
+     * @param regionX The region X coordinate
+     * @param regionZ The region Z coordinate
+     * @return The region located at the specified coordinates, or {@code null} if it isn't loaded
+     */
     @Override
-    public final synchronized CachedRegion getRegion(int regionX, int regionZ) {
+    public final CachedRegion getRegion(int regionX, int regionZ) {
         return cachedRegions.get(getRegionID(regionX, regionZ));
     }
 
     /**
      * Returns the region at the specified region coordinates. If a
-     * region is not found, then a new one is created.
+     * region is not found, then a new one is created, and loaded from
+     * disk on this thread.
      *
      * @param regionX The region X coordinate
      * @param regionZ The region Z coordinate
      * @return The region located at the specified coordinates
      */
-    private synchronized CachedRegion getOrCreateRegion(int regionX, int regionZ) {
-        return cachedRegions.computeIfAbsent(getRegionID(regionX, regionZ), id -> {
-            CachedRegion newRegion = new CachedRegion(regionX, regionZ, dimension);
-            newRegion.load(this.directory);
-            return newRegion;
-        });
+    private CachedRegion getOrCreateRegion(int regionX, int regionZ) {
+        long id = getRegionID(regionX, regionZ);
+        CachedRegion region = cachedRegions.get(id);
+        if (region != null) {
+            return region;
+        }
+        region = new CachedRegion(regionX, regionZ, dimension);
+        region.load(this.directory);
+        return addRegion(id, region);
+    }
+
+    /**
+     * Adds a newly loaded region, unless another thread loaded the same region first
+     *
+     * @return The region that ended up in the map
+     */
+    private synchronized CachedRegion addRegion(long id, CachedRegion region) {
+        CachedRegion existing = cachedRegions.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        Long2ObjectOpenHashMap<CachedRegion> copy = new Long2ObjectOpenHashMap<>(cachedRegions);
+        copy.put(id, region);
+        cachedRegions = copy;
+        return region;
     }
 
     public void tryLoadFromDisk(int regionX, int regionZ) {
@@ -299,25 +484,146 @@ public final class CachedWorld implements ICachedWorld, Helper {
         return regionX <= REGION_MAX && regionX >= -REGION_MAX && regionZ <= REGION_MAX && regionZ >= -REGION_MAX;
     }
 
-    private class PackerThread implements Runnable {
+    public enum RegionStatus {
+        LOADED,
+        PENDING,
+        UNLOADED
+    }
+
+    /**
+     * Loads the regions queued by {@link #requestRegion(int, int)}, closest to the {@link #loadFocus()} first, so that
+     * whoever needs a region never has to wait for it to load from disk
+     */
+    private class RegionLoaderThread implements Runnable {
 
         public void run() {
             while (true) {
+                long id;
                 try {
-                    ChunkPos pos = toPackQueue.take();
-                    LevelChunk chunk = toPackMap.remove(pos);
-                    if (toPackQueue.size() > Baritone.settings().chunkPackerQueueMaxSize.value) {
-                        continue;
-                    }
-                    CachedChunk cached = ChunkPacker.pack(chunk);
-                    CachedWorld.this.updateCachedChunk(cached);
-                    //System.out.println("Processed chunk at " + chunk.x + "," + chunk.z);
+                    id = nextRegionToLoad();
                 } catch (InterruptedException e) {
                     e.printStackTrace();
                     break;
+                }
+                try {
+                    int regionX = (int) id;
+                    int regionZ = (int) (id >>> 32);
+                    CachedRegion region = new CachedRegion(regionX, regionZ, dimension);
+                    region.load(directory);
+                    addRegion(id, region);
                 } catch (Throwable th) {
-                    // in the case of an exception, keep consuming from the queue so as not to leak memory
                     th.printStackTrace();
+                } finally {
+                    synchronized (toLoad) {
+                        toLoad.remove(id);
+                    }
+                    pending.remove(id);
+                }
+            }
+        }
+
+        private long nextRegionToLoad() throws InterruptedException {
+            synchronized (toLoad) {
+                while (toLoad.isEmpty()) {
+                    toLoad.wait();
+                }
+            }
+            // the player moves, so the priorities are worked out fresh every time instead of when the region was queued
+            List<BlockPos> focus = loadFocus();
+            synchronized (toLoad) {
+                // only this thread removes from the queue
+                long best = toLoad.firstLong();
+                double bestDistSq = Double.MAX_VALUE;
+                for (LongIterator it = toLoad.iterator(); it.hasNext() && !focus.isEmpty(); ) {
+                    long id = it.nextLong();
+                    int centerX = ((int) id << 9) + 256;
+                    int centerZ = ((int) (id >>> 32) << 9) + 256;
+                    for (BlockPos pos : focus) {
+                        double distX = centerX - pos.getX();
+                        double distZ = centerZ - pos.getZ();
+                        double distSq = distX * distX + distZ * distZ;
+                        if (distSq < bestDistSq) {
+                            bestDistSq = distSq;
+                            best = id;
+                        }
+                    }
+                }
+                return best;
+            }
+        }
+    }
+
+    private class PackerThread implements Runnable {
+
+        public void run() {
+            while (true) {
+                List<ChunkPos> batch;
+                try {
+                    batch = nextChunksToPack();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                    break;
+                }
+                for (ChunkPos pos : batch) {
+                    try {
+                        LevelChunk chunk = toPackMap.remove(pos);
+                        if (chunk == null) {
+                            // the soft reference was cleared before we got to it
+                            chunksDropped.increment();
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        CachedChunk cached = ChunkPacker.pack(chunk);
+                        CachedWorld.this.updateCachedChunk(cached);
+                        packNanos.add(System.nanoTime() - start);
+                        chunksPacked.increment();
+                        //System.out.println("Processed chunk at " + chunk.x + "," + chunk.z);
+                    } catch (Throwable th) {
+                        // in the case of an exception, keep consuming from the queue so as not to leak memory
+                        th.printStackTrace();
+                    } finally {
+                        synchronized (toPackQueue) {
+                            packing.remove(pos);
+                            if (toPackQueue.contains(pos)) {
+                                // it was queued again while we packed it, and was held back until now
+                                toPackQueue.notifyAll();
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Takes up to {@link #PACK_BATCH_SIZE} queued chunks closest to the player or their goal, after dropping the
+         * farthest ones if the queue is over {@link baritone.api.Settings#chunkPackerQueueMaxSize}. Chunks that another
+         * packer thread is packing right now stay in the queue, so that an older copy can never finish after, and
+         * overwrite, a newer one.
+         */
+        private List<ChunkPos> nextChunksToPack() throws InterruptedException {
+            synchronized (toPackQueue) {
+                while (toPackQueue.isEmpty()) {
+                    toPackQueue.wait();
+                }
+            }
+            // the player moves, so the focus is looked up for every batch, the queue only sorts again if it changed chunk
+            List<BlockPos> focus = loadFocus();
+            synchronized (toPackQueue) {
+                toPackQueue.focus(focus);
+                while (true) {
+                    int maxSize = Baritone.settings().chunkPackerQueueMaxSize.value;
+                    while (toPackQueue.size() > maxSize) {
+                        toPackMap.remove(toPackQueue.removeFarthest());
+                        chunksDropped.increment();
+                    }
+                    // the batch is packed closest first
+                    List<ChunkPos> batch = toPackQueue.removeClosest(PACK_BATCH_SIZE, packing);
+                    if (!batch.isEmpty()) {
+                        packing.addAll(batch);
+                        return batch;
+                    }
+                    // everything queued is a chunk that's being packed right now, or another thread took it
+                    toPackQueue.wait();
                 }
             }
         }
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.*;
+
+/**
+ * The chunks waiting to be packed, sorted by how far they are from the chunks of the focus, so that the closest can be
+ * taken and the farthest dropped without going through all of them. The distances are only worked out again when the
+ * focus moves to another chunk. Without a focus, the oldest goes first.
+ * <p>
+ * Not thread safe, {@link CachedWorld} only uses it while holding the lock on it.
+ */
+final class ChunkPackQueue {
+
+    private final Map<ChunkPos, Entry> entries = new HashMap<>();
+
+    private final TreeSet<Entry> order = new TreeSet<>();
+
+    /**
+     * The chunk coordinates of each position in the focus
+     */
+    private int[] focusX = new int[0];
+    private int[] focusZ = new int[0];
+
+    private long nextSeq;
+
+    /**
+     * @return Whether the chunk was queued, which it isn't if it already was
+     */
+    public boolean add(ChunkPos pos) {
+        if (entries.containsKey(pos)) {
+            return false;
+        }
+        Entry entry = new Entry(pos, nextSeq++);
+        entry.distSq = distSq(pos);
+        entries.put(pos, entry);
+        order.add(entry);
+        return true;
+    }
+
+    public boolean contains(ChunkPos pos) {
+        return entries.containsKey(pos);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Sorts the chunks by distance to these positions from now on
+     *
+     * @param focus The positions, or none to go by age
+     */
+    public void focus(List<BlockPos> focus) {
+        int[] x = new int[focus.size()];
+        int[] z = new int[focus.size()];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = focus.get(i).getX() >> 4;
+            z[i] = focus.get(i).getZ() >> 4;
+        }
+        if (Arrays.equals(x, focusX) && Arrays.equals(z, focusZ)) {
+            return;
+        }
+        focusX = x;
+        focusZ = z;
+        order.clear();
+        for (Entry entry : entries.values()) {
+            entry.distSq = distSq(entry.pos);
+            order.add(entry);
+        }
+    }
+
+    /**
+     * @return The farthest chunk, which is no longer queued, or {@code null} if there are none
+     */
+    public ChunkPos removeFarthest() {
+        Entry entry = order.pollLast();
+        if (entry == null) {
+            return null;
+        }
+        entries.remove(entry.pos);
+        return entry.pos;
+    }
+
+    /**
+     * @param max  How many chunks to take at most
+     * @param skip Chunks to leave in the queue for now
+     * @return The closest chunks, closest first, which are no longer queued
+     */
+    public List<ChunkPos> removeClosest(int max, Set<ChunkPos> skip) {
+        List<ChunkPos> taken = new ArrayList<>(Math.min(max, entries.size()));
+        Iterator<Entry> it = order.iterator();
+        while (it.hasNext() && taken.size() < max) {
+            Entry entry = it.next();
+            if (!skip.contains(entry.pos)) {
+                it.remove();
+                entries.remove(entry.pos);
+                taken.add(entry.pos);
+            }
+        }
+        return taken;
+    }
+
+    private long distSq(ChunkPos pos) {
+        if (focusX.length == 0) {
+            return 0;
+        }
+        long distSq = Long.MAX_VALUE;
+        for (int i = 0; i < focusX.length; i++) {
+            long distX = pos.x - focusX[i];
+            long distZ = pos.z - focusZ[i];
+            distSq = Math.min(distSq, distX * distX + distZ * distZ);
+        }
+        return distSq;
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        private final ChunkPos pos;
+
+        /**
+         * When it was queued, which decides between chunks that are as far away as each other
+         */
+        private final long seq;
+
+        /**
+         * Only changed while it's not in {@link #order}
+         */
+        private long distSq;
+
+        private Entry(ChunkPos pos, long seq) {
+            this.pos = pos;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byDist = Long.compare(distSq, other.distSq);
+            return byDist != 0 ? byDist : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -20,7 +20,10 @@ package baritone.cache;
 import baritone.api.utils.BlockUtils;
 import baritone.pathing.movement.MovementHelper;
 import baritone.utils.pathing.PathingBlockType;
+import it.unimi.dsi.fastutil.objects.Reference2ByteOpenHashMap;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.AirBlock;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
@@ -36,8 +39,7 @@ import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.phys.Vec3;
 
 import java.util.*;
-
-import static baritone.utils.BlockStateInterface.getFromChunk;
+import java.util.function.Consumer;
 
 /**
  * @author Brady
@@ -47,48 +49,49 @@ public final class ChunkPacker {
 
     private ChunkPacker() {}
 
+    /**
+     * The 2 bit value of a state whose {@link PathingBlockType} depends on the blocks around it (water), instead of just
+     * the state itself
+     */
+    private static final byte BY_POSITION = 1 << 2;
+
+    /**
+     * Set with the 2 bit value of a state that is {@link CachedChunk#isTracked(Block) tracked}
+     */
+    private static final byte SPECIAL = 1 << 3;
+
     public static CachedChunk pack(LevelChunk chunk) {
+        return pack(chunk.getLevel(), chunk.getPos(), chunk.getMinBuildHeight(), chunk.getLevel().dimensionType().height(), chunk.getSections());
+    }
+
+    /**
+     * @param level    Only used to find which way water on the border of the chunk is flowing
+     * @param minY     The lowest y coordinate of the dimension
+     * @param sections The sections of the chunk, from the bottom up
+     */
+    static CachedChunk pack(BlockGetter level, ChunkPos pos, int minY, int height, LevelChunkSection[] sections) {
         //long start = System.nanoTime() / 1000000L;
 
         Map<String, List<BlockPos>> specialBlocks = new HashMap<>();
-        final int height = chunk.getLevel().dimensionType().height();
-        BitSet bitSet = new BitSet(CachedChunk.size(height));
+        // two bits per block, and since CachedChunk.getPositionIndex is y << 9 | z << 5 | x << 1,
+        // each section is 128 words in a row, in the same order as the blocks in its PalettedContainer
+        long[] words = new long[CachedChunk.size(height) >> 6];
+        SectionPacker packer = new SectionPacker(level, pos, minY, words, specialBlocks);
         try {
-            LevelChunkSection[] chunkInternalStorageArray = chunk.getSections();
             for (int y0 = 0; y0 < height / 16; y0++) {
-                LevelChunkSection extendedblockstorage = chunkInternalStorageArray[y0];
-                if (extendedblockstorage == null) {
-                    // any 16x16x16 area that's all air will have null storage
+                LevelChunkSection extendedblockstorage = sections[y0];
+                if (extendedblockstorage == null || extendedblockstorage.hasOnlyAir()) {
+                    // any 16x16x16 area that's all air will have null storage, or storage with only air in it
                     // for example, in an ocean biome, with air from y=64 to y=256
                     // the first 4 extended blocks storages will be full
-                    // and the remaining 12 will be null
+                    // and the remaining 12 will be empty
 
                     // since the index into the bitset is calculated from the x y and z
                     // and doesn't function as an append, we can entirely skip the scanning
                     // since a bitset is initialized to all zero, and air is saved as zeros
                     continue;
                 }
-                PalettedContainer<BlockState> bsc = extendedblockstorage.getStates();
-                int yReal = y0 << 4;
-                // the mapping of BlockStateContainer.getIndex from xyz to index is y << 8 | z << 4 | x;
-                // for better cache locality, iterate in that order
-                for (int y1 = 0; y1 < 16; y1++) {
-                    int y = y1 | yReal;
-                    for (int z = 0; z < 16; z++) {
-                        for (int x = 0; x < 16; x++) {
-                            int index = CachedChunk.getPositionIndex(x, y, z);
-                            BlockState state = bsc.get(x, y1, z);
-                            boolean[] bits = getPathingBlockType(state, chunk, x, y, z).getBits();
-                            bitSet.set(index, bits[0]);
-                            bitSet.set(index + 1, bits[1]);
-                            Block block = state.getBlock();
-                            if (CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(block)) {
-                                String name = BlockUtils.blockToString(block);
-                                specialBlocks.computeIfAbsent(name, b -> new ArrayList<>()).add(new BlockPos(x, y+chunk.getMinBuildHeight(), z));
-                            }
-                        }
-                    }
-                }
+                packer.pack(extendedblockstorage.getStates(), y0);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -104,8 +107,8 @@ public final class ChunkPacker {
             for (int x = 0; x < 16; x++) {
                 for (int y = height - 1; y >= 0; y--) {
                     int index = CachedChunk.getPositionIndex(x, y, z);
-                    if (bitSet.get(index) || bitSet.get(index + 1)) {
-                        blocks[z << 4 | x] = getFromChunk(chunk, x, y, z);
+                    if ((words[index >> 6] >>> (index & 63) & 3) != 0) {
+                        blocks[z << 4 | x] = sections[y >> 4].getBlockState(x, y & 15, z);
                         continue https;
                     }
                 }
@@ -113,28 +116,137 @@ public final class ChunkPacker {
             }
         }
         // @formatter:on
-        return new CachedChunk(chunk.getPos().x, chunk.getPos().z, height, bitSet, blocks, specialBlocks, System.currentTimeMillis());
+        return new CachedChunk(pos.x, pos.z, height, BitSet.valueOf(words), blocks, specialBlocks, System.currentTimeMillis());
     }
 
-    private static PathingBlockType getPathingBlockType(BlockState state, LevelChunk chunk, int x, int y, int z) {
-        Block block = state.getBlock();
+    /**
+     * Packs sections into the words of a chunk. Looks at what each state in a section is once, instead of for every
+     * block, and fills sections that are all one state without looking at the blocks at all.
+     */
+    private static final class SectionPacker implements Consumer<BlockState> {
+
+        private final BlockGetter level;
+        private final ChunkPos pos;
+        private final int minY;
+        private final long[] words;
+        private final Map<String, List<BlockPos>> specialBlocks;
+
+        /**
+         * The 2 bit value of every state seen so far in this chunk, possibly with {@link #BY_POSITION} or {@link #SPECIAL}
+         */
+        private final Reference2ByteOpenHashMap<BlockState> types = new Reference2ByteOpenHashMap<>();
+
+        private PalettedContainer<BlockState> states;
+        private int y0;
+        private int index;
+        private BlockState lastState;
+        private byte lastType;
+
+        private SectionPacker(BlockGetter level, ChunkPos pos, int minY, long[] words, Map<String, List<BlockPos>> specialBlocks) {
+            this.level = level;
+            this.pos = pos;
+            this.minY = minY;
+            this.words = words;
+            this.specialBlocks = specialBlocks;
+            this.types.defaultReturnValue((byte) -1);
+        }
+
+        private void pack(PalettedContainer<BlockState> states, int y0) {
+            this.states = states;
+            this.y0 = y0;
+            this.index = 0;
+            BlockState first = states.get(0, 0, 0);
+            // true for a single value palette, and for any other palette that only ever had one state in it
+            if (!states.maybeHas(state -> state != first)) {
+                byte type = typeOf(first);
+                if ((type & BY_POSITION) == 0) {
+                    // the 2 bits, 32 times over
+                    Arrays.fill(words, y0 << 7, (y0 + 1) << 7, (type & 3) * 0x5555555555555555L);
+                    if ((type & SPECIAL) != 0) {
+                        for (int i = 0; i < 4096; i++) {
+                            addSpecial(first, i);
+                        }
+                    }
+                    return;
+                }
+            }
+            // the mapping of BlockStateContainer.getIndex from xyz to index is y << 8 | z << 4 | x;
+            // and getAll goes through them in that order
+            states.getAll(this);
+        }
+
+        @Override
+        public void accept(BlockState state) {
+            int i = index++;
+            byte type;
+            if (state == lastState) {
+                type = lastType;
+            } else {
+                type = typeOf(state);
+                lastState = state;
+                lastType = type;
+            }
+            if ((type & BY_POSITION) != 0) {
+                type = packedBits(getPathingBlockType(state, states, level, pos, minY, i & 15, y0 << 4 | i >> 8, (i >> 4) & 15));
+            }
+            words[(y0 << 7) + (i >> 5)] |= (long) (type & 3) << ((i & 31) << 1);
+            if ((type & SPECIAL) != 0) {
+                addSpecial(state, i);
+            }
+        }
+
+        private byte typeOf(BlockState state) {
+            byte type = types.getByte(state);
+            if (type == -1) {
+                if (MovementHelper.isWater(state)) {
+                    type = BY_POSITION;
+                } else {
+                    type = packedBits(getPathingBlockType(state));
+                    if (CachedChunk.isTracked(state.getBlock())) {
+                        type |= SPECIAL;
+                    }
+                }
+                types.put(state, type);
+            }
+            return type;
+        }
+
+        private void addSpecial(BlockState state, int i) {
+            String name = BlockUtils.blockToString(state.getBlock());
+            specialBlocks.computeIfAbsent(name, b -> new ArrayList<>()).add(new BlockPos(i & 15, (y0 << 4 | i >> 8) + minY, (i >> 4) & 15));
+        }
+    }
+
+    /**
+     * @return The bits of the type as they are in a word of the bitset, where the first bit of a block is the lower one
+     */
+    private static byte packedBits(PathingBlockType type) {
+        boolean[] bits = type.getBits();
+        return (byte) ((bits[0] ? 1 : 0) | (bits[1] ? 2 : 0));
+    }
+
+    /**
+     * @param section The section the block is in, to check the water around it
+     * @param y       The y coordinate of the block from the bottom of the world, not the section
+     */
+    static PathingBlockType getPathingBlockType(BlockState state, PalettedContainer<BlockState> section, BlockGetter level, ChunkPos pos, int minY, int x, int y, int z) {
         if (MovementHelper.isWater(state)) {
             // only water source blocks are plausibly usable, flowing water should be avoid
             // FLOWING_WATER is a waterfall, it doesn't really matter and caching it as AVOID just makes it look wrong
             if (MovementHelper.possiblyFlowing(state)) {
                 return PathingBlockType.AVOID;
             }
-            int adjY = y - chunk.getLevel().dimensionType().minY();
+            int y1 = y & 15;
             if (
-                    (x != 15 && MovementHelper.possiblyFlowing(getFromChunk(chunk, x + 1, adjY, z)))
-                            || (x != 0 && MovementHelper.possiblyFlowing(getFromChunk(chunk, x - 1, adjY, z)))
-                            || (z != 15 && MovementHelper.possiblyFlowing(getFromChunk(chunk, x, adjY, z + 1)))
-                            || (z != 0 && MovementHelper.possiblyFlowing(getFromChunk(chunk, x, adjY, z - 1)))
+                    (x != 15 && MovementHelper.possiblyFlowing(section.get(x + 1, y1, z)))
+                            || (x != 0 && MovementHelper.possiblyFlowing(section.get(x - 1, y1, z)))
+                            || (z != 15 && MovementHelper.possiblyFlowing(section.get(x, y1, z + 1)))
+                            || (z != 0 && MovementHelper.possiblyFlowing(section.get(x, y1, z - 1)))
             ) {
                 return PathingBlockType.AVOID;
             }
             if (x == 0 || x == 15 || z == 0 || z == 15) {
-                Vec3 flow = state.getFluidState().getFlow(chunk.getLevel(), new BlockPos(x + (chunk.getPos().x << 4), y, z + (chunk.getPos().z << 4)));
+                Vec3 flow = state.getFluidState().getFlow(level, new BlockPos(x + (pos.x << 4), y + minY, z + (pos.z << 4)));
                 if (flow.x != 0.0 || flow.z != 0.0) {
                     return PathingBlockType.WATER;
                 }
@@ -142,7 +254,14 @@ public final class ChunkPacker {
             }
             return PathingBlockType.WATER;
         }
+        return getPathingBlockType(state);
+    }
 
+    /**
+     * The type of anything but water, which only depends on the state
+     */
+    private static PathingBlockType getPathingBlockType(BlockState state) {
+        Block block = state.getBlock();
         if (MovementHelper.avoidWalkingInto(state) || MovementHelper.isBottomSlab(state)) {
             return PathingBlockType.AVOID;
         }
@@ -24,10 +24,9 @@ import baritone.api.utils.BlockOptionalMeta;
 import baritone.api.utils.BlockOptionalMetaLookup;
 import baritone.api.utils.IPlayerContext;
 import baritone.utils.accessor.IPalettedContainer;
-import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.IdMapper;
-import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.util.BitStorage;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Block;
@@ -42,13 +41,13 @@ import net.minecraft.world.level.chunk.SingleValuePalette;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public enum FasterWorldScanner implements IWorldScanner {
     INSTANCE;
 
-    private static final BlockState[] PALETTE_REGISTRY_SENTINEL = new BlockState[0];
+    private static final long[] EMPTY = new long[0];
 
     @Override
     public List<BlockPos> scanChunkRadius(IPlayerContext ctx, BlockOptionalMetaLookup filter, int max, int yLevelThreshold, int maxSearchRadius) {
@@ -56,16 +55,21 @@ public enum FasterWorldScanner implements IWorldScanner {
         if (maxSearchRadius < 0) {
             throw new IllegalArgumentException("chunkRange must be >= 0");
         }
-        return scanChunksInternal(ctx, filter, getChunkRange(ctx.playerFeet().x >> 4, ctx.playerFeet().z >> 4, maxSearchRadius), max);
+        try {
+            return toBlockPos(scanRings(loadedSections(ctx), filter, ctx.playerFeet().x >> 4, ctx.playerFeet().z >> 4, maxSearchRadius, playerSection(ctx), max));
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw e;
+        }
     }
 
     @Override
     public List<BlockPos> scanChunk(IPlayerContext ctx, BlockOptionalMetaLookup filter, ChunkPos pos, int max, int yLevelThreshold) {
-        Stream<BlockPos> stream = scanChunkInternal(ctx, filter, pos);
-        if (max >= 0) {
-            stream = stream.limit(max);
+        LevelChunkSection[] sections = loadedSections(ctx).apply(pos);
+        if (sections == null) {
+            return new ArrayList<>();
         }
-        return stream.collect(Collectors.toList());
+        return toBlockPos(scanChunk(sections, filter, pos, playerSection(ctx), max < 0 ? Integer.MAX_VALUE : max));
     }
 
     @Override
@@ -129,84 +133,89 @@ public enum FasterWorldScanner implements IWorldScanner {
         return chunks;
     }
 
-    private List<BlockPos> scanChunksInternal(IPlayerContext ctx, BlockOptionalMetaLookup lookup, List<ChunkPos> chunkPositions, int maxBlocks) {
-        assert ctx.world() != null;
-        try {
-            // p -> scanChunkInternal(ctx, lookup, p)
-            Stream<BlockPos> posStream = chunkPositions.parallelStream().flatMap(p -> scanChunkInternal(ctx, lookup, p));
-            if (maxBlocks >= 0) {
-                // WARNING: this can be expensive if maxBlocks is large...
-                // see limit's javadoc
-                posStream = posStream.limit(maxBlocks);
+    /**
+     * Scans the chunks of {@link #getChunkRange} one ring at a time, the chunks of a ring in parallel, and stops after
+     * the first ring that brings it to {@code max} blocks. Finds the same blocks in the same order as going through
+     * all of the chunks and keeping the first {@code max}, but chunks further out than needed are never looked at, and
+     * no chunk gives more than {@code max}.
+     *
+     * @param sections      The sections of a chunk, from the bottom up, or {@code null} if it isn't loaded
+     * @param playerSection The index of the section the player is in, the sections of each chunk are scanned
+     *                      outwards from it
+     * @param max           The maximum number of blocks, or negative for all of them
+     * @return {@link BlockPos#asLong()} of the blocks
+     */
+    static long[] scanRings(Function<ChunkPos, LevelChunkSection[]> sections, BlockOptionalMetaLookup lookup, int centerX, int centerZ, int chunkRadius, int playerSection, int max) {
+        int limit = max < 0 ? Integer.MAX_VALUE : max;
+        List<ChunkPos> range = getChunkRange(centerX, centerZ, chunkRadius);
+        PaletteFilter filter = PaletteFilter.of(lookup);
+        LongArrayList blocks = new LongArrayList();
+        // ring i is the 8 * i chunks that getChunkRange adds i chunks out from the center
+        for (int ring = 0, start = 0; start < range.size() && blocks.size() < limit; start += Math.max(1, 8 * ring), ring++) {
+            List<ChunkPos> chunks = range.subList(start, Math.min(range.size(), start + Math.max(1, 8 * ring)));
+            Stream<ChunkPos> stream = ring == 0 ? chunks.stream() : chunks.parallelStream();
+            long[][] found = stream.map(pos -> {
+                LevelChunkSection[] chunk = sections.apply(pos);
+                return chunk == null ? EMPTY : scanChunk(chunk, filter, pos, playerSection, limit);
+            }).toArray(long[][]::new);
+            for (long[] chunk : found) {
+                blocks.addElements(blocks.size(), chunk, 0, Math.min(chunk.length, limit - blocks.size()));
             }
-            return posStream.collect(Collectors.toList());
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw e;
         }
+        return blocks.toLongArray();
     }
 
-    private Stream<BlockPos> scanChunkInternal(IPlayerContext ctx, BlockOptionalMetaLookup lookup, ChunkPos pos) {
-        ChunkSource chunkProvider = ctx.world().getChunkSource();
-        // if chunk is not loaded, return empty stream
-        if (!chunkProvider.hasChunk(pos.x, pos.z)) {
-            return Stream.empty();
-        }
-
-        long chunkX = (long) pos.x << 4;
-        long chunkZ = (long) pos.z << 4;
-
-        int playerSectionY = (ctx.playerFeet().y - ctx.world().getMinBuildHeight()) >> 4;
-
-        return collectChunkSections(lookup, chunkProvider.getChunk(pos.x, pos.z, false), chunkX, chunkZ, playerSectionY).stream();
+    /**
+     * @return {@link BlockPos#asLong()} of the first {@code max} blocks in the chunk, going outwards from the player's
+     * section
+     */
+    static long[] scanChunk(LevelChunkSection[] sections, BlockOptionalMetaLookup lookup, ChunkPos pos, int playerSection, int max) {
+        return scanChunk(sections, PaletteFilter.of(lookup), pos, playerSection, max);
     }
 
-
-
-    private List<BlockPos> collectChunkSections(BlockOptionalMetaLookup lookup, LevelChunk chunk, long chunkX, long chunkZ, int playerSection) {
+    private static long[] scanChunk(LevelChunkSection[] sections, PaletteFilter filter, ChunkPos pos, int playerSection, int max) {
         // iterate over sections relative to player
-        List<BlockPos> blocks = new ArrayList<>();
-        LevelChunkSection[] sections = chunk.getSections();
+        LongArrayList blocks = new LongArrayList();
+        int chunkX = pos.x << 4;
+        int chunkZ = pos.z << 4;
         int l = sections.length;
         int i = playerSection - 1;
         int j = playerSection;
-        for (; i >= 0 || j < l; ++j, --i) {
+        for (; (i >= 0 || j < l) && blocks.size() < max; ++j, --i) {
             if (j < l) {
-                visitSection(lookup, sections[j], blocks, chunkX, chunkZ);
+                visitSection(filter, sections[j], blocks, chunkX, chunkZ, max);
             }
-            if (i >= 0) {
-                visitSection(lookup, sections[i], blocks, chunkX, chunkZ);
+            if (i >= 0 && blocks.size() < max) {
+                visitSection(filter, sections[i], blocks, chunkX, chunkZ, max);
             }
         }
-        return blocks;
+        return blocks.toLongArray();
     }
 
-    private void visitSection(BlockOptionalMetaLookup lookup, LevelChunkSection section, List<BlockPos> blocks, long chunkX, long chunkZ) {
+    private static void visitSection(PaletteFilter filter, LevelChunkSection section, LongArrayList blocks, int chunkX, int chunkZ, int max) {
         if (section == null || section.hasOnlyAir()) {
             return;
         }
 
         PalettedContainer<BlockState> sectionContainer = section.getStates();
+        int yOffset = section.bottomBlockY();
         //this won't work if the PaletteStorage is of the type EmptyPaletteStorage
         if (((IPalettedContainer<BlockState>) sectionContainer).getStorage() == null) {
             return;
         }
 
-        int yOffset = section.bottomBlockY();
         Palette<BlockState> palette = ((IPalettedContainer<BlockState>) sectionContainer).getPalette();
 
         if (palette instanceof SingleValuePalette) {
             // single value palette doesn't have any data
-            if (lookup.has(palette.valueFor(0))) {
-                // TODO this is 4k hits, maybe don't return all of them?
+            if (filter.has(palette.valueFor(0))) {
                 for (int x = 0; x < 16; ++x) {
                     for (int y = 0; y < 16; ++y) {
                         for (int z = 0; z < 16; ++z) {
-                            blocks.add(new BlockPos(
-                                (int) chunkX + x,
-                                yOffset + y,
-                                (int) chunkZ + z
-                            ));
+                            if (blocks.size() >= max) {
+                                return;
+                            }
+                            blocks.add(BlockPos.asLong(chunkX + x, yOffset + y, chunkZ + z));
                         }
                     }
                 }
@@ -214,12 +223,12 @@ public enum FasterWorldScanner implements IWorldScanner {
             return;
         }
 
-        boolean[] isInFilter = getIncludedFilterIndices(lookup, palette);
+        boolean[] isInFilter = filter.includedIndices(palette);
         if (isInFilter.length == 0) {
             return;
         }
 
-        BitStorage array = ((IPalettedContainer<BlockState>) section.getStates()).getStorage();
+        BitStorage array = ((IPalettedContainer<BlockState>) sectionContainer).getStorage();
         long[] longArray = array.getRaw();
         int arraySize = array.getSize();
         int bitsPerEntry = array.getBits();
@@ -230,75 +239,102 @@ public enum FasterWorldScanner implements IWorldScanner {
             for (int offset = 0; offset <= (64 - bitsPerEntry) && idx < arraySize; offset += bitsPerEntry, ++idx) {
                 int value = (int) ((l >> offset) & maxEntryValue);
                 if (isInFilter[value]) {
+                    if (blocks.size() >= max) {
+                        return;
+                    }
                     //noinspection DuplicateExpressions
-                    blocks.add(new BlockPos(
-                        (int) chunkX + ((idx & 255) & 15),
+                    blocks.add(BlockPos.asLong(
+                        chunkX + ((idx & 255) & 15),
                         yOffset + (idx >> 8),
-                        (int) chunkZ + ((idx & 255) >> 4)
+                        chunkZ + ((idx & 255) >> 4)
                     ));
                 }
             }
         }
     }
 
-    private boolean[] getIncludedFilterIndices(BlockOptionalMetaLookup lookup, Palette<BlockState> palette) {
-        boolean commonBlockFound = false;
-        BlockState[] paletteMap = getPalette(palette);
+    private static Function<ChunkPos, LevelChunkSection[]> loadedSections(IPlayerContext ctx) {
+        ChunkSource chunkProvider = ctx.world().getChunkSource();
+        return pos -> {
+            // if chunk is not loaded, there's nothing to scan
+            if (!chunkProvider.hasChunk(pos.x, pos.z)) {
+                return null;
+            }
+            LevelChunk chunk = chunkProvider.getChunk(pos.x, pos.z, false);
+            return chunk == null ? null : chunk.getSections();
+        };
+    }
+
+    private static int playerSection(IPlayerContext ctx) {
+        return (ctx.playerFeet().y - ctx.world().getMinBuildHeight()) >> 4;
+    }
 
-        if (paletteMap == PALETTE_REGISTRY_SENTINEL) {
-            return getIncludedFilterIndicesFromRegistry(lookup);
+    private static List<BlockPos> toBlockPos(long[] blocks) {
+        List<BlockPos> positions = new ArrayList<>(blocks.length);
+        for (long block : blocks) {
+            positions.add(BlockPos.of(block));
         }
+        return positions;
+    }
 
-        int size = paletteMap.length;
+    /**
+     * Which block states are in a lookup, by their id in {@link Block#BLOCK_STATE_REGISTRY}, worked out once per scan.
+     * The global palettes use those ids as they are, and the few ids of any other palette are looked up in it, which is
+     * much cheaper than asking the lookup about each of them.
+     */
+    private static final class PaletteFilter {
 
-        boolean[] isInFilter = new boolean[size];
+        private static final boolean[] NONE = new boolean[0];
 
-        for (int i = 0; i < size; i++) {
-            BlockState state = paletteMap[i];
-            if (lookup.has(state)) {
-                isInFilter[i] = true;
-                commonBlockFound = true;
-            } else {
-                isInFilter[i] = false;
-            }
-        }
+        /**
+         * The one made last, since the same lookup tends to be scanned for over and over, one chunk at a time
+         */
+        private static volatile PaletteFilter last;
 
-        if (!commonBlockFound) {
-            return new boolean[0];
-        }
-        return isInFilter;
-    }
+        private final BlockOptionalMetaLookup lookup;
+        private final boolean[] registry;
 
-    private boolean[] getIncludedFilterIndicesFromRegistry(BlockOptionalMetaLookup lookup) {
-        boolean[] isInFilter = new boolean[Block.BLOCK_STATE_REGISTRY.size()];
+        private PaletteFilter(BlockOptionalMetaLookup lookup) {
+            this.lookup = lookup;
+            this.registry = new boolean[Block.BLOCK_STATE_REGISTRY.size()];
+            for (BlockOptionalMeta bom : lookup.blocks()) {
+                for (BlockState state : bom.getAllBlockStates()) {
+                    registry[Block.BLOCK_STATE_REGISTRY.getId(state)] = true;
+                }
+            }
+        }
 
-        for (BlockOptionalMeta bom : lookup.blocks()) {
-            for (BlockState state : bom.getAllBlockStates()) {
-                isInFilter[Block.BLOCK_STATE_REGISTRY.getId(state)] = true;
+        private static PaletteFilter of(BlockOptionalMetaLookup lookup) {
+            PaletteFilter filter = last;
+            if (filter == null || filter.lookup != lookup) {
+                filter = new PaletteFilter(lookup);
+                last = filter;
             }
+            return filter;
         }
 
-        return isInFilter;
-    }
+        private boolean has(BlockState state) {
+            return registry[Block.BLOCK_STATE_REGISTRY.getId(state)];
+        }
 
-    /**
-     * cheats to get the actual map of id -> blockstate from the various palette implementations
-     */
-    private static BlockState[] getPalette(Palette<BlockState> palette) {
-        if (palette instanceof GlobalPalette) {
-            // copying the entire registry is not nice so we treat it as a special case
-            return PALETTE_REGISTRY_SENTINEL;
-        } else {
-            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
-            palette.write(buf);
-            int size = buf.readVarInt();
-            BlockState[] states = new BlockState[size];
+        /**
+         * @return Whether each id of the palette is in the lookup, or an empty array if none are
+         */
+        private boolean[] includedIndices(Palette<BlockState> palette) {
+            if (palette instanceof GlobalPalette) {
+                // copying the entire registry is not nice so we treat it as a special case
+                return registry;
+            }
+            int size = palette.getSize();
+            boolean[] isInFilter = new boolean[size];
+            boolean commonBlockFound = false;
             for (int i = 0; i < size; i++) {
-                BlockState state = Block.BLOCK_STATE_REGISTRY.byId(buf.readVarInt());
-                assert state != null;
-                states[i] = state;
+                if (has(palette.valueFor(i))) {
+                    isInFilter[i] = true;
+                    commonBlockFound = true;
+                }
             }
-            return states;
+            return commonBlockFound ? isInFilter : NONE;
         }
     }
 }
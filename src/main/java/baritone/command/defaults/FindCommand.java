@@ -17,6 +17,7 @@
 
 package baritone.command.defaults;
 
+import baritone.Baritone;
 import baritone.api.IBaritone;
 import baritone.api.command.Command;
 import baritone.api.command.argument.IArgConsumer;
@@ -92,7 +93,10 @@ public class FindCommand extends Command {
     public Stream<String> tabComplete(String label, IArgConsumer args) throws CommandException {
         return new TabCompleteHelper()
                 .append(
-                        CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.stream()
+                        Stream.concat(
+                                CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.stream(),
+                                Baritone.settings().cacheIndexedBlocks.value.stream()
+                        )
                                 .map(BuiltInRegistries.BLOCK::getKey)
                                 .map(Object::toString)
                 )
@@ -22,6 +22,10 @@ import baritone.api.IBaritone;
 import baritone.api.command.Command;
 import baritone.api.command.argument.IArgConsumer;
 import baritone.api.command.exception.CommandException;
+import baritone.api.command.exception.CommandInvalidStateException;
+import baritone.api.command.exception.CommandInvalidTypeException;
+import baritone.api.command.helpers.TabCompleteHelper;
+import baritone.cache.CachedWorld;
 
 import java.util.Arrays;
 import java.util.List;
@@ -35,12 +39,36 @@ public class RepackCommand extends Command {
 
     @Override
     public void execute(String label, IArgConsumer args) throws CommandException {
-        args.requireMax(0);
+        args.requireMax(1);
+        if (args.hasAny()) {
+            if (!args.getString().equalsIgnoreCase("stats")) {
+                throw new CommandInvalidTypeException(args.consumed(), "either \"stats\" or nothing");
+            }
+            if (ctx.worldData() == null) {
+                throw new CommandInvalidStateException("Not in a world");
+            }
+            CachedWorld cache = (CachedWorld) ctx.worldData().getCachedWorld();
+            logDirect(String.format(
+                    "%d chunks queued, %d packed, %d dropped, %d waiting, %.2fms per chunk",
+                    cache.getChunksQueued(),
+                    cache.getChunksPacked(),
+                    cache.getChunksDropped(),
+                    cache.getPackerQueueSize(),
+                    cache.getAveragePackTime()
+            ));
+            return;
+        }
         logDirect(String.format("Queued %d chunks for repacking", BaritoneAPI.getProvider().getWorldScanner().repack(ctx)));
     }
 
     @Override
-    public Stream<String> tabComplete(String label, IArgConsumer args) {
+    public Stream<String> tabComplete(String label, IArgConsumer args) throws CommandException {
+        if (args.hasExactlyOne()) {
+            return new TabCompleteHelper()
+                    .append("stats")
+                    .filterPrefix(args.getString())
+                    .stream();
+        }
         return Stream.empty();
     }
 
@@ -55,7 +83,8 @@ public class RepackCommand extends Command {
                 "Repack chunks around you. This basically re-caches them.",
                 "",
                 "Usage:",
-                "> repack - Repack chunks."
+                "> repack - Repack chunks.",
+                "> repack stats - Show how many chunks have been packed, and how many were dropped because the queue was full."
         );
     }
 }
@@ -23,13 +23,16 @@ import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.utils.BetterBlockPos;
 import baritone.pathing.calc.openset.BinaryHeapOpenSet;
+import baritone.pathing.calc.openset.IntBinaryHeapOpenSet;
 import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.Moves;
 import baritone.utils.pathing.BetterWorldBorder;
 import baritone.utils.pathing.Favoring;
 import baritone.utils.pathing.MutableMoveResult;
 
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The actual A* pathfinding
@@ -38,6 +41,11 @@ import java.util.Optional;
  */
 public final class AStarPathFinder extends AbstractNodeCostSearch {
 
+    /**
+     * How many nodes each thread expands per batch of a parallel search
+     */
+    private static final int PARALLEL_BATCH_PER_THREAD = 16;
+
     private final Favoring favoring;
     private final CalculationContext calcContext;
 
@@ -49,41 +57,213 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
 
     @Override
     protected Optional<IPath> calculate0(long primaryTimeout, long failureTimeout) {
-        int minY = calcContext.world.dimensionType().minY();
-        int height = calcContext.world.dimensionType().height();
+        if (useNodeStore) {
+            return calculateWithNodeStore(primaryTimeout, failureTimeout, new Expansion(calcContext, arena.getMoveResult(), 1, 0));
+        }
+        int parallelism = Baritone.settings().pathingParallelism.value;
+        if (parallelism > 1) {
+            Expansion[] expansions = new Expansion[parallelism];
+            expansions[0] = new Expansion(calcContext, new MutableMoveResult(), parallelism, 0);
+            for (int i = 1; i < parallelism; i++) {
+                CalculationContext context = calcContext.copyForThread();
+                if (context == null) { // e.g. the builder, which has costs of its own
+                    expansions = null;
+                    break;
+                }
+                expansions[i] = new Expansion(context, new MutableMoveResult(), parallelism, i);
+            }
+            if (expansions != null) {
+                return calculateWithNodes(primaryTimeout, failureTimeout, expansions);
+            }
+        }
+        return calculateWithNodes(primaryTimeout, failureTimeout, new Expansion[]{new Expansion(calcContext, new MutableMoveResult(), 1, 0)});
+    }
+
+    /**
+     * The A* search over {@link PathNode}s.
+     * <p>
+     * With one {@link Expansion}, this is the plain sequential search, one node at a time. With more, the lowest nodes of
+     * the open set are taken in batches, and the movements out of each batch are calculated on several threads, one
+     * {@link CalculationContext} each. Everything that touches the nodes, the open set and the favoring happens back on
+     * this thread, in the same order the sequential search would do it.
+     * <p>
+     * A batch can expand nodes whose cost isn't final yet, but such nodes just go back into the open set when a cheaper
+     * way to them is found, same as when {@link baritone.api.Settings#minimumImprovementRepropagation} is off.
+     */
+    private Optional<IPath> calculateWithNodes(long primaryTimeout, long failureTimeout, Expansion[] expansions) {
         startNode = getNodeAtPosition(startX, startY, startZ, BetterBlockPos.longHash(startX, startY, startZ));
         startNode.cost = 0;
         startNode.combinedCost = startNode.estimatedCostToGoal;
         BinaryHeapOpenSet openSet = new BinaryHeapOpenSet();
         openSet.insert(startNode);
-        double[] bestHeuristicSoFar = new double[COEFFICIENTS.length];//keep track of the best node by the metric of (estimatedCostToGoal + cost / COEFFICIENTS[i])
-        for (int i = 0; i < bestHeuristicSoFar.length; i++) {
-            bestHeuristicSoFar[i] = startNode.estimatedCostToGoal;
-            bestSoFar[i] = startNode;
-        }
-        MutableMoveResult res = new MutableMoveResult();
-        BetterWorldBorder worldBorder = new BetterWorldBorder(calcContext.world.getWorldBorder());
-        long startTime = System.currentTimeMillis();
-        boolean slowPath = Baritone.settings().slowPath.value;
-        if (slowPath) {
-            logDebug("slowPath is on, path timeout will be " + Baritone.settings().slowPathTimeoutMS.value + "ms instead of " + primaryTimeout + "ms");
-        }
-        long primaryTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : primaryTimeout);
-        long failureTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
-        boolean failing = true;
-        int numNodes = 0;
-        int numMovementsConsidered = 0;
-        int numEmptyChunk = 0;
-        boolean isFavoring = !favoring.isEmpty();
-        int timeCheckInterval = 1 << 6;
-        int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value; // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
-        double minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
-        Moves[] allMoves = Moves.values();
-        while (!openSet.isEmpty() && numEmptyChunk < pathingMaxChunkBorderFetch && !cancelRequested) {
-            if ((numNodes & (timeCheckInterval - 1)) == 0) { // only call this once every 64 nodes (about half a millisecond)
-                long now = System.currentTimeMillis(); // since nanoTime is slow on windows (takes many microseconds)
+        Arrays.fill(bestSoFar, startNode);
+        Search search = new Search(primaryTimeout, failureTimeout, startNode.estimatedCostToGoal);
+        Batch batch = new Batch(expansions);
+        PathNode[] nodes = new PathNode[batch.capacity];
+        while (search.shouldContinue(openSet.isEmpty())) {
+            batch.size = 0;
+            while (batch.size < batch.capacity && !openSet.isEmpty()) {
+                PathNode currentNode = openSet.removeLowest();
+                mostRecentConsidered = currentNode;
+                search.numNodes++;
+                if (goal.isInGoal(currentNode.x, currentNode.y, currentNode.z)) {
+                    search.logFound();
+                    learnHeuristics(currentNode.cost, search.numNodes);
+                    return Optional.of(new Path(realStart, startNode, currentNode, search.numNodes, goal, calcContext));
+                }
+                nodes[batch.size] = currentNode;
+                batch.add(currentNode.x, currentNode.y, currentNode.z);
+            }
+            batch.expand();
+            for (Expansion expansion : expansions) {
+                search.count(expansion);
+                for (int j = 0; j < expansion.size; j++) {
+                    PathNode currentNode = nodes[expansion.source[j]];
+                    int x = expansion.x[j];
+                    int y = expansion.y[j];
+                    int z = expansion.z[j];
+                    long hashCode = BetterBlockPos.longHash(x, y, z);
+                    PathNode neighbor = getNodeAtPosition(x, y, z, hashCode);
+                    double tentativeCost = currentNode.cost + search.favor(expansion.cost[j], hashCode);
+                    if (neighbor.cost - tentativeCost > search.minimumImprovement) {
+                        neighbor.previous = currentNode;
+                        neighbor.cost = tentativeCost;
+                        neighbor.combinedCost = tentativeCost + neighbor.estimatedCostToGoal;
+                        if (neighbor.isOpen()) {
+                            openSet.update(neighbor);
+                        } else {
+                            openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                        }
+                        for (int i = 0; i < COEFFICIENTS.length; i++) {
+                            if (search.improvesBest(i, neighbor.estimatedCostToGoal + tentativeCost / COEFFICIENTS[i])) {
+                                bestSoFar[i] = neighbor;
+                                if (search.failing && getDistFromStartSq(neighbor) > MIN_DIST_PATH * MIN_DIST_PATH) {
+                                    search.failing = false;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return search.finish(openSet.size(), expansions.length > 1 ? "Searched on " + expansions.length + " threads" : null);
+    }
+
+    /**
+     * Exactly the same search as {@link #calculateWithNodes}, but over int indices into the {@link #nodeStore} instead
+     * of {@link PathNode}s, and always one node at a time
+     */
+    private Optional<IPath> calculateWithNodeStore(long primaryTimeout, long failureTimeout, Expansion expansion) {
+        NodeStore store = nodeStore;
+        startIndex = store.getNode(startX, startY, startZ, BetterBlockPos.longHash(startX, startY, startZ));
+        store.setCost(startIndex, 0);
+        store.setCombinedCost(startIndex, store.getEstimatedCostToGoal(startIndex));
+        IntBinaryHeapOpenSet openSet = arena.getOpenSet();
+        openSet.insert(startIndex);
+        Arrays.fill(bestSoFarIndex, startIndex);
+        Search search = new Search(primaryTimeout, failureTimeout, store.getEstimatedCostToGoal(startIndex));
+        Batch batch = new Batch(new Expansion[]{expansion});
+        while (search.shouldContinue(openSet.isEmpty())) {
+            int currentNode = openSet.removeLowest();
+            mostRecentConsideredIndex = currentNode;
+            search.numNodes++;
+            int currentX = store.getX(currentNode);
+            int currentY = store.getY(currentNode);
+            int currentZ = store.getZ(currentNode);
+            double currentCost = store.getCost(currentNode);
+            if (goal.isInGoal(currentX, currentY, currentZ)) {
+                search.logFound();
+                learnHeuristics(currentCost, search.numNodes);
+                return Optional.of(pathTo(store, currentNode, search.numNodes));
+            }
+            batch.size = 0;
+            batch.add(currentX, currentY, currentZ);
+            batch.expand();
+            search.count(expansion);
+            for (int j = 0; j < expansion.size; j++) {
+                int x = expansion.x[j];
+                int y = expansion.y[j];
+                int z = expansion.z[j];
+                long hashCode = BetterBlockPos.longHash(x, y, z);
+                int neighbor = store.getNode(x, y, z, hashCode);
+                double tentativeCost = currentCost + search.favor(expansion.cost[j], hashCode);
+                if (store.getCost(neighbor) - tentativeCost > search.minimumImprovement) {
+                    double estimatedCostToGoal = store.getEstimatedCostToGoal(neighbor);
+                    store.setPrevious(neighbor, currentNode);
+                    store.setCost(neighbor, tentativeCost);
+                    store.setCombinedCost(neighbor, tentativeCost + estimatedCostToGoal);
+                    if (store.isOpen(neighbor)) {
+                        openSet.update(neighbor);
+                    } else {
+                        openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                    }
+                    for (int i = 0; i < COEFFICIENTS.length; i++) {
+                        if (search.improvesBest(i, estimatedCostToGoal + tentativeCost / COEFFICIENTS[i])) {
+                            bestSoFarIndex[i] = neighbor;
+                            if (search.failing && getDistFromStartSq(store, neighbor) > MIN_DIST_PATH * MIN_DIST_PATH) {
+                                search.failing = false;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return search.finish(openSet.size(), SearchArena.stats());
+    }
+
+    /**
+     * Everything about a search that doesn't depend on how its nodes are stored: the settings it runs with, when it has
+     * to stop, what it counted along the way, and how good the best node so far is for each of the {@link #COEFFICIENTS}
+     */
+    private final class Search {
+
+        private final long startTime;
+        private final boolean slowPath;
+        private final long primaryTimeoutTime;
+        private final long failureTimeoutTime;
+        private final boolean isFavoring;
+        private final int pathingMaxChunkBorderFetch;
+        private final double minimumImprovement;
+
+        /**
+         * Keep track of the best node by the metric of (estimatedCostToGoal + cost / COEFFICIENTS[i])
+         */
+        private final double[] bestHeuristicSoFar = new double[COEFFICIENTS.length];
+
+        private boolean failing = true;
+        private int numNodes;
+        private int numMovementsConsidered;
+        private int numEmptyChunk;
+        private int nextTimeCheck;
+
+        private Search(long primaryTimeout, long failureTimeout, double startHeuristic) {
+            this.startTime = System.currentTimeMillis();
+            this.slowPath = Baritone.settings().slowPath.value;
+            if (slowPath) {
+                logDebug("slowPath is on, path timeout will be " + Baritone.settings().slowPathTimeoutMS.value + "ms instead of " + primaryTimeout + "ms");
+            }
+            this.primaryTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : primaryTimeout);
+            this.failureTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
+            this.isFavoring = !favoring.isEmpty();
+            // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
+            this.pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value;
+            this.minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
+            Arrays.fill(bestHeuristicSoFar, startHeuristic);
+        }
+
+        /**
+         * Checks the time every 64 nodes (about half a millisecond), since nanoTime is slow on windows (takes many
+         * microseconds), and sleeps before the next nodes when {@link baritone.api.Settings#slowPath} is on
+         */
+        private boolean shouldContinue(boolean openSetEmpty) {
+            if (openSetEmpty || numEmptyChunk >= pathingMaxChunkBorderFetch || cancelRequested) {
+                return false;
+            }
+            if (numNodes >= nextTimeCheck) {
+                nextTimeCheck = numNodes + 64;
+                long now = System.currentTimeMillis();
                 if (now - failureTimeoutTime >= 0 || (!failing && now - primaryTimeoutTime >= 0)) {
-                    break;
+                    return false;
                 }
             }
             if (slowPath) {
@@ -91,17 +271,164 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                     Thread.sleep(Baritone.settings().slowPathTimeDelayMS.value);
                 } catch (InterruptedException ignored) {}
             }
-            PathNode currentNode = openSet.removeLowest();
-            mostRecentConsidered = currentNode;
-            numNodes++;
-            if (goal.isInGoal(currentNode.x, currentNode.y, currentNode.z)) {
-                logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
-                return Optional.of(new Path(realStart, startNode, currentNode, numNodes, goal, calcContext));
-            }
-            for (Moves moves : allMoves) {
-                int newX = currentNode.x + moves.xOffset;
-                int newZ = currentNode.z + moves.zOffset;
-                if ((newX >> 4 != currentNode.x >> 4 || newZ >> 4 != currentNode.z >> 4) && !calcContext.isLoaded(newX, newZ)) {
+            return true;
+        }
+
+        private void count(Expansion expansion) {
+            numMovementsConsidered += expansion.numMovementsConsidered;
+            numEmptyChunk += expansion.numEmptyChunk;
+        }
+
+        private double favor(double actionCost, long hashCode) {
+            if (isFavoring) {
+                // see issue #18
+                return actionCost * favoring.calculate(hashCode);
+            }
+            return actionCost;
+        }
+
+        private boolean improvesBest(int coefficient, double heuristic) {
+            if (bestHeuristicSoFar[coefficient] - heuristic > minimumImprovement) {
+                bestHeuristicSoFar[coefficient] = heuristic;
+                return true;
+            }
+            return false;
+        }
+
+        private void logFound() {
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
+        }
+
+        /**
+         * @param openSetSize How many nodes were left in the open set
+         * @param stats       Anything else worth printing about this search, or null
+         * @return The best path so far, if it's any good
+         */
+        private Optional<IPath> finish(int openSetSize, String stats) {
+            if (cancelRequested) {
+                return Optional.empty();
+            }
+            System.out.println(numMovementsConsidered + " movements considered");
+            System.out.println("Open set size: " + openSetSize);
+            System.out.println("PathNode map size: " + mapSize());
+            System.out.println((int) (numNodes * 1.0 / ((System.currentTimeMillis() - startTime) / 1000F)) + " nodes per second");
+            if (stats != null) {
+                System.out.println(stats);
+            }
+            Optional<IPath> result = bestSoFar(true, numNodes);
+            if (result.isPresent()) {
+                logFound();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The positions of the nodes taken out of the open set together, and the {@link Expansion}s that calculate the
+     * movements out of them, in parallel when there's more than one
+     */
+    private static final class Batch {
+
+        private final Expansion[] expansions;
+        private final CompletableFuture<?>[] futures;
+        private final int capacity;
+        private final int[] x;
+        private final int[] y;
+        private final int[] z;
+        private int size;
+
+        private Batch(Expansion[] expansions) {
+            this.expansions = expansions;
+            this.futures = new CompletableFuture[expansions.length - 1];
+            this.capacity = expansions.length == 1 ? 1 : expansions.length * PARALLEL_BATCH_PER_THREAD;
+            this.x = new int[capacity];
+            this.y = new int[capacity];
+            this.z = new int[capacity];
+        }
+
+        private void add(int x, int y, int z) {
+            this.x[size] = x;
+            this.y[size] = y;
+            this.z[size] = z;
+            size++;
+        }
+
+        private void expand() {
+            for (int i = 1; i < expansions.length; i++) {
+                Expansion expansion = expansions[i];
+                futures[i - 1] = CompletableFuture.runAsync(() -> expansion.expand(this), Baritone.getExecutor());
+            }
+            expansions[0].expand(this);
+            if (futures.length > 0) {
+                CompletableFuture.allOf(futures).join();
+            }
+            for (Expansion expansion : expansions) {
+                if (expansion.failure != null) {
+                    throw expansion.failure; // thrown on the search thread, so that it ends the calculation like it would have sequentially
+                }
+            }
+        }
+    }
+
+    /**
+     * The movements out of every n-th node of a {@link Batch}, calculated by one thread. Only the movements that are
+     * possible at all are kept, as destination and cost, for the search thread to relax the neighbors with.
+     */
+    private static final class Expansion {
+
+        private static final Moves[] ALL_MOVES = Moves.values();
+
+        private final CalculationContext context;
+        private final BetterWorldBorder worldBorder;
+        private final MutableMoveResult res;
+        private final int minY;
+        private final int height;
+        private final int stride;
+        private final int offset;
+
+        /**
+         * Index in the batch of the node each movement starts at
+         */
+        private int[] source = new int[256];
+        private int[] x = new int[256];
+        private int[] y = new int[256];
+        private int[] z = new int[256];
+        private double[] cost = new double[256];
+        private int size;
+
+        private int numMovementsConsidered;
+        private int numEmptyChunk;
+        private RuntimeException failure;
+
+        private Expansion(CalculationContext context, MutableMoveResult res, int stride, int offset) {
+            this.context = context;
+            this.worldBorder = context.worldBorder;
+            this.res = res;
+            this.minY = context.minY;
+            this.height = context.height;
+            this.stride = stride;
+            this.offset = offset;
+        }
+
+        private void expand(Batch batch) {
+            size = 0;
+            numMovementsConsidered = 0;
+            numEmptyChunk = 0;
+            failure = null;
+            try {
+                for (int i = offset; i < batch.size; i += stride) {
+                    expand(i, batch.x[i], batch.y[i], batch.z[i]);
+                }
+            } catch (RuntimeException ex) {
+                failure = ex;
+            }
+        }
+
+        private void expand(int sourceIndex, int currentX, int currentY, int currentZ) {
+            for (Moves moves : ALL_MOVES) {
+                int newX = currentX + moves.xOffset;
+                int newZ = currentZ + moves.zOffset;
+                if ((newX >> 4 != currentX >> 4 || newZ >> 4 != currentZ >> 4) && !context.isLoaded(newX, newZ)) {
                     // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
                     if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
                         numEmptyChunk++;
@@ -111,11 +438,11 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                 if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
                     continue;
                 }
-                if (currentNode.y + moves.yOffset > height || currentNode.y + moves.yOffset < minY) {
+                if (currentY + moves.yOffset > height || currentY + moves.yOffset < minY) {
                     continue;
                 }
                 res.reset();
-                moves.apply(calcContext, currentNode.x, currentNode.y, currentNode.z, res);
+                moves.apply(context, currentX, currentY, currentZ, res);
                 numMovementsConsidered++;
                 double actionCost = res.cost;
                 if (actionCost >= ActionCosts.COST_INF) {
@@ -131,49 +458,24 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                 if (!moves.dynamicXZ && (res.x != newX || res.z != newZ)) {
                     throw new IllegalStateException(moves + " " + res.x + " " + newX + " " + res.z + " " + newZ);
                 }
-                if (!moves.dynamicY && res.y != currentNode.y + moves.yOffset) {
-                    throw new IllegalStateException(moves + " " + res.y + " " + (currentNode.y + moves.yOffset));
-                }
-                long hashCode = BetterBlockPos.longHash(res.x, res.y, res.z);
-                if (isFavoring) {
-                    // see issue #18
-                    actionCost *= favoring.calculate(hashCode);
-                }
-                PathNode neighbor = getNodeAtPosition(res.x, res.y, res.z, hashCode);
-                double tentativeCost = currentNode.cost + actionCost;
-                if (neighbor.cost - tentativeCost > minimumImprovement) {
-                    neighbor.previous = currentNode;
-                    neighbor.cost = tentativeCost;
-                    neighbor.combinedCost = tentativeCost + neighbor.estimatedCostToGoal;
-                    if (neighbor.isOpen()) {
-                        openSet.update(neighbor);
-                    } else {
-                        openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
-                    }
-                    for (int i = 0; i < COEFFICIENTS.length; i++) {
-                        double heuristic = neighbor.estimatedCostToGoal + neighbor.cost / COEFFICIENTS[i];
-                        if (bestHeuristicSoFar[i] - heuristic > minimumImprovement) {
-                            bestHeuristicSoFar[i] = heuristic;
-                            bestSoFar[i] = neighbor;
-                            if (failing && getDistFromStartSq(neighbor) > MIN_DIST_PATH * MIN_DIST_PATH) {
-                                failing = false;
-                            }
-                        }
-                    }
+                if (!moves.dynamicY && res.y != currentY + moves.yOffset) {
+                    throw new IllegalStateException(moves + " " + res.y + " " + (currentY + moves.yOffset));
+                }
+                if (size == source.length) {
+                    int capacity = size << 1;
+                    source = Arrays.copyOf(source, capacity);
+                    x = Arrays.copyOf(x, capacity);
+                    y = Arrays.copyOf(y, capacity);
+                    z = Arrays.copyOf(z, capacity);
+                    cost = Arrays.copyOf(cost, capacity);
                 }
+                source[size] = sourceIndex;
+                x[size] = res.x;
+                y[size] = res.y;
+                z[size] = res.z;
+                cost[size] = actionCost;
+                size++;
             }
         }
-        if (cancelRequested) {
-            return Optional.empty();
-        }
-        System.out.println(numMovementsConsidered + " movements considered");
-        System.out.println("Open set size: " + openSet.size());
-        System.out.println("PathNode map size: " + mapSize());
-        System.out.println((int) (numNodes * 1.0 / ((System.currentTimeMillis() - startTime) / 1000F)) + " nodes per second");
-        Optional<IPath> result = bestSoFar(true, numNodes);
-        if (result.isPresent()) {
-            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
-        }
-        return result;
     }
 }
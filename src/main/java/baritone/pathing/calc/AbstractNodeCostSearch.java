@@ -21,12 +21,15 @@ import baritone.Baritone;
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.calc.IPathFinder;
 import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
 import baritone.api.utils.PathCalculationResult;
 import baritone.pathing.movement.CalculationContext;
+import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 /**
@@ -43,6 +46,16 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
 
     protected final Goal goal;
 
+    /**
+     * What earlier searches to the same goal learned, or null, see {@link baritone.api.Settings#pathingHeuristicCache}
+     */
+    private final HeuristicCache heuristicCache;
+
+    /**
+     * The goal whose heuristic new nodes get, the same as {@link #goal} unless there is a {@link #heuristicCache}
+     */
+    private final Goal heuristicGoal;
+
     private final CalculationContext context;
 
     /**
@@ -50,12 +63,31 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
      */
     private final Long2ObjectOpenHashMap<PathNode> map;
 
+    /**
+     * Whether to use {@link #nodeStore} instead of {@link #map} and the {@link PathNode} fields below,
+     * see {@link baritone.api.Settings#pathingPrimitiveNodeStore}
+     */
+    protected final boolean useNodeStore;
+
+    /**
+     * Only set while {@link #calculate(long, long)} is running, because it belongs to the {@link #arena} of the calculating thread
+     */
+    protected volatile NodeStore nodeStore;
+
+    protected SearchArena arena;
+
     protected PathNode startNode;
 
     protected PathNode mostRecentConsidered;
 
     protected final PathNode[] bestSoFar = new PathNode[COEFFICIENTS.length];
 
+    protected int startIndex = NodeStore.NO_NODE;
+
+    protected int mostRecentConsideredIndex = NodeStore.NO_NODE;
+
+    protected final int[] bestSoFarIndex = new int[COEFFICIENTS.length];
+
     private volatile boolean isFinished;
 
     protected boolean cancelRequested;
@@ -89,7 +121,11 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
         this.startZ = startZ;
         this.goal = goal;
         this.context = context;
-        this.map = new Long2ObjectOpenHashMap<>(Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+        this.heuristicCache = HeuristicCache.forSearch(goal, context.world);
+        this.heuristicGoal = heuristicCache == null ? goal : heuristicCache.refinedGoal;
+        this.useNodeStore = Baritone.settings().pathingPrimitiveNodeStore.value;
+        this.map = useNodeStore ? null : new Long2ObjectOpenHashMap<>(Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+        Arrays.fill(bestSoFarIndex, NodeStore.NO_NODE);
     }
 
     public void cancel() {
@@ -102,6 +138,11 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
             throw new IllegalStateException("Path finder cannot be reused!");
         }
         cancelRequested = false;
+        boolean positionFlags = context.positionFlags.beginSearch();
+        if (useNodeStore) {
+            arena = SearchArena.acquire(heuristicGoal);
+            nodeStore = arena.getNodeStore();
+        }
         try {
             IPath path = calculate0(primaryTimeout, failureTimeout).map(IPath::postProcess).orElse(null);
             if (cancelRequested) {
@@ -134,6 +175,14 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
             return new PathCalculationResult(PathCalculationResult.Type.EXCEPTION);
         } finally {
             // this is run regardless of what exception may or may not be raised by calculate0
+            if (positionFlags) {
+                context.positionFlags.endSearch();
+            }
+            if (arena != null) {
+                nodeStore = null;
+                arena.release();
+                arena = null;
+            }
             isFinished = true;
         }
     }
@@ -149,9 +198,25 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
      * @return The distance, squared
      */
     protected double getDistFromStartSq(PathNode n) {
-        int xDiff = n.x - startX;
-        int yDiff = n.y - startY;
-        int zDiff = n.z - startZ;
+        return getDistFromStartSq(n.x, n.y, n.z);
+    }
+
+    /**
+     * Same as {@link #getDistFromStartSq(PathNode)}, for a node in a {@link NodeStore}. Like everything else
+     * {@link #bestPathSoFar()} reads, this can be called from other threads while the arena is being released.
+     *
+     * @param store The node store
+     * @param index A node index
+     * @return The distance, squared, or -1 if the node isn't in the store anymore
+     */
+    protected double getDistFromStartSq(NodeStore store, int index) {
+        return store.getDistSq(index, startX, startY, startZ);
+    }
+
+    private double getDistFromStartSq(int x, int y, int z) {
+        int xDiff = x - startX;
+        int yDiff = y - startY;
+        int zDiff = z - startZ;
         return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff;
     }
 
@@ -171,14 +236,71 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
     protected PathNode getNodeAtPosition(int x, int y, int z, long hashCode) {
         PathNode node = map.get(hashCode);
         if (node == null) {
-            node = new PathNode(x, y, z, goal);
+            node = new PathNode(x, y, z, heuristicGoal);
             map.put(hashCode, node);
         }
         return node;
     }
 
+    /**
+     * Tells the {@link #heuristicCache} what this search found out about how far the nodes it expanded are from the goal
+     *
+     * @param goalCost The cost of the way to the goal it found
+     * @param numNodes The number of nodes considered
+     */
+    protected void learnHeuristics(double goalCost, int numNodes) {
+        if (heuristicCache == null) {
+            return;
+        }
+        Long2DoubleOpenHashMap learned = new Long2DoubleOpenHashMap();
+        if (useNodeStore) {
+            NodeStore store = nodeStore;
+            for (int i = 0; i < store.size(); i++) {
+                // expanded nodes are the ones that were reached but aren't in the open set anymore
+                double bound = goalCost - store.getCost(i);
+                if (!store.isOpen(i) && store.getCost(i) < ActionCosts.COST_INF && bound > store.getEstimatedCostToGoal(i)) {
+                    learned.put(BetterBlockPos.longHash(store.getX(i), store.getY(i), store.getZ(i)), bound);
+                }
+            }
+        } else {
+            for (PathNode node : map.values()) {
+                double bound = goalCost - node.cost;
+                if (!node.isOpen() && node.cost < ActionCosts.COST_INF && bound > node.estimatedCostToGoal) {
+                    learned.put(BetterBlockPos.longHash(node.x, node.y, node.z), bound);
+                }
+            }
+        }
+        heuristicCache.learn(learned, numNodes);
+        logDebug(HeuristicCache.stats());
+    }
+
+    /**
+     * Creates a path from the start to the specified node in a {@link NodeStore}
+     *
+     * @param store    The node store
+     * @param index    The index of the last node
+     * @param numNodes The number of nodes considered
+     * @return The path, or {@code null} if another thread looked while the arena was being released
+     */
+    protected Path pathTo(NodeStore store, int index, int numNodes) {
+        PathNode end = store.materialize(index);
+        if (end == null) {
+            return null;
+        }
+        PathNode start = end;
+        while (start.previous != null) {
+            start = start.previous;
+        }
+        return new Path(realStart, start, end, numNodes, goal, context);
+    }
+
     @Override
     public Optional<IPath> pathToMostRecentNodeConsidered() {
+        if (useNodeStore) {
+            NodeStore store = nodeStore;
+            int index = mostRecentConsideredIndex;
+            return store == null || index == NodeStore.NO_NODE ? Optional.empty() : Optional.ofNullable(pathTo(store, index, 0));
+        }
         return Optional.ofNullable(mostRecentConsidered).map(node -> new Path(realStart, startNode, node, 0, goal, context));
     }
 
@@ -188,15 +310,17 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
     }
 
     protected Optional<IPath> bestSoFar(boolean logInfo, int numNodes) {
-        if (startNode == null) {
+        NodeStore store = nodeStore;
+        if (useNodeStore ? store == null || startIndex == NodeStore.NO_NODE : startNode == null) {
             return Optional.empty();
         }
         double bestDist = 0;
         for (int i = 0; i < COEFFICIENTS.length; i++) {
-            if (bestSoFar[i] == null) {
+            int index = bestSoFarIndex[i];
+            if (useNodeStore ? index == NodeStore.NO_NODE : bestSoFar[i] == null) {
                 continue;
             }
-            double dist = getDistFromStartSq(bestSoFar[i]);
+            double dist = useNodeStore ? getDistFromStartSq(store, index) : getDistFromStartSq(bestSoFar[i]);
             if (dist > bestDist) {
                 bestDist = dist;
             }
@@ -210,6 +334,9 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
                     System.out.println("Path goes for " + Math.sqrt(dist) + " blocks");
                     logDebug("A* cost coefficient " + COEFFICIENTS[i]);
                 }
+                if (useNodeStore) {
+                    return Optional.ofNullable(pathTo(store, index, numNodes));
+                }
                 return Optional.of(new Path(realStart, startNode, bestSoFar[i], numNodes, goal, context));
             }
         }
@@ -238,6 +365,10 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
     }
 
     protected int mapSize() {
+        if (useNodeStore) {
+            NodeStore store = nodeStore;
+            return store == null ? 0 : store.size();
+        }
         return map.size();
     }
 }
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.SettingsUtil;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+/**
+ * A route of chunks planned by {@link ChunkRoutePlanner}, from the chunk of the start to the chunk of the goal, where
+ * every chunk is next to the one before it (diagonals included).
+ */
+public final class ChunkRoute {
+
+    private final int[] x;
+    private final int[] z;
+
+    /**
+     * How many chunks the planner expanded to find this route
+     */
+    private final int numChunks;
+
+    private ChunkRoute(int[] x, int[] z, int numChunks) {
+        this.x = x;
+        this.z = z;
+        this.numChunks = numChunks;
+    }
+
+    static ChunkRoute from(PathNode end, int numChunks) {
+        int length = 0;
+        for (PathNode node = end; node != null; node = node.previous) {
+            length++;
+        }
+        int[] x = new int[length];
+        int[] z = new int[length];
+        PathNode node = end;
+        for (int i = length - 1; i >= 0; i--) {
+            x[i] = node.x;
+            z[i] = node.z;
+            node = node.previous;
+        }
+        return new ChunkRoute(x, z, numChunks);
+    }
+
+    public int length() {
+        return x.length;
+    }
+
+    public int getNumChunksConsidered() {
+        return numChunks;
+    }
+
+    /**
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param radius How many chunks off the route still count as on it
+     * @return The index of the last chunk of the route within the radius, or -1 if there is none
+     */
+    public int indexNear(int chunkX, int chunkZ, int radius) {
+        for (int i = x.length - 1; i >= 0; i--) {
+            if (Math.abs(x[i] - chunkX) <= radius && Math.abs(z[i] - chunkZ) <= radius) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The goal for the next segment of a trip along this route: the chunk some distance further along the route, only
+     * going through the chunks around the route on the way there. Once the end of the route is that close, it's just
+     * the goal of the whole trip.
+     *
+     * @param startX         The x block coordinate of the start of the segment
+     * @param startZ         The z block coordinate of the start of the segment
+     * @param finalGoal      The goal of the whole trip
+     * @param waypointChunks How many chunks further along the route to aim for
+     * @param corridorRadius How many chunks either side of the route the segment may go through
+     * @return The goal of the segment, or {@code null} if the start is too far off the route to follow it
+     */
+    public Goal segmentGoal(int startX, int startZ, Goal finalGoal, int waypointChunks, int corridorRadius) {
+        int index = indexNear(startX >> 4, startZ >> 4, corridorRadius);
+        if (index == -1) {
+            return null;
+        }
+        int target = index + waypointChunks;
+        if (target >= x.length - 1) {
+            return finalGoal;
+        }
+        LongOpenHashSet corridor = new LongOpenHashSet();
+        for (int i = Math.max(0, index - corridorRadius); i <= target + corridorRadius && i < x.length; i++) {
+            for (int dx = -corridorRadius; dx <= corridorRadius; dx++) {
+                for (int dz = -corridorRadius; dz <= corridorRadius; dz++) {
+                    corridor.add(chunkKey(x[i] + dx, z[i] + dz));
+                }
+            }
+        }
+        return new GoalCorridor(x[target], z[target], corridor, corridorRadius);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Get to any position in one chunk, staying inside a set of chunks on the way there. Leaving them isn't impossible,
+     * just penalized in the heuristic, so that the search only goes outside when the corridor is much worse.
+     */
+    private static final class GoalCorridor implements Goal {
+
+        private final int chunkX;
+        private final int chunkZ;
+        private final LongOpenHashSet corridor;
+        private final double outsidePenalty;
+
+        private GoalCorridor(int chunkX, int chunkZ, LongOpenHashSet corridor, int corridorRadius) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.corridor = corridor;
+            // about as much as a detour around the whole width of the corridor and back
+            this.outsidePenalty = GoalXZ.calculate(0, 16 * 4 * (corridorRadius + 1));
+        }
+
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return x >> 4 == chunkX && z >> 4 == chunkZ;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            int minX = chunkX << 4;
+            int minZ = chunkZ << 4;
+            int xDiff = x < minX ? minX - x : Math.max(0, x - (minX + 15));
+            int zDiff = z < minZ ? minZ - z : Math.max(0, z - (minZ + 15));
+            double heuristic = GoalXZ.calculate(xDiff, zDiff);
+            if (!corridor.contains(chunkKey(x >> 4, z >> 4))) {
+                heuristic += outsidePenalty;
+            }
+            return heuristic;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            GoalCorridor goal = (GoalCorridor) o;
+            return chunkX == goal.chunkX && chunkZ == goal.chunkZ && corridor.equals(goal.corridor);
+        }
+
+        @Override
+        public int hashCode() {
+            return chunkX * 1291634539 + chunkZ;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "GoalCorridor{chunkX=%s,chunkZ=%s,chunks=%s}",
+                    SettingsUtil.maybeCensor(chunkX),
+                    SettingsUtil.maybeCensor(chunkZ),
+                    corridor.size()
+            );
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.utils.BetterBlockPos;
+import baritone.cache.CachedChunk;
+import baritone.cache.CachedRegion;
+import baritone.cache.CachedWorld;
+import baritone.pathing.calc.openset.BinaryHeapOpenSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+/**
+ * A* over whole chunks instead of blocks, using the summaries that {@link CachedChunk} keeps of where in a chunk there
+ * is somewhere to stand. Gives a rough route to a goal far away, that {@link ChunkRoute} then cuts into corridors for
+ * {@link AStarPathFinder} to path through block by block.
+ * <p>
+ * Chunks that aren't cached are assumed to be passable, just a bit more expensive, so a route can always be found
+ * unless {@link #MAX_CHUNKS} runs out first.
+ */
+public final class ChunkRoutePlanner {
+
+    /**
+     * How many chunks to expand at most, about 300 chunks in every direction. Enough for trips of tens of thousands of
+     * blocks, since the heuristic keeps the search close to a straight line
+     */
+    private static final int MAX_CHUNKS = 400_000;
+
+    private static final double SQRT_2 = Math.sqrt(2);
+
+    /**
+     * Walking straight across a chunk
+     */
+    private static final double CHUNK_COST = 16 * ActionCosts.WALK_ONE_BLOCK_COST;
+
+    /**
+     * Cost multiplier for chunks that aren't cached
+     */
+    private static final double UNKNOWN_COST = 1.5;
+
+    /**
+     * Cost multiplier for chunks without anywhere to stand or swim, that would have to be mined through
+     */
+    private static final double BLOCKED_COST = 6;
+
+    /**
+     * Cost multiplier for crossing from one chunk into the next when nothing on their shared border lines up
+     */
+    private static final double DISCONNECTED_COST = 4;
+
+    private static final int[][] DIRECTIONS = {{0, -1}, {0, 1}, {-1, 0}, {1, 0}, {-1, -1}, {1, -1}, {-1, 1}, {1, 1}};
+
+    private final CachedWorld world;
+    private final int goalChunkX;
+    private final int goalChunkZ;
+
+    /**
+     * Regions looked at so far, so that {@link CachedWorld#getRegion(int, int)} is only called once each
+     */
+    private final Long2ObjectOpenHashMap<CachedRegion> regions = new Long2ObjectOpenHashMap<>();
+
+    private final Long2ObjectOpenHashMap<PathNode> map = new Long2ObjectOpenHashMap<>();
+
+    private ChunkRoutePlanner(CachedWorld world, int goalChunkX, int goalChunkZ) {
+        this.world = world;
+        this.goalChunkX = goalChunkX;
+        this.goalChunkZ = goalChunkZ;
+    }
+
+    /**
+     * Plans a route of chunks from the chunk containing the start to the chunk containing the goal.
+     *
+     * @param world  The cached world to plan over
+     * @param startX The x block coordinate of the start
+     * @param startZ The z block coordinate of the start
+     * @param goalX  The x block coordinate of the goal
+     * @param goalZ  The z block coordinate of the goal
+     * @return The route, or {@code null} if none was found within {@link #MAX_CHUNKS}
+     */
+    public static ChunkRoute plan(CachedWorld world, int startX, int startZ, int goalX, int goalZ) {
+        return new ChunkRoutePlanner(world, goalX >> 4, goalZ >> 4).plan(startX >> 4, startZ >> 4);
+    }
+
+    private ChunkRoute plan(int startChunkX, int startChunkZ) {
+        PathNode start = getNode(startChunkX, startChunkZ);
+        start.cost = 0;
+        start.combinedCost = start.estimatedCostToGoal;
+        BinaryHeapOpenSet openSet = new BinaryHeapOpenSet();
+        openSet.insert(start);
+        int numChunks = 0;
+        while (!openSet.isEmpty() && numChunks < MAX_CHUNKS) {
+            PathNode current = openSet.removeLowest();
+            numChunks++;
+            if (current.x == goalChunkX && current.z == goalChunkZ) {
+                return ChunkRoute.from(current, numChunks);
+            }
+            CachedChunk currentChunk = getChunk(current.x, current.z);
+            for (int[] direction : DIRECTIONS) {
+                int x = current.x + direction[0];
+                int z = current.z + direction[1];
+                double actionCost = direction[0] != 0 && direction[1] != 0
+                        ? diagonalCost(current.x, current.z, currentChunk, x, z)
+                        : cost(currentChunk, getChunk(x, z), direction[0], direction[1]);
+                PathNode neighbor = getNode(x, z);
+                double tentativeCost = current.cost + actionCost;
+                if (neighbor.cost - tentativeCost > AbstractNodeCostSearch.MIN_IMPROVEMENT) {
+                    neighbor.previous = current;
+                    neighbor.cost = tentativeCost;
+                    neighbor.combinedCost = tentativeCost + neighbor.estimatedCostToGoal;
+                    if (neighbor.isOpen()) {
+                        openSet.update(neighbor);
+                    } else {
+                        openSet.insert(neighbor);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private PathNode getNode(int chunkX, int chunkZ) {
+        long hashCode = BetterBlockPos.longHash(chunkX, 0, chunkZ);
+        PathNode node = map.get(hashCode);
+        if (node == null) {
+            node = new PathNode(chunkX, 0, chunkZ, heuristic(chunkX, chunkZ));
+            map.put(hashCode, node);
+        }
+        return node;
+    }
+
+    /**
+     * Same combination of straight and diagonal distance as {@link baritone.api.pathing.goals.GoalXZ#calculate(double, double)},
+     * in chunks, at the cost of the cheapest chunk possible so that it never overestimates
+     */
+    private double heuristic(int chunkX, int chunkZ) {
+        int x = Math.abs(chunkX - goalChunkX);
+        int z = Math.abs(chunkZ - goalChunkZ);
+        return (Math.max(x, z) - Math.min(x, z) + Math.min(x, z) * SQRT_2) * CHUNK_COST;
+    }
+
+    /**
+     * Going diagonally means going through one of the two chunks beside, whichever is cheaper
+     */
+    private double diagonalCost(int fromX, int fromZ, CachedChunk from, int toX, int toZ) {
+        CachedChunk to = getChunk(toX, toZ);
+        CachedChunk besideX = getChunk(toX, fromZ);
+        CachedChunk besideZ = getChunk(fromX, toZ);
+        int dx = toX - fromX;
+        int dz = toZ - fromZ;
+        double viaX = cost(from, besideX, dx, 0) + cost(besideX, to, 0, dz);
+        double viaZ = cost(from, besideZ, 0, dz) + cost(besideZ, to, dx, 0);
+        return Math.min(viaX, viaZ) * (SQRT_2 / 2);
+    }
+
+    private static double cost(CachedChunk from, CachedChunk to, int dx, int dz) {
+        double cost = CHUNK_COST * (multiplier(from) + multiplier(to)) / 2;
+        if (from != null && to != null && !connected(from, to, dx, dz)) {
+            cost *= DISCONNECTED_COST;
+        }
+        return cost;
+    }
+
+    private static double multiplier(CachedChunk chunk) {
+        if (chunk == null) {
+            return UNKNOWN_COST;
+        }
+        int walkable = chunk.getWalkableColumns();
+        int water = chunk.getWaterColumns();
+        if (walkable + water == 0) {
+            return BLOCKED_COST;
+        }
+        // swimming costs about twice as much as walking, and a chunk with few places to stand means going around or through things
+        double swimming = water * (ActionCosts.WALK_ONE_IN_WATER_COST / ActionCosts.WALK_ONE_BLOCK_COST - 1) / 256;
+        double obstructed = (256 - walkable - water) / 256D;
+        return 1 + swimming + obstructed;
+    }
+
+    /**
+     * Whether somewhere to stand on the border of one chunk is at about the same level as somewhere to stand on the
+     * border of the next
+     */
+    private static boolean connected(CachedChunk from, CachedChunk to, int dx, int dz) {
+        long fromLevels;
+        long toLevels;
+        if (dx > 0) {
+            fromLevels = from.getBorderLevels(CachedChunk.EAST);
+            toLevels = to.getBorderLevels(CachedChunk.WEST);
+        } else if (dx < 0) {
+            fromLevels = from.getBorderLevels(CachedChunk.WEST);
+            toLevels = to.getBorderLevels(CachedChunk.EAST);
+        } else if (dz > 0) {
+            fromLevels = from.getBorderLevels(CachedChunk.SOUTH);
+            toLevels = to.getBorderLevels(CachedChunk.NORTH);
+        } else {
+            fromLevels = from.getBorderLevels(CachedChunk.NORTH);
+            toLevels = to.getBorderLevels(CachedChunk.SOUTH);
+        }
+        // a step up or down can cross into the level above or below
+        return (fromLevels & (toLevels | toLevels << 1 | toLevels >>> 1)) != 0;
+    }
+
+    private CachedChunk getChunk(int chunkX, int chunkZ) {
+        int regionX = chunkX >> 5;
+        int regionZ = chunkZ >> 5;
+        long regionId = BetterBlockPos.longHash(regionX, 0, regionZ);
+        CachedRegion region = regions.get(regionId);
+        if (region == null && !regions.containsKey(regionId)) {
+            region = world.getRegion(regionX, regionZ);
+            if (region == null) {
+                // unknown for now, but known the next time the route is planned
+                world.requestRegion(regionX, regionZ);
+            }
+            regions.put(regionId, region);
+        }
+        return region == null ? null : region.getChunk(chunkX & 31, chunkZ & 31);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.longs.Long2DoubleMap;
+import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
+import net.minecraft.world.level.Level;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lower bounds on the cost to get to a goal from positions that earlier searches to the same goal expanded, so that
+ * pathing to the same goal over and over, like following, farming and mining do, doesn't have to find out the same
+ * things again. See {@link baritone.api.Settings#pathingHeuristicCache}.
+ * <p>
+ * Once a search gets to its goal at a cost of C, every node it expanded can't be less than C minus its own cost away
+ * from the goal, as long as the heuristic didn't overestimate. These costs include {@link baritone.utils.pathing.Favoring}
+ * though, so a search that was made to avoid somewhere learns bounds that are too high there, and so does every later
+ * search to the same goal, which then isn't guaranteed to find the cheapest path anymore. Breaking blocks afterwards
+ * can make some of them too high as well, which only makes the next search a bit less keen on going that way.
+ * <p>
+ * Only holds on to the world weakly, and everything is forgotten when the world changes, see {@link #clear()}.
+ */
+public final class HeuristicCache {
+
+    /**
+     * How many goals to keep bounds for, the ones used least recently are dropped first
+     */
+    private static final int MAX_GOALS = 4;
+
+    private static final Map<Key, Long2DoubleOpenHashMap> BOUNDS = new LinkedHashMap<>(MAX_GOALS * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Long2DoubleOpenHashMap> eldest) {
+            return size() > MAX_GOALS;
+        }
+    };
+
+    private static final LongAdder LOOKUPS = new LongAdder();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder SEARCHES_WITH_BOUNDS = new LongAdder();
+    private static final LongAdder NODES_WITH_BOUNDS = new LongAdder();
+    private static final LongAdder SEARCHES_WITHOUT_BOUNDS = new LongAdder();
+    private static final LongAdder NODES_WITHOUT_BOUNDS = new LongAdder();
+
+    private final Goal goal;
+    private final Key key;
+
+    /**
+     * What earlier searches learned, or null if there weren't any. Never modified, a new one replaces it instead.
+     */
+    private final Long2DoubleOpenHashMap bounds;
+
+    /**
+     * Only touched by the thread that creates the nodes, so these are added to the totals once the search is done
+     */
+    private long lookups;
+    private long hits;
+
+    /**
+     * The goal, with the heuristic raised to what earlier searches learned. For the nodes only, the search itself still
+     * has the goal as it is.
+     */
+    public final Goal refinedGoal;
+
+    private HeuristicCache(Goal goal, Key key, Long2DoubleOpenHashMap bounds) {
+        this.goal = goal;
+        this.key = key;
+        this.bounds = bounds;
+        this.refinedGoal = new RefinedGoal();
+    }
+
+    private final class RefinedGoal implements Goal {
+
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return goal.isInGoal(x, y, z);
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            double heuristic = goal.heuristic(x, y, z);
+            if (bounds == null) {
+                return heuristic;
+            }
+            lookups++;
+            double bound = bounds.get(BetterBlockPos.longHash(x, y, z));
+            if (bound > heuristic) {
+                hits++;
+                return bound;
+            }
+            return heuristic;
+        }
+
+        @Override
+        public double heuristic() {
+            return goal.heuristic();
+        }
+
+        @Override
+        public String toString() {
+            return goal.toString();
+        }
+    }
+
+    /**
+     * @return The cache for a search to the goal in the world, or null if {@link baritone.api.Settings#pathingHeuristicCache}
+     * is off
+     */
+    public static HeuristicCache forSearch(Goal goal, Level world) {
+        if (!Baritone.settings().pathingHeuristicCache.value) {
+            return null;
+        }
+        Key key = new Key(goal, world);
+        synchronized (BOUNDS) {
+            // positions mean nothing in another world
+            BOUNDS.keySet().removeIf(other -> other.world.get() != world);
+            return new HeuristicCache(goal, key, BOUNDS.get(key));
+        }
+    }
+
+    /**
+     * Forgets everything that was learned, called when the world changes
+     */
+    public static void clear() {
+        synchronized (BOUNDS) {
+            BOUNDS.clear();
+        }
+    }
+
+    /**
+     * Called once the search got to the goal
+     *
+     * @param learned  The lower bounds the search found out, that are higher than the heuristic it used
+     * @param numNodes How many nodes the search expanded
+     */
+    void learn(Long2DoubleOpenHashMap learned, int numNodes) {
+        LOOKUPS.add(lookups);
+        HITS.add(hits);
+        if (bounds == null) {
+            SEARCHES_WITHOUT_BOUNDS.increment();
+            NODES_WITHOUT_BOUNDS.add(numNodes);
+        } else {
+            SEARCHES_WITH_BOUNDS.increment();
+            NODES_WITH_BOUNDS.add(numNodes);
+        }
+        int maxSize = Baritone.settings().pathingHeuristicCacheSize.value;
+        Long2DoubleOpenHashMap merged = new Long2DoubleOpenHashMap(Math.min(maxSize, learned.size() + (bounds == null ? 0 : bounds.size())));
+        merged.defaultReturnValue(Double.NEGATIVE_INFINITY);
+        // the newest first, since they're the most likely to still be right
+        for (Long2DoubleMap.Entry entry : learned.long2DoubleEntrySet()) {
+            if (merged.size() >= maxSize) {
+                break;
+            }
+            merged.put(entry.getLongKey(), entry.getDoubleValue());
+        }
+        if (bounds != null) {
+            for (Long2DoubleMap.Entry entry : bounds.long2DoubleEntrySet()) {
+                if (merged.size() >= maxSize) {
+                    break;
+                }
+                // the search's heuristic already included these, so anything it learned about the same position is higher
+                merged.putIfAbsent(entry.getLongKey(), entry.getDoubleValue());
+            }
+        }
+        synchronized (BOUNDS) {
+            BOUNDS.put(key, merged);
+        }
+    }
+
+    /**
+     * @return How often the cache raised a heuristic, and how many nodes searches that got to their goal expanded with
+     * and without bounds from earlier searches, for the pathing debug output
+     */
+    public static String stats() {
+        long lookups = LOOKUPS.sum();
+        long withBounds = SEARCHES_WITH_BOUNDS.sum();
+        long withoutBounds = SEARCHES_WITHOUT_BOUNDS.sum();
+        return "Heuristic cache: " + HITS.sum() + " of " + lookups + " lookups raised the heuristic, "
+                + (withBounds == 0 ? 0 : NODES_WITH_BOUNDS.sum() / withBounds) + " nodes per search with learned bounds ("
+                + withBounds + " searches), " + (withoutBounds == 0 ? 0 : NODES_WITHOUT_BOUNDS.sum() / withoutBounds)
+                + " without (" + withoutBounds + " searches)";
+    }
+
+    private static final class Key {
+
+        private final Goal goal;
+
+        /**
+         * Weak, so that a world that was left isn't kept in memory until the next search
+         */
+        private final WeakReference<Level> world;
+        private final int worldHash;
+
+        private Key(Goal goal, Level world) {
+            this.goal = goal;
+            this.world = new WeakReference<>(world);
+            this.worldHash = System.identityHashCode(world);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            Level world = this.world.get();
+            return world != null && world == other.world.get() && goal.equals(other.goal);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(goal) * 31 + worldHash;
+        }
+    }
+}
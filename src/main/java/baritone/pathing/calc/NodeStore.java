@@ -0,0 +1,328 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays replacement for {@link PathNode} objects in a {@link it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap}.
+ * <p>
+ * Every node is an int index into a set of parallel primitive arrays, and positions are mapped to indices by an
+ * open addressing long to int table keyed by {@link baritone.api.utils.BetterBlockPos#longHash(int, int, int)}.
+ * Nothing is allocated per node, so a search over millions of nodes only ever allocates when the arrays grow.
+ */
+public final class NodeStore {
+
+    /**
+     * Index used for "no node", e.g. the previous node of the start
+     */
+    public static final int NO_NODE = -1;
+
+    private Goal goal;
+
+    private int[] x;
+    private int[] y;
+    private int[] z;
+
+    /**
+     * Cached, should always be equal to goal.heuristic(pos)
+     */
+    private double[] estimatedCostToGoal;
+
+    /**
+     * Total cost of getting from start to here
+     */
+    private double[] cost;
+
+    /**
+     * Should always be equal to estimatedCostToGoal + cost
+     */
+    private double[] combinedCost;
+
+    /**
+     * Index of the node that contributed to the cost, or {@link #NO_NODE}
+     */
+    private int[] previous;
+
+    /**
+     * Position in the array flattenization of the binary heap, or -1 if not in the open set
+     */
+    private int[] heapPosition;
+
+    private int size;
+
+    /**
+     * Open addressing table. A slot is empty when its value is zero, otherwise the value is node index + 1
+     */
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int maxFill;
+    private final float loadFactor;
+
+    public NodeStore(Goal goal, int expectedSize, float loadFactor) {
+        this.goal = goal;
+        this.loadFactor = loadFactor;
+        allocate(Math.max(16, expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.z = new int[capacity];
+        this.estimatedCostToGoal = new double[capacity];
+        this.cost = new double[capacity];
+        this.combinedCost = new double[capacity];
+        this.previous = new int[capacity];
+        this.heapPosition = new int[capacity];
+        int tableSize = HashCommon.arraySize(capacity, loadFactor);
+        this.keys = new long[tableSize];
+        this.values = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.maxFill = HashCommon.maxFill(tableSize, loadFactor);
+    }
+
+    /**
+     * Removes every node, keeping the arrays so that the next search doesn't have to allocate them again.
+     *
+     * @param goal The goal of the next search, used for the heuristic of new nodes
+     */
+    public void reset(Goal goal) {
+        this.goal = goal;
+        if (size > 0) {
+            Arrays.fill(values, 0);
+            size = 0;
+        }
+    }
+
+    /**
+     * Removes every node, and shrinks the arrays back down if they can hold more than the specified number of nodes.
+     *
+     * @param maxCapacity The maximum number of nodes worth of memory to keep
+     * @return Whether the arrays were shrunk
+     */
+    public boolean trim(int maxCapacity) {
+        size = 0;
+        if (x.length <= maxCapacity) {
+            Arrays.fill(values, 0);
+            return false;
+        }
+        allocate(Math.max(16, maxCapacity));
+        return true;
+    }
+
+    /**
+     * @return The number of nodes that fit in the arrays before they have to grow
+     */
+    public int capacity() {
+        return x.length;
+    }
+
+    /**
+     * Finds the node at the specified position, creating it if it doesn't exist yet.
+     *
+     * @param x        The x position of the node
+     * @param y        The y position of the node
+     * @param z        The z position of the node
+     * @param hashCode The hash code of the node, provided by {@link baritone.api.utils.BetterBlockPos#longHash(int, int, int)}
+     * @return The index of the associated node
+     */
+    public int getNode(int x, int y, int z, long hashCode) {
+        int slot = (int) HashCommon.mix(hashCode) & mask;
+        int value;
+        while ((value = values[slot]) != 0) {
+            if (keys[slot] == hashCode) {
+                return value - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int index = create(x, y, z);
+        keys[slot] = hashCode;
+        values[slot] = index + 1;
+        if (size >= maxFill) {
+            rehash(HashCommon.arraySize(size + 1, loadFactor));
+        }
+        return index;
+    }
+
+    private int create(int x, int y, int z) {
+        if (size == this.x.length) {
+            grow(size << 1);
+        }
+        double heuristic = goal.heuristic(x, y, z);
+        if (Double.isNaN(heuristic)) {
+            throw new IllegalStateException(goal + " calculated implausible heuristic");
+        }
+        int index = size++;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.z[index] = z;
+        this.estimatedCostToGoal[index] = heuristic;
+        this.cost[index] = ActionCosts.COST_INF;
+        this.previous[index] = NO_NODE;
+        this.heapPosition[index] = -1;
+        return index;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        estimatedCostToGoal = Arrays.copyOf(estimatedCostToGoal, capacity);
+        cost = Arrays.copyOf(cost, capacity);
+        combinedCost = Arrays.copyOf(combinedCost, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        heapPosition = Arrays.copyOf(heapPosition, capacity);
+    }
+
+    private void rehash(int tableSize) {
+        long[] newKeys = new long[tableSize];
+        int[] newValues = new int[tableSize];
+        int newMask = tableSize - 1;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] == 0) {
+                continue;
+            }
+            int slot = (int) HashCommon.mix(keys[i]) & newMask;
+            while (newValues[slot] != 0) {
+                slot = (slot + 1) & newMask;
+            }
+            newKeys[slot] = keys[i];
+            newValues[slot] = values[i];
+        }
+        keys = newKeys;
+        values = newValues;
+        mask = newMask;
+        maxFill = HashCommon.maxFill(tableSize, loadFactor);
+    }
+
+    /**
+     * Builds a linked chain of {@link PathNode}s ending at the specified node, for use in {@link Path}. Only
+     * allocates for the nodes actually on the path.
+     * <p>
+     * This can be called from other threads while the search is running (see {@link AbstractNodeCostSearch#bestPathSoFar()}),
+     * so it reads each array only once and stops at anything it can't see yet.
+     *
+     * @param index The index of the last node
+     * @return The last node, with {@link PathNode#previous} leading back to the start
+     */
+    public PathNode materialize(int index) {
+        // grow replaces previous last, so reading it first means every other array is at least as long
+        int[] previous = this.previous;
+        int[] x = this.x;
+        int[] y = this.y;
+        int[] z = this.z;
+        double[] estimatedCostToGoal = this.estimatedCostToGoal;
+        double[] cost = this.cost;
+        PathNode end = null;
+        PathNode last = null;
+        int remaining = previous.length; // can't have a cycle within one search, but a reader racing a reset could see one
+        while (index != NO_NODE && index < previous.length && remaining-- > 0) {
+            PathNode node = new PathNode(x[index], y[index], z[index], estimatedCostToGoal[index]);
+            node.cost = cost[index];
+            node.combinedCost = cost[index] + estimatedCostToGoal[index];
+            if (last == null) {
+                end = node;
+            } else {
+                last.previous = node;
+            }
+            last = node;
+            index = previous[index];
+        }
+        return end;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The squared distance from a node to the specified position. Like {@link #materialize(int)}, this can be called
+     * from other threads, including while {@link #trim(int)} shrinks the arrays, so it reads each of them only once.
+     *
+     * @return The distance, squared, or -1 if the node isn't in the arrays anymore
+     */
+    public double getDistSq(int index, int x, int y, int z) {
+        int[] xs = this.x;
+        int[] ys = this.y;
+        int[] zs = this.z;
+        if (index >= xs.length || index >= ys.length || index >= zs.length) {
+            return -1;
+        }
+        int xDiff = xs[index] - x;
+        int yDiff = ys[index] - y;
+        int zDiff = zs[index] - z;
+        return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff;
+    }
+
+    public int getX(int index) {
+        return x[index];
+    }
+
+    public int getY(int index) {
+        return y[index];
+    }
+
+    public int getZ(int index) {
+        return z[index];
+    }
+
+    public double getEstimatedCostToGoal(int index) {
+        return estimatedCostToGoal[index];
+    }
+
+    public double getCost(int index) {
+        return cost[index];
+    }
+
+    public void setCost(int index, double cost) {
+        this.cost[index] = cost;
+    }
+
+    public double getCombinedCost(int index) {
+        return combinedCost[index];
+    }
+
+    public void setCombinedCost(int index, double combinedCost) {
+        this.combinedCost[index] = combinedCost;
+    }
+
+    public int getPrevious(int index) {
+        return previous[index];
+    }
+
+    public void setPrevious(int index, int previous) {
+        this.previous[index] = previous;
+    }
+
+    public int getHeapPosition(int index) {
+        return heapPosition[index];
+    }
+
+    public void setHeapPosition(int index, int heapPosition) {
+        this.heapPosition[index] = heapPosition;
+    }
+
+    public boolean isOpen(int index) {
+        return heapPosition[index] != -1;
+    }
+}
@@ -23,9 +23,10 @@ import baritone.api.pathing.movement.IMovement;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
 import baritone.pathing.movement.CalculationContext;
-import baritone.pathing.movement.Movement;
 import baritone.pathing.movement.Moves;
 import baritone.pathing.path.CutoffPath;
+import baritone.pathing.path.MovementList;
+import baritone.utils.pathing.MutableMoveResult;
 import baritone.utils.pathing.PathBase;
 import com.google.common.collect.Lists;
 
@@ -57,7 +58,7 @@ class Path extends PathBase {
      */
     private final List<BetterBlockPos> path;
 
-    private final List<Movement> movements;
+    private MovementList movements;
 
     private final List<PathNode> nodes;
 
@@ -72,7 +73,6 @@ class Path extends PathBase {
     Path(BetterBlockPos realStart, PathNode start, PathNode end, int numNodes, Goal goal, CalculationContext context) {
         this.end = new BetterBlockPos(end.x, end.y, end.z);
         this.numNodes = numNodes;
-        this.movements = new ArrayList<>();
         this.goal = goal;
         this.context = context;
 
@@ -111,35 +111,47 @@ class Path extends PathBase {
     }
 
     private boolean assembleMovements() {
-        if (path.isEmpty() || !movements.isEmpty()) {
+        if (path.isEmpty() || movements != null) {
             throw new IllegalStateException();
         }
+        MovementList.Builder builder = new MovementList.Builder(path.size() - 1);
+        MutableMoveResult res = new MutableMoveResult();
+        boolean failed = false;
         for (int i = 0; i < path.size() - 1; i++) {
             double cost = nodes.get(i + 1).cost - nodes.get(i).cost;
-            Movement move = runBackwards(path.get(i), path.get(i + 1), cost);
-            if (move == null) {
-                return true;
-            } else {
-                movements.add(move);
+            if (!runBackwards(builder, path.get(i), path.get(i + 1), cost, res)) {
+                failed = true;
+                break;
             }
         }
-        return false;
+        movements = builder.build();
+        return failed;
     }
 
-    private Movement runBackwards(BetterBlockPos src, BetterBlockPos dest, double cost) {
+    /**
+     * Works out which move goes from src to dest without making any movements, those are only made once they're
+     * needed, see {@link MovementList}
+     */
+    private boolean runBackwards(MovementList.Builder builder, BetterBlockPos src, BetterBlockPos dest, double cost, MutableMoveResult res) {
         for (Moves moves : Moves.values()) {
-            Movement move = moves.apply0(context, src);
-            if (move.getDest().equals(dest)) {
-                // have to calculate the cost at calculation time so we can accurately judge whether a cost increase happened between cached calculation and real execution
-                // however, taking into account possible favoring that could skew the node cost, we really want the stricter limit of the two
-                // so we take the minimum of the path node cost difference, and the calculated cost
-                move.override(Math.min(move.calculateCost(context), cost));
-                return move;
+            if (!moves.dynamicXZ && !moves.dynamicY && (src.x + moves.xOffset != dest.x || src.y + moves.yOffset != dest.y || src.z + moves.zOffset != dest.z)) {
+                continue; // no need to work out the cost of a move that can't go there
             }
+            res.reset();
+            moves.apply(context, src.x, src.y, src.z, res);
+            if (res.x != dest.x || res.y != dest.y || res.z != dest.z) {
+                continue;
+            }
+            double calculated = res.cost;
+            // have to calculate the cost at calculation time so we can accurately judge whether a cost increase happened between cached calculation and real execution
+            // however, taking into account possible favoring that could skew the node cost, we really want the stricter limit of the two
+            // so we take the minimum of the path node cost difference, and the calculated cost
+            builder.add(context.getBaritone(), src, dest, moves, Math.min(calculated, cost), context.bsi.worldContainsLoadedChunk(dest.x, dest.z));
+            return true;
         }
         // this is no longer called from bestPathSoFar, now it's in postprocessing
         Helper.HELPER.logDebug("Movement became impossible during calculation " + src + " " + dest + " " + dest.subtract(src));
-        return null;
+        return false;
     }
 
     @Override
@@ -149,7 +161,6 @@ class Path extends PathBase {
         }
         verified = true;
         boolean failed = assembleMovements();
-        movements.forEach(m -> m.checkLoadedChunk(context));
 
         if (failed) { // at least one movement became impossible during calculation
             CutoffPath res = new CutoffPath(this, movements().size());
@@ -168,7 +179,7 @@ class Path extends PathBase {
         if (!verified) {
             throw new IllegalStateException();
         }
-        return Collections.unmodifiableList(movements);
+        return movements;
     }
 
     @Override
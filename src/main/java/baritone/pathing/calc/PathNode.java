@@ -64,12 +64,20 @@ public final class PathNode {
     public int heapPosition;
 
     public PathNode(int x, int y, int z, Goal goal) {
-        this.previous = null;
-        this.cost = ActionCosts.COST_INF;
-        this.estimatedCostToGoal = goal.heuristic(x, y, z);
+        this(x, y, z, goal.heuristic(x, y, z));
         if (Double.isNaN(estimatedCostToGoal)) {
             throw new IllegalStateException(goal + " calculated implausible heuristic");
         }
+    }
+
+    /**
+     * Used by {@link NodeStore#materialize(int)}, where the heuristic has already been calculated, and by
+     * {@link ChunkRoutePlanner}, where the nodes are chunks that no {@link Goal} knows the heuristic of
+     */
+    PathNode(int x, int y, int z, double estimatedCostToGoal) {
+        this.previous = null;
+        this.cost = ActionCosts.COST_INF;
+        this.estimatedCostToGoal = estimatedCostToGoal;
         this.heapPosition = -1;
         this.x = x;
         this.y = y;
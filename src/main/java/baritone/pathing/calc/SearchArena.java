@@ -0,0 +1,119 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.goals.Goal;
+import baritone.pathing.calc.openset.IntBinaryHeapOpenSet;
+import baritone.utils.pathing.MutableMoveResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Everything a {@link NodeStore} search allocates up front: the node store, the open set and the scratch move result.
+ * <p>
+ * Each pathing thread keeps one around between calculations so that plan-ahead segments don't pay for allocating
+ * and warming up a fresh node table every time. Arenas that grew past {@link baritone.api.Settings#pathingArenaMaxRetainedNodes}
+ * are shrunk back down when released.
+ */
+public final class SearchArena {
+
+    private static final ThreadLocal<SearchArena> ARENAS = new ThreadLocal<>();
+
+    private static final AtomicInteger CREATED = new AtomicInteger();
+    private static final AtomicInteger REUSED = new AtomicInteger();
+    private static final AtomicInteger TRIMMED = new AtomicInteger();
+
+    private final NodeStore nodeStore;
+    private final IntBinaryHeapOpenSet openSet;
+    private final MutableMoveResult moveResult;
+    private final boolean pooled;
+    private boolean inUse;
+
+    private SearchArena(Goal goal, boolean pooled) {
+        this.nodeStore = new NodeStore(goal, Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+        this.openSet = new IntBinaryHeapOpenSet(nodeStore);
+        this.moveResult = new MutableMoveResult();
+        this.pooled = pooled;
+        CREATED.incrementAndGet();
+    }
+
+    /**
+     * Gets the arena of the current thread, reset for a new search. If {@link baritone.api.Settings#pathingReuseSearchArenas}
+     * is off, or the arena of this thread is already being used, a new one is created instead.
+     *
+     * @param goal The goal of the search
+     * @return The arena
+     */
+    public static SearchArena acquire(Goal goal) {
+        if (!Baritone.settings().pathingReuseSearchArenas.value) {
+            return new SearchArena(goal, false).use();
+        }
+        SearchArena arena = ARENAS.get();
+        if (arena == null) {
+            arena = new SearchArena(goal, true);
+            ARENAS.set(arena);
+            return arena.use();
+        }
+        if (arena.inUse) {
+            return new SearchArena(goal, false).use();
+        }
+        arena.nodeStore.reset(goal);
+        REUSED.incrementAndGet();
+        return arena.use();
+    }
+
+    private SearchArena use() {
+        inUse = true;
+        return this;
+    }
+
+    /**
+     * Gives this arena back to its thread, after which nothing in it may be used by the search that acquired it.
+     */
+    public void release() {
+        inUse = false;
+        if (!pooled) {
+            return;
+        }
+        int maxRetained = Baritone.settings().pathingArenaMaxRetainedNodes.value;
+        if (nodeStore.trim(maxRetained)) {
+            TRIMMED.incrementAndGet();
+        }
+        openSet.clear(maxRetained);
+    }
+
+    public NodeStore getNodeStore() {
+        return nodeStore;
+    }
+
+    public IntBinaryHeapOpenSet getOpenSet() {
+        return openSet;
+    }
+
+    public MutableMoveResult getMoveResult() {
+        return moveResult;
+    }
+
+    /**
+     * @return How many arenas were created, reused and trimmed so far, for the pathing debug output
+     */
+    public static String stats() {
+        return "Search arenas: " + CREATED.get() + " created, " + REUSED.get() + " reused, " + TRIMMED.get() + " trimmed";
+    }
+}
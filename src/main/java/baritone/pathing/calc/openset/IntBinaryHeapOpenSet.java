@@ -0,0 +1,147 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.pathing.calc.NodeStore;
+
+import java.util.Arrays;
+
+/**
+ * The same binary heap as {@link BinaryHeapOpenSet}, but over int node indices into a {@link NodeStore}
+ * instead of {@link baritone.pathing.calc.PathNode} objects.
+ */
+public final class IntBinaryHeapOpenSet {
+
+    /**
+     * The initial capacity of the heap (2^10)
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Where the costs and heap positions of the nodes live
+     */
+    private final NodeStore store;
+
+    /**
+     * The array backing the heap
+     */
+    private int[] array;
+
+    /**
+     * The size of the heap
+     */
+    private int size;
+
+    public IntBinaryHeapOpenSet(NodeStore store) {
+        this(store, INITIAL_CAPACITY);
+    }
+
+    public IntBinaryHeapOpenSet(NodeStore store, int size) {
+        this.store = store;
+        this.size = 0;
+        this.array = new int[size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(int value) {
+        if (size >= array.length - 1) {
+            array = Arrays.copyOf(array, array.length << 1);
+        }
+        size++;
+        store.setHeapPosition(value, size);
+        array[size] = value;
+        update(value);
+    }
+
+    public void update(int val) {
+        NodeStore store = this.store;
+        int index = store.getHeapPosition(val);
+        int parentInd = index >>> 1;
+        double cost = store.getCombinedCost(val);
+        int parentNode = array[parentInd];
+        while (index > 1 && store.getCombinedCost(parentNode) > cost) {
+            array[index] = parentNode;
+            array[parentInd] = val;
+            store.setHeapPosition(val, parentInd);
+            store.setHeapPosition(parentNode, index);
+            index = parentInd;
+            parentInd = index >>> 1;
+            parentNode = array[parentInd];
+        }
+    }
+
+    /**
+     * Empties the heap, keeping the backing array unless it's bigger than the specified capacity
+     *
+     * @param maxCapacity The maximum length of the backing array to keep
+     */
+    public void clear(int maxCapacity) {
+        size = 0;
+        if (array.length > maxCapacity) {
+            array = new int[Math.max(INITIAL_CAPACITY, maxCapacity)];
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int removeLowest() {
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+        NodeStore store = this.store;
+        int result = array[1];
+        int val = array[size];
+        array[1] = val;
+        store.setHeapPosition(val, 1);
+        size--;
+        store.setHeapPosition(result, -1);
+        if (size < 2) {
+            return result;
+        }
+        int index = 1;
+        int smallerChild = 2;
+        double cost = store.getCombinedCost(val);
+        do {
+            int smallerChildNode = array[smallerChild];
+            double smallerChildCost = store.getCombinedCost(smallerChildNode);
+            if (smallerChild < size) {
+                int rightChildNode = array[smallerChild + 1];
+                double rightChildCost = store.getCombinedCost(rightChildNode);
+                if (smallerChildCost > rightChildCost) {
+                    smallerChild++;
+                    smallerChildCost = rightChildCost;
+                    smallerChildNode = rightChildNode;
+                }
+            }
+            if (cost <= smallerChildCost) {
+                break;
+            }
+            array[index] = smallerChildNode;
+            array[smallerChild] = val;
+            store.setHeapPosition(val, smallerChild);
+            store.setHeapPosition(smallerChildNode, index);
+            index = smallerChild;
+        } while ((smallerChild <<= 1) <= size);
+        return result;
+    }
+}
@@ -21,6 +21,7 @@ import baritone.Baritone;
 import baritone.api.IBaritone;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.cache.WorldData;
+import baritone.pathing.precompute.PositionFlags;
 import baritone.pathing.precompute.PrecomputedData;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.ToolSet;
@@ -80,25 +81,66 @@ public class CalculationContext {
     public double jumpPenalty;
     public final double walkOnWaterOnePenalty;
     public final BetterWorldBorder worldBorder;
+    public final int minY;
+    public final int height;
 
     public final PrecomputedData precomputedData;
 
+    /**
+     * Not shared with {@link #copyForThread()}, since only the thread of the search may use it anyway
+     */
+    public final PositionFlags positionFlags = new PositionFlags();
+
     public CalculationContext(IBaritone baritone) {
         this(baritone, false);
     }
 
     public CalculationContext(IBaritone baritone, boolean forUseOnAnotherThread) {
+        this(baritone, forUseOnAnotherThread, baritone.getPlayerContext().player());
+    }
+
+    private CalculationContext(IBaritone baritone, boolean forUseOnAnotherThread, LocalPlayer player) {
+        this(
+                baritone,
+                forUseOnAnotherThread,
+                baritone.getPlayerContext().world(),
+                (WorldData) baritone.getPlayerContext().worldData(),
+                new BlockStateInterface(baritone.getPlayerContext(), forUseOnAnotherThread),
+                new ToolSet(player),
+                Baritone.settings().allowPlace.value && ((Baritone) baritone).getInventoryBehavior().hasGenericThrowaway(),
+                Baritone.settings().allowWaterBucketFall.value && Inventory.isHotbarSlot(player.getInventory().findSlotMatchingItem(STACK_BUCKET_WATER)) && baritone.getPlayerContext().world().dimension() != Level.NETHER,
+                Baritone.settings().allowSprint.value && player.getFoodData().getFoodLevel() > 6,
+                EnchantmentHelper.getEnchantmentLevel(Enchantments.FROST_WALKER, player),
+                EnchantmentHelper.getDepthStrider(player),
+                baritone.getPlayerContext().world().dimensionType().minY(),
+                baritone.getPlayerContext().world().dimensionType().height()
+        );
+    }
+
+    /**
+     * Everything that depends on the player is given, the rest comes from the settings.
+     *
+     * @param world        The world
+     * @param worldData    The cache of the world
+     * @param bsi          Where the blocks are looked up, and the world border
+     * @param toolSet      The tools that blocks can be broken with
+     * @param depthStrider The level of depth strider the player has
+     * @param minY         The lowest y coordinate of the world
+     * @param height       The height of the world
+     */
+    protected CalculationContext(IBaritone baritone, boolean safeForThreadedUse, Level world, WorldData worldData,
+                                 BlockStateInterface bsi, ToolSet toolSet, boolean hasThrowaway, boolean hasWaterBucket,
+                                 boolean canSprint, int frostWalker, int depthStrider, int minY, int height) {
         this.precomputedData = new PrecomputedData();
-        this.safeForThreadedUse = forUseOnAnotherThread;
+        this.safeForThreadedUse = safeForThreadedUse;
         this.baritone = baritone;
-        LocalPlayer player = baritone.getPlayerContext().player();
-        this.world = baritone.getPlayerContext().world();
-        this.worldData = (WorldData) baritone.getPlayerContext().worldData();
-        this.bsi = new BlockStateInterface(baritone.getPlayerContext(), forUseOnAnotherThread);
-        this.toolSet = new ToolSet(player);
-        this.hasThrowaway = Baritone.settings().allowPlace.value && ((Baritone) baritone).getInventoryBehavior().hasGenericThrowaway();
-        this.hasWaterBucket = Baritone.settings().allowWaterBucketFall.value && Inventory.isHotbarSlot(player.getInventory().findSlotMatchingItem(STACK_BUCKET_WATER)) && world.dimension() != Level.NETHER;
-        this.canSprint = Baritone.settings().allowSprint.value && player.getFoodData().getFoodLevel() > 6;
+        this.world = world;
+        this.worldData = worldData;
+        this.bsi = bsi;
+        this.toolSet = toolSet;
+        this.hasThrowaway = hasThrowaway;
+        this.hasWaterBucket = hasWaterBucket;
+        this.canSprint = canSprint;
         this.placeBlockCost = Baritone.settings().blockPlacementPenalty.value;
         this.allowBreak = Baritone.settings().allowBreak.value;
         this.allowBreakAnyway = new ArrayList<>(Baritone.settings().allowBreakAnyway.value);
@@ -108,14 +150,14 @@ public class CalculationContext {
         this.allowParkourAscend = Baritone.settings().allowParkourAscend.value;
         this.assumeWalkOnWater = Baritone.settings().assumeWalkOnWater.value;
         this.allowFallIntoLava = false; // Super secret internal setting for ElytraBehavior
-        this.frostWalker = EnchantmentHelper.getEnchantmentLevel(Enchantments.FROST_WALKER, baritone.getPlayerContext().player());
+        this.frostWalker = frostWalker;
         this.allowDiagonalDescend = Baritone.settings().allowDiagonalDescend.value;
         this.allowDiagonalAscend = Baritone.settings().allowDiagonalAscend.value;
         this.allowDownward = Baritone.settings().allowDownward.value;
         this.minFallHeight = 3; // Minimum fall height used by MovementFall
         this.maxFallHeightNoWater = Baritone.settings().maxFallHeightNoWater.value;
         this.maxFallHeightBucket = Baritone.settings().maxFallHeightBucket.value;
-        int depth = EnchantmentHelper.getDepthStrider(player);
+        int depth = depthStrider;
         if (depth > 3) {
             depth = 3;
         }
@@ -128,7 +170,61 @@ public class CalculationContext {
         // why cache these things here, why not let the movements just get directly from settings?
         // because if some movements are calculated one way and others are calculated another way,
         // then you get a wildly inconsistent path that isn't optimal for either scenario.
-        this.worldBorder = new BetterWorldBorder(world.getWorldBorder());
+        this.worldBorder = bsi.worldBorder;
+        this.minY = minY;
+        this.height = height;
+    }
+
+    /**
+     * Copy of this context for another thread of the same path calculation, see {@link baritone.api.Settings#pathingParallelism}.
+     * Everything is shared except the {@link BlockStateInterface}, which isn't safe to use from several threads at once.
+     * <p>
+     * Subclasses usually override costs based on state of their own, so they can't be copied unless they override this too.
+     *
+     * @return The copy, or {@code null} if this context can't be copied
+     */
+    public CalculationContext copyForThread() {
+        if (getClass() != CalculationContext.class) {
+            return null;
+        }
+        return new CalculationContext(this, bsi.copy());
+    }
+
+    protected CalculationContext(CalculationContext other, BlockStateInterface bsi) {
+        this.precomputedData = other.precomputedData;
+        this.safeForThreadedUse = other.safeForThreadedUse;
+        this.baritone = other.baritone;
+        this.world = other.world;
+        this.worldData = other.worldData;
+        this.bsi = bsi;
+        this.toolSet = other.toolSet;
+        this.hasThrowaway = other.hasThrowaway;
+        this.hasWaterBucket = other.hasWaterBucket;
+        this.canSprint = other.canSprint;
+        this.placeBlockCost = other.placeBlockCost;
+        this.allowBreak = other.allowBreak;
+        this.allowBreakAnyway = other.allowBreakAnyway;
+        this.allowParkour = other.allowParkour;
+        this.allowParkourPlace = other.allowParkourPlace;
+        this.allowJumpAt256 = other.allowJumpAt256;
+        this.allowParkourAscend = other.allowParkourAscend;
+        this.assumeWalkOnWater = other.assumeWalkOnWater;
+        this.allowFallIntoLava = other.allowFallIntoLava;
+        this.frostWalker = other.frostWalker;
+        this.allowDiagonalDescend = other.allowDiagonalDescend;
+        this.allowDiagonalAscend = other.allowDiagonalAscend;
+        this.allowDownward = other.allowDownward;
+        this.minFallHeight = other.minFallHeight;
+        this.maxFallHeightNoWater = other.maxFallHeightNoWater;
+        this.maxFallHeightBucket = other.maxFallHeightBucket;
+        this.waterWalkSpeed = other.waterWalkSpeed;
+        this.breakBlockAdditionalCost = other.breakBlockAdditionalCost;
+        this.backtrackCostFavoringCoefficient = other.backtrackCostFavoringCoefficient;
+        this.jumpPenalty = other.jumpPenalty;
+        this.walkOnWaterOnePenalty = other.walkOnWaterOnePenalty;
+        this.worldBorder = other.worldBorder;
+        this.minY = other.minY;
+        this.height = other.height;
     }
 
     public final IBaritone getBaritone() {
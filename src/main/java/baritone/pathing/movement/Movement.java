@@ -245,6 +245,10 @@ public abstract class Movement implements IMovement, MovementHelper {
         calculatedWhileLoaded = context.bsi.worldContainsLoadedChunk(dest.x, dest.z);
     }
 
+    public void setCalculatedWhileLoaded(boolean calculatedWhileLoaded) {
+        this.calculatedWhileLoaded = calculatedWhileLoaded;
+    }
+
     @Override
     public boolean calculatedWhileLoaded() {
         return calculatedWhileLoaded;
@@ -262,11 +266,7 @@ public abstract class Movement implements IMovement, MovementHelper {
             return toBreakCached;
         }
         List<BlockPos> result = new ArrayList<>();
-        for (BetterBlockPos positionToBreak : positionsToBreak) {
-            if (!MovementHelper.canWalkThrough(bsi, positionToBreak.x, positionToBreak.y, positionToBreak.z)) {
-                result.add(positionToBreak);
-            }
-        }
+        addNotPassable(bsi, positionsToBreak, 0, positionsToBreak.length, result);
         toBreakCached = result;
         return result;
     }
@@ -276,9 +276,7 @@ public abstract class Movement implements IMovement, MovementHelper {
             return toPlaceCached;
         }
         List<BlockPos> result = new ArrayList<>();
-        if (positionToPlace != null && !MovementHelper.canWalkOn(bsi, positionToPlace.x, positionToPlace.y, positionToPlace.z)) {
-            result.add(positionToPlace);
-        }
+        addNotWalkableOn(bsi, positionToPlace, result);
         toPlaceCached = result;
         return result;
     }
@@ -290,7 +288,36 @@ public abstract class Movement implements IMovement, MovementHelper {
         return toWalkIntoCached;
     }
 
+    /**
+     * Adds the positions in the range that can't be walked through, which is what a movement has to break or walk into
+     * of its {@link #toBreakAll()}
+     */
+    public static void addNotPassable(BlockStateInterface bsi, BetterBlockPos[] positions, int from, int to, Collection<BlockPos> result) {
+        for (int i = from; i < to; i++) {
+            if (!MovementHelper.canWalkThrough(bsi, positions[i].x, positions[i].y, positions[i].z)) {
+                result.add(positions[i]);
+            }
+        }
+    }
+
+    /**
+     * Adds the position if it isn't null and can't be walked on, which is what a movement has to place of its
+     * {@link #getPositionToPlace()}
+     */
+    public static void addNotWalkableOn(BlockStateInterface bsi, BetterBlockPos position, Collection<BlockPos> result) {
+        if (position != null && !MovementHelper.canWalkOn(bsi, position.x, position.y, position.z)) {
+            result.add(position);
+        }
+    }
+
     public BlockPos[] toBreakAll() {
         return positionsToBreak;
     }
+
+    /**
+     * @return Where this movement may place a block to walk on, or {@code null} if it never does
+     */
+    public BetterBlockPos getPositionToPlace() {
+        return positionToPlace;
+    }
 }
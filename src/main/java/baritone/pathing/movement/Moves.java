@@ -17,11 +17,15 @@
 
 package baritone.pathing.movement;
 
+import baritone.api.IBaritone;
 import baritone.api.utils.BetterBlockPos;
 import baritone.pathing.movement.movements.*;
 import baritone.utils.pathing.MutableMoveResult;
+import com.google.common.collect.ImmutableSet;
 import net.minecraft.core.Direction;
 
+import java.util.Set;
+
 /**
  * An enum of all possible movements attached to all possible directions they could be taken in
  *
@@ -31,120 +35,370 @@ public enum Moves {
     DOWNWARD(0, -1, 0) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementDownward(context.getBaritone(), src, src.below());
+            return apply0Fixed(context, src);
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementDownward(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementDownward.cost(context, x, y, z), result);
+        }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return ImmutableSet.of(src, dest);
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementDownward.cost(context, x, y, z);
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDownward.positionsToBreak(dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return null;
         }
     },
 
     PILLAR(0, +1, 0) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementPillar(context.getBaritone(), src, src.above());
+            return apply0Fixed(context, src);
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementPillar(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementPillar.cost(context, x, y, z), result);
+        }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return ImmutableSet.of(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementPillar.positionsToBreak(src);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementPillar.cost(context, x, y, z);
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return src;
         }
     },
 
     TRAVERSE_NORTH(0, 0, -1) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementTraverse(context.getBaritone(), src, src.north());
+            return apply0Fixed(context, src);
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementTraverse.cost(context, x, y, z, x, z - 1);
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementTraverse(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementTraverse.cost(context, x, y, z, x, z - 1), result);
+        }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return ImmutableSet.of(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementTraverse.positionsToBreak(dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
         }
     },
 
     TRAVERSE_SOUTH(0, 0, +1) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementTraverse(context.getBaritone(), src, src.south());
+            return apply0Fixed(context, src);
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementTraverse(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementTraverse.cost(context, x, y, z, x, z + 1), result);
+        }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return ImmutableSet.of(src, dest);
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementTraverse.cost(context, x, y, z, x, z + 1);
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementTraverse.positionsToBreak(dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
         }
     },
 
     TRAVERSE_EAST(+1, 0, 0) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementTraverse(context.getBaritone(), src, src.east());
+            return apply0Fixed(context, src);
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementTraverse.cost(context, x, y, z, x + 1, z);
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementTraverse(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementTraverse.cost(context, x, y, z, x + 1, z), result);
+        }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return ImmutableSet.of(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementTraverse.positionsToBreak(dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
         }
     },
 
     TRAVERSE_WEST(-1, 0, 0) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementTraverse(context.getBaritone(), src, src.west());
+            return apply0Fixed(context, src);
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementTraverse(baritone, src, dest);
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementTraverse.cost(context, x, y, z, x - 1, z);
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementTraverse.cost(context, x, y, z, x - 1, z), result);
+        }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return ImmutableSet.of(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementTraverse.positionsToBreak(dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
         }
     },
 
     ASCEND_NORTH(0, +1, -1) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementAscend(context.getBaritone(), src, new BetterBlockPos(src.x, src.y + 1, src.z - 1));
+            return apply0Fixed(context, src);
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementAscend(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementAscend.cost(context, x, y, z, x, z - 1), result);
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementAscend.cost(context, x, y, z, x, z - 1);
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementAscend.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementAscend.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
         }
     },
 
     ASCEND_SOUTH(0, +1, +1) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementAscend(context.getBaritone(), src, new BetterBlockPos(src.x, src.y + 1, src.z + 1));
+            return apply0Fixed(context, src);
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementAscend(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementAscend.cost(context, x, y, z, x, z + 1), result);
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementAscend.cost(context, x, y, z, x, z + 1);
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementAscend.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementAscend.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
         }
     },
 
     ASCEND_EAST(+1, +1, 0) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementAscend(context.getBaritone(), src, new BetterBlockPos(src.x + 1, src.y + 1, src.z));
+            return apply0Fixed(context, src);
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementAscend(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementAscend.cost(context, x, y, z, x + 1, z), result);
+        }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementAscend.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementAscend.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementAscend.cost(context, x, y, z, x + 1, z);
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
         }
     },
 
     ASCEND_WEST(-1, +1, 0) {
         @Override
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
-            return new MovementAscend(context.getBaritone(), src, new BetterBlockPos(src.x - 1, src.y + 1, src.z));
+            return apply0Fixed(context, src);
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementAscend(baritone, src, dest);
+        }
+
+        @Override
+        public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
+            applyFixed(x, y, z, MovementAscend.cost(context, x, y, z, x - 1, z), result);
         }
 
         @Override
-        public double cost(CalculationContext context, int x, int y, int z) {
-            return MovementAscend.cost(context, x, y, z, x - 1, z);
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementAscend.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementAscend.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
         }
     },
 
@@ -153,17 +407,38 @@ public enum Moves {
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
             MutableMoveResult res = new MutableMoveResult();
             apply(context, src.x, src.y, src.z, res);
-            if (res.y == src.y - 1) {
-                return new MovementDescend(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
-            } else {
-                return new MovementFall(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
-            }
+            return apply0(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return descendOrFall(baritone, src, dest);
         }
 
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementDescend.cost(context, x, y, z, x + 1, z, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? MovementDescend.validPositions(src, dest) : MovementFall.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? MovementDescend.positionsToBreak(dest) : MovementFall.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? dest.below() : null;
+        }
     },
 
     DESCEND_WEST(-1, -1, 0, false, true) {
@@ -171,17 +446,38 @@ public enum Moves {
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
             MutableMoveResult res = new MutableMoveResult();
             apply(context, src.x, src.y, src.z, res);
-            if (res.y == src.y - 1) {
-                return new MovementDescend(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
-            } else {
-                return new MovementFall(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
-            }
+            return apply0(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return descendOrFall(baritone, src, dest);
         }
 
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementDescend.cost(context, x, y, z, x - 1, z, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? MovementDescend.validPositions(src, dest) : MovementFall.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? MovementDescend.positionsToBreak(dest) : MovementFall.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? dest.below() : null;
+        }
     },
 
     DESCEND_NORTH(0, -1, -1, false, true) {
@@ -189,17 +485,38 @@ public enum Moves {
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
             MutableMoveResult res = new MutableMoveResult();
             apply(context, src.x, src.y, src.z, res);
-            if (res.y == src.y - 1) {
-                return new MovementDescend(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
-            } else {
-                return new MovementFall(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
-            }
+            return apply0(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return descendOrFall(baritone, src, dest);
         }
 
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementDescend.cost(context, x, y, z, x, z - 1, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? MovementDescend.validPositions(src, dest) : MovementFall.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? MovementDescend.positionsToBreak(dest) : MovementFall.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? dest.below() : null;
+        }
     },
 
     DESCEND_SOUTH(0, -1, +1, false, true) {
@@ -207,17 +524,38 @@ public enum Moves {
         public Movement apply0(CalculationContext context, BetterBlockPos src) {
             MutableMoveResult res = new MutableMoveResult();
             apply(context, src.x, src.y, src.z, res);
-            if (res.y == src.y - 1) {
-                return new MovementDescend(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
-            } else {
-                return new MovementFall(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
-            }
+            return apply0(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z));
+        }
+
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return descendOrFall(baritone, src, dest);
         }
 
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementDescend.cost(context, x, y, z, x, z + 1, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? MovementDescend.validPositions(src, dest) : MovementFall.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? MovementDescend.positionsToBreak(dest) : MovementFall.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.y == src.y - 1 ? dest.below() : null;
+        }
     },
 
     DIAGONAL_NORTHEAST(+1, 0, -1, false, true) {
@@ -228,10 +566,35 @@ public enum Moves {
             return new MovementDiagonal(context.getBaritone(), src, Direction.NORTH, Direction.EAST, res.y - src.y);
         }
 
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementDiagonal(baritone, src, Direction.NORTH, Direction.EAST, dest.y - src.y);
+        }
+
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementDiagonal.cost(context, x, y, z, x + 1, z - 1, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDiagonal.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDiagonal.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return MovementDiagonal.WALK_INTO;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return null;
+        }
     },
 
     DIAGONAL_NORTHWEST(-1, 0, -1, false, true) {
@@ -242,10 +605,35 @@ public enum Moves {
             return new MovementDiagonal(context.getBaritone(), src, Direction.NORTH, Direction.WEST, res.y - src.y);
         }
 
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementDiagonal(baritone, src, Direction.NORTH, Direction.WEST, dest.y - src.y);
+        }
+
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementDiagonal.cost(context, x, y, z, x - 1, z - 1, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDiagonal.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDiagonal.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return MovementDiagonal.WALK_INTO;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return null;
+        }
     },
 
     DIAGONAL_SOUTHEAST(+1, 0, +1, false, true) {
@@ -256,10 +644,35 @@ public enum Moves {
             return new MovementDiagonal(context.getBaritone(), src, Direction.SOUTH, Direction.EAST, res.y - src.y);
         }
 
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementDiagonal(baritone, src, Direction.SOUTH, Direction.EAST, dest.y - src.y);
+        }
+
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementDiagonal.cost(context, x, y, z, x + 1, z + 1, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDiagonal.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDiagonal.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return MovementDiagonal.WALK_INTO;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return null;
+        }
     },
 
     DIAGONAL_SOUTHWEST(-1, 0, +1, false, true) {
@@ -270,10 +683,35 @@ public enum Moves {
             return new MovementDiagonal(context.getBaritone(), src, Direction.SOUTH, Direction.WEST, res.y - src.y);
         }
 
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return new MovementDiagonal(baritone, src, Direction.SOUTH, Direction.WEST, dest.y - src.y);
+        }
+
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementDiagonal.cost(context, x, y, z, x - 1, z + 1, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDiagonal.validPositions(src, dest);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementDiagonal.positionsToBreak(src, dest);
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return MovementDiagonal.WALK_INTO;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return null;
+        }
     },
 
     PARKOUR_NORTH(0, 0, -4, true, true) {
@@ -282,10 +720,35 @@ public enum Moves {
             return MovementParkour.cost(context, src, Direction.NORTH);
         }
 
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return MovementParkour.between(baritone, src, dest, Direction.NORTH);
+        }
+
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementParkour.cost(context, x, y, z, Direction.NORTH, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementParkour.validPositions(src, dest, Direction.NORTH);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return new BetterBlockPos[0];
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
+        }
     },
 
     PARKOUR_SOUTH(0, 0, +4, true, true) {
@@ -294,10 +757,35 @@ public enum Moves {
             return MovementParkour.cost(context, src, Direction.SOUTH);
         }
 
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return MovementParkour.between(baritone, src, dest, Direction.SOUTH);
+        }
+
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementParkour.cost(context, x, y, z, Direction.SOUTH, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementParkour.validPositions(src, dest, Direction.SOUTH);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return new BetterBlockPos[0];
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
+        }
     },
 
     PARKOUR_EAST(+4, 0, 0, true, true) {
@@ -306,10 +794,35 @@ public enum Moves {
             return MovementParkour.cost(context, src, Direction.EAST);
         }
 
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return MovementParkour.between(baritone, src, dest, Direction.EAST);
+        }
+
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementParkour.cost(context, x, y, z, Direction.EAST, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementParkour.validPositions(src, dest, Direction.EAST);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return new BetterBlockPos[0];
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
+        }
     },
 
     PARKOUR_WEST(-4, 0, 0, true, true) {
@@ -318,10 +831,35 @@ public enum Moves {
             return MovementParkour.cost(context, src, Direction.WEST);
         }
 
+        @Override
+        public Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+            return MovementParkour.between(baritone, src, dest, Direction.WEST);
+        }
+
         @Override
         public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
             MovementParkour.cost(context, x, y, z, Direction.WEST, result);
         }
+
+        @Override
+        public Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+            return MovementParkour.validPositions(src, dest, Direction.WEST);
+        }
+
+        @Override
+        public BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+            return new BetterBlockPos[0];
+        }
+
+        @Override
+        public int positionsToWalkInto() {
+            return 0;
+        }
+
+        @Override
+        public BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest) {
+            return dest.below();
+        }
     };
 
     public final boolean dynamicXZ;
@@ -343,19 +881,66 @@ public enum Moves {
         this(x, y, z, false, false);
     }
 
+    /**
+     * Makes this move from src, working out where it goes now if that isn't fixed
+     */
     public abstract Movement apply0(CalculationContext context, BetterBlockPos src);
 
-    public void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result) {
-        if (dynamicXZ || dynamicY) {
-            throw new UnsupportedOperationException();
-        }
+    /**
+     * Like {@link #apply0(CalculationContext, BetterBlockPos)}, but to a destination this move was found to go to
+     * already, rather than working out again where it goes now. Doesn't need a {@link CalculationContext}, so that
+     * movements can be made again long after the search that found them.
+     */
+    public abstract Movement apply0(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest);
+
+    /**
+     * @return {@link Movement#getValidPositions()} of the movement {@link #apply0(IBaritone, BetterBlockPos, BetterBlockPos)}
+     * would make, without making it
+     */
+    public abstract Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest);
+
+    /**
+     * @return {@link Movement#toBreakAll()} of the movement {@link #apply0(IBaritone, BetterBlockPos, BetterBlockPos)}
+     * would make, without making it. The first {@link #positionsToWalkInto()} of them are only walked into.
+     */
+    public abstract BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest);
+
+    /**
+     * @return How many of {@link #positionsToBreak(BetterBlockPos, BetterBlockPos)} come first that the movement only
+     * walks into rather than breaks, see {@link Movement#toWalkInto}
+     */
+    public abstract int positionsToWalkInto();
+
+    /**
+     * @return {@link Movement#getPositionToPlace()} of the movement
+     * {@link #apply0(IBaritone, BetterBlockPos, BetterBlockPos)} would make, without making it
+     */
+    public abstract BetterBlockPos positionToPlace(BetterBlockPos src, BetterBlockPos dest);
+
+    public abstract void apply(CalculationContext context, int x, int y, int z, MutableMoveResult result);
+
+    /**
+     * {@link #apply0(CalculationContext, BetterBlockPos)} for a move that always goes by its offsets
+     */
+    protected final Movement apply0Fixed(CalculationContext context, BetterBlockPos src) {
+        return apply0(context.getBaritone(), src, new BetterBlockPos(src.x + xOffset, src.y + yOffset, src.z + zOffset));
+    }
+
+    /**
+     * {@link #apply(CalculationContext, int, int, int, MutableMoveResult)} for a move that always goes by its offsets
+     */
+    protected final void applyFixed(int x, int y, int z, double cost, MutableMoveResult result) {
         result.x = x + xOffset;
         result.y = y + yOffset;
         result.z = z + zOffset;
-        result.cost = cost(context, x, y, z);
+        result.cost = cost;
     }
 
-    public double cost(CalculationContext context, int x, int y, int z) {
-        throw new UnsupportedOperationException();
+    private static Movement descendOrFall(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
+        if (dest.y == src.y - 1) {
+            return new MovementDescend(baritone, src, dest);
+        } else {
+            return new MovementFall(baritone, src, dest);
+        }
     }
 }
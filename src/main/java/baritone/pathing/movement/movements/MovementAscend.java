@@ -39,7 +39,11 @@ public class MovementAscend extends Movement {
     private int ticksWithoutPlacement = 0;
 
     public MovementAscend(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
-        super(baritone, src, dest, new BetterBlockPos[]{dest, src.above(2), dest.above()}, dest.below());
+        super(baritone, src, dest, positionsToBreak(src, dest), dest.below());
+    }
+
+    public static BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+        return new BetterBlockPos[]{dest, src.above(2), dest.above()};
     }
 
     @Override
@@ -55,7 +59,11 @@ public class MovementAscend extends Movement {
 
     @Override
     protected Set<BetterBlockPos> calculateValidPositions() {
-        BetterBlockPos prior = new BetterBlockPos(src.subtract(getDirection()).above()); // sometimes we back up to place the block, also sprint ascends, also skip descend to straight ascend
+        return validPositions(src, dest);
+    }
+
+    public static Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
+        BetterBlockPos prior = new BetterBlockPos(src.subtract(dest.subtract(src)).above()); // sometimes we back up to place the block, also sprint ascends, also skip descend to straight ascend
         return ImmutableSet.of(src,
                 src.above(),
                 dest,
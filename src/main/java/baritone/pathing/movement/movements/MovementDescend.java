@@ -44,7 +44,11 @@ public class MovementDescend extends Movement {
     public boolean forceSafeMode = false;
 
     public MovementDescend(IBaritone baritone, BetterBlockPos start, BetterBlockPos end) {
-        super(baritone, start, end, new BetterBlockPos[]{end.above(2), end.above(), end}, end.below());
+        super(baritone, start, end, positionsToBreak(end), end.below());
+    }
+
+    public static BetterBlockPos[] positionsToBreak(BetterBlockPos dest) {
+        return new BetterBlockPos[]{dest.above(2), dest.above(), dest};
     }
 
     @Override
@@ -73,6 +77,10 @@ public class MovementDescend extends Movement {
 
     @Override
     protected Set<BetterBlockPos> calculateValidPositions() {
+        return validPositions(src, dest);
+    }
+
+    public static Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
         return ImmutableSet.of(src, dest.above(), dest);
     }
 
@@ -43,6 +43,11 @@ public class MovementDiagonal extends Movement {
 
     private static final double SQRT_2 = Math.sqrt(2);
 
+    /**
+     * How many of {@link #positionsToBreak} come first that are only walked into
+     */
+    public static final int WALK_INTO = 4;
+
     public MovementDiagonal(IBaritone baritone, BetterBlockPos start, Direction dir1, Direction dir2, int dy) {
         this(baritone, start, start.relative(dir1), start.relative(dir2), dir2, dy);
         // super(start, start.offset(dir1).offset(dir2), new BlockPos[]{start.offset(dir1), start.offset(dir1).up(), start.offset(dir2), start.offset(dir2).up(), start.offset(dir1).offset(dir2), start.offset(dir1).offset(dir2).up()}, new BlockPos[]{start.offset(dir1).offset(dir2).down()});
@@ -53,7 +58,19 @@ public class MovementDiagonal extends Movement {
     }
 
     private MovementDiagonal(IBaritone baritone, BetterBlockPos start, BetterBlockPos end, BetterBlockPos dir1, BetterBlockPos dir2) {
-        super(baritone, start, end, new BetterBlockPos[]{dir1, dir1.above(), dir2, dir2.above(), end, end.above()});
+        super(baritone, start, end, positionsToBreak(dir1, dir2, end));
+    }
+
+    /**
+     * The first {@link #WALK_INTO} are only walked into, see {@link #toWalkInto(BlockStateInterface)}, the rest are
+     * broken
+     */
+    public static BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+        return positionsToBreak(new BetterBlockPos(src.x, src.y, dest.z), new BetterBlockPos(dest.x, src.y, src.z), dest);
+    }
+
+    private static BetterBlockPos[] positionsToBreak(BetterBlockPos dir1, BetterBlockPos dir2, BetterBlockPos end) {
+        return new BetterBlockPos[]{dir1, dir1.above(), dir2, dir2.above(), end, end.above()};
     }
 
     @Override
@@ -97,6 +114,10 @@ public class MovementDiagonal extends Movement {
 
     @Override
     protected Set<BetterBlockPos> calculateValidPositions() {
+        return validPositions(src, dest);
+    }
+
+    public static Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
         BetterBlockPos diagA = new BetterBlockPos(src.x, src.y, dest.z);
         BetterBlockPos diagB = new BetterBlockPos(dest.x, src.y, src.z);
         if (dest.y < src.y) {
@@ -297,11 +318,7 @@ public class MovementDiagonal extends Movement {
             return toBreakCached;
         }
         List<BlockPos> result = new ArrayList<>();
-        for (int i = 4; i < 6; i++) {
-            if (!MovementHelper.canWalkThrough(bsi, positionsToBreak[i].x, positionsToBreak[i].y, positionsToBreak[i].z)) {
-                result.add(positionsToBreak[i]);
-            }
-        }
+        addNotPassable(bsi, positionsToBreak, WALK_INTO, positionsToBreak.length, result);
         toBreakCached = result;
         return result;
     }
@@ -312,11 +329,7 @@ public class MovementDiagonal extends Movement {
             toWalkIntoCached = new ArrayList<>();
         }
         List<BlockPos> result = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            if (!MovementHelper.canWalkThrough(bsi, positionsToBreak[i].x, positionsToBreak[i].y, positionsToBreak[i].z)) {
-                result.add(positionsToBreak[i]);
-            }
-        }
+        addNotPassable(bsi, positionsToBreak, 0, WALK_INTO, result);
         toWalkIntoCached = result;
         return toWalkIntoCached;
     }
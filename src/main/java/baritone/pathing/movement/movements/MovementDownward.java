@@ -35,7 +35,11 @@ public class MovementDownward extends Movement {
     private int numTicks = 0;
 
     public MovementDownward(IBaritone baritone, BetterBlockPos start, BetterBlockPos end) {
-        super(baritone, start, end, new BetterBlockPos[]{end});
+        super(baritone, start, end, positionsToBreak(end));
+    }
+
+    public static BetterBlockPos[] positionsToBreak(BetterBlockPos dest) {
+        return new BetterBlockPos[]{dest};
     }
 
     @Override
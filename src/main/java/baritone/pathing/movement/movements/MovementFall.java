@@ -53,7 +53,7 @@ public class MovementFall extends Movement {
     private static final ItemStack STACK_BUCKET_EMPTY = new ItemStack(Items.BUCKET);
 
     public MovementFall(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest) {
-        super(baritone, src, dest, MovementFall.buildPositionsToBreak(src, dest));
+        super(baritone, src, dest, positionsToBreak(src, dest));
     }
 
     @Override
@@ -68,6 +68,10 @@ public class MovementFall extends Movement {
 
     @Override
     protected Set<BetterBlockPos> calculateValidPositions() {
+        return validPositions(src, dest);
+    }
+
+    public static Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest) {
         Set<BetterBlockPos> set = new HashSet<>();
         set.add(src);
         for (int y = src.y - dest.y; y >= 0; y--) {
@@ -175,7 +179,7 @@ public class MovementFall extends Movement {
         return ctx.playerFeet().equals(src) || state.getStatus() != MovementStatus.RUNNING;
     }
 
-    private static BetterBlockPos[] buildPositionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
+    public static BetterBlockPos[] positionsToBreak(BetterBlockPos src, BetterBlockPos dest) {
         BetterBlockPos[] toBreak;
         int diffX = src.getX() - dest.getX();
         int diffZ = src.getZ() - dest.getZ();
@@ -56,8 +56,12 @@ public class MovementParkour extends Movement {
     public static MovementParkour cost(CalculationContext context, BetterBlockPos src, Direction direction) {
         MutableMoveResult res = new MutableMoveResult();
         cost(context, src.x, src.y, src.z, direction, res);
-        int dist = Math.abs(res.x - src.x) + Math.abs(res.z - src.z);
-        return new MovementParkour(context.getBaritone(), src, dist, direction, res.y > src.y);
+        return between(context.getBaritone(), src, new BetterBlockPos(res.x, res.y, res.z), direction);
+    }
+
+    public static MovementParkour between(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest, Direction direction) {
+        int dist = Math.abs(dest.x - src.x) + Math.abs(dest.z - src.z);
+        return new MovementParkour(baritone, src, dist, direction, dest.y > src.y);
     }
 
     public static void cost(CalculationContext context, int x, int y, int z, Direction dir, MutableMoveResult res) {
@@ -232,6 +236,14 @@ public class MovementParkour extends Movement {
 
     @Override
     protected Set<BetterBlockPos> calculateValidPositions() {
+        return validPositions(src, dist, direction);
+    }
+
+    public static Set<BetterBlockPos> validPositions(BetterBlockPos src, BetterBlockPos dest, Direction direction) {
+        return validPositions(src, Math.abs(dest.x - src.x) + Math.abs(dest.z - src.z), direction);
+    }
+
+    private static Set<BetterBlockPos> validPositions(BetterBlockPos src, int dist, Direction direction) {
         Set<BetterBlockPos> set = new HashSet<>();
         for (int i = 0; i <= dist; i++) {
             for (int y = 0; y < 2; y++) {
@@ -49,7 +49,11 @@ import java.util.Set;
 public class MovementPillar extends Movement {
 
     public MovementPillar(IBaritone baritone, BetterBlockPos start, BetterBlockPos end) {
-        super(baritone, start, end, new BetterBlockPos[]{start.above(2)}, start);
+        super(baritone, start, end, positionsToBreak(start), start);
+    }
+
+    public static BetterBlockPos[] positionsToBreak(BetterBlockPos src) {
+        return new BetterBlockPos[]{src.above(2)};
     }
 
     @Override
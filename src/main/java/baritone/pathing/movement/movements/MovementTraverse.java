@@ -55,7 +55,11 @@ public class MovementTraverse extends Movement {
     private boolean wasTheBridgeBlockAlwaysThere = true;
 
     public MovementTraverse(IBaritone baritone, BetterBlockPos from, BetterBlockPos to) {
-        super(baritone, from, to, new BetterBlockPos[]{to.above(), to}, to.below());
+        super(baritone, from, to, positionsToBreak(to), to.below());
+    }
+
+    public static BetterBlockPos[] positionsToBreak(BetterBlockPos dest) {
+        return new BetterBlockPos[]{dest.above(), dest};
     }
 
     @Override
@@ -30,7 +30,7 @@ public class CutoffPath extends PathBase {
 
     private final List<BetterBlockPos> path;
 
-    private final List<IMovement> movements;
+    private final MovementList movements;
 
     private final int numNodes;
 
@@ -38,7 +38,7 @@ public class CutoffPath extends PathBase {
 
     public CutoffPath(IPath prev, int firstPositionToInclude, int lastPositionToInclude) {
         path = prev.positions().subList(firstPositionToInclude, lastPositionToInclude + 1);
-        movements = prev.movements().subList(firstPositionToInclude, lastPositionToInclude);
+        movements = new MovementList.Builder(lastPositionToInclude - firstPositionToInclude).addAll(prev.movements(), firstPositionToInclude, lastPositionToInclude).build();
         numNodes = prev.getNumNodesConsidered();
         goal = prev.getGoal();
         sanityCheck();
@@ -55,7 +55,7 @@ public class CutoffPath extends PathBase {
 
     @Override
     public List<IMovement> movements() {
-        return Collections.unmodifiableList(movements);
+        return movements;
     }
 
     @Override
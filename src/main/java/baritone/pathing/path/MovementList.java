@@ -0,0 +1,320 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import baritone.api.IBaritone;
+import baritone.api.pathing.movement.IMovement;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.Movement;
+import baritone.pathing.movement.Moves;
+import baritone.utils.BlockStateInterface;
+import net.minecraft.core.BlockPos;
+
+import java.util.*;
+
+/**
+ * The movements of a path, kept as where each one goes from and to, which of {@link Moves} it is and what it cost, and
+ * only made into a {@link Movement} once something gets it. While the path is executed, that's the ones coming up
+ * within {@link PathExecutor}'s lookahead, so a long spliced path doesn't hold thousands of movements with everything
+ * they have to break and place. Nor does it hold on to the {@link baritone.pathing.movement.CalculationContext} of the
+ * search, only the Baritone the movements are made for, since every movement of a path is for the same one.
+ * <p>
+ * Not modifiable, see {@link Builder}.
+ */
+public final class MovementList extends AbstractList<IMovement> implements RandomAccess {
+
+    private static final Moves[] MOVES = Moves.values();
+
+    private final IBaritone baritone;
+    private final BetterBlockPos[] src;
+    private final BetterBlockPos[] dest;
+
+    /**
+     * The ordinal of the {@link Moves} of each movement, or -1 if it was given as a movement already and can't be made
+     * again
+     */
+    private final byte[] moves;
+
+    private final double[] costs;
+
+    private final BitSet calculatedWhileLoaded;
+
+    /**
+     * The movements that were made already, null for the rest
+     */
+    private final IMovement[] movements;
+
+    private MovementList(Builder builder) {
+        int size = builder.size;
+        this.baritone = builder.baritone;
+        this.src = Arrays.copyOf(builder.src, size);
+        this.dest = Arrays.copyOf(builder.dest, size);
+        this.moves = Arrays.copyOf(builder.moves, size);
+        this.costs = Arrays.copyOf(builder.costs, size);
+        this.calculatedWhileLoaded = (BitSet) builder.calculatedWhileLoaded.clone();
+        this.movements = Arrays.copyOf(builder.movements, size);
+    }
+
+    @Override
+    public int size() {
+        return movements.length;
+    }
+
+    /**
+     * Makes the movement if it wasn't yet, and keeps it, since it's about to be executed and has to remember how far
+     * along it is
+     */
+    @Override
+    public IMovement get(int index) {
+        IMovement movement = movements[index];
+        if (movement == null) {
+            movement = create(index);
+            movements[index] = movement;
+        }
+        return movement;
+    }
+
+    /**
+     * @return The movement if it was made already, or else a new one that isn't kept, for looking at what a movement
+     * further along would do without holding on to it
+     */
+    public IMovement peek(int index) {
+        IMovement movement = movements[index];
+        return movement == null ? create(index) : movement;
+    }
+
+    public boolean isCreated(int index) {
+        return movements[index] != null;
+    }
+
+    public BetterBlockPos getSrc(int index) {
+        return src[index];
+    }
+
+    public BetterBlockPos getDest(int index) {
+        return dest[index];
+    }
+
+    /**
+     * @return {@link Movement#getValidPositions()} of the movement, without making it if it wasn't already
+     */
+    public Set<BetterBlockPos> getValidPositions(int index) {
+        IMovement movement = movements[index];
+        return movement == null ? MOVES[moves[index]].validPositions(src[index], dest[index]) : ((Movement) movement).getValidPositions();
+    }
+
+    /**
+     * @return {@link Movement#toBreakAll()} of the movement, without making it if it wasn't already
+     */
+    public BlockPos[] toBreakAll(int index) {
+        IMovement movement = movements[index];
+        return movement == null ? MOVES[moves[index]].positionsToBreak(src[index], dest[index]) : ((Movement) movement).toBreakAll();
+    }
+
+    /**
+     * @return {@link Movement#getPositionToPlace()} of the movement, without making it if it wasn't already
+     */
+    public BetterBlockPos getPositionToPlace(int index) {
+        IMovement movement = movements[index];
+        return movement == null ? MOVES[moves[index]].positionToPlace(src[index], dest[index]) : ((Movement) movement).getPositionToPlace();
+    }
+
+    /**
+     * Adds what the movement has to break, place and walk into as things are now, see {@link Movement#toBreak},
+     * {@link Movement#toPlace} and {@link Movement#toWalkInto}. Without making it if it wasn't already, the ones that
+     * were made answer from what they cached instead.
+     */
+    public void addBlocks(int index, BlockStateInterface bsi, Collection<BlockPos> toBreak, Collection<BlockPos> toPlace, Collection<BlockPos> toWalkInto) {
+        IMovement movement = movements[index];
+        if (movement != null) {
+            addBlocks((Movement) movement, bsi, toBreak, toPlace, toWalkInto);
+            return;
+        }
+        Moves move = MOVES[moves[index]];
+        BetterBlockPos[] positions = move.positionsToBreak(src[index], dest[index]);
+        Movement.addNotPassable(bsi, positions, move.positionsToWalkInto(), positions.length, toBreak);
+        Movement.addNotWalkableOn(bsi, move.positionToPlace(src[index], dest[index]), toPlace);
+        Movement.addNotPassable(bsi, positions, 0, move.positionsToWalkInto(), toWalkInto);
+    }
+
+    /**
+     * Forgets the movements in the range that were made already, they're made again from scratch if they're needed
+     */
+    public void release(int from, int to) {
+        for (int i = Math.max(from, 0); i < to && i < movements.length; i++) {
+            if (moves[i] != -1) {
+                movements[i] = null;
+            }
+        }
+    }
+
+    private Movement create(int index) {
+        Movement movement = MOVES[moves[index]].apply0(baritone, src[index], dest[index]);
+        movement.override(costs[index]);
+        movement.setCalculatedWhileLoaded(calculatedWhileLoaded.get(index));
+        return movement;
+    }
+
+    /**
+     * {@link #peek(int)} for any list of movements
+     */
+    public static IMovement peek(List<IMovement> movements, int index) {
+        return movements instanceof MovementList ? ((MovementList) movements).peek(index) : movements.get(index);
+    }
+
+    /**
+     * {@link #isCreated(int)} for any list of movements
+     */
+    public static boolean isCreated(List<IMovement> movements, int index) {
+        return !(movements instanceof MovementList) || ((MovementList) movements).isCreated(index);
+    }
+
+    /**
+     * {@link #getValidPositions(int)} for any list of movements
+     */
+    public static Set<BetterBlockPos> getValidPositions(List<IMovement> movements, int index) {
+        return movements instanceof MovementList ? ((MovementList) movements).getValidPositions(index) : ((Movement) movements.get(index)).getValidPositions();
+    }
+
+    /**
+     * {@link #toBreakAll(int)} for any list of movements
+     */
+    public static BlockPos[] toBreakAll(List<IMovement> movements, int index) {
+        return movements instanceof MovementList ? ((MovementList) movements).toBreakAll(index) : ((Movement) movements.get(index)).toBreakAll();
+    }
+
+    /**
+     * {@link #getPositionToPlace(int)} for any list of movements
+     */
+    public static BetterBlockPos getPositionToPlace(List<IMovement> movements, int index) {
+        return movements instanceof MovementList ? ((MovementList) movements).getPositionToPlace(index) : ((Movement) movements.get(index)).getPositionToPlace();
+    }
+
+    /**
+     * {@link #addBlocks} for any list of movements
+     */
+    public static void addBlocks(List<IMovement> movements, int index, BlockStateInterface bsi, Collection<BlockPos> toBreak, Collection<BlockPos> toPlace, Collection<BlockPos> toWalkInto) {
+        if (movements instanceof MovementList) {
+            ((MovementList) movements).addBlocks(index, bsi, toBreak, toPlace, toWalkInto);
+        } else {
+            addBlocks((Movement) movements.get(index), bsi, toBreak, toPlace, toWalkInto);
+        }
+    }
+
+    private static void addBlocks(Movement movement, BlockStateInterface bsi, Collection<BlockPos> toBreak, Collection<BlockPos> toPlace, Collection<BlockPos> toWalkInto) {
+        toBreak.addAll(movement.toBreak(bsi));
+        toPlace.addAll(movement.toPlace(bsi));
+        toWalkInto.addAll(movement.toWalkInto(bsi));
+    }
+
+    /**
+     * {@link #release(int, int)} for any list of movements
+     */
+    public static void release(List<IMovement> movements, int from, int to) {
+        if (movements instanceof MovementList) {
+            ((MovementList) movements).release(from, to);
+        }
+    }
+
+    public static final class Builder {
+
+        private IBaritone baritone;
+        private BetterBlockPos[] src;
+        private BetterBlockPos[] dest;
+        private byte[] moves;
+        private double[] costs;
+        private final BitSet calculatedWhileLoaded = new BitSet();
+        private IMovement[] movements;
+        private int size;
+
+        public Builder(int expectedSize) {
+            src = new BetterBlockPos[expectedSize];
+            dest = new BetterBlockPos[expectedSize];
+            moves = new byte[expectedSize];
+            costs = new double[expectedSize];
+            movements = new IMovement[expectedSize];
+        }
+
+        private int next() {
+            if (size == movements.length) {
+                int capacity = Math.max(16, size * 2);
+                src = Arrays.copyOf(src, capacity);
+                dest = Arrays.copyOf(dest, capacity);
+                moves = Arrays.copyOf(moves, capacity);
+                costs = Arrays.copyOf(costs, capacity);
+                movements = Arrays.copyOf(movements, capacity);
+            }
+            return size++;
+        }
+
+        /**
+         * @param dest Where the move went from src when it was found, which for the dynamic ones could be somewhere else
+         *             by now
+         */
+        public Builder add(IBaritone baritone, BetterBlockPos src, BetterBlockPos dest, Moves move, double cost, boolean calculatedWhileLoaded) {
+            int index = next();
+            this.baritone = baritone;
+            this.src[index] = src;
+            this.dest[index] = dest;
+            this.moves[index] = (byte) move.ordinal();
+            this.costs[index] = cost;
+            this.calculatedWhileLoaded.set(index, calculatedWhileLoaded);
+            return this;
+        }
+
+        /**
+         * Adds the movements in the range, along with the ones that were made already, without making the rest
+         */
+        public Builder addAll(List<IMovement> from, int fromIndex, int toIndex) {
+            MovementList list = from instanceof MovementList ? (MovementList) from : null;
+            for (int i = fromIndex; i < toIndex; i++) {
+                int index = next();
+                if (list == null) {
+                    IMovement movement = from.get(i);
+                    this.src[index] = movement.getSrc();
+                    this.dest[index] = movement.getDest();
+                    this.moves[index] = -1;
+                    this.movements[index] = movement;
+                    continue;
+                }
+                if (list.baritone != null) {
+                    this.baritone = list.baritone;
+                }
+                this.src[index] = list.src[i];
+                this.dest[index] = list.dest[i];
+                this.moves[index] = list.moves[i];
+                this.costs[index] = list.costs[i];
+                this.calculatedWhileLoaded.set(index, list.calculatedWhileLoaded.get(i));
+                this.movements[index] = list.movements[i];
+            }
+            return this;
+        }
+
+        public Builder addAll(List<IMovement> from) {
+            return addAll(from, 0, from.size());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public MovementList build() {
+            return new MovementList(this);
+        }
+    }
+}
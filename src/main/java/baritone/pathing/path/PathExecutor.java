@@ -18,7 +18,13 @@
 package baritone.pathing.path;
 
 import baritone.Baritone;
+import baritone.api.event.events.BlockChangeEvent;
+import baritone.api.event.events.ChunkEvent;
+import baritone.api.event.events.type.EventState;
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.pathing.goals.GoalComposite;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.pathing.movement.IMovement;
 import baritone.api.pathing.movement.MovementStatus;
@@ -32,9 +38,14 @@ import baritone.pathing.movement.Movement;
 import baritone.pathing.movement.MovementHelper;
 import baritone.pathing.movement.movements.*;
 import baritone.utils.BlockStateInterface;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.core.Vec3i;
 import net.minecraft.util.Tuple;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 import java.util.*;
 
@@ -71,6 +82,37 @@ public class PathExecutor implements IPathExecutor, Helper {
     private HashSet<BlockPos> toPlace = new HashSet<>();
     private HashSet<BlockPos> toWalkInto = new HashSet<>();
 
+    /**
+     * The movements whose {@link Movement#toBreak}, {@link Movement#toPlace} or {@link Movement#toWalkInto} may have
+     * changed since they were last worked out, because a block they look at changed or its chunk was loaded or unloaded
+     */
+    private final BitSet dirtyMovements = new BitSet();
+
+    /**
+     * The movements that a block or chunk they look at changed for since the last tick, whose cost is checked again.
+     * Only kept track of with {@link baritone.api.Settings#pathRepair} on, nothing else needs the cost.
+     */
+    private final BitSet changedMovements = new BitSet();
+
+    /**
+     * The first movement after the next one that has become impossible since the path was calculated, or -1, and the
+     * one that no way around could be found for, or -1
+     */
+    private int impossibleMovement = -1;
+    private int unrepairableMovement = -1;
+
+    /**
+     * The movements that look at each block, by {@link BetterBlockPos#longHash(int, int, int)}, and the movements that
+     * look at any block in each chunk, by {@link ChunkPos#asLong(int, int)}. Built the first time a block or chunk changes
+     */
+    private Long2ObjectOpenHashMap<IntArrayList> movementsByPos;
+    private Long2ObjectOpenHashMap<IntArrayList> movementsByChunk;
+
+    /**
+     * Built the first time it's needed, since paths that are never executed don't need it
+     */
+    private PathPositionIndex positionIndex;
+
     private final PathingBehavior behavior;
     private final IPlayerContext ctx;
 
@@ -81,6 +123,8 @@ public class PathExecutor implements IPathExecutor, Helper {
         this.ctx = behavior.ctx;
         this.path = path;
         this.pathPosition = 0;
+        // whatever was worked out while the path was calculated could be out of date already
+        this.dirtyMovements.set(0, path.movements().size());
     }
 
     /**
@@ -99,33 +143,32 @@ public class PathExecutor implements IPathExecutor, Helper {
         Movement movement = (Movement) path.movements().get(pathPosition);
         BetterBlockPos whereAmI = ctx.playerFeet();
         if (!movement.getValidPositions().contains(whereAmI)) {
-            for (int i = 0; i < pathPosition && i < path.length(); i++) {//this happens for example when you lag out and get teleported back a couple blocks
-                if (((Movement) path.movements().get(i)).getValidPositions().contains(whereAmI)) {
-                    int previousPos = pathPosition;
-                    pathPosition = i;
-                    for (int j = pathPosition; j <= previousPos; j++) {
-                        path.movements().get(j).reset();
-                    }
-                    onChangeInPathPosition();
-                    onTick();
-                    return false;
+            int back = positionIndex().firstMovementValidAt(whereAmI, 0, Math.min(pathPosition, path.length()));
+            if (back != -1) {//this happens for example when you lag out and get teleported back a couple blocks
+                int previousPos = pathPosition;
+                pathPosition = back;
+                for (int j = pathPosition; j <= previousPos; j++) {
+                    path.movements().get(j).reset();
                 }
+                onChangeInPathPosition();
+                onTick();
+                return false;
             }
-            for (int i = pathPosition + 3; i < path.length() - 1; i++) { //dont check pathPosition+1. the movement tells us when it's done (e.g. sneak placing)
-                // also don't check pathPosition+2 because reasons
-                if (((Movement) path.movements().get(i)).getValidPositions().contains(whereAmI)) {
-                    if (i - pathPosition > 2) {
-                        logDebug("Skipping forward " + (i - pathPosition) + " steps, to " + i);
-                    }
-                    //System.out.println("Double skip sundae");
-                    pathPosition = i - 1;
-                    onChangeInPathPosition();
-                    onTick();
-                    return false;
+            //dont check pathPosition+1. the movement tells us when it's done (e.g. sneak placing)
+            // also don't check pathPosition+2 because reasons
+            int ahead = positionIndex().firstMovementValidAt(whereAmI, pathPosition + 3, path.length() - 1);
+            if (ahead != -1) {
+                if (ahead - pathPosition > 2) {
+                    logDebug("Skipping forward " + (ahead - pathPosition) + " steps, to " + ahead);
                 }
+                //System.out.println("Double skip sundae");
+                pathPosition = ahead - 1;
+                onChangeInPathPosition();
+                onTick();
+                return false;
             }
         }
-        Tuple<Double, BlockPos> status = closestPathPos(path);
+        Tuple<Double, BlockPos> status = closestPathPos();
         if (possiblyOffPath(status, MAX_DIST_FROM_PATH)) {
             ticksAway++;
             System.out.println("FAR AWAY FROM PATH FOR " + ticksAway + " TICKS. Current distance: " + status.getA() + ". Threshold: " + MAX_DIST_FROM_PATH);
@@ -143,35 +186,21 @@ public class PathExecutor implements IPathExecutor, Helper {
             return false;
         }
         //long start = System.nanoTime() / 1000000L;
-        BlockStateInterface bsi = new BlockStateInterface(ctx);
-        for (int i = pathPosition - 10; i < pathPosition + 10; i++) {
-            if (i < 0 || i >= path.movements().size()) {
-                continue;
-            }
-            Movement m = (Movement) path.movements().get(i);
-            List<BlockPos> prevBreak = m.toBreak(bsi);
-            List<BlockPos> prevPlace = m.toPlace(bsi);
-            List<BlockPos> prevWalkInto = m.toWalkInto(bsi);
-            m.resetBlockCache();
-            if (!prevBreak.equals(m.toBreak(bsi))) {
-                recalcBP = true;
-            }
-            if (!prevPlace.equals(m.toPlace(bsi))) {
-                recalcBP = true;
-            }
-            if (!prevWalkInto.equals(m.toWalkInto(bsi))) {
-                recalcBP = true;
-            }
+        // nothing to do unless a block or chunk that one of the movements looks at changed
+        BlockStateInterface bsi = null;
+        if (!dirtyMovements.isEmpty()) {
+            bsi = new BlockStateInterface(ctx);
+            recalcDirtyMovements(bsi);
         }
         if (recalcBP) {
+            if (bsi == null) {
+                bsi = new BlockStateInterface(ctx);
+            }
             HashSet<BlockPos> newBreak = new HashSet<>();
             HashSet<BlockPos> newPlace = new HashSet<>();
             HashSet<BlockPos> newWalkInto = new HashSet<>();
             for (int i = pathPosition; i < path.movements().size(); i++) {
-                Movement m = (Movement) path.movements().get(i);
-                newBreak.addAll(m.toBreak(bsi));
-                newPlace.addAll(m.toPlace(bsi));
-                newWalkInto.addAll(m.toWalkInto(bsi));
+                MovementList.addBlocks(path.movements(), i, bsi, newBreak, newPlace, newWalkInto);
             }
             toBreak = newBreak;
             toPlace = newPlace;
@@ -197,6 +226,10 @@ public class PathExecutor implements IPathExecutor, Helper {
             currentMovementOriginalCostEstimate = movement.getCost();
             for (int i = 1; i < Baritone.settings().costVerificationLookahead.value && pathPosition + i < path.length() - 1; i++) {
                 if (((Movement) path.movements().get(pathPosition + i)).calculateCost(behavior.secretInternalGetCalculationContext()) >= ActionCosts.COST_INF && canCancel) {
+                    if (i > 1 && markImpossible(pathPosition + i)) {
+                        // PathingBehavior looks for a way around it while we get there
+                        break;
+                    }
                     logDebug("Something has changed in the world and a future movement has become impossible. Cancelling.");
                     cancel();
                     return true;
@@ -252,19 +285,15 @@ public class PathExecutor implements IPathExecutor, Helper {
         return canCancel; // movement is in progress, but if it reports cancellable, PathingBehavior is good to cut onto the next path
     }
 
-    private Tuple<Double, BlockPos> closestPathPos(IPath path) {
-        double best = -1;
-        BlockPos bestPos = null;
-        for (IMovement movement : path.movements()) {
-            for (BlockPos pos : ((Movement) movement).getValidPositions()) {
-                double dist = VecUtils.entityDistanceToCenter(ctx.player(), pos);
-                if (dist < best || best == -1) {
-                    best = dist;
-                    bestPos = pos;
-                }
-            }
+    private Tuple<Double, BlockPos> closestPathPos() {
+        return positionIndex().closest(ctx.player().position().x, ctx.player().position().y, ctx.player().position().z);
+    }
+
+    private PathPositionIndex positionIndex() {
+        if (positionIndex == null) {
+            positionIndex = PathPositionIndex.of(path);
         }
-        return new Tuple<>(best, bestPos);
+        return positionIndex;
     }
 
     private boolean shouldPause() {
@@ -332,7 +361,7 @@ public class PathExecutor implements IPathExecutor, Helper {
                 return false; // so don't
             }
         }
-        int index = path.positions().indexOf(ctx.playerFeet());
+        int index = positionIndex().indexOf(ctx.playerFeet());
         if (index == -1) {
             return false;
         }
@@ -575,9 +604,189 @@ public class PathExecutor implements IPathExecutor, Helper {
         return next instanceof MovementDiagonal && Baritone.settings().allowOvershootDiagonalDescend.value;
     }
 
+    /**
+     * Works out again what the movements whose blocks changed have to break, place and walk into, and whether the
+     * sets over the whole path have to be rebuilt because of it
+     */
+    private void recalcDirtyMovements(BlockStateInterface bsi) {
+        if (Baritone.settings().pathRepair.value) {
+            CalculationContext context = behavior.secretInternalGetCalculationContext();
+            for (int i = changedMovements.nextSetBit(pathPosition + 2); i >= 0; i = changedMovements.nextSetBit(i + 1)) {
+                if (((Movement) MovementList.peek(path.movements(), i)).calculateCost(context) >= ActionCosts.COST_INF) {
+                    markImpossible(i);
+                    break; // only the first one is gone around at a time
+                }
+            }
+        }
+        changedMovements.clear();
+        for (int i = dirtyMovements.nextSetBit(0); i >= 0; i = dirtyMovements.nextSetBit(i + 1)) {
+            if (!MovementList.isCreated(path.movements(), i)) {
+                // nothing to compare with, but it's enough to know whether it needs anything that isn't shown yet
+                if (!recalcBP) {
+                    List<BlockPos> needsBreak = new ArrayList<>();
+                    List<BlockPos> needsPlace = new ArrayList<>();
+                    List<BlockPos> needsWalkInto = new ArrayList<>();
+                    MovementList.addBlocks(path.movements(), i, bsi, needsBreak, needsPlace, needsWalkInto);
+                    recalcBP = !toBreak.containsAll(needsBreak) || !toPlace.containsAll(needsPlace) || !toWalkInto.containsAll(needsWalkInto);
+                }
+                continue;
+            }
+            Movement m = (Movement) path.movements().get(i);
+            List<BlockPos> prevBreak = m.toBreakCached;
+            List<BlockPos> prevPlace = m.toPlaceCached;
+            List<BlockPos> prevWalkInto = m.toWalkIntoCached;
+            m.resetBlockCache();
+            if (!Objects.equals(prevBreak, m.toBreak(bsi))) {
+                recalcBP = true;
+            }
+            if (!Objects.equals(prevPlace, m.toPlace(bsi))) {
+                recalcBP = true;
+            }
+            if (!Objects.equals(prevWalkInto, m.toWalkInto(bsi))) {
+                recalcBP = true;
+            }
+        }
+        dirtyMovements.clear();
+    }
+
+    public void onBlockChange(BlockChangeEvent event) {
+        buildMovementIndex();
+        for (Pair<BlockPos, BlockState> block : event.getBlocks()) {
+            BlockPos pos = block.first();
+            markDirty(movementsByPos.get(BetterBlockPos.longHash(pos.getX(), pos.getY(), pos.getZ())));
+        }
+    }
+
+    public void onChunkEvent(ChunkEvent event) {
+        // once it's loaded or unloaded, the blocks come from somewhere else
+        if (event.getState() != EventState.POST) {
+            return;
+        }
+        buildMovementIndex();
+        markDirty(movementsByChunk.get(ChunkPos.asLong(event.getX(), event.getZ())));
+    }
+
+    private void markDirty(IntArrayList movements) {
+        if (movements == null) {
+            return;
+        }
+        boolean repair = Baritone.settings().pathRepair.value;
+        for (int i = 0; i < movements.size(); i++) {
+            dirtyMovements.set(movements.getInt(i));
+            if (repair) {
+                changedMovements.set(movements.getInt(i));
+            }
+        }
+    }
+
+    private void buildMovementIndex() {
+        if (movementsByPos != null) {
+            return;
+        }
+        movementsByPos = new Long2ObjectOpenHashMap<>();
+        movementsByChunk = new Long2ObjectOpenHashMap<>();
+        List<IMovement> movements = path.movements();
+        for (int i = 0; i < movements.size(); i++) {
+            for (BlockPos pos : MovementList.toBreakAll(movements, i)) {
+                addToMovementIndex(i, pos);
+            }
+            BlockPos toPlace = MovementList.getPositionToPlace(movements, i);
+            if (toPlace != null) {
+                addToMovementIndex(i, toPlace);
+            }
+        }
+    }
+
+    private void addToMovementIndex(int movement, BlockPos pos) {
+        // MovementHelper also looks above and beside a block, to see if it's under or next to flowing water
+        addToMovementIndex(movement, pos.getX(), pos.getY(), pos.getZ());
+        for (Direction direction : Direction.values()) {
+            addToMovementIndex(movement, pos.getX() + direction.getStepX(), pos.getY() + direction.getStepY(), pos.getZ() + direction.getStepZ());
+        }
+    }
+
+    private void addToMovementIndex(int movement, int x, int y, int z) {
+        addTo(movementsByPos, BetterBlockPos.longHash(x, y, z), movement);
+        addTo(movementsByChunk, ChunkPos.asLong(x >> 4, z >> 4), movement);
+    }
+
+    private static void addTo(Long2ObjectOpenHashMap<IntArrayList> index, long key, int movement) {
+        IntArrayList movements = index.computeIfAbsent(key, k -> new IntArrayList(2));
+        // a movement adds each of its blocks and their neighbours one after another, so this catches the duplicates
+        if (movements.isEmpty() || movements.getInt(movements.size() - 1) != movement) {
+            movements.add(movement);
+        }
+    }
+
+    /**
+     * @return Whether a way around the movement can still be looked for
+     */
+    private boolean markImpossible(int movement) {
+        if (!Baritone.settings().pathRepair.value || movement == unrepairableMovement) {
+            return false;
+        }
+        if (impossibleMovement == -1 || impossibleMovement <= pathPosition + 1 || movement < impossibleMovement) {
+            impossibleMovement = movement;
+        }
+        return true;
+    }
+
+    /**
+     * @return The movement that {@link PathingBehavior} should look for a way around, or -1 if there is none
+     */
+    public int getMovementToRepair() {
+        if (impossibleMovement <= pathPosition + 1 || impossibleMovement == unrepairableMovement) {
+            return -1; // either there's none or it's too late, and it will be cancelled like before
+        }
+        return impossibleMovement;
+    }
+
+    /**
+     * @return Where a way around the movement can get back onto this path
+     */
+    public Goal getRepairGoal(int movement) {
+        int last = Math.min(movement + Baritone.settings().pathRepairRejoinPositions.value, path.length() - 1);
+        Goal[] rejoin = new Goal[last - movement];
+        for (int i = movement + 1; i <= last; i++) {
+            rejoin[i - movement - 1] = new GoalBlock(path.positions().get(i));
+        }
+        return new GoalComposite(rejoin);
+    }
+
+    /**
+     * @param detour A way from the start of {@link #getMovementToRepair()} back onto this path
+     * @return An executor for this path with the detour in it, carrying on from where this one is, or empty if the
+     * detour doesn't fit in anymore
+     */
+    public Optional<PathExecutor> tryRepair(IPath detour) {
+        if (positionIndex().indexOf(detour.getSrc()) <= pathPosition) {
+            return Optional.empty(); // already past it
+        }
+        return SplicedPath.tryDetour(path, detour).map(path -> {
+            PathExecutor ret = new PathExecutor(behavior, path);
+            ret.pathPosition = pathPosition;
+            ret.currentMovementOriginalCostEstimate = currentMovementOriginalCostEstimate;
+            ret.costEstimateIndex = costEstimateIndex;
+            ret.ticksOnCurrent = ticksOnCurrent;
+            return ret;
+        });
+    }
+
+    /**
+     * No way around the movement starting at the position was found, so it's cancelled like before once it's close
+     */
+    public void repairFailed(BetterBlockPos start) {
+        int movement = positionIndex().indexOf(start);
+        if (movement != -1) {
+            unrepairableMovement = movement;
+        }
+    }
+
     private void onChangeInPathPosition() {
         clearKeys();
         ticksOnCurrent = 0;
+        // the previous movement is still looked at, anything before it is made again if we end up back there
+        MovementList.release(path.movements(), 0, pathPosition - 1);
     }
 
     private void clearKeys() {
@@ -610,6 +819,8 @@ public class PathExecutor implements IPathExecutor, Helper {
             ret.currentMovementOriginalCostEstimate = currentMovementOriginalCostEstimate;
             ret.costEstimateIndex = costEstimateIndex;
             ret.ticksOnCurrent = ticksOnCurrent;
+            ret.impossibleMovement = impossibleMovement;
+            ret.unrepairableMovement = unrepairableMovement;
             return ret;
         }).orElseGet(this::cutIfTooLong); // dont actually call cutIfTooLong every tick if we won't actually use it, use a method reference
     }
@@ -629,6 +840,8 @@ public class PathExecutor implements IPathExecutor, Helper {
                 ret.costEstimateIndex = costEstimateIndex - cutoffAmt;
             }
             ret.ticksOnCurrent = ticksOnCurrent;
+            ret.impossibleMovement = impossibleMovement == -1 ? -1 : impossibleMovement - cutoffAmt;
+            ret.unrepairableMovement = unrepairableMovement == -1 ? -1 : unrepairableMovement - cutoffAmt;
             return ret;
         }
         return this;
@@ -0,0 +1,176 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import baritone.api.pathing.calc.IPath;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.VecUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Tuple;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Where things are along a path, so that {@link PathExecutor} can tell where the player is on it every tick without
+ * going through every movement, which adds up for long spliced paths.
+ */
+public final class PathPositionIndex {
+
+    /**
+     * Size of the cells of {@link #grid}, as a shift
+     */
+    private static final int CELL_SHIFT = 3;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    /**
+     * How many cells out from the player {@link #closest(double, double, double)} looks before going through every
+     * position instead. Only happens when the player is far enough off the path that it's about to be cancelled.
+     */
+    private static final int MAX_CELL_RADIUS = 4;
+
+    /**
+     * The index of the first of {@link IPath#positions()} that is at each position, by {@link BetterBlockPos#longHash}
+     */
+    private final Long2IntOpenHashMap positionIndices = new Long2IntOpenHashMap();
+
+    /**
+     * The movements that each position is valid for, in order
+     */
+    private final Long2ObjectOpenHashMap<IntArrayList> movementsByValidPosition = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Every valid position of every movement, once each, in the order they first come up in
+     */
+    private final List<BetterBlockPos> validPositions = new ArrayList<>();
+
+    /**
+     * Indices into {@link #validPositions} of the ones in each cell, by {@link BetterBlockPos#longHash} of the cell
+     */
+    private final Long2ObjectOpenHashMap<IntArrayList> grid = new Long2ObjectOpenHashMap<>();
+
+    PathPositionIndex(List<BetterBlockPos> positions, List<? extends Collection<BetterBlockPos>> validPositionsByMovement) {
+        positionIndices.defaultReturnValue(-1);
+        for (int i = 0; i < positions.size(); i++) {
+            positionIndices.putIfAbsent(BetterBlockPos.longHash(positions.get(i)), i);
+        }
+        for (int i = 0; i < validPositionsByMovement.size(); i++) {
+            for (BetterBlockPos pos : validPositionsByMovement.get(i)) {
+                IntArrayList movements = movementsByValidPosition.get(BetterBlockPos.longHash(pos));
+                if (movements == null) {
+                    movements = new IntArrayList(2);
+                    movementsByValidPosition.put(BetterBlockPos.longHash(pos), movements);
+                    grid.computeIfAbsent(BetterBlockPos.longHash(pos.x >> CELL_SHIFT, pos.y >> CELL_SHIFT, pos.z >> CELL_SHIFT), k -> new IntArrayList()).add(validPositions.size());
+                    validPositions.add(pos);
+                }
+                if (movements.isEmpty() || movements.getInt(movements.size() - 1) != i) {
+                    movements.add(i);
+                }
+            }
+        }
+    }
+
+    public static PathPositionIndex of(IPath path) {
+        List<Collection<BetterBlockPos>> validPositions = new ArrayList<>(path.movements().size());
+        for (int i = 0; i < path.movements().size(); i++) {
+            validPositions.add(MovementList.getValidPositions(path.movements(), i));
+        }
+        return new PathPositionIndex(path.positions(), validPositions);
+    }
+
+    /**
+     * @return The index of the first of {@link IPath#positions()} equal to the position, or -1 if there is none
+     */
+    public int indexOf(BetterBlockPos pos) {
+        return positionIndices.get(BetterBlockPos.longHash(pos));
+    }
+
+    /**
+     * @param from The first movement index to consider
+     * @param to   The movement index to stop before
+     * @return The index of the first movement in the range with the position among its valid positions, or -1 if there
+     * is none
+     */
+    public int firstMovementValidAt(BetterBlockPos pos, int from, int to) {
+        IntArrayList movements = movementsByValidPosition.get(BetterBlockPos.longHash(pos));
+        if (movements == null) {
+            return -1;
+        }
+        for (int i = 0; i < movements.size(); i++) {
+            int movement = movements.getInt(i);
+            if (movement >= to) {
+                break;
+            }
+            if (movement >= from) {
+                return movement;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The valid position of any movement whose center is closest to the coordinates, and the distance to it.
+     * The same as going through every movement's valid positions, including which one wins a tie.
+     */
+    public Tuple<Double, BlockPos> closest(double x, double y, double z) {
+        int cellX = (int) Math.floor(x) >> CELL_SHIFT;
+        int cellY = (int) Math.floor(y) >> CELL_SHIFT;
+        int cellZ = (int) Math.floor(z) >> CELL_SHIFT;
+        double best = -1;
+        int bestIndex = -1;
+        for (int r = 0; r <= MAX_CELL_RADIUS; r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dy = -r; dy <= r; dy++) {
+                    for (int dz = -r; dz <= r; dz++) {
+                        if (Math.max(Math.abs(dx), Math.max(Math.abs(dy), Math.abs(dz))) != r) {
+                            continue; // only the shell, the inside was done already
+                        }
+                        IntArrayList cell = grid.get(BetterBlockPos.longHash(cellX + dx, cellY + dy, cellZ + dz));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < cell.size(); i++) {
+                            int index = cell.getInt(i);
+                            double dist = VecUtils.distanceToCenter(validPositions.get(index), x, y, z);
+                            if (best == -1 || dist < best || (dist == best && index < bestIndex)) {
+                                best = dist;
+                                bestIndex = index;
+                            }
+                        }
+                    }
+                }
+            }
+            // every block in the next shell of cells is more than r cells away along some axis
+            if (best != -1 && best <= r * CELL_SIZE) {
+                return new Tuple<>(best, validPositions.get(bestIndex));
+            }
+        }
+        for (int index = 0; index < validPositions.size(); index++) {
+            double dist = VecUtils.distanceToCenter(validPositions.get(index), x, y, z);
+            if (best == -1 || dist < best) {
+                best = dist;
+                bestIndex = index;
+            }
+        }
+        return new Tuple<>(best, bestIndex == -1 ? null : validPositions.get(bestIndex));
+    }
+}
@@ -29,13 +29,13 @@ public class SplicedPath extends PathBase {
 
     private final List<BetterBlockPos> path;
 
-    private final List<IMovement> movements;
+    private final MovementList movements;
 
     private final int numNodes;
 
     private final Goal goal;
 
-    private SplicedPath(List<BetterBlockPos> path, List<IMovement> movements, int numNodesConsidered, Goal goal) {
+    private SplicedPath(List<BetterBlockPos> path, MovementList movements, int numNodesConsidered, Goal goal) {
         this.path = path;
         this.movements = movements;
         this.numNodes = numNodesConsidered;
@@ -50,7 +50,7 @@ public class SplicedPath extends PathBase {
 
     @Override
     public List<IMovement> movements() {
-        return Collections.unmodifiableList(movements);
+        return movements;
     }
 
     @Override
@@ -95,12 +95,44 @@ public class SplicedPath extends PathBase {
             throw new IllegalStateException();
         }
         List<BetterBlockPos> positions = new ArrayList<>();
-        List<IMovement> movements = new ArrayList<>();
+        MovementList.Builder movements = new MovementList.Builder(firstPositionInSecond + second.length() - 1 - positionInSecond);
         positions.addAll(first.positions().subList(0, firstPositionInSecond + 1));
-        movements.addAll(first.movements().subList(0, firstPositionInSecond));
+        movements.addAll(first.movements(), 0, firstPositionInSecond);
 
         positions.addAll(second.positions().subList(positionInSecond + 1, second.length()));
-        movements.addAll(second.movements().subList(positionInSecond, second.length() - 1));
-        return Optional.of(new SplicedPath(positions, movements, first.getNumNodesConsidered() + second.getNumNodesConsidered(), first.getGoal()));
+        movements.addAll(second.movements(), positionInSecond, second.length() - 1);
+        return Optional.of(new SplicedPath(positions, movements.build(), first.getNumNodesConsidered() + second.getNumNodesConsidered(), first.getGoal()));
+    }
+
+    /**
+     * @param path   The path to go around part of
+     * @param detour A path from one of the positions of the path to a later one
+     * @return The path with the positions between the two replaced by the detour, or empty if the detour doesn't start
+     * and end on the path in that order, or crosses the part of it that is kept
+     */
+    public static Optional<SplicedPath> tryDetour(IPath path, IPath detour) {
+        int from = path.positions().indexOf(detour.getSrc());
+        int to = path.positions().indexOf(detour.getDest());
+        if (from == -1 || to <= from) {
+            return Optional.empty();
+        }
+        HashSet<BetterBlockPos> kept = new HashSet<>(path.positions().subList(0, from + 1));
+        kept.addAll(path.positions().subList(to, path.length()));
+        for (int i = 1; i < detour.length() - 1; i++) {
+            if (kept.contains(detour.positions().get(i))) {
+                return Optional.empty();
+            }
+        }
+        List<BetterBlockPos> positions = new ArrayList<>();
+        MovementList.Builder movements = new MovementList.Builder(from + detour.length() - 1 + path.length() - 1 - to);
+        positions.addAll(path.positions().subList(0, from));
+        movements.addAll(path.movements(), 0, from);
+
+        positions.addAll(detour.positions());
+        movements.addAll(detour.movements());
+
+        positions.addAll(path.positions().subList(to + 1, path.length()));
+        movements.addAll(path.movements(), to, path.length() - 1);
+        return Optional.of(new SplicedPath(positions, movements.build(), path.getNumNodesConsidered() + detour.getNumNodesConsidered(), path.getGoal()));
     }
 }
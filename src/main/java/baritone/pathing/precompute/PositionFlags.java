@@ -0,0 +1,166 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.precompute;
+
+import baritone.Baritone;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * What {@link PrecomputedData} said about each position a search has looked at, one byte per position in arrays of
+ * whole chunk sections, so that the neighbouring nodes of a search that look at the same blocks over and over don't
+ * have to get the block state and work it out again every time. See {@link baritone.api.Settings#pathingPositionFlags}.
+ * <p>
+ * Only used by the thread of the search that's running with the context, anything else asking goes straight to
+ * {@link PrecomputedData} like before. Forgotten when the search is over, and whenever a block changes or a chunk is
+ * loaded or unloaded, since some of these look at the blocks around too.
+ */
+public final class PositionFlags {
+
+    private static final int CAN_WALK_ON_KNOWN = 1 << 0;
+    private static final int CAN_WALK_ON = 1 << 1;
+    private static final int CAN_WALK_THROUGH_KNOWN = 1 << 2;
+    private static final int CAN_WALK_THROUGH = 1 << 3;
+    private static final int FULLY_PASSABLE_KNOWN = 1 << 4;
+    private static final int FULLY_PASSABLE = 1 << 5;
+
+    /**
+     * At 4kb a section, a search that somehow looks at more than this starts over instead of using more memory
+     */
+    private static final int MAX_SECTIONS = 4096;
+
+    /**
+     * Increased whenever a block changes anywhere, see {@link #invalidateAll()}
+     */
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private final AtomicReference<Thread> owner = new AtomicReference<>();
+
+    private final Long2ObjectOpenHashMap<byte[]> sections = new Long2ObjectOpenHashMap<>();
+    private int generation;
+    private long lastKey;
+    private byte[] lastSection;
+
+    /**
+     * Starts caching for the search on the current thread, unless another search is using the context already
+     *
+     * @return Whether it did, in which case {@link #endSearch()} has to be called once the search is over
+     */
+    public boolean beginSearch() {
+        if (!Baritone.settings().pathingPositionFlags.value || !owner.compareAndSet(null, Thread.currentThread())) {
+            return false;
+        }
+        clear();
+        return true;
+    }
+
+    public void endSearch() {
+        clear();
+        owner.set(null);
+    }
+
+    /**
+     * Forgets everything every context knows, because a block changed or a chunk was loaded or unloaded
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    private void clear() {
+        sections.clear();
+        lastSection = null;
+        generation = GENERATION.get();
+    }
+
+    /**
+     * @return The flags of the section the position is in, or null if this thread isn't the search using them
+     */
+    private byte[] section(int x, int y, int z) {
+        if (owner.get() != Thread.currentThread()) {
+            return null;
+        }
+        if (generation != GENERATION.get()) {
+            clear();
+        }
+        long key = BetterBlockPos.longHash(x >> 4, y >> 4, z >> 4);
+        if (lastSection != null && lastKey == key) {
+            return lastSection;
+        }
+        byte[] section = sections.get(key);
+        if (section == null) {
+            if (sections.size() >= MAX_SECTIONS) {
+                clear();
+            }
+            section = new byte[4096];
+            sections.put(key, section);
+        }
+        lastKey = key;
+        lastSection = section;
+        return section;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    public boolean canWalkOn(CalculationContext context, int x, int y, int z) {
+        byte[] section = section(x, y, z);
+        if (section == null) {
+            return context.precomputedData.canWalkOn(context.bsi, x, y, z, context.get(x, y, z));
+        }
+        int index = index(x, y, z);
+        int flags = section[index];
+        if ((flags & CAN_WALK_ON_KNOWN) == 0) {
+            flags |= CAN_WALK_ON_KNOWN | (context.precomputedData.canWalkOn(context.bsi, x, y, z, context.get(x, y, z)) ? CAN_WALK_ON : 0);
+            section[index] = (byte) flags;
+        }
+        return (flags & CAN_WALK_ON) != 0;
+    }
+
+    public boolean canWalkThrough(CalculationContext context, int x, int y, int z) {
+        byte[] section = section(x, y, z);
+        if (section == null) {
+            return context.precomputedData.canWalkThrough(context.bsi, x, y, z, context.get(x, y, z));
+        }
+        int index = index(x, y, z);
+        int flags = section[index];
+        if ((flags & CAN_WALK_THROUGH_KNOWN) == 0) {
+            flags |= CAN_WALK_THROUGH_KNOWN | (context.precomputedData.canWalkThrough(context.bsi, x, y, z, context.get(x, y, z)) ? CAN_WALK_THROUGH : 0);
+            section[index] = (byte) flags;
+        }
+        return (flags & CAN_WALK_THROUGH) != 0;
+    }
+
+    public boolean fullyPassable(CalculationContext context, int x, int y, int z) {
+        byte[] section = section(x, y, z);
+        if (section == null) {
+            return context.precomputedData.fullyPassable(context.bsi, x, y, z, context.get(x, y, z));
+        }
+        int index = index(x, y, z);
+        int flags = section[index];
+        if ((flags & FULLY_PASSABLE_KNOWN) == 0) {
+            flags |= FULLY_PASSABLE_KNOWN | (context.precomputedData.fullyPassable(context.bsi, x, y, z, context.get(x, y, z)) ? FULLY_PASSABLE : 0);
+            section[index] = (byte) flags;
+        }
+        return (flags & FULLY_PASSABLE) != 0;
+    }
+}
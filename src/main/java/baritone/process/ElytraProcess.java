@@ -38,6 +38,7 @@ import baritone.api.utils.RotationUtils;
 import baritone.api.utils.input.Input;
 import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.movements.MovementFall;
+import baritone.pathing.path.MovementList;
 import baritone.process.elytra.ElytraBehavior;
 import baritone.process.elytra.NetherPathfinderContext;
 import baritone.process.elytra.NullElytraProcess;
@@ -57,6 +58,7 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static baritone.api.pathing.movement.ActionCosts.COST_INF;
 
@@ -220,7 +222,10 @@ public class ElytraProcess extends BaritoneProcessHelper implements IBaritonePro
             }
             final IPathExecutor executor = baritone.getPathingBehavior().getCurrent();
             if (executor != null && executor.getPath().getGoal() == this.goal) {
-                final IMovement fall = executor.getPath().movements().stream()
+                final List<IMovement> movements = executor.getPath().movements();
+                // peek, so that getting to the fall doesn't make and keep every movement of the path
+                final IMovement fall = IntStream.range(0, movements.size())
+                        .mapToObj(i -> MovementList.peek(movements, i))
                         .filter(movement -> movement instanceof MovementFall)
                         .findFirst().orElse(null);
 
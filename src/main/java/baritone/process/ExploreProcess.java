@@ -195,10 +195,8 @@ public final class ExploreProcess extends BaritoneProcessHelper implements IExpl
             if (cache.isCached(centerX, centerZ)) {
                 return Status.EXPLORED;
             }
-            if (!((CachedWorld) cache).regionLoaded(centerX, centerZ)) {
-                Baritone.getExecutor().execute(() -> {
-                    ((CachedWorld) cache).tryLoadFromDisk(centerX >> 9, centerZ >> 9);
-                });
+            if (((CachedWorld) cache).getRegionStatus(centerX >> 9, centerZ >> 9) != CachedWorld.RegionStatus.LOADED) {
+                ((CachedWorld) cache).requestRegion(centerX >> 9, centerZ >> 9);
                 return Status.UNKNOWN; // we still need to load regions from disk in order to decide properly
             }
             return Status.NOT_EXPLORED;
@@ -18,7 +18,6 @@
 package baritone.process;
 
 import baritone.Baritone;
-import baritone.api.BaritoneAPI;
 import baritone.api.pathing.goals.*;
 import baritone.api.process.IMineProcess;
 import baritone.api.process.PathingCommand;
@@ -56,6 +55,7 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
     private BlockOptionalMetaLookup filter;
     private List<BlockPos> knownOreLocations;
     private List<BlockPos> blacklist; // inaccessible
+    private VeinTour veinTour;
     private Map<BlockPos, Long> anticipatedDrops;
     private BlockPos branchPoint;
     private GoalRunAway branchPointRunaway;
@@ -90,7 +90,8 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
                 if (Baritone.settings().notificationOnMineFail.value) {
                     logNotification("Unable to find any path to " + filter + ", blacklisting presumably unreachable closest instance...", true);
                 }
-                knownOreLocations.stream().min(Comparator.comparingDouble(ctx.playerFeet()::distSqr)).ifPresent(blacklist::add);
+                List<BlockPos> targets = Baritone.settings().mineVeinTour.value ? veinTour.current() : Collections.emptyList();
+                (targets.isEmpty() ? knownOreLocations : targets).stream().min(Comparator.comparingDouble(ctx.playerFeet()::distSqr)).ifPresent(blacklist::add);
                 knownOreLocations.removeIf(blacklist::contains);
             } else {
                 logDirect("Unable to find any path to " + filter + ", canceling mine");
@@ -184,9 +185,19 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
         List<BlockPos> locs = knownOreLocations;
         if (!locs.isEmpty()) {
             CalculationContext context = new CalculationContext(baritone);
-            List<BlockPos> locs2 = prune(context, new ArrayList<>(locs), filter, Baritone.settings().mineMaxOreLocationsCount.value, blacklist, droppedItemsScan());
+            boolean tour = Baritone.settings().mineVeinTour.value;
+            List<BlockPos> locs2 = prune(context, new ArrayList<>(locs), filter, Baritone.settings().mineMaxOreLocationsCount.value, blacklist, droppedItemsScan(), !tour);
             // can't reassign locs, gotta make a new var locs2, because we use it in a lambda right here, and variables you use in a lambda must be effectively final
-            Goal goal = new GoalComposite(locs2.stream().map(loc -> coalesce(loc, locs2, context)).toArray(Goal[]::new));
+            List<BlockPos> targets = locs2;
+            if (tour) {
+                // the vein tour decides what to go for, so the distance sort in prune is wasted work here
+                veinTour.update(locs2, ctx.playerFeet());
+                List<BlockPos> vein = veinTour.current();
+                if (!vein.isEmpty()) {
+                    targets = vein;
+                }
+            }
+            Goal goal = new GoalComposite(targets.stream().map(loc -> coalesce(loc, locs2, context)).toArray(Goal[]::new));
             knownOreLocations = locs2;
             return new PathingCommand(goal, legit ? PathingCommandType.FORCE_REVALIDATE_GOAL_AND_PATH : PathingCommandType.REVALIDATE_GOAL_AND_PATH);
         }
@@ -362,7 +373,7 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
         List<Block> untracked = new ArrayList<>();
         for (BlockOptionalMeta bom : filter.blocks()) {
             Block block = bom.getBlock();
-            if (CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(block)) {
+            if (CachedChunk.isTracked(block)) {
                 BetterBlockPos pf = ctx.baritone.getPlayerContext().playerFeet();
 
                 // maxRegionDistanceSq 2 means adjacent directly or adjacent diagonally; nothing further than that
@@ -373,7 +384,10 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
                         pf.z,
                         2
                 ));
-            } else {
+            }
+            if (!CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(block)) {
+                // chunks that were cached before the block was added to cacheIndexedBlocks don't know where it is, so
+                // the loaded ones are scanned for it anyway
                 untracked.add(block);
             }
         }
@@ -381,11 +395,9 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
         locs = prune(ctx, locs, filter, max, blacklist, dropped);
 
         if (!untracked.isEmpty() || (Baritone.settings().extendCacheOnThreshold.value && locs.size() < max)) {
-            locs.addAll(BaritoneAPI.getProvider().getWorldScanner().scanChunkRadius(
-                    ctx.getBaritone().getPlayerContext(),
+            locs.addAll(((Baritone) ctx.getBaritone()).getWorldScanBehavior().scanLoadedChunks(
                     filter,
                     max,
-                    10,
                     32
             )); // maxSearchRadius is NOT sq
         }
@@ -428,6 +440,10 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
     }
 
     private static List<BlockPos> prune(CalculationContext ctx, List<BlockPos> locs2, BlockOptionalMetaLookup filter, int max, List<BlockPos> blacklist, List<BlockPos> dropped) {
+        return prune(ctx, locs2, filter, max, blacklist, dropped, true);
+    }
+
+    private static List<BlockPos> prune(CalculationContext ctx, List<BlockPos> locs2, BlockOptionalMetaLookup filter, int max, List<BlockPos> blacklist, List<BlockPos> dropped, boolean sort) {
         dropped.removeIf(drop -> {
             for (BlockPos pos : locs2) {
                 if (pos.distSqr(drop) <= 9 && filter.has(ctx.get(pos.getX(), pos.getY(), pos.getZ())) && MineProcess.plausibleToBreak(ctx, pos)) { // TODO maybe drop also has to be supported? no lava below?
@@ -460,9 +476,12 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
 
                 .filter(pos -> !blacklist.contains(pos))
 
-                .sorted(Comparator.comparingDouble(ctx.getBaritone().getPlayerContext().player().blockPosition()::distSqr))
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
 
+        // only the closest max are kept, so the sort can't be skipped once there are too many
+        if (sort || locs.size() > max) {
+            locs.sort(Comparator.comparingDouble(ctx.getBaritone().getPlayerContext().player().blockPosition()::distSqr));
+        }
         if (locs.size() > max) {
             return locs.subList(0, max);
         }
@@ -508,6 +527,7 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
         this.desiredQuantity = quantity;
         this.knownOreLocations = new ArrayList<>();
         this.blacklist = new ArrayList<>();
+        this.veinTour = new VeinTour();
         this.branchPoint = null;
         this.branchPointRunaway = null;
         this.anticipatedDrops = new HashMap<>();
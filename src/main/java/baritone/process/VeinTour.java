@@ -0,0 +1,329 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.process;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+
+import java.util.*;
+
+/**
+ * Groups known ore locations into veins (touching blocks, diagonals included) and keeps an order to visit them in,
+ * so that mining finishes one vein before walking off to the next instead of chasing whatever is closest this tick.
+ * <p>
+ * The tour is built once from scratch (nearest neighbour from the player, then 2-opt) and afterwards only patched as
+ * ores are mined or discovered. The vein at the front of the tour is never displaced by a newly found one.
+ */
+final class VeinTour {
+
+    private static final int TWO_OPT_PASSES = 8;
+
+    private final Long2ObjectOpenHashMap<Vein> veinOf = new Long2ObjectOpenHashMap<>();
+    private final List<Vein> tour = new ArrayList<>();
+
+    /**
+     * Brings the tour in line with the current set of known locations
+     *
+     * @param locations The known ore locations, in any order
+     * @param player    Where the player is, used as the start of the tour when it has to be rebuilt
+     */
+    void update(List<BlockPos> locations, BlockPos player) {
+        LongOpenHashSet now = new LongOpenHashSet(locations.size());
+        for (BlockPos pos : locations) {
+            now.add(pos.asLong());
+        }
+        LongArrayList gone = new LongArrayList();
+        for (LongIterator it = veinOf.keySet().iterator(); it.hasNext(); ) {
+            long pos = it.nextLong();
+            if (!now.contains(pos)) {
+                gone.add(pos);
+            }
+        }
+        for (int i = 0; i < gone.size(); i++) {
+            long pos = gone.getLong(i);
+            veinOf.remove(pos).remove(pos);
+        }
+        // a vein that was split in two by mining stays a single vein, which is fine since both halves are still close by
+        tour.removeIf(Vein::isEmpty);
+        if (tour.isEmpty()) {
+            rebuild(now, player);
+            return;
+        }
+        for (LongIterator it = now.iterator(); it.hasNext(); ) {
+            long pos = it.nextLong();
+            if (!veinOf.containsKey(pos)) {
+                add(pos);
+            }
+        }
+    }
+
+    /**
+     * @return The locations in the vein that should be mined now, empty if there are none
+     */
+    List<BlockPos> current() {
+        return tour.isEmpty() ? Collections.emptyList() : tour.get(0).positions();
+    }
+
+    private void add(long pos) {
+        Vein into = null;
+        int intoIndex = Integer.MAX_VALUE;
+        List<Vein> touching = new ArrayList<>();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    Vein vein = veinOf.get(BlockPos.offset(pos, dx, dy, dz));
+                    if (vein == null || touching.contains(vein)) {
+                        continue;
+                    }
+                    touching.add(vein);
+                    int index = tour.indexOf(vein);
+                    if (index < intoIndex) {
+                        into = vein;
+                        intoIndex = index;
+                    }
+                }
+            }
+        }
+        if (into == null) {
+            Vein vein = new Vein();
+            vein.add(pos);
+            veinOf.put(pos, vein);
+            insert(vein);
+            return;
+        }
+        into.add(pos);
+        veinOf.put(pos, into);
+        for (Vein other : touching) {
+            if (other == into) {
+                continue;
+            }
+            for (LongIterator it = other.positions.iterator(); it.hasNext(); ) {
+                long merged = it.nextLong();
+                into.add(merged);
+                veinOf.put(merged, into);
+            }
+            tour.remove(other);
+        }
+    }
+
+    /**
+     * Cheapest insertion, never in front of the vein currently being mined
+     */
+    private void insert(Vein vein) {
+        int best = tour.size();
+        double bestCost = tour.get(tour.size() - 1).dist(vein);
+        for (int i = 1; i < tour.size(); i++) {
+            Vein prev = tour.get(i - 1);
+            Vein next = tour.get(i);
+            double cost = prev.dist(vein) + vein.dist(next) - prev.dist(next);
+            if (cost < bestCost) {
+                best = i;
+                bestCost = cost;
+            }
+        }
+        tour.add(best, vein);
+    }
+
+    private void rebuild(LongOpenHashSet positions, BlockPos player) {
+        veinOf.clear();
+        tour.clear();
+        long[] ores = positions.toLongArray();
+        if (ores.length == 0) {
+            return;
+        }
+        Long2IntOpenHashMap index = new Long2IntOpenHashMap(ores.length);
+        index.defaultReturnValue(-1);
+        for (int i = 0; i < ores.length; i++) {
+            index.put(ores[i], i);
+        }
+        int[] parent = new int[ores.length];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < ores.length; i++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        int j = index.get(BlockPos.offset(ores[i], dx, dy, dz));
+                        if (j > i) {
+                            parent[find(parent, j)] = find(parent, i);
+                        }
+                    }
+                }
+            }
+        }
+        Map<Integer, Vein> roots = new HashMap<>();
+        for (int i = 0; i < ores.length; i++) {
+            Vein vein = roots.computeIfAbsent(find(parent, i), root -> new Vein());
+            vein.add(ores[i]);
+            veinOf.put(ores[i], vein);
+        }
+
+        // nearest neighbour from the player
+        List<Vein> remaining = new ArrayList<>(roots.values());
+        double x = player.getX();
+        double y = player.getY();
+        double z = player.getZ();
+        while (!remaining.isEmpty()) {
+            int nearest = 0;
+            double nearestDist = Double.MAX_VALUE;
+            for (int i = 0; i < remaining.size(); i++) {
+                double dist = remaining.get(i).dist(x, y, z);
+                if (dist < nearestDist) {
+                    nearest = i;
+                    nearestDist = dist;
+                }
+            }
+            Vein next = remaining.remove(nearest);
+            tour.add(next);
+            x = next.x();
+            y = next.y();
+            z = next.z();
+        }
+        twoOpt(player);
+    }
+
+    /**
+     * 2-opt over the open path that starts at the player and ends at whichever vein is last
+     */
+    private void twoOpt(BlockPos player) {
+        int n = tour.size();
+        if (n < 3) {
+            return;
+        }
+        // index 0 is the player, 1..n are the veins
+        double[][] points = new double[n + 1][];
+        points[0] = new double[]{player.getX(), player.getY(), player.getZ()};
+        for (int i = 0; i < n; i++) {
+            Vein vein = tour.get(i);
+            points[i + 1] = new double[]{vein.x(), vein.y(), vein.z()};
+        }
+        int[] order = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            order[i] = i;
+        }
+        for (int pass = 0; pass < TWO_OPT_PASSES; pass++) {
+            boolean improved = false;
+            for (int i = 1; i < n; i++) {
+                for (int j = i + 1; j <= n; j++) {
+                    double[] before = points[order[i - 1]];
+                    double[] first = points[order[i]];
+                    double[] last = points[order[j]];
+                    double delta = dist(before, last) - dist(before, first);
+                    if (j < n) {
+                        double[] after = points[order[j + 1]];
+                        delta += dist(first, after) - dist(last, after);
+                    }
+                    if (delta < -1e-6) {
+                        for (int a = i, b = j; a < b; a++, b--) {
+                            int tmp = order[a];
+                            order[a] = order[b];
+                            order[b] = tmp;
+                        }
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        List<Vein> veins = new ArrayList<>(tour);
+        for (int i = 1; i <= n; i++) {
+            tour.set(i - 1, veins.get(order[i] - 1));
+        }
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static double dist(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static final class Vein {
+
+        private final LongOpenHashSet positions = new LongOpenHashSet();
+        private long sumX;
+        private long sumY;
+        private long sumZ;
+
+        void add(long pos) {
+            if (positions.add(pos)) {
+                sumX += BlockPos.getX(pos);
+                sumY += BlockPos.getY(pos);
+                sumZ += BlockPos.getZ(pos);
+            }
+        }
+
+        void remove(long pos) {
+            if (positions.remove(pos)) {
+                sumX -= BlockPos.getX(pos);
+                sumY -= BlockPos.getY(pos);
+                sumZ -= BlockPos.getZ(pos);
+            }
+        }
+
+        boolean isEmpty() {
+            return positions.isEmpty();
+        }
+
+        double x() {
+            return (double) sumX / positions.size();
+        }
+
+        double y() {
+            return (double) sumY / positions.size();
+        }
+
+        double z() {
+            return (double) sumZ / positions.size();
+        }
+
+        double dist(double x, double y, double z) {
+            double dx = x() - x;
+            double dy = y() - y;
+            double dz = z() - z;
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        double dist(Vein other) {
+            return dist(other.x(), other.y(), other.z());
+        }
+
+        List<BlockPos> positions() {
+            List<BlockPos> list = new ArrayList<>(positions.size());
+            for (LongIterator it = positions.iterator(); it.hasNext(); ) {
+                list.add(BlockPos.of(it.nextLong()));
+            }
+            return list;
+        }
+    }
+}
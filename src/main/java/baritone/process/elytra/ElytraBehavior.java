@@ -36,7 +36,6 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.NonNullList;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.protocol.game.ClientboundPlayerPositionPacket;
-import net.minecraft.util.Mth;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.projectile.FireworkRocketEntity;
@@ -57,6 +56,7 @@ import java.util.List;
 import java.util.Queue;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 
 import static baritone.utils.BaritoneMath.fastCeil;
@@ -106,10 +106,14 @@ public final class ElytraBehavior implements Helper {
     private final boolean appendDestination;
 
     private final ExecutorService solverExecutor;
+    private final ForkJoinPool parallelSolver;
     private Future<Solution> solver;
     private Solution pendingSolution;
     private boolean solveNextTick;
 
+    private long averageSolveNanos;
+    private int slowSolves;
+
     private long timeLastCacheCull = 0L;
 
     // auto swap
@@ -126,6 +130,7 @@ public final class ElytraBehavior implements Helper {
         this.destination = new BetterBlockPos(destination);
         this.appendDestination = appendDestination;
         this.solverExecutor = Executors.newSingleThreadExecutor();
+        this.parallelSolver = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
         this.nextTickBoostCounter = new int[2];
 
         this.context = new NetherPathfinderContext(Baritone.settings().elytraNetherSeed.value);
@@ -480,6 +485,7 @@ public final class ElytraBehavior implements Helper {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        this.parallelSolver.shutdown();
         this.context.destroy();
     }
 
@@ -597,6 +603,7 @@ public final class ElytraBehavior implements Helper {
         } else {
             solution = this.pendingSolution;
         }
+        this.tickSolveTime(solution);
 
         if (this.deployedFireworkLastTick) {
             this.nextTickBoostCounter[solverContext.boost.isBoosted() ? 1 : 0]++;
@@ -643,30 +650,46 @@ public final class ElytraBehavior implements Helper {
     }
 
     private Solution solveAngles(final SolverContext context) {
+        final long startTime = System.nanoTime();
+        final List<Candidate> candidates = this.candidates(context);
+        final Solution solution = Baritone.settings().elytraParallelSolver.value
+                ? this.solveAnglesParallel(context, candidates)
+                : this.solveAnglesSequential(context, candidates);
+        if (solution != null && solution.solvedPitch) {
+            this.simulationLine = solution.steps;
+        }
+        if (solution != null) {
+            solution.solveNanos = System.nanoTime() - startTime;
+        }
+        return solution;
+    }
+
+    /**
+     * @return Every destination that the solver could aim for, best first. That's strict before relaxed, further along
+     * the path before nearer, and gaining height before staying level.
+     */
+    private List<Candidate> candidates(final SolverContext context) {
         final NetherPath path = context.path;
         final int playerNear = landingMode ? path.size() - 1 : context.playerNear;
-        final Vec3 start = context.start;
-        Solution solution = null;
+        final List<Candidate> candidates = new ArrayList<>();
 
         for (int relaxation = 0; relaxation < 3; relaxation++) { // try for a strict solution first, then relax more and more (if we're in a corner or near some blocks, it will have to relax its constraints a bit)
             int[] heights = context.boost.isBoosted() ? new int[]{20, 10, 5, 0} : new int[]{0}; // attempt to gain height, if we can, so as not to waste the boost
-            int lookahead = relaxation == 0 ? 2 : 3; // ideally this would be expressed as a distance in blocks, rather than a number of voxel steps
             //int minStep = Math.max(0, playerNear - relaxation);
             int minStep = playerNear;
 
             for (int i = Math.min(playerNear + 20, path.size() - 1); i >= minStep; i--) {
-                final List<Pair<Vec3, Integer>> candidates = new ArrayList<>();
                 for (int dy : heights) {
                     if (relaxation == 0 || i == minStep) {
                         // no interp
-                        candidates.add(new Pair<>(path.getVec(i), dy));
+                        candidates.add(new Candidate(relaxation, i, path.getVec(i), dy));
                     } else if (relaxation == 1) {
                         final double[] interps = new double[]{1.0, 0.75, 0.5, 0.25};
                         for (double interp : interps) {
                             final Vec3 dest = interp == 1.0
                                     ? path.getVec(i)
                                     : path.getVec(i).scale(interp).add(path.getVec(i - 1).scale(1.0 - interp));
-                            candidates.add(new Pair<>(dest, dy));
+                            candidates.add(new Candidate(relaxation, i, dest, dy));
                         }
                     } else {
                         // Create a point along the segment every block
@@ -675,58 +698,161 @@ public final class ElytraBehavior implements Helper {
                         final Vec3 step = delta.normalize();
                         Vec3 stepped = path.getVec(i);
                         for (int interp = 0; interp < steps; interp++) {
-                            candidates.add(new Pair<>(stepped, dy));
+                            candidates.add(new Candidate(relaxation, i, stepped, dy));
                             stepped = stepped.subtract(step);
                         }
                     }
                 }
+            }
+        }
+        return candidates;
+    }
 
-                for (final Pair<Vec3, Integer> candidate : candidates) {
-                    final Integer augment = candidate.second();
-                    Vec3 dest = candidate.first().add(0, augment, 0);
-                    if (landingMode) {
-                        dest = dest.add(0.5, 0.5, 0.5);
-                    }
+    private Solution solveAnglesSequential(final SolverContext context, final List<Candidate> candidates) {
+        final ElytraSimulator simulator = new ElytraSimulator((x, y, z) -> this.passable(x, y, z, context.ignoreLava));
+        Solution solution = null;
+        for (final Candidate candidate : candidates) {
+            final Solution result = this.solveCandidate(context, simulator, candidate);
+            if (result == null) {
+                continue;
+            }
+            if (result.solvedPitch) {
+                // A solution was found with yaw AND pitch, so just immediately return it.
+                return result;
+            }
+            solution = result;
+        }
+        return solution;
+    }
 
-                    if (augment != 0) {
-                        if (i + lookahead >= path.size()) {
-                            continue;
-                        }
-                        if (start.distanceTo(dest) < 40) {
-                            if (!this.clearView(dest, path.getVec(i + lookahead).add(0, augment, 0), false)
-                                    || !this.clearView(dest, path.getVec(i + lookahead), false)) {
-                                // aka: don't go upwards if doing so would prevent us from being able to see the next position **OR** the modified next position
-                                continue;
-                            }
-                        } else {
-                            // but if it's far away, allow gaining altitude if we could lose it again by the time we get there
-                            if (!this.clearView(dest, path.getVec(i), false)) {
-                                continue;
-                            }
-                        }
+    /**
+     * Solves the candidates on {@link #parallelSolver}, and picks the same solution that
+     * {@link #solveAnglesSequential} would have. Candidates after one that was fully solved already are skipped, since
+     * they can't be picked anymore.
+     */
+    private Solution solveAnglesParallel(final SolverContext context, final List<Candidate> candidates) {
+        // BlockStateInterface and BlockStateOctreeInterface remember the last chunk they looked at, so each thread
+        // needs its own, and so does the voxel cache of the simulator
+        final BlockStateInterface bsi = this.bsi;
+        final Queue<ElytraSimulator> simulators = new ConcurrentLinkedQueue<>();
+        final AtomicInteger firstSolved = new AtomicInteger(candidates.size());
+
+        final List<Callable<Solution>> tasks = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            final int index = i;
+            tasks.add(() -> {
+                if (index > firstSolved.get()) {
+                    return null;
+                }
+                ElytraSimulator simulator = simulators.poll();
+                if (simulator == null) {
+                    final BlockStateInterface threadBsi = bsi.copy();
+                    final BlockStateOctreeInterface threadBoi = new BlockStateOctreeInterface(this.context);
+                    simulator = new ElytraSimulator((x, y, z) -> passable(threadBsi, threadBoi, x, y, z, context.ignoreLava));
+                }
+                try {
+                    final Solution result = this.solveCandidate(context, simulator, candidates.get(index));
+                    if (result != null && result.solvedPitch) {
+                        firstSolved.accumulateAndGet(index, Math::min);
                     }
+                    return result;
+                } finally {
+                    simulators.offer(simulator);
+                }
+            });
+        }
 
-                    final double minAvoidance = Baritone.settings().elytraMinimumAvoidance.value;
-                    final Double growth = relaxation == 2 ? null
-                            : relaxation == 0 ? 2 * minAvoidance : minAvoidance;
+        final List<Future<Solution>> results = this.parallelSolver.invokeAll(tasks);
+        Solution solution = null;
+        try {
+            for (final Future<Solution> future : results) {
+                final Solution result = future.get();
+                if (result == null) {
+                    continue;
+                }
+                if (result.solvedPitch) {
+                    return result;
+                }
+                solution = result;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return solution;
+    }
 
-                    if (this.isHitboxClear(context, dest, growth)) {
-                        // Yaw is trivial, just calculate the rotation required to face the destination
-                        final float yaw = RotationUtils.calcRotationFromVec3d(start, dest, ctx.playerRotations()).getYaw();
+    /**
+     * @return The solution for flying to the candidate, without a pitch if only the yaw could be solved, or
+     * {@code null} if it can't be flown to at all
+     */
+    private Solution solveCandidate(final SolverContext context, final ElytraSimulator simulator, final Candidate candidate) {
+        final NetherPath path = context.path;
+        final Vec3 start = context.start;
+        final int relaxation = candidate.relaxation;
+        final int i = candidate.index;
+        final int augment = candidate.augment;
+        final int lookahead = relaxation == 0 ? 2 : 3; // ideally this would be expressed as a distance in blocks, rather than a number of voxel steps
 
-                        final Pair<Float, Boolean> pitch = this.solvePitch(context, dest, relaxation);
-                        if (pitch == null) {
-                            solution = new Solution(context, new Rotation(yaw, ctx.playerRotations().getPitch()), null, false, false);
-                            continue;
-                        }
+        Vec3 dest = candidate.pos.add(0, augment, 0);
+        if (landingMode) {
+            dest = dest.add(0.5, 0.5, 0.5);
+        }
 
-                        // A solution was found with yaw AND pitch, so just immediately return it.
-                        return new Solution(context, new Rotation(yaw, pitch.first()), dest, true, pitch.second());
-                    }
+        if (augment != 0) {
+            if (i + lookahead >= path.size()) {
+                return null;
+            }
+            if (start.distanceTo(dest) < 40) {
+                if (!this.clearView(dest, path.getVec(i + lookahead).add(0, augment, 0), false)
+                        || !this.clearView(dest, path.getVec(i + lookahead), false)) {
+                    // aka: don't go upwards if doing so would prevent us from being able to see the next position **OR** the modified next position
+                    return null;
+                }
+            } else {
+                // but if it's far away, allow gaining altitude if we could lose it again by the time we get there
+                if (!this.clearView(dest, path.getVec(i), false)) {
+                    return null;
                 }
             }
         }
-        return solution;
+
+        final double minAvoidance = Baritone.settings().elytraMinimumAvoidance.value;
+        final Double growth = relaxation == 2 ? null
+                : relaxation == 0 ? 2 * minAvoidance : minAvoidance;
+
+        if (!this.isHitboxClear(context, dest, growth)) {
+            return null;
+        }
+
+        // Yaw is trivial, just calculate the rotation required to face the destination
+        final float yaw = RotationUtils.calcRotationFromVec3d(start, dest, ctx.playerRotations()).getYaw();
+
+        final Pair<PitchResult, Boolean> pitch = this.solvePitch(context, simulator, dest, relaxation);
+        if (pitch == null) {
+            return new Solution(context, new Rotation(yaw, ctx.playerRotations().getPitch()), null, false, false, null);
+        }
+        return new Solution(context, new Rotation(yaw, pitch.first().pitch), dest, true, pitch.second(), pitch.first().steps);
+    }
+
+    /**
+     * Keeps track of how long solving takes. The solution for this tick was either solved at the end of the last one,
+     * or just now, and either way it has to be done within a tick or the player flies on with an outdated rotation.
+     * Each solution is only used for one tick, so each solve is counted once.
+     */
+    private void tickSolveTime(final Solution solution) {
+        if (solution == null) {
+            return;
+        }
+        final long nanos = solution.solveNanos;
+        this.averageSolveNanos = this.averageSolveNanos == 0 ? nanos : (this.averageSolveNanos * 19 + nanos) / 20;
+        if (nanos > TimeUnit.MILLISECONDS.toNanos(50)) {
+            this.slowSolves++;
+            logVerbose(String.format("solving took %.1fms (average %.1fms, %d over a tick so far)",
+                    nanos / 1e6, this.averageSolveNanos / 1e6, this.slowSolves));
+        }
     }
 
     private void tickUseFireworks(final Vec3 start, final Vec3 goingTo, final boolean isBoosted, final boolean forceUseFirework) {
@@ -906,13 +1032,35 @@ public final class ElytraBehavior implements Helper {
         public final Vec3 goingTo;
         public final boolean solvedPitch;
         public final boolean forceUseFirework;
+        public final List<Vec3> steps;
 
-        public Solution(SolverContext context, Rotation rotation, Vec3 goingTo, boolean solvedPitch, boolean forceUseFirework) {
+        /**
+         * How long {@link #solveAngles} took to come up with this, in nanoseconds
+         */
+        public long solveNanos;
+
+        public Solution(SolverContext context, Rotation rotation, Vec3 goingTo, boolean solvedPitch, boolean forceUseFirework, List<Vec3> steps) {
             this.context = context;
             this.rotation = rotation;
             this.goingTo = goingTo;
             this.solvedPitch = solvedPitch;
             this.forceUseFirework = forceUseFirework;
+            this.steps = steps;
+        }
+    }
+
+    private static final class Candidate {
+
+        public final int relaxation;
+        public final int index;
+        public final Vec3 pos;
+        public final int augment;
+
+        public Candidate(int relaxation, int index, Vec3 pos, int augment) {
+            this.relaxation = relaxation;
+            this.index = index;
+            this.pos = pos;
+            this.augment = augment;
         }
     }
 
@@ -1049,13 +1197,13 @@ public final class ElytraBehavior implements Helper {
         }
     }
 
-    private Pair<Float, Boolean> solvePitch(final SolverContext context, final Vec3 goal, final int relaxation) {
+    private Pair<PitchResult, Boolean> solvePitch(final SolverContext context, final ElytraSimulator simulator, final Vec3 goal, final int relaxation) {
         final boolean desperate = relaxation == 2;
         final float goodPitch = RotationUtils.calcRotationFromVec3d(context.start, goal, ctx.playerRotations()).getPitch();
         final FloatArrayList pitches = pitchesToSolveFor(goodPitch, desperate);
 
         final IntTriFunction<PitchResult> solve = (ticks, ticksBoosted, ticksBoostDelay) ->
-                this.solvePitch(context, goal, relaxation, pitches.iterator(), ticks, ticksBoosted, ticksBoostDelay);
+                this.solvePitch(context, simulator, goal, relaxation, pitches, ticks, ticksBoosted, ticksBoostDelay);
 
         final List<IntTriple> tests = new ArrayList<>();
 
@@ -1083,7 +1231,7 @@ public final class ElytraBehavior implements Helper {
                 .filter(Objects::nonNull)
                 .findFirst();
         if (result.isPresent()) {
-            return new Pair<>(result.get().pitch, false);
+            return new Pair<>(result.get(), false);
         }
 
         // If we used a firework would we be able to get out of the current situation??? perhaps
@@ -1098,16 +1246,16 @@ public final class ElytraBehavior implements Helper {
                     .filter(Objects::nonNull)
                     .findFirst();
             if (resultBoost.isPresent()) {
-                return new Pair<>(resultBoost.get().pitch, true);
+                return new Pair<>(resultBoost.get(), true);
             }
         }
 
         return null;
     }
 
-    private PitchResult solvePitch(final SolverContext context, final Vec3 goal, final int relaxation,
-                                   final FloatIterator pitches, final int ticks, final int ticksBoosted,
-                                   final int ticksBoostDelay) {
+    private PitchResult solvePitch(final SolverContext context, final ElytraSimulator simulator, final Vec3 goal,
+                                   final int relaxation, final FloatArrayList pitches, final int ticks,
+                                   final int ticksBoosted, final int ticksBoostDelay) {
         // we are at a certain velocity, but we have a target velocity
         // what pitch would get us closest to our target velocity?
         // yaw is easy so we only care about pitch
@@ -1116,28 +1264,53 @@ public final class ElytraBehavior implements Helper {
         final Vec3 goalDirection = goalDelta.normalize();
 
         final Deque<PitchResult> bestResults = new ArrayDeque<>();
+        final Rotation current = ctx.playerRotations();
 
-        while (pitches.hasNext()) {
-            final float pitch = pitches.nextFloat();
-            final List<Vec3> displacement = this.simulate(
-                    context,
-                    goalDelta,
-                    pitch,
-                    ticks,
-                    ticksBoosted,
-                    ticksBoostDelay
-            );
-            if (displacement == null) {
-                continue;
-            }
-            final Vec3 last = displacement.get(displacement.size() - 1);
-            double goodness = goalDirection.dot(last.normalize());
-            if (landingMode) {
-                goodness = -goalDelta.subtract(last).length();
+        if (Baritone.settings().elytraBatchedSimulation.value) {
+            simulator.simulateAll(context.aimProcessor, context.motion, context.boundingBox, goalDelta, current,
+                    pitches, ticks, ticksBoosted, ticksBoostDelay);
+            for (int i = 0; i < pitches.size(); i++) {
+                if (simulator.hitSomething(i)) {
+                    continue;
+                }
+                final Vec3 last = simulator.last(i);
+                double goodness = goalDirection.dot(last.normalize());
+                if (landingMode) {
+                    goodness = -goalDelta.subtract(last).length();
+                }
+                final PitchResult bestSoFar = bestResults.peek();
+                if (bestSoFar == null || goodness > bestSoFar.dot) {
+                    bestResults.push(new PitchResult(pitches.getFloat(i), goodness, simulator.displacement(i)));
+                }
             }
-            final PitchResult bestSoFar = bestResults.peek();
-            if (bestSoFar == null || goodness > bestSoFar.dot) {
-                bestResults.push(new PitchResult(pitch, goodness, displacement));
+        } else {
+            final FloatIterator it = pitches.iterator();
+            while (it.hasNext()) {
+                final float pitch = it.nextFloat();
+                final List<Vec3> displacement = ElytraSimulator.simulate(
+                        simulator.getPassability(),
+                        context.aimProcessor,
+                        context.motion,
+                        context.boundingBox,
+                        goalDelta,
+                        current,
+                        pitch,
+                        ticks,
+                        ticksBoosted,
+                        ticksBoostDelay
+                );
+                if (displacement == null) {
+                    continue;
+                }
+                final Vec3 last = displacement.get(displacement.size() - 1);
+                double goodness = goalDirection.dot(last.normalize());
+                if (landingMode) {
+                    goodness = -goalDelta.subtract(last).length();
+                }
+                final PitchResult bestSoFar = bestResults.peek();
+                if (bestSoFar == null || goodness > bestSoFar.dot) {
+                    bestResults.push(new PitchResult(pitch, goodness, displacement));
+                }
             }
         }
 
@@ -1158,116 +1331,21 @@ public final class ElytraBehavior implements Helper {
                 }
             }
 
-            this.simulationLine = result.steps;
             return result;
         }
         return null;
     }
 
-    private List<Vec3> simulate(final SolverContext context, final Vec3 goalDelta, final float pitch, final int ticks,
-                                final int ticksBoosted, final int ticksBoostDelay) {
-        final ITickableAimProcessor aimProcessor = context.aimProcessor.fork();
-        Vec3 delta = goalDelta;
-        Vec3 motion = context.motion;
-        AABB hitbox = context.boundingBox;
-        List<Vec3> displacement = new ArrayList<>(ticks + 1);
-        displacement.add(Vec3.ZERO);
-        int remainingTicksBoosted = ticksBoosted;
-
-        for (int i = 0; i < ticks; i++) {
-            final double cx = hitbox.minX + (hitbox.maxX - hitbox.minX) * 0.5D;
-            final double cz = hitbox.minZ + (hitbox.maxZ - hitbox.minZ) * 0.5D;
-            if (delta.lengthSqr() < 1) {
-                break;
-            }
-            final Rotation rotation = aimProcessor.nextRotation(
-                    RotationUtils.calcRotationFromVec3d(Vec3.ZERO, delta, ctx.playerRotations()).withPitch(pitch)
-            );
-            final Vec3 lookDirection = RotationUtils.calcLookDirectionFromRotation(rotation);
-
-            motion = step(motion, lookDirection, rotation.getPitch());
-            delta = delta.subtract(motion);
-
-            // Collision box while the player is in motion, with additional padding for safety
-            final AABB inMotion = hitbox.inflate(motion.x, motion.y, motion.z).inflate(0.01);
-
-            int xmin = fastFloor(inMotion.minX);
-            int xmax = fastCeil(inMotion.maxX);
-            int ymin = fastFloor(inMotion.minY);
-            int ymax = fastCeil(inMotion.maxY);
-            int zmin = fastFloor(inMotion.minZ);
-            int zmax = fastCeil(inMotion.maxZ);
-            for (int x = xmin; x < xmax; x++) {
-                for (int y = ymin; y < ymax; y++) {
-                    for (int z = zmin; z < zmax; z++) {
-                        if (!this.passable(x, y, z, context.ignoreLava)) {
-                            return null;
-                        }
-                    }
-                }
-            }
-
-            hitbox = hitbox.move(motion);
-            displacement.add(displacement.get(displacement.size() - 1).add(motion));
-
-            if (i >= ticksBoostDelay && remainingTicksBoosted-- > 0) {
-                // See EntityFireworkRocket
-                motion = motion.add(
-                        lookDirection.x * 0.1 + (lookDirection.x * 1.5 - motion.x) * 0.5,
-                        lookDirection.y * 0.1 + (lookDirection.y * 1.5 - motion.y) * 0.5,
-                        lookDirection.z * 0.1 + (lookDirection.z * 1.5 - motion.z) * 0.5
-                );
-            }
-        }
-
-        return displacement;
-    }
-
-    private static Vec3 step(final Vec3 motion, final Vec3 lookDirection, final float pitch) {
-        double motionX = motion.x;
-        double motionY = motion.y;
-        double motionZ = motion.z;
-
-        float pitchRadians = pitch * RotationUtils.DEG_TO_RAD_F;
-        double pitchBase2 = Math.sqrt(lookDirection.x * lookDirection.x + lookDirection.z * lookDirection.z);
-        double flatMotion = Math.sqrt(motionX * motionX + motionZ * motionZ);
-        double thisIsAlwaysOne = lookDirection.length();
-        float pitchBase3 = Mth.cos(pitchRadians);
-        //System.out.println("always the same lol " + -pitchBase + " " + pitchBase3);
-        //System.out.println("always the same lol " + Math.abs(pitchBase3) + " " + pitchBase2);
-        //System.out.println("always 1 lol " + thisIsAlwaysOne);
-        pitchBase3 = (float) ((double) pitchBase3 * (double) pitchBase3 * Math.min(1, thisIsAlwaysOne / 0.4));
-        motionY += -0.08 + (double) pitchBase3 * 0.06;
-        if (motionY < 0 && pitchBase2 > 0) {
-            double speedModifier = motionY * -0.1 * (double) pitchBase3;
-            motionY += speedModifier;
-            motionX += lookDirection.x * speedModifier / pitchBase2;
-            motionZ += lookDirection.z * speedModifier / pitchBase2;
-        }
-        if (pitchRadians < 0) { // if you are looking down (below level)
-            double anotherSpeedModifier = flatMotion * (double) (-Mth.sin(pitchRadians)) * 0.04;
-            motionY += anotherSpeedModifier * 3.2;
-            motionX -= lookDirection.x * anotherSpeedModifier / pitchBase2;
-            motionZ -= lookDirection.z * anotherSpeedModifier / pitchBase2;
-        }
-        if (pitchBase2 > 0) { // this is always true unless you are looking literally straight up (let's just say the bot will never do that)
-            motionX += (lookDirection.x / pitchBase2 * flatMotion - motionX) * 0.1;
-            motionZ += (lookDirection.z / pitchBase2 * flatMotion - motionZ) * 0.1;
-        }
-        motionX *= 0.99f;
-        motionY *= 0.98f;
-        motionZ *= 0.99f;
-        //System.out.println(motionX + " " + motionY + " " + motionZ);
-
-        return new Vec3(motionX, motionY, motionZ);
+    private boolean passable(int x, int y, int z, boolean ignoreLava) {
+        return passable(this.bsi, this.boi, x, y, z, ignoreLava);
     }
 
-    private boolean passable(int x, int y, int z, boolean ignoreLava) {
+    private static boolean passable(BlockStateInterface bsi, BlockStateOctreeInterface boi, int x, int y, int z, boolean ignoreLava) {
         if (ignoreLava) {
-            final Material mat = this.bsi.get0(x, y, z).getMaterial();
+            final Material mat = bsi.get0(x, y, z).getMaterial();
             return mat == Material.AIR || mat == Material.LAVA;
         } else {
-            return !this.boi.get0(x, y, z);
+            return !boi.get0(x, y, z);
         }
     }
 
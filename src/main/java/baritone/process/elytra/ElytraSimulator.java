@@ -0,0 +1,469 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.process.elytra;
+
+import baritone.api.behavior.look.IAimProcessor;
+import baritone.api.behavior.look.ITickableAimProcessor;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.Rotation;
+import baritone.api.utils.RotationUtils;
+import it.unimi.dsi.fastutil.floats.FloatList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.Mth;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static baritone.utils.BaritoneMath.fastCeil;
+import static baritone.utils.BaritoneMath.fastFloor;
+
+/**
+ * Simulates elytra flight for the pitches {@link ElytraBehavior} considers. {@link #simulateAll} does every pitch at
+ * once, a tick at a time, with the state of each in arrays of doubles instead of a new {@link Vec3} and {@link AABB} per
+ * tick, and remembers which blocks it found to be passable, since the pitches mostly fly through the same ones. See
+ * {@link baritone.api.Settings#elytraBatchedSimulation}.
+ * <p>
+ * Not thread safe, one is made for each time the angles are solved.
+ */
+public final class ElytraSimulator {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte PASSABLE = 1;
+    private static final byte BLOCKED = 2;
+
+    /**
+     * At 4kb a section, this is where it starts over instead of using more memory
+     */
+    private static final int MAX_SECTIONS = 1024;
+
+    @FunctionalInterface
+    public interface Passability {
+
+        boolean passable(int x, int y, int z);
+    }
+
+    private final Passability passability;
+
+    private final Long2ObjectOpenHashMap<byte[]> sections = new Long2ObjectOpenHashMap<>();
+    private long lastKey;
+    private byte[] lastSection;
+
+    /**
+     * How many displacements there are for each pitch, and room for, see {@link #simulateAll}
+     */
+    private int stride;
+    private int count;
+
+    /**
+     * The displacement from the start after each tick, by {@code pitch * stride + tick}
+     */
+    private double[] posX = new double[0];
+    private double[] posY = new double[0];
+    private double[] posZ = new double[0];
+
+    /**
+     * How many of the displacements of each pitch there are, starting with the zero one, or 0 if it hit something
+     */
+    private int[] steps = new int[0];
+
+    private boolean[] running = new boolean[0];
+    private double[] motionX = new double[0];
+    private double[] motionY = new double[0];
+    private double[] motionZ = new double[0];
+    private double[] deltaX = new double[0];
+    private double[] deltaY = new double[0];
+    private double[] deltaZ = new double[0];
+    private double[] minX = new double[0];
+    private double[] minY = new double[0];
+    private double[] minZ = new double[0];
+    private double[] maxX = new double[0];
+    private double[] maxY = new double[0];
+    private double[] maxZ = new double[0];
+    private double[] lookX = new double[0];
+    private double[] lookY = new double[0];
+    private double[] lookZ = new double[0];
+    private float[] lookPitch = new float[0];
+    private ITickableAimProcessor[] aimProcessors = new ITickableAimProcessor[0];
+
+    public ElytraSimulator(Passability passability) {
+        this.passability = passability;
+    }
+
+    public Passability getPassability() {
+        return this.passability;
+    }
+
+    /**
+     * Simulates flying at each of the pitches, exactly like {@link #simulate} does for one of them. The results are
+     * read with {@link #hitSomething(int)}, {@link #last(int)} and {@link #displacement(int)}, until the next call.
+     *
+     * @param current The rotation of the player, which the yaw towards the goal is made relative to
+     */
+    public void simulateAll(final IAimProcessor aimProcessor, final Vec3 motion, final AABB boundingBox, final Vec3 goalDelta,
+                            final Rotation current, final FloatList pitches, final int ticks, final int ticksBoosted,
+                            final int ticksBoostDelay) {
+        final int n = pitches.size();
+        ensureCapacity(n, ticks + 1);
+        this.count = n;
+        this.stride = ticks + 1;
+        int running = 0;
+        for (int c = 0; c < n; c++) {
+            this.running[c] = true;
+            running++;
+            aimProcessors[c] = aimProcessor.fork();
+            motionX[c] = motion.x;
+            motionY[c] = motion.y;
+            motionZ[c] = motion.z;
+            deltaX[c] = goalDelta.x;
+            deltaY[c] = goalDelta.y;
+            deltaZ[c] = goalDelta.z;
+            minX[c] = boundingBox.minX;
+            minY[c] = boundingBox.minY;
+            minZ[c] = boundingBox.minZ;
+            maxX[c] = boundingBox.maxX;
+            maxY[c] = boundingBox.maxY;
+            maxZ[c] = boundingBox.maxZ;
+            posX[c * stride] = 0;
+            posY[c * stride] = 0;
+            posZ[c * stride] = 0;
+            steps[c] = 1;
+        }
+        int remainingTicksBoosted = ticksBoosted;
+
+        for (int i = 0; i < ticks && running > 0; i++) {
+            // the aim processors can't be done together, so where each one looks is worked out first
+            for (int c = 0; c < n; c++) {
+                if (!this.running[c]) {
+                    continue;
+                }
+                if (deltaX[c] * deltaX[c] + deltaY[c] * deltaY[c] + deltaZ[c] * deltaZ[c] < 1) {
+                    this.running[c] = false;
+                    running--;
+                    continue;
+                }
+                final Rotation rotation = aimProcessors[c].nextRotation(
+                        RotationUtils.calcRotationFromVec3d(Vec3.ZERO, new Vec3(deltaX[c], deltaY[c], deltaZ[c]), current).withPitch(pitches.getFloat(c))
+                );
+                // RotationUtils.calcLookDirectionFromRotation
+                final float flatZ = Mth.cos((-rotation.getYaw() * RotationUtils.DEG_TO_RAD_F) - (float) Math.PI);
+                final float flatX = Mth.sin((-rotation.getYaw() * RotationUtils.DEG_TO_RAD_F) - (float) Math.PI);
+                final float pitchBase = -Mth.cos(-rotation.getPitch() * RotationUtils.DEG_TO_RAD_F);
+                final float pitchHeight = Mth.sin(-rotation.getPitch() * RotationUtils.DEG_TO_RAD_F);
+                lookX[c] = flatX * pitchBase;
+                lookY[c] = pitchHeight;
+                lookZ[c] = flatZ * pitchBase;
+                lookPitch[c] = rotation.getPitch();
+            }
+
+            // then they all move, see step
+            for (int c = 0; c < n; c++) {
+                if (!this.running[c]) {
+                    continue;
+                }
+                final double lx = lookX[c];
+                final double ly = lookY[c];
+                final double lz = lookZ[c];
+                double mx = motionX[c];
+                double my = motionY[c];
+                double mz = motionZ[c];
+
+                final float pitchRadians = lookPitch[c] * RotationUtils.DEG_TO_RAD_F;
+                final double pitchBase2 = Math.sqrt(lx * lx + lz * lz);
+                final double flatMotion = Math.sqrt(mx * mx + mz * mz);
+                final double thisIsAlwaysOne = Math.sqrt(lx * lx + ly * ly + lz * lz);
+                float pitchBase3 = Mth.cos(pitchRadians);
+                pitchBase3 = (float) ((double) pitchBase3 * (double) pitchBase3 * Math.min(1, thisIsAlwaysOne / 0.4));
+                my += -0.08 + (double) pitchBase3 * 0.06;
+                if (my < 0 && pitchBase2 > 0) {
+                    final double speedModifier = my * -0.1 * (double) pitchBase3;
+                    my += speedModifier;
+                    mx += lx * speedModifier / pitchBase2;
+                    mz += lz * speedModifier / pitchBase2;
+                }
+                if (pitchRadians < 0) {
+                    final double anotherSpeedModifier = flatMotion * (double) (-Mth.sin(pitchRadians)) * 0.04;
+                    my += anotherSpeedModifier * 3.2;
+                    mx -= lx * anotherSpeedModifier / pitchBase2;
+                    mz -= lz * anotherSpeedModifier / pitchBase2;
+                }
+                if (pitchBase2 > 0) {
+                    mx += (lx / pitchBase2 * flatMotion - mx) * 0.1;
+                    mz += (lz / pitchBase2 * flatMotion - mz) * 0.1;
+                }
+                mx *= 0.99f;
+                my *= 0.98f;
+                mz *= 0.99f;
+
+                motionX[c] = mx;
+                motionY[c] = my;
+                motionZ[c] = mz;
+                deltaX[c] -= mx;
+                deltaY[c] -= my;
+                deltaZ[c] -= mz;
+            }
+
+            final boolean boosted = i >= ticksBoostDelay && remainingTicksBoosted-- > 0;
+            for (int c = 0; c < n; c++) {
+                if (!this.running[c]) {
+                    continue;
+                }
+                final double mx = motionX[c];
+                final double my = motionY[c];
+                final double mz = motionZ[c];
+                // AABB.inflate(motion).inflate(0.01)
+                if (!clear(
+                        Math.min(minX[c] - mx, maxX[c] + mx) - 0.01, Math.max(minX[c] - mx, maxX[c] + mx) + 0.01,
+                        Math.min(minY[c] - my, maxY[c] + my) - 0.01, Math.max(minY[c] - my, maxY[c] + my) + 0.01,
+                        Math.min(minZ[c] - mz, maxZ[c] + mz) - 0.01, Math.max(minZ[c] - mz, maxZ[c] + mz) + 0.01)) {
+                    this.running[c] = false;
+                    running--;
+                    steps[c] = 0;
+                    continue;
+                }
+                minX[c] += mx;
+                minY[c] += my;
+                minZ[c] += mz;
+                maxX[c] += mx;
+                maxY[c] += my;
+                maxZ[c] += mz;
+                final int index = c * stride + steps[c];
+                posX[index] = posX[index - 1] + mx;
+                posY[index] = posY[index - 1] + my;
+                posZ[index] = posZ[index - 1] + mz;
+                steps[c]++;
+
+                if (boosted) {
+                    // See EntityFireworkRocket
+                    final double lx = lookX[c];
+                    final double ly = lookY[c];
+                    final double lz = lookZ[c];
+                    motionX[c] = mx + (lx * 0.1 + (lx * 1.5 - mx) * 0.5);
+                    motionY[c] = my + (ly * 0.1 + (ly * 1.5 - my) * 0.5);
+                    motionZ[c] = mz + (lz * 0.1 + (lz * 1.5 - mz) * 0.5);
+                }
+            }
+        }
+        for (int c = 0; c < n; c++) {
+            aimProcessors[c] = null;
+        }
+    }
+
+    /**
+     * @return Whether flying at the pitch with the index given to {@link #simulateAll} runs into a block
+     */
+    public boolean hitSomething(int pitch) {
+        return steps[pitch] == 0;
+    }
+
+    /**
+     * @return Where flying at the pitch ends up, relative to the start
+     */
+    public Vec3 last(int pitch) {
+        final int index = pitch * stride + steps[pitch] - 1;
+        return new Vec3(posX[index], posY[index], posZ[index]);
+    }
+
+    /**
+     * @return Where flying at the pitch is after each tick, relative to the start, the same as {@link #simulate} returns
+     */
+    public List<Vec3> displacement(int pitch) {
+        final List<Vec3> displacement = new ArrayList<>(steps[pitch]);
+        for (int i = 0; i < steps[pitch]; i++) {
+            final int index = pitch * stride + i;
+            displacement.add(new Vec3(posX[index], posY[index], posZ[index]));
+        }
+        return displacement;
+    }
+
+    private boolean clear(double minX, double maxX, double minY, double maxY, double minZ, double maxZ) {
+        final int xmin = fastFloor(minX);
+        final int xmax = fastCeil(maxX);
+        final int ymin = fastFloor(minY);
+        final int ymax = fastCeil(maxY);
+        final int zmin = fastFloor(minZ);
+        final int zmax = fastCeil(maxZ);
+        for (int x = xmin; x < xmax; x++) {
+            for (int y = ymin; y < ymax; y++) {
+                for (int z = zmin; z < zmax; z++) {
+                    if (!passable(x, y, z)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean passable(int x, int y, int z) {
+        final long key = BetterBlockPos.longHash(x >> 4, y >> 4, z >> 4);
+        byte[] section = lastSection;
+        if (section == null || lastKey != key) {
+            section = sections.get(key);
+            if (section == null) {
+                if (sections.size() >= MAX_SECTIONS) {
+                    sections.clear();
+                }
+                section = new byte[4096];
+                sections.put(key, section);
+            }
+            lastKey = key;
+            lastSection = section;
+        }
+        final int index = (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+        byte known = section[index];
+        if (known == UNKNOWN) {
+            known = passability.passable(x, y, z) ? PASSABLE : BLOCKED;
+            section[index] = known;
+        }
+        return known == PASSABLE;
+    }
+
+    private void ensureCapacity(int n, int stride) {
+        if (posX.length < n * stride) {
+            posX = new double[n * stride];
+            posY = new double[n * stride];
+            posZ = new double[n * stride];
+        }
+        if (steps.length >= n) {
+            return;
+        }
+        steps = new int[n];
+        running = new boolean[n];
+        motionX = new double[n];
+        motionY = new double[n];
+        motionZ = new double[n];
+        deltaX = new double[n];
+        deltaY = new double[n];
+        deltaZ = new double[n];
+        minX = new double[n];
+        minY = new double[n];
+        minZ = new double[n];
+        maxX = new double[n];
+        maxY = new double[n];
+        maxZ = new double[n];
+        lookX = new double[n];
+        lookY = new double[n];
+        lookZ = new double[n];
+        lookPitch = new float[n];
+        aimProcessors = new ITickableAimProcessor[n];
+    }
+
+    /**
+     * Simulates flying at one pitch
+     *
+     * @return Where the player is after each tick, relative to the start, or null if it runs into a block
+     */
+    public static List<Vec3> simulate(final Passability passability, final IAimProcessor aimProcessor0, final Vec3 startMotion,
+                                      final AABB boundingBox, final Vec3 goalDelta, final Rotation current, final float pitch,
+                                      final int ticks, final int ticksBoosted, final int ticksBoostDelay) {
+        final ITickableAimProcessor aimProcessor = aimProcessor0.fork();
+        Vec3 delta = goalDelta;
+        Vec3 motion = startMotion;
+        AABB hitbox = boundingBox;
+        List<Vec3> displacement = new ArrayList<>(ticks + 1);
+        displacement.add(Vec3.ZERO);
+        int remainingTicksBoosted = ticksBoosted;
+
+        for (int i = 0; i < ticks; i++) {
+            if (delta.lengthSqr() < 1) {
+                break;
+            }
+            final Rotation rotation = aimProcessor.nextRotation(
+                    RotationUtils.calcRotationFromVec3d(Vec3.ZERO, delta, current).withPitch(pitch)
+            );
+            final Vec3 lookDirection = RotationUtils.calcLookDirectionFromRotation(rotation);
+
+            motion = step(motion, lookDirection, rotation.getPitch());
+            delta = delta.subtract(motion);
+
+            // Collision box while the player is in motion, with additional padding for safety
+            final AABB inMotion = hitbox.inflate(motion.x, motion.y, motion.z).inflate(0.01);
+
+            int xmin = fastFloor(inMotion.minX);
+            int xmax = fastCeil(inMotion.maxX);
+            int ymin = fastFloor(inMotion.minY);
+            int ymax = fastCeil(inMotion.maxY);
+            int zmin = fastFloor(inMotion.minZ);
+            int zmax = fastCeil(inMotion.maxZ);
+            for (int x = xmin; x < xmax; x++) {
+                for (int y = ymin; y < ymax; y++) {
+                    for (int z = zmin; z < zmax; z++) {
+                        if (!passability.passable(x, y, z)) {
+                            return null;
+                        }
+                    }
+                }
+            }
+
+            hitbox = hitbox.move(motion);
+            displacement.add(displacement.get(displacement.size() - 1).add(motion));
+
+            if (i >= ticksBoostDelay && remainingTicksBoosted-- > 0) {
+                // See EntityFireworkRocket
+                motion = motion.add(
+                        lookDirection.x * 0.1 + (lookDirection.x * 1.5 - motion.x) * 0.5,
+                        lookDirection.y * 0.1 + (lookDirection.y * 1.5 - motion.y) * 0.5,
+                        lookDirection.z * 0.1 + (lookDirection.z * 1.5 - motion.z) * 0.5
+                );
+            }
+        }
+
+        return displacement;
+    }
+
+    private static Vec3 step(final Vec3 motion, final Vec3 lookDirection, final float pitch) {
+        double motionX = motion.x;
+        double motionY = motion.y;
+        double motionZ = motion.z;
+
+        float pitchRadians = pitch * RotationUtils.DEG_TO_RAD_F;
+        double pitchBase2 = Math.sqrt(lookDirection.x * lookDirection.x + lookDirection.z * lookDirection.z);
+        double flatMotion = Math.sqrt(motionX * motionX + motionZ * motionZ);
+        double thisIsAlwaysOne = lookDirection.length();
+        float pitchBase3 = Mth.cos(pitchRadians);
+        //System.out.println("always the same lol " + -pitchBase + " " + pitchBase3);
+        //System.out.println("always the same lol " + Math.abs(pitchBase3) + " " + pitchBase2);
+        //System.out.println("always 1 lol " + thisIsAlwaysOne);
+        pitchBase3 = (float) ((double) pitchBase3 * (double) pitchBase3 * Math.min(1, thisIsAlwaysOne / 0.4));
+        motionY += -0.08 + (double) pitchBase3 * 0.06;
+        if (motionY < 0 && pitchBase2 > 0) {
+            double speedModifier = motionY * -0.1 * (double) pitchBase3;
+            motionY += speedModifier;
+            motionX += lookDirection.x * speedModifier / pitchBase2;
+            motionZ += lookDirection.z * speedModifier / pitchBase2;
+        }
+        if (pitchRadians < 0) { // if you are looking down (below level)
+            double anotherSpeedModifier = flatMotion * (double) (-Mth.sin(pitchRadians)) * 0.04;
+            motionY += anotherSpeedModifier * 3.2;
+            motionX -= lookDirection.x * anotherSpeedModifier / pitchBase2;
+            motionZ -= lookDirection.z * anotherSpeedModifier / pitchBase2;
+        }
+        if (pitchBase2 > 0) { // this is always true unless you are looking literally straight up (let's just say the bot will never do that)
+            motionX += (lookDirection.x / pitchBase2 * flatMotion - motionX) * 0.1;
+            motionZ += (lookDirection.z / pitchBase2 * flatMotion - motionZ) * 0.1;
+        }
+        motionX *= 0.99f;
+        motionY *= 0.98f;
+        motionZ *= 0.99f;
+        //System.out.println(motionX + " " + motionY + " " + motionZ);
+
+        return new Vec3(motionX, motionY, motionZ);
+    }
+}
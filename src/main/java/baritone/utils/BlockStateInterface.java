@@ -26,6 +26,7 @@ import baritone.utils.pathing.BetterWorldBorder;
 import net.minecraft.client.multiplayer.ClientChunkCache;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
@@ -51,6 +52,12 @@ public class BlockStateInterface {
     private LevelChunk prev = null;
     private CachedRegion prevCached = null;
 
+    /**
+     * The region that was last asked for because it wasn't loaded, which doesn't have to be asked for again until
+     * another one is
+     */
+    private long prevRequested = Long.MIN_VALUE;
+
     private final boolean useTheRealWorld;
 
     private static final BlockState AIR = Blocks.AIR.defaultBlockState();
@@ -60,22 +67,46 @@ public class BlockStateInterface {
     }
 
     public BlockStateInterface(IPlayerContext ctx, boolean copyLoadedChunks) {
-        this.world = ctx.world();
-        this.worldBorder = new BetterWorldBorder(world.getWorldBorder());
-        this.worldData = (WorldData) ctx.worldData();
-        if (copyLoadedChunks) {
-            this.provider = ((IClientChunkProvider) world.getChunkSource()).createThreadSafeCopy();
-        } else {
-            this.provider = (ClientChunkCache) world.getChunkSource();
-        }
-        this.useTheRealWorld = !Baritone.settings().pathThroughCachedOnly.value;
+        this(
+                ctx.world(),
+                (WorldData) ctx.worldData(),
+                // shared with every other copy made since the last time a chunk was loaded or unloaded, nothing writes to it
+                copyLoadedChunks ? ((IClientChunkProvider) ctx.world().getChunkSource()).threadSafeSnapshot() : (ClientChunkCache) ctx.world().getChunkSource(),
+                new BetterWorldBorder(ctx.world().getWorldBorder()),
+                !Baritone.settings().pathThroughCachedOnly.value
+        );
         if (!ctx.minecraft().isSameThread()) {
             throw new IllegalStateException();
         }
+    }
+
+    /**
+     * @param world           The world, which decides the height blocks are looked up at
+     * @param worldData       Where cached regions are looked up and requested, if not {@code null}
+     * @param provider        The loaded chunks
+     * @param worldBorder     The world border
+     * @param useTheRealWorld Whether to look at the loaded chunks before the cache
+     */
+    protected BlockStateInterface(Level world, WorldData worldData, ClientChunkCache provider, BetterWorldBorder worldBorder, boolean useTheRealWorld) {
+        this.world = world;
+        this.worldData = worldData;
+        this.provider = provider;
+        this.worldBorder = worldBorder;
+        this.useTheRealWorld = useTheRealWorld;
         this.isPassableBlockPos = new BlockPos.MutableBlockPos();
         this.access = new BlockStateInterfaceAccessWrapper(this);
     }
 
+    /**
+     * Same world, same chunks, but its own mutable state (the last chunk and region looked at), so that it can be used
+     * on another thread at the same time as this one.
+     *
+     * @return The copy
+     */
+    public BlockStateInterface copy() {
+        return new BlockStateInterface(world, worldData, provider, worldBorder, useTheRealWorld);
+    }
+
     public boolean worldContainsLoadedChunk(int blockX, int blockZ) {
         return provider.hasChunk(blockX >> 4, blockZ >> 4);
     }
@@ -127,6 +158,8 @@ public class BlockStateInterface {
             }
             CachedRegion region = worldData.cache.getRegion(x >> 9, z >> 9);
             if (region == null) {
+                // don't wait for it, it'll be there for the next path
+                requestRegion(x >> 9, z >> 9);
                 return AIR;
             }
             prevCached = region;
@@ -158,12 +191,21 @@ public class BlockStateInterface {
         }
         prevRegion = worldData.cache.getRegion(x >> 9, z >> 9);
         if (prevRegion == null) {
+            requestRegion(x >> 9, z >> 9);
             return false;
         }
         prevCached = prevRegion;
         return prevRegion.isCached(x & 511, z & 511);
     }
 
+    private void requestRegion(int regionX, int regionZ) {
+        long region = ChunkPos.asLong(regionX, regionZ);
+        if (region != prevRequested) {
+            prevRequested = region;
+            worldData.cache.requestRegion(regionX, regionZ);
+        }
+    }
+
     // get the block at x,y,z from this chunk WITHOUT creating a single blockpos object
     public static BlockState getFromChunk(LevelChunk chunk, int x, int y, int z) {
         LevelChunkSection section = chunk.getSections()[y >> 4];
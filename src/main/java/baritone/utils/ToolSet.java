@@ -28,8 +28,8 @@ import net.minecraft.world.item.enchantment.Enchantments;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -42,6 +42,8 @@ public class ToolSet {
     /**
      * A cache mapping a {@link Block} to how long it will take to break
      * with this toolset, given the optimum tool is used.
+     * <p>
+     * Concurrent because the threads of a parallel path calculation share one toolset.
      */
     private final Map<Block, Double> breakStrengthCache;
 
@@ -53,7 +55,7 @@ public class ToolSet {
     private final LocalPlayer player;
 
     public ToolSet(LocalPlayer player) {
-        breakStrengthCache = new HashMap<>();
+        breakStrengthCache = new ConcurrentHashMap<>();
         this.player = player;
 
         if (Baritone.settings().considerPotionEffects.value) {
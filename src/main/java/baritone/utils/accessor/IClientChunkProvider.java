@@ -22,5 +22,11 @@ import net.minecraft.client.multiplayer.ClientChunkCache;
 public interface IClientChunkProvider {
     ClientChunkCache createThreadSafeCopy();
 
+    /**
+     * @return A copy like {@link #createThreadSafeCopy()}, except that the same one is handed out again until a chunk
+     * is loaded or dropped or the view moves, instead of copying every loaded chunk again each time
+     */
+    ClientChunkCache threadSafeSnapshot();
+
     IChunkArray extractReferenceArray();
 }
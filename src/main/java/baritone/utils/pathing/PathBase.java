@@ -21,12 +21,53 @@ import baritone.Baritone;
 import baritone.api.BaritoneAPI;
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.goals.Goal;
+import baritone.api.utils.BetterBlockPos;
 import baritone.pathing.path.CutoffPath;
+import baritone.pathing.path.MovementList;
 import baritone.utils.BlockStateInterface;
 import net.minecraft.core.BlockPos;
 
+import java.util.HashSet;
+import java.util.List;
+
 public abstract class PathBase implements IPath {
 
+    /**
+     * The same as {@link IPath#sanityCheck()}, but without making every movement of a {@link MovementList} just to
+     * check where it goes from and to
+     */
+    @Override
+    public void sanityCheck() {
+        if (!(movements() instanceof MovementList)) {
+            IPath.super.sanityCheck();
+            return;
+        }
+        List<BetterBlockPos> path = positions();
+        MovementList movements = (MovementList) movements();
+        if (!getSrc().equals(path.get(0))) {
+            throw new IllegalStateException("Start node does not equal first path element");
+        }
+        if (!getDest().equals(path.get(path.size() - 1))) {
+            throw new IllegalStateException("End node does not equal last path element");
+        }
+        if (path.size() != movements.size() + 1) {
+            throw new IllegalStateException("Size of path array is unexpected");
+        }
+        HashSet<BetterBlockPos> seenSoFar = new HashSet<>();
+        for (int i = 0; i < path.size() - 1; i++) {
+            BetterBlockPos src = path.get(i);
+            if (!src.equals(movements.getSrc(i))) {
+                throw new IllegalStateException("Path source is not equal to the movement source");
+            }
+            if (!path.get(i + 1).equals(movements.getDest(i))) {
+                throw new IllegalStateException("Path destination is not equal to the movement destination");
+            }
+            if (!seenSoFar.add(src)) {
+                throw new IllegalStateException("Path doubles back on itself, making a loop");
+            }
+        }
+    }
+
     @Override
     public PathBase cutoffAtLoadedChunks(Object bsi0) { // <-- cursed cursed cursed
         if (!Baritone.settings().cutoffAtLoadBoundary.value) {
@@ -17,12 +17,54 @@
 
 package baritone.cache;
 
+import baritone.api.utils.BlockUtils;
+import baritone.testing.HeadlessBootstrap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.util.valueproviders.UniformInt;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.dimension.DimensionType;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
-import static junit.framework.TestCase.assertEquals;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
 
 public class CachedRegionTest {
 
+    private static final int MAPPED_MAGIC = 456022913;
+
+    private DimensionType dimension;
+    private Path directory;
+
+    @Before
+    public void setup() throws IOException {
+        HeadlessBootstrap.init();
+        dimension = new DimensionType(OptionalLong.empty(), true, false, false, true, 1, true, false, -64, 384, 384,
+                BlockTags.INFINIBURN_OVERWORLD, new ResourceLocation("overworld"), 0,
+                new DimensionType.MonsterSettings(false, true, UniformInt.of(0, 7), 0));
+        directory = Files.createTempDirectory("baritone-cached-region-test");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
     @Test
     public void blockPosSaving() {
         for (int x = 0; x < 16; x++) {
@@ -44,4 +86,137 @@ public class CachedRegionTest {
             }
         }
     }
+
+    /**
+     * A chunk that differs from the others by its seed in its bits, overview, special blocks and timestamp
+     */
+    private CachedChunk chunk(int regionX, int regionZ, int chunkX, int chunkZ, int seed) {
+        BitSet data = new BitSet(CachedChunk.size(dimension.height()));
+        Random random = new Random(seed);
+        for (int i = 0; i < 4096; i++) {
+            data.set(random.nextInt(CachedChunk.size(dimension.height())));
+        }
+        BlockState[] overview = new BlockState[256];
+        BlockState[] choices = {Blocks.GRASS_BLOCK.defaultBlockState(), Blocks.STONE.defaultBlockState(), Blocks.WATER.defaultBlockState(), Blocks.SAND.defaultBlockState()};
+        for (int i = 0; i < overview.length; i++) {
+            overview[i] = choices[random.nextInt(choices.length)];
+        }
+        Map<String, List<BlockPos>> special = new HashMap<>();
+        special.put(BlockUtils.blockToString(Blocks.CHEST), Collections.singletonList(new BlockPos(seed & 15, -60 + seed, 3)));
+        if (seed % 2 == 0) {
+            special.put(BlockUtils.blockToString(Blocks.DIAMOND_ORE), Arrays.asList(new BlockPos(1, -50, 2), new BlockPos(15, 300, 0)));
+        }
+        return new CachedChunk(regionX * 32 + chunkX, regionZ * 32 + chunkZ, dimension.height(), data, overview, special, 1_000_000L + seed);
+    }
+
+    private static void assertSameChunk(CachedChunk expected, CachedChunk actual) {
+        assertNotNull(actual);
+        assertEquals(expected.x, actual.x);
+        assertEquals(expected.z, actual.z);
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        assertArrayEquals(expected.getOverview(), actual.getOverview());
+        assertEquals(expected.getRelativeBlocks(), actual.getRelativeBlocks());
+        assertEquals(expected.cacheTimestamp, actual.cacheTimestamp);
+    }
+
+    private CachedRegion load(int regionX, int regionZ) {
+        CachedRegion region = new CachedRegion(regionX, regionZ, dimension);
+        region.load(directory.toString());
+        return region;
+    }
+
+    private int magic(int regionX, int regionZ) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(directory.resolve("r." + regionX + "." + regionZ + ".bcr")))) {
+            return in.readInt();
+        }
+    }
+
+    private void assertNoTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(Collections.emptyList(), files.filter(file -> file.toString().endsWith(".tmp")).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        CachedRegion region = new CachedRegion(-2, 5, dimension);
+        Map<Integer, CachedChunk> saved = new HashMap<>();
+        for (int seed = 0; seed < 20; seed++) {
+            int chunkX = seed * 7 & 31;
+            int chunkZ = seed * 13 & 31;
+            CachedChunk chunk = chunk(-2, 5, chunkX, chunkZ, seed);
+            region.updateCachedChunk(chunkX, chunkZ, chunk);
+            saved.put(chunkX << 5 | chunkZ, chunk);
+        }
+        region.save(directory.toString());
+        assertEquals(MAPPED_MAGIC, magic(-2, 5));
+        assertNoTempFiles();
+
+        CachedRegion loaded = load(-2, 5);
+        for (int i = 0; i < 1024; i++) {
+            CachedChunk expected = saved.get(i);
+            if (expected == null) {
+                assertNull(loaded.getChunk(i >> 5, i & 31));
+            } else {
+                assertTrue(loaded.isCached((i >> 5) * 16, (i & 31) * 16));
+                assertSameChunk(expected, loaded.getChunk(i >> 5, i & 31));
+            }
+        }
+    }
+
+    @Test
+    public void resaveWithUndecodedChunks() throws IOException {
+        CachedRegion region = new CachedRegion(0, 0, dimension);
+        for (int seed = 0; seed < 8; seed++) {
+            region.updateCachedChunk(seed, 0, chunk(0, 0, seed, 0, seed));
+        }
+        region.save(directory.toString());
+
+        // only chunk 0,0 gets decoded, the rest are copied over from the old file while it is replaced
+        CachedRegion loaded = load(0, 0);
+        assertSameChunk(chunk(0, 0, 0, 0, 0), loaded.getChunk(0, 0));
+        CachedChunk replacement = chunk(0, 0, 3, 0, 100);
+        loaded.updateCachedChunk(3, 0, replacement);
+        loaded.updateCachedChunk(20, 20, chunk(0, 0, 20, 20, 101));
+        loaded.save(directory.toString());
+        assertNoTempFiles();
+        // and still read the same afterwards, from the new file
+        for (int seed = 0; seed < 8; seed++) {
+            assertSameChunk(seed == 3 ? replacement : chunk(0, 0, seed, 0, seed), loaded.getChunk(seed, 0));
+        }
+
+        CachedRegion reloaded = load(0, 0);
+        for (int seed = 0; seed < 8; seed++) {
+            assertSameChunk(seed == 3 ? replacement : chunk(0, 0, seed, 0, seed), reloaded.getChunk(seed, 0));
+        }
+        assertSameChunk(chunk(0, 0, 20, 20, 101), reloaded.getChunk(20, 20));
+    }
+
+    @Test
+    public void legacyConversion() throws IOException {
+        CachedRegion region = new CachedRegion(3, -1, dimension);
+        List<CachedChunk> chunks = new ArrayList<>();
+        for (int seed = 0; seed < 10; seed++) {
+            CachedChunk chunk = chunk(3, -1, 31 - seed, seed, seed);
+            region.updateCachedChunk(31 - seed, seed, chunk);
+            chunks.add(chunk);
+        }
+        LegacyRegionWriter.write(directory, region, dimension);
+        assertNotEquals(MAPPED_MAGIC, magic(3, -1));
+
+        CachedRegion legacy = load(3, -1);
+        for (int seed = 0; seed < 10; seed++) {
+            assertSameChunk(chunks.get(seed), legacy.getChunk(31 - seed, seed));
+        }
+        // loading the old format leaves it to be converted by the next save
+        legacy.save(directory.toString());
+        assertEquals(MAPPED_MAGIC, magic(3, -1));
+        assertNoTempFiles();
+
+        CachedRegion converted = load(3, -1);
+        for (int seed = 0; seed < 10; seed++) {
+            assertSameChunk(chunks.get(seed), converted.getChunk(31 - seed, seed));
+        }
+        assertNull(converted.getChunk(0, 0));
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ChunkPackQueueTest {
+
+    @Test
+    public void oldestFirstWithoutFocus() {
+        ChunkPackQueue queue = new ChunkPackQueue();
+        assertTrue(queue.add(new ChunkPos(5, 0)));
+        assertTrue(queue.add(new ChunkPos(0, 0)));
+        assertTrue(queue.add(new ChunkPos(9, 9)));
+        assertFalse(queue.add(new ChunkPos(0, 0)));
+        assertEquals(3, queue.size());
+        assertEquals(Arrays.asList(new ChunkPos(5, 0), new ChunkPos(0, 0)), queue.removeClosest(2, Collections.emptySet()));
+        assertEquals(new ChunkPos(9, 9), queue.removeFarthest());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.removeFarthest());
+    }
+
+    @Test
+    public void closestToFocus() {
+        ChunkPackQueue queue = new ChunkPackQueue();
+        for (int x = -4; x <= 4; x++) {
+            queue.add(new ChunkPos(x, 0));
+        }
+        queue.focus(Collections.singletonList(new BlockPos(3 * 16 + 7, 64, 5)));
+        assertEquals(new ChunkPos(-4, 0), queue.removeFarthest());
+        // ties go to the one queued first
+        assertEquals(Arrays.asList(new ChunkPos(3, 0), new ChunkPos(2, 0), new ChunkPos(4, 0)), queue.removeClosest(3, Collections.emptySet()));
+
+        // moving within the chunk changes nothing, moving to another one sorts again
+        queue.focus(Collections.singletonList(new BlockPos(3 * 16, 64, 15)));
+        assertEquals(new ChunkPos(1, 0), queue.removeClosest(1, Collections.emptySet()).get(0));
+        queue.focus(Arrays.asList(new BlockPos(-3 * 16, 64, 0), new BlockPos(100 * 16, 64, 0)));
+        assertEquals(new ChunkPos(-3, 0), queue.removeClosest(1, Collections.emptySet()).get(0));
+        assertTrue(queue.contains(new ChunkPos(0, 0)));
+        assertFalse(queue.contains(new ChunkPos(-3, 0)));
+    }
+
+    @Test
+    public void skippedStayQueued() {
+        ChunkPackQueue queue = new ChunkPackQueue();
+        queue.add(new ChunkPos(0, 0));
+        queue.add(new ChunkPos(1, 0));
+        queue.add(new ChunkPos(2, 0));
+        queue.focus(Collections.singletonList(BlockPos.ZERO));
+        Set<ChunkPos> packing = new HashSet<>(Collections.singletonList(new ChunkPos(0, 0)));
+        assertEquals(Arrays.asList(new ChunkPos(1, 0), new ChunkPos(2, 0)), queue.removeClosest(16, packing));
+        assertTrue(queue.contains(new ChunkPos(0, 0)));
+        assertTrue(queue.removeClosest(16, packing).isEmpty());
+        assertEquals(Collections.singletonList(new ChunkPos(0, 0)), queue.removeClosest(16, Collections.emptySet()));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.PathCalculationResult;
+import baritone.pathing.movement.CalculationContext;
+import baritone.testing.HeadlessBootstrap;
+import baritone.testing.SyntheticCalculationContext;
+import baritone.testing.SyntheticTerrain;
+import baritone.testing.SyntheticWorld;
+import baritone.utils.pathing.Favoring;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class NodeStoreTest {
+
+    private static final int SIZE = 64;
+    private static final int HEIGHT = 128;
+
+    /**
+     * Long enough that every search runs to completion, so the result doesn't depend on how fast the machine is
+     */
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+    @BeforeClass
+    public static void bootstrap() {
+        HeadlessBootstrap.init();
+    }
+
+    @After
+    public void resetSettings() {
+        Settings settings = Baritone.settings();
+        settings.pathingPrimitiveNodeStore.reset();
+        settings.pathingReuseSearchArenas.reset();
+        settings.pathingArenaMaxRetainedNodes.reset();
+    }
+
+    private static IPath calculate(SyntheticWorld world, BetterBlockPos start, boolean primitiveNodeStore) {
+        Baritone.settings().pathingPrimitiveNodeStore.value = primitiveNodeStore;
+        CalculationContext context = new SyntheticCalculationContext(world);
+        Goal goal = new GoalXZ(SIZE - 8, SIZE - 8);
+        AStarPathFinder finder = new AStarPathFinder(start, start.x, start.y, start.z, goal, new Favoring(null, context), context);
+        PathCalculationResult result = finder.calculate(TIMEOUT, TIMEOUT);
+        return result.getPath().orElseThrow(() -> new AssertionError("no path: " + result.getType()));
+    }
+
+    private static void assertSamePath(IPath expected, IPath actual) {
+        assertEquals(expected.positions(), actual.positions());
+        assertEquals(expected.getNumNodesConsidered(), actual.getNumNodesConsidered());
+        assertEquals(expected.ticksRemainingFrom(0), actual.ticksRemainingFrom(0), 0);
+    }
+
+    @Test
+    public void testParity() {
+        for (SyntheticTerrain terrain : SyntheticTerrain.values()) {
+            SyntheticWorld world = terrain.create(SIZE, HEIGHT, SIZE);
+            BetterBlockPos start = terrain.start(world);
+            IPath nodes = calculate(world, start, false);
+            IPath store = calculate(world, start, true);
+            assertTrue(terrain + " expanded too little to mean anything", nodes.getNumNodesConsidered() > 100);
+            assertSamePath(nodes, store);
+        }
+    }
+
+    @Test
+    public void testReuse() {
+        Baritone.settings().pathingReuseSearchArenas.value = true;
+        // small enough that every search grows the arena past it, so that it is trimmed after each one
+        Baritone.settings().pathingArenaMaxRetainedNodes.value = 64;
+        for (SyntheticTerrain terrain : SyntheticTerrain.values()) {
+            SyntheticWorld world = terrain.create(SIZE, HEIGHT, SIZE);
+            BetterBlockPos start = terrain.start(world);
+            IPath nodes = calculate(world, start, false);
+            // the same thread, so the second one reuses the arena the first one left behind
+            assertSamePath(nodes, calculate(world, start, true));
+            assertSamePath(nodes, calculate(world, start, true));
+        }
+    }
+
+    @Test
+    public void testTrim() {
+        Goal goal = new GoalXZ(0, 0);
+        NodeStore store = new NodeStore(goal, 16, 0.75f);
+        for (int i = 0; i < 1000; i++) {
+            store.getNode(i, 64, -i, BetterBlockPos.longHash(i, 64, -i));
+        }
+        assertEquals(1000, store.size());
+        assertTrue(store.trim(64));
+        assertEquals(64, store.capacity());
+        store.reset(goal);
+        assertEquals(0, store.size());
+        // trimming has to leave it just as usable as before
+        assertEquals(0, store.getNode(1, 2, 3, BetterBlockPos.longHash(1, 2, 3)));
+        assertEquals(0, store.getNode(1, 2, 3, BetterBlockPos.longHash(1, 2, 3)));
+        assertEquals(1, store.size());
+        assertFalse(store.trim(store.capacity()));
+    }
+
+    @Test
+    public void testReadAfterTrim() {
+        Goal goal = new GoalXZ(0, 0);
+        NodeStore store = new NodeStore(goal, 16, 0.75f);
+        for (int i = 0; i < 1000; i++) {
+            store.getNode(i, 64, -i, BetterBlockPos.longHash(i, 64, -i));
+        }
+        assertEquals(2 * 500 * 500, store.getDistSq(500, 0, 64, 0), 0);
+        // what another thread still holding on to an index sees once the arena is released
+        store.trim(64);
+        assertEquals(-1, store.getDistSq(500, 0, 64, 0), 0);
+        assertNull(store.materialize(500));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.goals;
+
+import baritone.api.pathing.goals.*;
+import net.minecraft.core.BlockPos;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GoalCompositeTest {
+
+    @Test
+    public void sameAsEveryGoal() {
+        Random rand = new Random(13);
+        for (int spread : new int[]{8, 100, 5000}) {
+            Goal[] goals = new Goal[500];
+            for (int i = 0; i < goals.length; i++) {
+                int x = rand.nextInt(spread) - spread / 2;
+                int y = rand.nextInt(64);
+                int z = rand.nextInt(spread) - spread / 2;
+                switch (rand.nextInt(5)) {
+                    case 0:
+                        goals[i] = new GoalBlock(x, y, z);
+                        break;
+                    case 1:
+                        goals[i] = new GoalGetToBlock(new BlockPos(x, y, z));
+                        break;
+                    case 2:
+                        goals[i] = new GoalTwoBlocks(x, y, z);
+                        break;
+                    case 3:
+                        goals[i] = new GoalXZ(x, z);
+                        break;
+                    default:
+                        // like the goals BuilderProcess makes, which can have a lower heuristic than where they are
+                        goals[i] = new GoalBlock(x, y, z) {
+                            @Override
+                            public double heuristic(int x, int y, int z) {
+                                return this.y * -100 + super.heuristic(x, y, z);
+                            }
+                        };
+                }
+            }
+            GoalComposite composite = new GoalComposite(goals);
+            for (int i = 0; i < 2000; i++) {
+                int x = rand.nextInt(spread * 2) - spread;
+                int y = rand.nextInt(64);
+                int z = rand.nextInt(spread * 2) - spread;
+                boolean inGoal = false;
+                double min = Double.MAX_VALUE;
+                for (Goal goal : goals) {
+                    inGoal |= goal.isInGoal(x, y, z);
+                    min = Math.min(min, goal.heuristic(x, y, z));
+                }
+                String repr = x + "," + y + "," + z;
+                assertEquals(repr, inGoal, composite.isInGoal(x, y, z));
+                assertEquals(repr, min, composite.heuristic(x, y, z), 0);
+            }
+        }
+    }
+}
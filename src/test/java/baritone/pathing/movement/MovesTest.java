@@ -0,0 +1,80 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.api.IBaritone;
+import baritone.api.utils.BetterBlockPos;
+import baritone.testing.HeadlessBootstrap;
+import baritone.testing.SyntheticCalculationContext;
+import baritone.testing.SyntheticTerrain;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MovesTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        HeadlessBootstrap.init();
+    }
+
+    /**
+     * Every destination a move can be found to go to from the source, including the ones only the dynamic moves have
+     */
+    private static List<BetterBlockPos> destinations(Moves move, BetterBlockPos src) {
+        List<BetterBlockPos> result = new ArrayList<>();
+        if (move.dynamicXZ) {
+            for (int dist = 2; dist <= 4; dist++) {
+                for (int dy = 0; dy <= 1; dy++) {
+                    result.add(new BetterBlockPos(src.x + Integer.signum(move.xOffset) * dist, src.y + dy, src.z + Integer.signum(move.zOffset) * dist));
+                }
+            }
+        } else if (move.dynamicY) {
+            for (int dy = -5; dy <= 1; dy++) {
+                if (move.yOffset == 0 ? dy >= -1 : dy < 0) {
+                    result.add(new BetterBlockPos(src.x + move.xOffset, src.y + dy, src.z + move.zOffset));
+                }
+            }
+        } else {
+            result.add(new BetterBlockPos(src.x + move.xOffset, src.y + move.yOffset, src.z + move.zOffset));
+        }
+        return result;
+    }
+
+    @Test
+    public void testDerivedPositions() {
+        IBaritone baritone = new SyntheticCalculationContext(SyntheticTerrain.values()[0].create(16, 16, 16)).getBaritone();
+        BetterBlockPos src = new BetterBlockPos(100, 64, -100);
+        for (Moves move : Moves.values()) {
+            for (BetterBlockPos dest : destinations(move, src)) {
+                Movement movement = move.apply0(baritone, src, dest);
+                String what = move + " to " + dest;
+                assertEquals(what, movement.getValidPositions(), move.validPositions(src, dest));
+                assertArrayEquals(what, movement.toBreakAll(), move.positionsToBreak(src, dest));
+                assertEquals(what, movement.getPositionToPlace(), move.positionToPlace(src, dest));
+                // only diagonals walk into anything, through the corners beside them
+                assertEquals(what, move.xOffset != 0 && move.zOffset != 0 ? 4 : 0, move.positionsToWalkInto());
+            }
+        }
+    }
+}
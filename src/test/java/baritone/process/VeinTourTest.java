@@ -0,0 +1,99 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.process;
+
+import net.minecraft.core.BlockPos;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VeinTourTest {
+
+    private static Set<BlockPos> set(BlockPos... positions) {
+        return new HashSet<>(Arrays.asList(positions));
+    }
+
+    private static Set<BlockPos> current(VeinTour tour) {
+        return new HashSet<>(tour.current());
+    }
+
+    @Test
+    public void diagonalsMerge() {
+        BlockPos a = new BlockPos(0, 10, 0);
+        BlockPos b = new BlockPos(1, 11, 1);
+        BlockPos c = new BlockPos(2, 12, 2);
+        BlockPos far = new BlockPos(20, 10, 0);
+        VeinTour tour = new VeinTour();
+        tour.update(Arrays.asList(far, c, a, b), a);
+        assertEquals(set(a, b, c), current(tour));
+
+        // found later, touching the vein only by a corner
+        BlockPos d = new BlockPos(3, 13, 3);
+        tour.update(Arrays.asList(far, c, a, b, d), a);
+        assertEquals(set(a, b, c, d), current(tour));
+    }
+
+    @Test
+    public void minedPositionsAreRemoved() {
+        BlockPos a = new BlockPos(0, 10, 0);
+        BlockPos b = new BlockPos(1, 10, 0);
+        BlockPos far = new BlockPos(20, 10, 0);
+        VeinTour tour = new VeinTour();
+        tour.update(Arrays.asList(a, b, far), a);
+        assertEquals(set(a, b), current(tour));
+
+        tour.update(Arrays.asList(b, far), a);
+        assertEquals(set(b), current(tour));
+
+        // once the vein is mined out the next one is up
+        tour.update(Collections.singletonList(far), b);
+        assertEquals(set(far), current(tour));
+
+        tour.update(Collections.emptyList(), far);
+        assertTrue(tour.current().isEmpty());
+    }
+
+    @Test
+    public void currentVeinStaysInFront() {
+        BlockPos a = new BlockPos(0, 10, 0);
+        BlockPos far = new BlockPos(30, 10, 0);
+        VeinTour tour = new VeinTour();
+        tour.update(Arrays.asList(a, far), a);
+        assertEquals(set(a), current(tour));
+
+        // a new vein right where the player now is doesn't take over
+        BlockPos closer = new BlockPos(0, 10, 5);
+        tour.update(Arrays.asList(a, far, closer), closer);
+        assertEquals(set(a), current(tour));
+
+        // and a block joining the current vein to a later one pulls that one in, not the other way around
+        BlockPos next = new BlockPos(0, 10, 2);
+        BlockPos bridge = new BlockPos(0, 10, 1);
+        tour.update(Arrays.asList(a, far, closer, next), closer);
+        assertEquals(set(a), current(tour));
+        tour.update(Arrays.asList(a, far, closer, next, bridge), closer);
+        assertEquals(set(a, bridge, next), current(tour));
+
+        // it stays in front until it is mined out
+        tour.update(Arrays.asList(far, closer, next, bridge), closer);
+        assertEquals(set(bridge, next), current(tour));
+    }
+}
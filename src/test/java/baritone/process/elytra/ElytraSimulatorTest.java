@@ -0,0 +1,152 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.process.elytra;
+
+import baritone.api.behavior.look.ITickableAimProcessor;
+import baritone.api.utils.Rotation;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ElytraSimulatorTest {
+
+    private static final int SIZE_X = 128;
+    private static final int HEIGHT = 128;
+    private static final int SIZE_Z = 64;
+
+    /**
+     * A tunnel from y 56 to 72 with pillars in it from x 40 on, so that some pitches make it and some don't
+     */
+    private static boolean[] tunnel() {
+        boolean[] solid = new boolean[SIZE_X * HEIGHT * SIZE_Z];
+        Random rand = new Random(19);
+        for (int x = 0; x < SIZE_X; x++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int y = 0; y < HEIGHT; y++) {
+                    solid[index(x, y, z)] = y < 56 || y >= 72;
+                }
+            }
+        }
+        for (int i = 0; i < 40; i++) {
+            int px = 40 + rand.nextInt(SIZE_X - 40);
+            int pz = rand.nextInt(SIZE_Z);
+            int radius = rand.nextInt(3);
+            for (int x = px - radius; x <= px + radius; x++) {
+                for (int z = pz - radius; z <= pz + radius; z++) {
+                    if (x < SIZE_X && z >= 0 && z < SIZE_Z) {
+                        for (int y = 0; y < HEIGHT; y++) {
+                            solid[index(x, y, z)] = true;
+                        }
+                    }
+                }
+            }
+        }
+        return solid;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (x * SIZE_Z + z) * HEIGHT + y;
+    }
+
+    @Test
+    public void simulateAllMatchesSimulate() {
+        boolean[] solid = tunnel();
+        ElytraSimulator.Passability passability = (x, y, z) ->
+                x < 0 || x >= SIZE_X || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE_Z || !solid[index(x, y, z)];
+        // one simulator for everything, like the solver reuses it for each target
+        ElytraSimulator simulator = new ElytraSimulator(passability);
+        ITickableAimProcessor aim = new DirectAimProcessor();
+        Rotation current = new Rotation(-90, 0);
+        Vec3 start = new Vec3(20.5, 64, SIZE_Z / 2D + 0.5);
+        AABB boundingBox = new AABB(start.x - 0.3, start.y, start.z - 0.3, start.x + 0.3, start.y + 0.6, start.z + 0.3);
+        Vec3[] motions = {new Vec3(0.9, -0.1, 0.1), new Vec3(1.65, 0.05, 0.2)};
+        Vec3[] goalDeltas = {new Vec3(60, 0, 0), new Vec3(50, -6, 12), new Vec3(1.5, 0, 0.5)};
+        int[][] boosts = {{0, 0}, {20, 0}, {5, 3}};
+        boolean hit = false;
+        boolean clear = false;
+
+        for (Vec3 motion : motions) {
+            for (Vec3 goalDelta : goalDeltas) {
+                for (int[] boost : boosts) {
+                    // the full range over a few ticks like when it's desperate, then fewer pitches over more ticks, so
+                    // that the second call runs with arrays left over from a bigger one
+                    for (int[] run : new int[][]{{90, 3}, {25, 20}}) {
+                        FloatArrayList pitches = new FloatArrayList();
+                        for (float pitch = -run[0]; pitch <= run[0]; pitch++) {
+                            pitches.add(pitch);
+                        }
+                        int ticks = run[1];
+                        simulator.simulateAll(aim, motion, boundingBox, goalDelta, current, pitches, ticks, boost[0], boost[1]);
+                        for (int i = 0; i < pitches.size(); i++) {
+                            List<Vec3> expected = ElytraSimulator.simulate(passability, aim, motion, boundingBox,
+                                    goalDelta, current, pitches.getFloat(i), ticks, boost[0], boost[1]);
+                            String message = "pitch " + pitches.getFloat(i) + " motion " + motion + " goal " + goalDelta
+                                    + " ticks " + ticks + " boosted " + boost[0] + " after " + boost[1];
+                            if (expected == null) {
+                                assertTrue(message, simulator.hitSomething(i));
+                                hit = true;
+                            } else {
+                                assertFalse(message, simulator.hitSomething(i));
+                                assertEquals(message, expected, simulator.displacement(i));
+                                assertEquals(message, expected.get(expected.size() - 1), simulator.last(i));
+                                clear = true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue("no pitch ran into anything", hit);
+        assertTrue("every pitch ran into something", clear);
+    }
+
+    /**
+     * Looks exactly where it's told to, like the real one does without smoothing or random looking
+     */
+    private static final class DirectAimProcessor implements ITickableAimProcessor {
+
+        @Override
+        public Rotation peekRotation(Rotation desired) {
+            return desired;
+        }
+
+        @Override
+        public ITickableAimProcessor fork() {
+            return this;
+        }
+
+        @Override
+        public void tick() {}
+
+        @Override
+        public void advance(int ticks) {}
+
+        @Override
+        public Rotation nextRotation(Rotation rotation) {
+            return rotation;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.utils.BlockUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.dimension.DimensionType;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes regions in the format {@link CachedRegion} saved before the indexed one, which it now only reads
+ */
+final class LegacyRegionWriter {
+
+    private static final int MAGIC = 456022911;
+
+    private LegacyRegionWriter() {}
+
+    static void write(Path directory, CachedRegion region, DimensionType dimension) throws IOException {
+        Path file = directory.resolve("r." + region.getX() + "." + region.getZ() + ".bcr");
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file), 16384))) {
+            out.writeInt(MAGIC);
+            List<CachedChunk> present = new ArrayList<>();
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    CachedChunk chunk = region.getChunk(x, z);
+                    if (chunk == null) {
+                        out.write(0);
+                    } else {
+                        out.write(1);
+                        byte[] bytes = chunk.toByteArray();
+                        out.write(bytes);
+                        out.write(new byte[chunk.sizeInBytes - bytes.length]);
+                        present.add(chunk);
+                    }
+                }
+            }
+            for (CachedChunk chunk : present) {
+                for (BlockState state : chunk.getOverview()) {
+                    out.writeUTF(BlockUtils.blockToString(state.getBlock()));
+                }
+            }
+            for (CachedChunk chunk : present) {
+                Map<String, List<BlockPos>> locs = chunk.getRelativeBlocks();
+                out.writeShort(locs.size());
+                for (Map.Entry<String, List<BlockPos>> entry : locs.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeShort(entry.getValue().size());
+                    for (BlockPos pos : entry.getValue()) {
+                        out.writeByte((byte) (pos.getZ() << 4 | pos.getX()));
+                        out.writeInt(pos.getY() - dimension.minY());
+                    }
+                }
+            }
+            for (CachedChunk chunk : present) {
+                out.writeLong(chunk.cacheTimestamp);
+            }
+        }
+    }
+}
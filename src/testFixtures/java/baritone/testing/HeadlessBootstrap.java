@@ -0,0 +1,46 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.testing;
+
+import baritone.Baritone;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * Sets up just enough of Minecraft (the registries) and Baritone (the settings) to run path calculations without a
+ * client. There is no game instance, so the settings are the defaults, and {@link SyntheticCalculationContext} stands
+ * in for everything a calculation would otherwise get from the player.
+ */
+public final class HeadlessBootstrap {
+
+    private static boolean done;
+
+    private HeadlessBootstrap() {}
+
+    public static synchronized void init() {
+        if (done) {
+            return;
+        }
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        Baritone.settings().considerPotionEffects.value = false;
+        // the synthetic worlds are small, running into their edges is expected and shouldn't end the search
+        Baritone.settings().pathingMaxChunkBorderFetch.value = Integer.MAX_VALUE;
+        done = true;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.testing;
+
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.BetterWorldBorder;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.border.WorldBorder;
+
+/**
+ * A {@link BlockStateInterface} over a {@link SyntheticWorld} instead of the chunks of a client world
+ */
+public final class SyntheticBlockStateInterface extends BlockStateInterface {
+
+    private final SyntheticWorld world;
+
+    public SyntheticBlockStateInterface(SyntheticWorld world) {
+        this(world, new BetterWorldBorder(new WorldBorder()));
+    }
+
+    private SyntheticBlockStateInterface(SyntheticWorld world, BetterWorldBorder worldBorder) {
+        // there's no client world or cache, every lookup that would need one is overridden
+        super(null, null, null, worldBorder, false);
+        this.world = world;
+    }
+
+    @Override
+    public BlockStateInterface copy() {
+        return new SyntheticBlockStateInterface(world, worldBorder);
+    }
+
+    @Override
+    public BlockState get0(int x, int y, int z) {
+        return world.get(x, y, z);
+    }
+
+    @Override
+    public boolean isLoaded(int x, int z) {
+        return world.contains(x, z);
+    }
+
+    @Override
+    public boolean worldContainsLoadedChunk(int blockX, int blockZ) {
+        return world.contains(blockX, blockZ);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.testing;
+
+import baritone.Baritone;
+import baritone.api.IBaritone;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ToolSet;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * A {@link CalculationContext} for a {@link SyntheticWorld}, with no client, player or inventory behind it.
+ * Blocks are broken as if with an unenchanted diamond pickaxe.
+ */
+public final class SyntheticCalculationContext extends CalculationContext {
+
+    /**
+     * Movements only use the baritone to get the player context, which nothing in a calculation touches
+     */
+    private static final IBaritone NO_BARITONE = (IBaritone) Proxy.newProxyInstance(
+            IBaritone.class.getClassLoader(),
+            new Class<?>[]{IBaritone.class},
+            (proxy, method, args) -> null
+    );
+
+    public SyntheticCalculationContext(SyntheticWorld world) {
+        // there's no inventory, so nothing can be placed and water bucket falls aren't possible
+        super(NO_BARITONE, true, null, null, new SyntheticBlockStateInterface(world), new PickaxeToolSet(), false, false,
+                Baritone.settings().allowSprint.value, 0, 0, 0, world.height);
+    }
+
+    private SyntheticCalculationContext(SyntheticCalculationContext other) {
+        super(other, other.bsi.copy());
+    }
+
+    @Override
+    public CalculationContext copyForThread() {
+        return new SyntheticCalculationContext(this);
+    }
+
+    private static final class PickaxeToolSet extends ToolSet {
+
+        private static final ItemStack PICKAXE = new ItemStack(Items.DIAMOND_PICKAXE);
+
+        private PickaxeToolSet() {
+            super(null); // there is no player, HeadlessBootstrap turns off considerPotionEffects so that it is never asked
+        }
+
+        @Override
+        public double getStrVsBlock(BlockState state) {
+            return calculateSpeedVsBlock(PICKAXE, state);
+        }
+    }
+}
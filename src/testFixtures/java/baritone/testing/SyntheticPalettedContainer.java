@@ -0,0 +1,84 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.testing;
+
+import baritone.utils.accessor.IPalettedContainer;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.util.BitStorage;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.util.ZeroBitStorage;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The block states of a section, with the {@link IPalettedContainer} accessor that the mixin adds in the game, which
+ * isn't applied here. The palette and storage it gives are made by {@link #freeze()} from the states set before it,
+ * the same kind of palette that the game would use for that many states.
+ */
+public final class SyntheticPalettedContainer extends PalettedContainer<BlockState> implements IPalettedContainer<BlockState> {
+
+    private Palette<BlockState> palette;
+    private BitStorage storage;
+
+    public SyntheticPalettedContainer() {
+        super(Block.BLOCK_STATE_REGISTRY, Blocks.AIR.defaultBlockState(), Strategy.SECTION_STATES);
+    }
+
+    /**
+     * Makes the palette and storage of the states set so far, changes after this aren't seen through the accessor
+     *
+     * @return This container
+     */
+    public SyntheticPalettedContainer freeze() {
+        List<BlockState> states = new ArrayList<>();
+        Reference2IntOpenHashMap<BlockState> ids = new Reference2IntOpenHashMap<>();
+        int[] values = new int[4096];
+        int[] index = {0};
+        // in the order of the storage, y then z then x
+        getAll(state -> values[index[0]++] = ids.computeIfAbsent(state, s -> {
+            states.add(state);
+            return states.size() - 1;
+        }));
+        if (states.size() == 1) {
+            palette = SingleValuePalette.create(0, Block.BLOCK_STATE_REGISTRY, this, states);
+            storage = new ZeroBitStorage(values.length);
+            return this;
+        }
+        int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(states.size() - 1));
+        palette = bits == 4
+                ? LinearPalette.create(bits, Block.BLOCK_STATE_REGISTRY, this, states)
+                : HashMapPalette.create(bits, Block.BLOCK_STATE_REGISTRY, this, states);
+        storage = new SimpleBitStorage(bits, values.length, values);
+        return this;
+    }
+
+    @Override
+    public Palette<BlockState> getPalette() {
+        return palette;
+    }
+
+    @Override
+    public BitStorage getStorage() {
+        return storage;
+    }
+}
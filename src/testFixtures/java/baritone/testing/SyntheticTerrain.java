@@ -0,0 +1,194 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.testing;
+
+import baritone.api.utils.BetterBlockPos;
+import net.minecraft.world.level.block.Blocks;
+
+/**
+ * Deterministic terrain generators for the benchmarks and tests. The same terrain always generates the exact same blocks, so
+ * the same search always expands the same nodes and results can be compared between runs.
+ */
+public enum SyntheticTerrain {
+
+    FLAT {
+        @Override
+        void generate(SyntheticWorld world) {
+            for (int x = 0; x < world.sizeX; x++) {
+                for (int z = 0; z < world.sizeZ; z++) {
+                    column(world, x, z, 64);
+                }
+            }
+        }
+    },
+    MOUNTAINS {
+        @Override
+        void generate(SyntheticWorld world) {
+            for (int x = 0; x < world.sizeX; x++) {
+                for (int z = 0; z < world.sizeZ; z++) {
+                    int top = 60 + (int) (45 * noise(x / 40D, 0, z / 40D, 1) + 12 * noise(x / 10D, 0, z / 10D, 2));
+                    column(world, x, z, Math.min(top, world.height - 8));
+                }
+            }
+        }
+    },
+    CAVES {
+        @Override
+        void generate(SyntheticWorld world) {
+            for (int x = 0; x < world.sizeX; x++) {
+                for (int z = 0; z < world.sizeZ; z++) {
+                    column(world, x, z, 100);
+                    for (int y = 6; y < 90; y++) {
+                        if (noise(x / 12D, y / 8D, z / 12D, 3) > 0.62) {
+                            world.set(x, y, z, Blocks.AIR.defaultBlockState());
+                        }
+                    }
+                }
+            }
+            room(world, 30);
+        }
+
+        @Override
+        public BetterBlockPos start(SyntheticWorld world) {
+            return new BetterBlockPos(8, 30, 8);
+        }
+    },
+    NETHER {
+        @Override
+        void generate(SyntheticWorld world) {
+            for (int x = 0; x < world.sizeX; x++) {
+                for (int z = 0; z < world.sizeZ; z++) {
+                    world.set(x, 0, z, Blocks.BEDROCK.defaultBlockState());
+                    world.set(x, world.height - 1, z, Blocks.BEDROCK.defaultBlockState());
+                    for (int y = 1; y < world.height - 1; y++) {
+                        if (y < 96 && noise(x / 20D, y / 12D, z / 20D, 4) > 0.5) {
+                            world.set(x, y, z, y < 32 ? Blocks.LAVA.defaultBlockState() : Blocks.AIR.defaultBlockState());
+                        } else {
+                            world.set(x, y, z, Blocks.NETHERRACK.defaultBlockState());
+                        }
+                    }
+                }
+            }
+            room(world, 70);
+        }
+
+        @Override
+        public BetterBlockPos start(SyntheticWorld world) {
+            return new BetterBlockPos(8, 70, 8);
+        }
+    },
+    OCEAN {
+        @Override
+        void generate(SyntheticWorld world) {
+            for (int x = 0; x < world.sizeX; x++) {
+                for (int z = 0; z < world.sizeZ; z++) {
+                    boolean island = noise(x / 25D, 0, z / 25D, 5) > 0.72
+                            || (x < 16 && z < 16)
+                            || (x >= world.sizeX - 16 && z >= world.sizeZ - 16);
+                    int floor = island ? 66 : 40 + (int) (10 * noise(x / 30D, 0, z / 30D, 6));
+                    world.set(x, 0, z, Blocks.BEDROCK.defaultBlockState());
+                    for (int y = 1; y <= floor; y++) {
+                        world.set(x, y, z, y < floor - 4 ? Blocks.STONE.defaultBlockState() : Blocks.SAND.defaultBlockState());
+                    }
+                    for (int y = floor + 1; y <= 62; y++) {
+                        world.set(x, y, z, Blocks.WATER.defaultBlockState());
+                    }
+                }
+            }
+        }
+    };
+
+    /**
+     * Fills the world with this terrain
+     *
+     * @param world An empty world
+     */
+    abstract void generate(SyntheticWorld world);
+
+    /**
+     * @param world A world generated by this terrain
+     * @return Where the player starts, standing in a free spot near the low x low z corner
+     */
+    public BetterBlockPos start(SyntheticWorld world) {
+        return new BetterBlockPos(8, world.standingY(8, 8), 8);
+    }
+
+    public SyntheticWorld create(int sizeX, int height, int sizeZ) {
+        SyntheticWorld world = new SyntheticWorld(sizeX, height, sizeZ);
+        generate(world);
+        return world;
+    }
+
+    /**
+     * Bedrock, stone, dirt, then grass on top at the specified y
+     */
+    private static void column(SyntheticWorld world, int x, int z, int top) {
+        world.set(x, 0, z, Blocks.BEDROCK.defaultBlockState());
+        for (int y = 1; y <= top; y++) {
+            world.set(x, y, z, y == top ? Blocks.GRASS_BLOCK.defaultBlockState() : y >= top - 3 ? Blocks.DIRT.defaultBlockState() : Blocks.STONE.defaultBlockState());
+        }
+    }
+
+    /**
+     * Carves out a small room around the start so that the underground terrains always have somewhere to stand
+     */
+    private static void room(SyntheticWorld world, int floor) {
+        for (int x = 4; x <= 12; x++) {
+            for (int z = 4; z <= 12; z++) {
+                world.set(x, floor - 1, z, Blocks.STONE.defaultBlockState());
+                for (int y = floor; y < floor + 3; y++) {
+                    world.set(x, y, z, Blocks.AIR.defaultBlockState());
+                }
+            }
+        }
+    }
+
+    /**
+     * Smoothly interpolated value noise in [0, 1)
+     */
+    static double noise(double x, double y, double z, int seed) {
+        int x0 = (int) Math.floor(x);
+        int y0 = (int) Math.floor(y);
+        int z0 = (int) Math.floor(z);
+        double fx = smooth(x - x0);
+        double fy = smooth(y - y0);
+        double fz = smooth(z - z0);
+        double result = 0;
+        for (int dx = 0; dx <= 1; dx++) {
+            for (int dy = 0; dy <= 1; dy++) {
+                for (int dz = 0; dz <= 1; dz++) {
+                    double weight = (dx == 0 ? 1 - fx : fx) * (dy == 0 ? 1 - fy : fy) * (dz == 0 ? 1 - fz : fz);
+                    result += weight * lattice(x0 + dx, y0 + dy, z0 + dz, seed);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static double lattice(int x, int y, int z, int seed) {
+        long h = BetterBlockPos.longHash(x, y, z) * 0x9E3779B97F4A7C15L + seed * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        h ^= h >>> 29;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.testing;
+
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size world of block states, generated deterministically by a {@link SyntheticTerrain} instead of loaded from
+ * a client. Everything outside of it counts as unloaded.
+ */
+public final class SyntheticWorld {
+
+    private static final BlockState[] PALETTE = {
+            Blocks.AIR.defaultBlockState(),
+            Blocks.STONE.defaultBlockState(),
+            Blocks.DIRT.defaultBlockState(),
+            Blocks.GRASS_BLOCK.defaultBlockState(),
+            Blocks.SAND.defaultBlockState(),
+            Blocks.GRAVEL.defaultBlockState(),
+            Blocks.WATER.defaultBlockState(),
+            Blocks.LAVA.defaultBlockState(),
+            Blocks.NETHERRACK.defaultBlockState(),
+            Blocks.BEDROCK.defaultBlockState(),
+    };
+
+    public final int sizeX;
+    public final int height;
+    public final int sizeZ;
+
+    /**
+     * Index into {@link #PALETTE} for every position, y major so that a column is contiguous
+     */
+    private final byte[] blocks;
+
+    public SyntheticWorld(int sizeX, int height, int sizeZ) {
+        this.sizeX = sizeX;
+        this.height = height;
+        this.sizeZ = sizeZ;
+        this.blocks = new byte[sizeX * height * sizeZ];
+    }
+
+    private int index(int x, int y, int z) {
+        return (x * sizeZ + z) * height + y;
+    }
+
+    public boolean contains(int x, int z) {
+        return x >= 0 && x < sizeX && z >= 0 && z < sizeZ;
+    }
+
+    public BlockState get(int x, int y, int z) {
+        if (!contains(x, z) || y < 0 || y >= height) {
+            return PALETTE[0];
+        }
+        return PALETTE[blocks[index(x, y, z)]];
+    }
+
+    void set(int x, int y, int z, BlockState state) {
+        int id = Arrays.asList(PALETTE).indexOf(state);
+        if (id < 0) {
+            throw new IllegalArgumentException("Not in the synthetic palette: " + state);
+        }
+        blocks[index(x, y, z)] = (byte) id;
+    }
+
+    /**
+     * @return The highest y in this column where there's room to stand
+     */
+    public int standingY(int x, int z) {
+        for (int y = height - 2; y > 0; y--) {
+            if (get(x, y - 1, z).isAir()) {
+                continue;
+            }
+            if (get(x, y, z).isAir() && get(x, y + 1, z).isAir()) {
+                return y;
+            }
+        }
+        throw new IllegalStateException("Nowhere to stand at " + x + "," + z);
+    }
+}